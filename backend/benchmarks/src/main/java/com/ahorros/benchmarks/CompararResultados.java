@@ -0,0 +1,88 @@
+package com.ahorros.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos archivos de resultados JSON de JMH, por ejemplo de dos builds.
+ *
+ * Para cada benchmark (con sus parámetros y modo) muestra el puntaje de
+ * ambos, el cambio porcentual y si es mejor o peor. Un cambio se considera
+ * real solo si los intervalos de error (99,9 %) no se solapan; si se solapan
+ * se marca como "~". En modo throughput más es mejor; en los de tiempo,
+ * menos.
+ *
+ * Uso:
+ *
+ *   java -cp target/benchmarks.jar com.ahorros.benchmarks.CompararResultados base.json nuevo.json
+ */
+public class CompararResultados {
+
+    private record Resultado(double puntaje, double error, String unidad, boolean masEsMejor) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: CompararResultados <base.json> <nuevo.json>");
+            System.exit(1);
+        }
+        Map<String, Resultado> base = leer(Path.of(args[0]));
+        Map<String, Resultado> nuevo = leer(Path.of(args[1]));
+
+        System.out.printf("%-80s %14s %14s %-10s %9s%n", "Benchmark", "Base", "Nuevo", "Unidad", "Cambio");
+        Map<String, Resultado> todos = new TreeMap<>(base);
+        nuevo.forEach(todos::putIfAbsent);
+        for (String clave : todos.keySet()) {
+            Resultado antes = base.get(clave);
+            Resultado despues = nuevo.get(clave);
+            if (antes == null || despues == null) {
+                Resultado unico = antes != null ? antes : despues;
+                System.out.printf("%-80s %14s %14s %-10s %9s%n", clave,
+                        antes != null ? formatear(antes.puntaje()) : "-",
+                        despues != null ? formatear(despues.puntaje()) : "-",
+                        unico.unidad(), "");
+                continue;
+            }
+            double cambio = (despues.puntaje() - antes.puntaje()) / antes.puntaje() * 100;
+            boolean solapan = Math.abs(despues.puntaje() - antes.puntaje()) <= antes.error() + despues.error();
+            boolean mejor = (cambio > 0) == antes.masEsMejor();
+            String marca = solapan ? "~" : mejor ? "mejor" : "PEOR";
+            System.out.printf("%-80s %14s %14s %-10s %+8.1f%% %s%n", clave,
+                    formatear(antes.puntaje()), formatear(despues.puntaje()), antes.unidad(), cambio, marca);
+        }
+    }
+
+    private static Map<String, Resultado> leer(Path archivo) throws IOException {
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        for (JsonNode corrida : new ObjectMapper().readTree(archivo.toFile())) {
+            StringBuilder clave = new StringBuilder(corrida.path("benchmark").asText()
+                    .replace("com.ahorros.benchmarks.", ""));
+            Iterator<Map.Entry<String, JsonNode>> parametros = corrida.path("params").fields();
+            while (parametros.hasNext()) {
+                Map.Entry<String, JsonNode> parametro = parametros.next();
+                clave.append(' ').append(parametro.getKey()).append('=').append(parametro.getValue().asText());
+            }
+            String modo = corrida.path("mode").asText();
+            clave.append(" [").append(modo).append(']');
+            JsonNode metrica = corrida.path("primaryMetric");
+            double error = metrica.path("scoreError").asDouble(0);
+            resultados.put(clave.toString(), new Resultado(
+                    metrica.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metrica.path("scoreUnit").asText(),
+                    modo.equals("thrpt")));
+        }
+        return resultados;
+    }
+
+    private static String formatear(double valor) {
+        return valor >= 100 ? String.format("%.0f", valor) : String.format("%.3f", valor);
+    }
+}
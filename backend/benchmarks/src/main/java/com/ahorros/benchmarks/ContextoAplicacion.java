@@ -0,0 +1,55 @@
+package com.ahorros.benchmarks;
+
+import com.ahorros.CuentaAhorrosApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inicia la aplicación completa para los benchmarks de servicios y
+ * repositorios.
+ *
+ * Usa la misma configuración que en producción (application.properties del
+ * jar de la API) salvo: un puerto aleatorio, los archivos en
+ * target/benchmarks, el log en WARN para no mezclarlo con la salida de JMH
+ * (la auditoría se sigue escribiendo), y sin grabación de JFR,
+ * límites de retiro ni detección de anomalías, que bloquearían los retiros
+ * repetidos.
+ */
+final class ContextoAplicacion {
+
+    static final String DIRECTORIO = "target/benchmarks";
+
+    private ContextoAplicacion() {
+    }
+
+    /**
+     * @param propiedades Propiedades adicionales o que reemplazan a las de los benchmarks
+     * @return Contexto iniciado
+     */
+    static ConfigurableApplicationContext iniciar(Map<String, Object> propiedades) {
+        Map<String, Object> todas = new HashMap<>();
+        todas.put("server.port", 0);
+        todas.put("spring.devtools.restart.enabled", false);
+        todas.put("logging.level.root", "WARN");
+        todas.put("logs.directorio", DIRECTORIO + "/logs");
+        todas.put("trazas.directorio", DIRECTORIO + "/trazas");
+        todas.put("jfr.continuo", false);
+        todas.put("jfr.directorio", DIRECTORIO + "/jfr");
+        todas.put("anomalias.habilitado", false);
+        todas.put("anomalias.archivo", DIRECTORIO + "/anomalias.dat");
+        todas.put("limites.retiro.habilitado", false);
+        todas.putAll(propiedades);
+        // Como argumentos, para que tengan prioridad sobre application.properties
+        String[] argumentos = todas.entrySet().stream()
+                .map(entrada -> "--" + entrada.getKey() + "=" + entrada.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(CuentaAhorrosApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(argumentos);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ahorros.benchmarks;
+
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.Transaccion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones de saldo de las entidades con BigDecimal: Cuenta.depositar,
+ * Cuenta.retirar y Transaccion.calcularSaldoResultante.
+ *
+ * Los montos tienen la escala de la base de datos (2 decimales). El saldo
+ * parte del máximo que admite la columna (15 dígitos); el retiro lo vuelve
+ * a subir cuando baja demasiado, lo que agrega una comparación a la medida.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DominioBenchmark {
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("9999999999999.99");
+    private static final BigDecimal SALDO_MINIMO = new BigDecimal("1000000000000.00");
+
+    @Param({"10.50", "123456.78"})
+    private String monto;
+
+    private BigDecimal montoDecimal;
+    private Cuenta cuenta;
+    private Transaccion deposito;
+    private Transaccion retiro;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        montoDecimal = new BigDecimal(monto);
+        cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("1000000001");
+        cuenta.setTitular("Titular");
+        cuenta.setSaldo(SALDO_INICIAL);
+        deposito = new Transaccion(Transaccion.TipoTransaccion.DEPOSITO, montoDecimal, cuenta, "Depósito");
+        retiro = new Transaccion(Transaccion.TipoTransaccion.RETIRO, montoDecimal, cuenta, "Retiro");
+    }
+
+    @Benchmark
+    public BigDecimal depositar() {
+        cuenta.depositar(montoDecimal);
+        return cuenta.getSaldo();
+    }
+
+    @Benchmark
+    public BigDecimal retirar() {
+        if (cuenta.getSaldo().compareTo(SALDO_MINIMO) < 0) {
+            cuenta.setSaldo(SALDO_INICIAL);
+        }
+        cuenta.retirar(montoDecimal);
+        return cuenta.getSaldo();
+    }
+
+    @Benchmark
+    public BigDecimal calcularSaldoDeposito() {
+        deposito.calcularSaldoResultante();
+        return deposito.getSaldoResultante();
+    }
+
+    @Benchmark
+    public BigDecimal calcularSaldoRetiro() {
+        retiro.calcularSaldoResultante();
+        return retiro.getSaldoResultante();
+    }
+}
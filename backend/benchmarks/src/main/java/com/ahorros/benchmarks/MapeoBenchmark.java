@@ -0,0 +1,120 @@
+package com.ahorros.benchmarks;
+
+import com.ahorros.dto.CuentaDTO;
+import com.ahorros.dto.TransaccionDTO;
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.Transaccion;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de entidades a DTOs y serialización con Jackson de las listas
+ * que devuelven los endpoints (GET /transacciones, GET /cuentas).
+ *
+ * El ObjectMapper se configura como el de la aplicación: el de Spring Boot
+ * con spring.jackson.default-property-inclusion=non_null y las fechas en
+ * ISO-8601.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapeoBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int tamano;
+
+    private final ObjectMapper mapeador = Jackson2ObjectMapperBuilder.json()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    private List<Cuenta> cuentas;
+    private List<Transaccion> transacciones;
+    private List<CuentaDTO> cuentasDTO;
+    private List<TransaccionDTO> transaccionesDTO;
+
+    @Setup
+    public void preparar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        cuentas = new ArrayList<>(tamano);
+        transacciones = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setId((long) i + 1);
+            cuenta.setNumeroCuenta(String.format("%010d", i + 1));
+            cuenta.setTitular("Titular " + (i + 1));
+            cuenta.setSaldo(new BigDecimal("15230.75").add(BigDecimal.valueOf(i)));
+            cuenta.setFechaCreacion(ahora.minusDays(i));
+            cuenta.setFechaActualizacion(ahora);
+            cuentas.add(cuenta);
+
+            Transaccion transaccion = new Transaccion(
+                    i % 3 == 0 ? Transaccion.TipoTransaccion.RETIRO : Transaccion.TipoTransaccion.DEPOSITO,
+                    new BigDecimal("250.00").add(BigDecimal.valueOf(i % 100)),
+                    cuenta,
+                    "Movimiento " + (i + 1));
+            transaccion.setId((long) i + 1);
+            transaccion.calcularSaldoResultante();
+            transacciones.add(transaccion);
+        }
+        cuentasDTO = cuentasADto();
+        transaccionesDTO = transaccionesADto();
+    }
+
+    @Benchmark
+    public List<CuentaDTO> cuentasADto() {
+        List<CuentaDTO> resultado = new ArrayList<>(cuentas.size());
+        for (Cuenta cuenta : cuentas) {
+            resultado.add(new CuentaDTO(cuenta));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public List<TransaccionDTO> transaccionesADto() {
+        List<TransaccionDTO> resultado = new ArrayList<>(transacciones.size());
+        for (Transaccion transaccion : transacciones) {
+            resultado.add(new TransaccionDTO(transaccion));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public byte[] serializarCuentas() throws JsonProcessingException {
+        return mapeador.writeValueAsBytes(cuentasDTO);
+    }
+
+    @Benchmark
+    public byte[] serializarTransacciones() throws JsonProcessingException {
+        return mapeador.writeValueAsBytes(transaccionesDTO);
+    }
+
+    /**
+     * Lo que hace un endpoint de lista después de leer las entidades.
+     */
+    @Benchmark
+    public byte[] convertirYSerializarTransacciones() throws JsonProcessingException {
+        return mapeador.writeValueAsBytes(transaccionesADto());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ahorros.benchmarks;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por llamada de @Timed en los servicios.
+ *
+ * Compara la misma llamada trivial hecha directamente, a través de un proxy
+ * CGLIB sin consejos y a través de un proxy con el TimedAspect de
+ * MetricasConfig, así la diferencia entre los dos últimos es lo que agrega
+ * medir un método. El timer se configura como ahorros.servicios en la
+ * aplicación: registro de Prometheus, histograma y valores esperados entre
+ * 500 µs y 10 s.
+ *
+ * El camino de TimedAspect es largo y el JIT tarda en compilarlo (más con
+ * pocos núcleos), por eso el calentamiento es más largo que en las demás
+ * suites.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 15, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetricasBenchmark {
+
+    private Servicio directo;
+    private Servicio sinTimed;
+    private ServicioMedido conTimed;
+    private long valor;
+
+    @Setup
+    public void preparar() {
+        PrometheusMeterRegistry registro = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registro.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals("ahorros.servicios")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .minimumExpectedValue((double) Duration.ofNanos(500_000).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        });
+
+        directo = new Servicio();
+
+        ProxyFactory proxy = new ProxyFactory(new Servicio());
+        proxy.setProxyTargetClass(true);
+        sinTimed = (Servicio) proxy.getProxy();
+
+        AspectJProxyFactory proxyMedido = new AspectJProxyFactory(new ServicioMedido());
+        proxyMedido.setProxyTargetClass(true);
+        proxyMedido.addAspect(new TimedAspect(registro));
+        conTimed = proxyMedido.getProxy();
+
+        conTimed.siguiente(0);
+        if (registro.find("ahorros.servicios").timer() == null) {
+            throw new IllegalStateException("El proxy con @Timed no registró el timer ahorros.servicios");
+        }
+    }
+
+    @Benchmark
+    public long llamadaDirecta() {
+        return directo.siguiente(valor++);
+    }
+
+    @Benchmark
+    public long proxySinTimed() {
+        return sinTimed.siguiente(valor++);
+    }
+
+    @Benchmark
+    public long proxyConTimed() {
+        return conTimed.siguiente(valor++);
+    }
+
+    public static class Servicio {
+
+        public long siguiente(long valor) {
+            return valor + 1;
+        }
+    }
+
+    /**
+     * TimedAspect mide los métodos declarados en la clase anotada, así que no
+     * puede heredar siguiente de Servicio.
+     */
+    @Timed(value = "ahorros.servicios", histogram = true)
+    public static class ServicioMedido {
+
+        public long siguiente(long valor) {
+            return valor + 1;
+        }
+    }
+}
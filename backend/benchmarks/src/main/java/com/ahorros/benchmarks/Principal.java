@@ -0,0 +1,72 @@
+package com.ahorros.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Punto de entrada de benchmarks.jar.
+ *
+ * Acepta las mismas opciones que org.openjdk.jmh.Main (filtros, -f, -wi,
+ * -i, -t, -p, -prof...), pero si no se indica otra cosa guarda los
+ * resultados en JSON en resultados/jmh-yyyyMMdd-HHmmss.json, para
+ * compararlos entre builds con {@link CompararResultados}.
+ *
+ * Uso:
+ *
+ *   java -jar target/benchmarks.jar [filtro] [opciones de JMH]
+ */
+public class Principal {
+
+    private static final Path RESULTADOS = Path.of("resultados");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linea;
+        try {
+            linea = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Opciones inválidas: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (linea.shouldHelp()) {
+            linea.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(linea);
+        if (!linea.getResultFormat().hasValue()) {
+            opciones.resultFormat(ResultFormatType.JSON);
+        }
+        if (!linea.getResult().hasValue()) {
+            Files.createDirectories(RESULTADOS);
+            String nombre = "jmh-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+            opciones.result(RESULTADOS.resolve(nombre).toString());
+        }
+
+        Runner runner = new Runner(opciones.build());
+        if (linea.shouldList()) {
+            runner.list();
+            return;
+        }
+        try {
+            runner.run();
+        } catch (NoBenchmarksException e) {
+            System.err.println("Ningún benchmark coincide con el filtro (ver la lista con -l)");
+            System.exit(1);
+        } catch (RunnerException e) {
+            System.err.println("Error al ejecutar los benchmarks: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ahorros.benchmarks;
+
+import com.ahorros.models.Transaccion;
+import com.ahorros.repositories.TransaccionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de TransaccionRepository con 10 mil, 1 millón y 10 millones de
+ * transacciones.
+ *
+ * Los datos se cargan con INSERT ... SELECT en una base H2 en archivo (en
+ * memoria 10 millones de filas no entran en un heap razonable), con
+ * {@value #TRANSACCIONES_POR_CUENTA} transacciones por cuenta repartidas en
+ * el último año. Las consultas por cuenta eligen una cuenta al azar en cada
+ * llamada; totalDepositos recorre la tabla completa y muestra cómo crece con
+ * las filas.
+ *
+ * JMH ejecuta cada benchmark en una JVM nueva, así que la base de cada
+ * tamaño se carga una sola vez en target/benchmarks/h2 y las siguientes
+ * ejecuciones la reutilizan (validando que el esquema coincida con las
+ * entidades). Cargar 10 millones de filas lleva varios minutos; para
+ * regenerarla hay que borrar ese directorio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositorioBenchmark {
+
+    private static final int TRANSACCIONES_POR_CUENTA = 100;
+    private static final long FILAS_POR_LOTE = 50_000;
+    private static final Path BASE = Path.of(ContextoAplicacion.DIRECTORIO, "h2");
+
+    private static final String SQL_CUENTAS =
+            "INSERT INTO cuentas (numero_cuenta, titular, saldo, activa, fecha_creacion, fecha_actualizacion, " +
+            "flujo_neto, saldo_retenido, perfil_limites) " +
+            "SELECT LPAD(CAST(X AS VARCHAR), 10, '0'), 'Titular ' || X, 1000.00, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, " +
+            "0, 0, 'ESTANDAR' FROM SYSTEM_RANGE(?, ?)";
+
+    private static final String SQL_TRANSACCIONES =
+            "INSERT INTO transacciones (tipo, monto, saldo_resultante, descripcion, fecha_transaccion, cuenta_id) " +
+            "SELECT CASE WHEN MOD(X, 3) = 0 THEN 'RETIRO' ELSE 'DEPOSITO' END, MOD(X, 1000) + 0.50, 1000.00, " +
+            "'Movimiento ' || X, DATEADD(SECOND, -MOD(X * 7919, 31536000), CURRENT_TIMESTAMP), " +
+            "? + MOD(X, ?) FROM SYSTEM_RANGE(?, ?)";
+
+    @Param({"10000", "1000000", "10000000"})
+    private long filas;
+
+    private ConfigurableApplicationContext contexto;
+    private TransaccionRepository transaccionRepository;
+    private long primeraCuenta;
+    private long cuentas;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException, SQLException {
+        String nombre = "transacciones-" + filas;
+        String url = "jdbc:h2:file:./" + BASE.resolve(nombre).toString().replace('\\', '/') + ";CACHE_SIZE=524288";
+        Path lista = BASE.resolve(nombre + ".lista");
+        if (!Files.exists(lista)) {
+            Files.deleteIfExists(BASE.resolve(nombre + ".mv.db"));
+            Files.deleteIfExists(BASE.resolve(nombre + ".trace.db"));
+            cargar(url);
+            Files.createFile(lista);
+        }
+        contexto = ContextoAplicacion.iniciar(Map.of(
+                "spring.datasource.url", url,
+                "spring.jpa.hibernate.ddl-auto", "validate"));
+        transaccionRepository = contexto.getBean(TransaccionRepository.class);
+        Map<String, Object> rango = contexto.getBean(JdbcTemplate.class)
+                .queryForMap("SELECT MIN(id) AS primera, COUNT(*) AS cantidad FROM cuentas");
+        primeraCuenta = ((Number) rango.get("primera")).longValue();
+        cuentas = ((Number) rango.get("cantidad")).longValue();
+    }
+
+    /**
+     * Crea la base y la carga por lotes; al terminar la compacta, porque
+     * la carga deja el archivo varias veces más grande que los datos.
+     */
+    private void cargar(String url) throws SQLException {
+        try (ConfigurableApplicationContext carga = ContextoAplicacion.iniciar(Map.of(
+                "spring.datasource.url", url,
+                "spring.jpa.hibernate.ddl-auto", "create"))) {
+            JdbcTemplate jdbc = carga.getBean(JdbcTemplate.class);
+            long totalCuentas = Math.max(1, filas / TRANSACCIONES_POR_CUENTA);
+            for (long desde = 1; desde <= totalCuentas; desde += FILAS_POR_LOTE) {
+                jdbc.update(SQL_CUENTAS, desde, Math.min(totalCuentas, desde + FILAS_POR_LOTE - 1));
+            }
+            long primera = jdbc.queryForObject("SELECT MIN(id) FROM cuentas", Long.class);
+            for (long desde = 1; desde <= filas; desde += FILAS_POR_LOTE) {
+                jdbc.update(SQL_TRANSACCIONES, primera, totalCuentas, desde, Math.min(filas, desde + FILAS_POR_LOTE - 1));
+            }
+            jdbc.execute("ANALYZE");
+        }
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("SHUTDOWN COMPACT");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    private long cuentaAlAzar() {
+        return primeraCuenta + ThreadLocalRandom.current().nextLong(cuentas);
+    }
+
+    @Benchmark
+    public List<Transaccion> historialCuenta() {
+        return transaccionRepository.findByCuentaIdOrderByFechaTransaccionDesc(cuentaAlAzar());
+    }
+
+    @Benchmark
+    public List<Transaccion> depositosCuenta() {
+        return transaccionRepository.findByCuentaIdAndTipo(cuentaAlAzar(), Transaccion.TipoTransaccion.DEPOSITO);
+    }
+
+    @Benchmark
+    public BigDecimal totalDepositosCuenta() {
+        return transaccionRepository.getTotalDepositosByCuentaId(cuentaAlAzar());
+    }
+
+    @Benchmark
+    public long contarCuenta() {
+        return transaccionRepository.countByCuentaId(cuentaAlAzar());
+    }
+
+    @Benchmark
+    public List<Transaccion> recientes() {
+        return transaccionRepository.findTopTransaccionesRecientes(20);
+    }
+
+    @Benchmark
+    public BigDecimal totalDepositos() {
+        return transaccionRepository.getTotalDepositos();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ahorros.benchmarks;
+
+import com.ahorros.dto.TransaccionDTO;
+import com.ahorros.models.Cuenta;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.services.TransaccionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * realizarDeposito y realizarRetiro de punta a punta contra H2 en memoria,
+ * con 1, 8 y 64 hilos.
+ *
+ * Pasa por todo lo que hace la operación en la aplicación: el proxy
+ * transaccional, las métricas, las trazas, las sentencias SQL medidas, el
+ * pool de Hikari (10 conexiones) y la auditoría. Cada hilo opera sobre su
+ * propia cuenta, así que lo que se mide al subir los hilos es la
+ * competencia por las conexiones y por H2, no por la misma fila. Cada
+ * benchmark inicia la aplicación en su propia JVM.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TransaccionServiceBenchmark {
+
+    private static final int MAX_HILOS = 64;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000000.00");
+    private static final BigDecimal MONTO = new BigDecimal("10.50");
+
+    @State(Scope.Benchmark)
+    public static class Aplicacion {
+
+        ConfigurableApplicationContext contexto;
+        TransaccionService transaccionService;
+        final List<Long> cuentas = new ArrayList<>(MAX_HILOS);
+        final AtomicInteger siguiente = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            contexto = ContextoAplicacion.iniciar(Map.of());
+            transaccionService = contexto.getBean(TransaccionService.class);
+            CuentaRepository cuentaRepository = contexto.getBean(CuentaRepository.class);
+            for (int i = 0; i < MAX_HILOS; i++) {
+                Cuenta cuenta = new Cuenta();
+                cuenta.setNumeroCuenta(String.format("9%09d", i));
+                cuenta.setTitular("Benchmark " + i);
+                cuenta.setSaldo(SALDO_INICIAL);
+                cuentas.add(cuentaRepository.save(cuenta).getId());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            contexto.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Hilo {
+
+        TransaccionDTO deposito;
+        TransaccionDTO retiro;
+
+        @Setup(Level.Trial)
+        public void asignarCuenta(Aplicacion aplicacion) {
+            Long cuentaId = aplicacion.cuentas.get(aplicacion.siguiente.getAndIncrement() % MAX_HILOS);
+            deposito = new TransaccionDTO("DEPOSITO", MONTO, cuentaId, "Depósito de benchmark");
+            retiro = new TransaccionDTO("RETIRO", MONTO, cuentaId, "Retiro de benchmark");
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransaccionDTO depositar1Hilo(Aplicacion aplicacion, Hilo hilo) {
+        return aplicacion.transaccionService.realizarDeposito(hilo.deposito);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransaccionDTO depositar8Hilos(Aplicacion aplicacion, Hilo hilo) {
+        return aplicacion.transaccionService.realizarDeposito(hilo.deposito);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public TransaccionDTO depositar64Hilos(Aplicacion aplicacion, Hilo hilo) {
+        return aplicacion.transaccionService.realizarDeposito(hilo.deposito);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransaccionDTO retirar1Hilo(Aplicacion aplicacion, Hilo hilo) {
+        return aplicacion.transaccionService.realizarRetiro(hilo.retiro);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TransaccionDTO retirar8Hilos(Aplicacion aplicacion, Hilo hilo) {
+        return aplicacion.transaccionService.realizarRetiro(hilo.retiro);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public TransaccionDTO retirar64Hilos(Aplicacion aplicacion, Hilo hilo) {
+        return aplicacion.transaccionService.realizarRetiro(hilo.retiro);
+    }
+}
@@ -0,0 +1,153 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de throughput y latencia para comparar los modos de ejecución.
+ *
+ * Mide un endpoint de lectura (GET /cuentas/{id}) y uno de escritura
+ * (POST /transacciones/deposito) con N clientes concurrentes durante un
+ * tiempo fijo, y reporta solicitudes por segundo, p50, p99 y errores.
+ *
+ * Uso (con la aplicación ya iniciada en el modo a medir):
+ *
+ *   java scripts/BenchmarkModoEjecucion.java [urlBase] [clientes] [segundos]
+ *
+ * Por defecto: http://localhost:8080/api, 200 clientes, 20 segundos.
+ * Para comparar, ejecutarlo una vez con spring.threads.virtual.enabled=false
+ * y otra con true, reiniciando la aplicación entre ambas.
+ */
+public class BenchmarkModoEjecucion {
+
+    private static final int CUENTAS = 50;
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws Exception {
+        String urlBase = args.length > 0 ? args[0] : "http://localhost:8080/api";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duracion = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long[] cuentas = crearCuentas(http, urlBase);
+
+        System.out.printf("Benchmark contra %s con %d clientes durante %d s%n",
+                urlBase, clientes, duracion.toSeconds());
+
+        Escenario lectura = (cliente, i) -> HttpRequest.newBuilder(
+                        URI.create(urlBase + "/cuentas/" + cuentas[(cliente + i) % cuentas.length]))
+                .GET().build();
+        Escenario deposito = (cliente, i) -> HttpRequest.newBuilder(URI.create(urlBase + "/transacciones/deposito"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"cuentaId\":" + cuentas[(cliente + i) % cuentas.length]
+                                + ",\"monto\":1.00,\"descripcion\":\"benchmark\"}"))
+                .build();
+
+        ejecutar(http, "calentamiento", lectura, clientes, CALENTAMIENTO, false);
+        ejecutar(http, "lectura  GET /cuentas/{id}", lectura, clientes, duracion, true);
+        ejecutar(http, "depósito POST /transacciones/deposito", deposito, clientes, duracion, true);
+    }
+
+    private static long[] crearCuentas(HttpClient http, String urlBase) throws Exception {
+        long[] ids = new long[CUENTAS];
+        long prefijo = System.currentTimeMillis() % 1_000_000;
+        for (int i = 0; i < CUENTAS; i++) {
+            String cuerpo = String.format(
+                    "{\"numeroCuenta\":\"%06d%04d\",\"titular\":\"Benchmark %d\",\"saldo\":1000}", prefijo, i, i);
+            HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(URI.create(urlBase + "/cuentas"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 201) {
+                throw new IllegalStateException("No se pudo crear la cuenta: " + respuesta.statusCode()
+                        + " " + respuesta.body());
+            }
+            String json = respuesta.body();
+            int inicio = json.indexOf("\"id\":") + 5;
+            int fin = inicio;
+            while (Character.isDigit(json.charAt(fin))) {
+                fin++;
+            }
+            ids[i] = Long.parseLong(json.substring(inicio, fin));
+        }
+        return ids;
+    }
+
+    private static void ejecutar(HttpClient http, String nombre, Escenario escenario, int clientes,
+                                 Duration duracion, boolean reportar) throws Exception {
+        long fin = System.nanoTime() + duracion.toNanos();
+        AtomicLong errores = new AtomicLong();
+        List<Future<long[]>> resultados = new ArrayList<>();
+
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                resultados.add(ejecutor.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int n = 0;
+                    for (int i = 0; System.nanoTime() < fin; i++) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = http.send(escenario.solicitud(cliente, i),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() >= 400) {
+                                errores.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                        if (n == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, n * 2);
+                        }
+                        latencias[n++] = System.nanoTime() - inicio;
+                    }
+                    return Arrays.copyOf(latencias, n);
+                }));
+            }
+        }
+
+        if (!reportar) {
+            return;
+        }
+
+        long[] todas = resultados.stream().flatMapToLong(f -> {
+            try {
+                return Arrays.stream(f.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).sorted().toArray();
+
+        System.out.printf("%-40s %8.0f req/s   p50 %7.2f ms   p99 %7.2f ms   errores %d de %d%n",
+                nombre,
+                todas.length / (double) duracion.toSeconds(),
+                percentil(todas, 0.50) / 1_000_000.0,
+                percentil(todas, 0.99) / 1_000_000.0,
+                errores.get(), todas.length);
+    }
+
+    private static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(p * ordenadas.length) - 1)];
+    }
+
+    @FunctionalInterface
+    private interface Escenario {
+        HttpRequest solicitud(int cliente, int iteracion);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ahorros.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender de Logback que cuenta los eventos que descarta.
+ *
+ * Los eventos pasan por una cola acotada y los escribe un hilo aparte. Con
+ * la cola casi llena (menos de discardingThreshold lugares) se descartan
+ * TRACE, DEBUG e INFO, y con neverBlock se descarta cualquier evento si está
+ * llena, así el logging nunca frena una solicitud. La cuenta queda en el
+ * contexto de Logback bajo {@link #DESCARTADOS}; es aproximada porque la
+ * cola puede cambiar entre la revisión y el encolado.
+ */
+public class AppenderAsincrono extends AsyncAppender {
+
+    /**
+     * Clave del contexto de Logback con el LongAdder de eventos descartados.
+     */
+    public static final String DESCARTADOS = "ahorros.logs.descartados";
+
+    private final LongAdder descartados = new LongAdder();
+
+    @Override
+    public void start() {
+        getContext().putObject(DESCARTADOS, descartados);
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent evento) {
+        int libres = getRemainingCapacity();
+        if ((libres == 0 && isNeverBlock()) || (libres < getDiscardingThreshold() && isDiscardable(evento))) {
+            descartados.increment();
+        }
+        super.append(evento);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ahorros.config;
+
+import com.ahorros.dto.CuentaDTO;
+import com.ahorros.dto.FiltroTransaccionDTO;
+import com.ahorros.dto.TransaccionDTO;
+import com.ahorros.services.MonitorCarga;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra en el {@link MonitorCarga} cada llamada a los métodos públicos de
+ * CuentaService y TransaccionService.
+ *
+ * La cuenta y el usuario se toman de los argumentos: parámetros Long
+ * llamados cuentaId o usuarioId (o id en CuentaService), y los campos
+ * cuentaId, id y usuarioId de los DTO. Qué argumento aporta cada clave se
+ * decide una sola vez por método. El endpoint es el método HTTP y el patrón
+ * de la ruta (por ejemplo GET /cuentas/{id}), así su número es acotado; las
+ * llamadas fuera de una solicitud HTTP se registran sin endpoint.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AspectoCarga {
+
+    private final MonitorCarga monitorCarga;
+
+    private final Map<Method, Extractor> extractores = new ConcurrentHashMap<>();
+
+    @Before("execution(public * com.ahorros.services.CuentaService.*(..))"
+            + " || execution(public * com.ahorros.services.TransaccionService.*(..))")
+    public void registrar(JoinPoint punto) {
+        MethodSignature firma = (MethodSignature) punto.getSignature();
+        Extractor extractor = extractores.computeIfAbsent(firma.getMethod(), metodo -> crearExtractor(firma));
+        Object[] argumentos = punto.getArgs();
+        monitorCarga.registrar(extractor.cuentaId(argumentos), extractor.usuarioId(argumentos), endpoint());
+    }
+
+    private static String endpoint() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes servlet)) {
+            return null;
+        }
+        HttpServletRequest request = servlet.getRequest();
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return patron != null ? request.getMethod() + " " + patron : null;
+    }
+
+    private static Extractor crearExtractor(MethodSignature firma) {
+        String[] nombres = firma.getParameterNames();
+        Class<?>[] tipos = firma.getParameterTypes();
+        boolean servicioCuentas = firma.getDeclaringType().getSimpleName().equals("CuentaService");
+        int cuenta = -1;
+        int usuario = -1;
+        for (int i = 0; i < tipos.length; i++) {
+            if (tipos[i] == Long.class) {
+                if (nombres[i].equals("cuentaId") || (servicioCuentas && nombres[i].equals("id"))) {
+                    cuenta = i;
+                } else if (nombres[i].equals("usuarioId")) {
+                    usuario = i;
+                }
+            } else if (tipos[i] == CuentaDTO.class || tipos[i] == TransaccionDTO.class
+                    || tipos[i] == FiltroTransaccionDTO.class) {
+                cuenta = cuenta < 0 ? i : cuenta;
+                usuario = usuario < 0 && tipos[i] == CuentaDTO.class ? i : usuario;
+            }
+        }
+        return new Extractor(cuenta, usuario);
+    }
+
+    /**
+     * Posición de los argumentos con la cuenta y el usuario, o -1 si no hay.
+     */
+    private record Extractor(int cuenta, int usuario) {
+
+        Long cuentaId(Object[] argumentos) {
+            if (cuenta < 0) {
+                return null;
+            }
+            return switch (argumentos[cuenta]) {
+                case Long id -> id;
+                case CuentaDTO dto -> dto.getId();
+                case TransaccionDTO dto -> dto.getCuentaId();
+                case FiltroTransaccionDTO dto -> dto.getCuentaId();
+                case null, default -> null;
+            };
+        }
+
+        Long usuarioId(Object[] argumentos) {
+            if (usuario < 0) {
+                return null;
+            }
+            return switch (argumentos[usuario]) {
+                case Long id -> id;
+                case CuentaDTO dto -> dto.getUsuarioId();
+                case null, default -> null;
+            };
+        }
+    }
+}
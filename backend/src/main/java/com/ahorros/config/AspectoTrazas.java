@@ -0,0 +1,123 @@
+package com.ahorros.config;
+
+import com.ahorros.services.Trazador;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Crea los spans del {@link Trazador} para los controladores, los servicios
+ * (*Service, incluido NotificacionService) y los repositorios.
+ *
+ * El span de un controlador es de tipo servidor y se llama como el endpoint
+ * (por ejemplo POST /transacciones/retiro); lleva el método HTTP, la ruta y
+ * el código de respuesta, y se marca como fallido si la respuesta es 5xx.
+ * Los de servicios y repositorios se llaman Clase.metodo. Una excepción
+ * marca el span como fallido aunque otra capa la capture después, así la
+ * traza se conserva en el muestreo.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AspectoTrazas {
+
+    private final Trazador trazador;
+
+    /**
+     * Nombre del span por clase del proxy y método; los métodos heredados de
+     * Spring Data son los mismos en todos los repositorios.
+     */
+    private final Map<Class<?>, Map<Method, String>> nombres = new ConcurrentHashMap<>();
+
+    @Around("within(com.ahorros.controllers..*) && execution(public * *(..))")
+    public Object trazarControlador(ProceedingJoinPoint punto) throws Throwable {
+        HttpServletRequest request = request();
+        Object patron = request != null ? request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) : null;
+        String nombre = request != null ? request.getMethod() + " " + patron : nombre(punto);
+        Trazador.Span span = trazador.iniciar(nombre, Trazador.TipoSpan.SERVIDOR, false);
+        if (span != null && request != null) {
+            span.atributo("http.request.method", request.getMethod())
+                    .atributo("http.route", patron != null ? patron.toString() : null)
+                    .atributo("code.function", nombre(punto));
+        }
+        Object resultado;
+        try {
+            resultado = punto.proceed();
+        } catch (Throwable e) {
+            trazador.terminar(span, e);
+            throw e;
+        }
+        if (span != null && resultado instanceof ResponseEntity<?> respuesta) {
+            int estado = respuesta.getStatusCode().value();
+            span.atributo("http.response.status_code", estado);
+            if (estado >= 500) {
+                trazador.marcarError(span, "HTTP " + estado);
+            }
+        }
+        trazador.terminar(span, null);
+        return resultado;
+    }
+
+    @Around("execution(public * com.ahorros.services.*Service.*(..))")
+    public Object trazarServicio(ProceedingJoinPoint punto) throws Throwable {
+        return trazar(punto, false);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object trazarRepositorio(ProceedingJoinPoint punto) throws Throwable {
+        return trazar(punto, true);
+    }
+
+    private Object trazar(ProceedingJoinPoint punto, boolean soloDentroDeTraza) throws Throwable {
+        Trazador.Span span = trazador.iniciar(nombre(punto), Trazador.TipoSpan.INTERNO, soloDentroDeTraza);
+        Object resultado;
+        try {
+            resultado = punto.proceed();
+        } catch (Throwable e) {
+            trazador.terminar(span, e);
+            throw e;
+        }
+        trazador.terminar(span, null);
+        return resultado;
+    }
+
+    /**
+     * Clase.metodo, con la interfaz propia del repositorio en lugar de la
+     * interfaz de Spring Data que declara el método (save, findById...).
+     */
+    private String nombre(ProceedingJoinPoint punto) {
+        Method metodo = ((MethodSignature) punto.getSignature()).getMethod();
+        Map<Method, String> porMetodo = nombres.computeIfAbsent(punto.getThis().getClass(), c -> new ConcurrentHashMap<>());
+        return porMetodo.computeIfAbsent(metodo, m -> {
+            Class<?> clase = m.getDeclaringClass();
+            if (clase.getName().startsWith("org.springframework.data.")) {
+                for (Class<?> interfaz : ClassUtils.getAllInterfaces(punto.getThis())) {
+                    if (interfaz.getName().startsWith("com.ahorros.repositories.")) {
+                        clase = interfaz;
+                        break;
+                    }
+                }
+            }
+            return clase.getSimpleName() + "." + m.getName();
+        });
+    }
+
+    private static HttpServletRequest request() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos instanceof ServletRequestAttributes servlet ? servlet.getRequest() : null;
+    }
+}
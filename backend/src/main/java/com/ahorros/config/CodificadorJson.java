@@ -0,0 +1,100 @@
+package com.ahorros.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.event.KeyValuePair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificador de Logback que escribe cada evento como una línea JSON.
+ *
+ * Los campos son timestamp, level, thread, logger y message, más los valores
+ * del MDC, los pares clave/valor del evento (log.atInfo().addKeyValue(...))
+ * y exception con la pila si la hay. Se usan los nombres habituales en
+ * inglés para que Loki, Elasticsearch o CloudWatch los reconozcan sin
+ * configuración. Los números, incluidos los BigDecimal, se escriben como
+ * números JSON.
+ *
+ * Cada hilo reutiliza su búfer, así que codificar un evento solo crea el
+ * arreglo de bytes resultante.
+ */
+public class CodificadorJson extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] VACIO = new byte[0];
+    private static final int MAX_BUFER_REUTILIZADO = 64 * 1024;
+
+    private final JsonFactory fabrica = new JsonFactory();
+    private final ThreadLocal<ByteArrayOutputStream> buferes =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent evento) {
+        ByteArrayOutputStream bytes = buferes.get();
+        bytes.reset();
+        try (JsonGenerator json = fabrica.createGenerator(bytes, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", DateTimeFormatter.ISO_INSTANT.format(evento.getInstant()));
+            json.writeStringField("level", evento.getLevel().levelStr);
+            json.writeStringField("thread", evento.getThreadName());
+            json.writeStringField("logger", evento.getLoggerName());
+            json.writeStringField("message", evento.getFormattedMessage());
+            for (Map.Entry<String, String> entrada : evento.getMDCPropertyMap().entrySet()) {
+                json.writeStringField(entrada.getKey(), entrada.getValue());
+            }
+            List<KeyValuePair> pares = evento.getKeyValuePairs();
+            if (pares != null) {
+                for (KeyValuePair par : pares) {
+                    escribirValor(json, par.key, par.value);
+                }
+            }
+            IThrowableProxy error = evento.getThrowableProxy();
+            if (error != null) {
+                json.writeStringField("exception", ThrowableProxyUtil.asString(error));
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            addError("No se pudo codificar el evento en JSON", e);
+            return VACIO;
+        }
+        bytes.write('\n');
+        byte[] linea = bytes.toByteArray();
+        if (bytes.size() > MAX_BUFER_REUTILIZADO) {
+            // Un evento enorme (una pila larga) no deja el búfer grande para siempre
+            buferes.remove();
+        }
+        return linea;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private static void escribirValor(JsonGenerator json, String clave, Object valor) throws IOException {
+        switch (valor) {
+            case null -> json.writeNullField(clave);
+            case BigDecimal decimal -> json.writeNumberField(clave, decimal);
+            case Integer entero -> json.writeNumberField(clave, entero);
+            case Long entero -> json.writeNumberField(clave, entero);
+            case Number numero -> json.writeNumberField(clave, numero.doubleValue());
+            case Boolean booleano -> json.writeBooleanField(clave, booleano);
+            default -> json.writeStringField(clave, valor.toString());
+        }
+    }
+}
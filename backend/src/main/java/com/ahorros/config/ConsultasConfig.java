@@ -0,0 +1,56 @@
+package com.ahorros.config;
+
+import com.ahorros.services.EstadisticasConsultas;
+import com.ahorros.services.PresupuestoConsultas;
+import com.ahorros.services.Trazador;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuración de la medición de sentencias SQL.
+ *
+ * Envuelve el DataSource de la aplicación en un {@link DataSourceMedido}
+ * para que cada sentencia quede registrada por firma en
+ * {@link EstadisticasConsultas} (ver /api/admin/queries) y se cuente en la
+ * solicitud HTTP que la ejecuta, cuyo {@link PresupuestoSql} controla el
+ * {@link InterceptorPresupuestoSql}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ConsultasConfig implements WebMvcConfigurer {
+
+    private final PresupuestoConsultas presupuesto;
+
+    /**
+     * Es estático para registrarse antes que el resto de los beans de la
+     * configuración; las estadísticas se obtienen recién al envolver el
+     * DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor medicionDataSource(ObjectProvider<EstadisticasConsultas> estadisticas,
+                                                       ObjectProvider<PresupuestoConsultas> presupuesto,
+                                                       ObjectProvider<Trazador> trazador) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceMedido)) {
+                    return new DataSourceMedido(dataSource, estadisticas.getObject(), presupuesto.getObject(),
+                            trazador.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registro) {
+        registro.addInterceptor(new InterceptorPresupuestoSql(presupuesto));
+    }
+}
@@ -0,0 +1,273 @@
+package com.ahorros.config;
+
+import com.ahorros.services.EstadisticasConsultas;
+import com.ahorros.services.PresupuestoConsultas;
+import com.ahorros.services.Trazador;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * DataSource que mide cada sentencia SQL y la registra en
+ * {@link EstadisticasConsultas}.
+ *
+ * Envuelve las conexiones, sentencias y ResultSet del pool en proxies
+ * dinámicos. Las sentencias guardan los parámetros que se les asignan
+ * (setInt, setString, ...) para poder mostrarlos si la ejecución es lenta, y
+ * los ResultSet cuentan las filas leídas. Cada ejecución también se cuenta
+ * en la solicitud HTTP en curso ({@link PresupuestoConsultas}) y, dentro de
+ * una traza, se registra como un span con la firma de la sentencia
+ * ({@link Trazador}). El pool sigue accesible con unwrap, así sus métricas
+ * no cambian.
+ */
+public class DataSourceMedido extends DelegatingDataSource {
+
+    private final EstadisticasConsultas estadisticas;
+    private final PresupuestoConsultas presupuesto;
+    private final Trazador trazador;
+
+    /**
+     * Motor de base de datos (atributo db.system de los spans), leído de la primera conexión
+     */
+    private volatile String sistema;
+
+    /**
+     * @param destino DataSource real (el pool de conexiones)
+     * @param estadisticas Destino de las mediciones
+     * @param presupuesto Contador de sentencias por solicitud
+     * @param trazador Trazador para los spans de SQL
+     */
+    public DataSourceMedido(DataSource destino, EstadisticasConsultas estadisticas, PresupuestoConsultas presupuesto,
+                            Trazador trazador) {
+        super(destino);
+        this.estadisticas = estadisticas;
+        this.presupuesto = presupuesto;
+        this.trazador = trazador;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        return envolverConexion(super.getConnection(), inicio);
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        long inicio = System.nanoTime();
+        return envolverConexion(super.getConnection(usuario, clave), inicio);
+    }
+
+    private Connection envolverConexion(Connection conexion, long inicio) throws SQLException {
+        estadisticas.registrarEsperaConexion(System.nanoTime() - inicio);
+        if (sistema == null) {
+            sistema = conexion.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        }
+        return envolver(Connection.class, new ConexionMedida(conexion));
+    }
+
+    private static <T> T envolver(Class<T> tipo, Manejador<?> manejador) {
+        manejador.proxy = Proxy.newProxyInstance(DataSourceMedido.class.getClassLoader(), new Class<?>[]{tipo}, manejador);
+        return tipo.cast(manejador.proxy);
+    }
+
+    /**
+     * Base de los proxies: delega en el objeto real y resuelve equals y
+     * hashCode sobre el propio proxy (Hibernate usa sentencias como claves de mapas).
+     */
+    private abstract static class Manejador<T> implements InvocationHandler {
+
+        protected final T destino;
+        protected Object proxy;
+
+        Manejador(T destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            switch (metodo.getName()) {
+                case "equals":
+                    return proxy == argumentos[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return destino.toString();
+                default:
+                    return interceptar(metodo, argumentos);
+            }
+        }
+
+        abstract Object interceptar(Method metodo, Object[] argumentos) throws Throwable;
+
+        protected Object delegar(Method metodo, Object[] argumentos) throws Throwable {
+            try {
+                return metodo.invoke(destino, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConexionMedida extends Manejador<Connection> {
+
+        ConexionMedida(Connection destino) {
+            super(destino);
+        }
+
+        @Override
+        Object interceptar(Method metodo, Object[] argumentos) throws Throwable {
+            Object resultado = delegar(metodo, argumentos);
+            return switch (metodo.getName()) {
+                case "createStatement" -> envolver(Statement.class,
+                        new SentenciaMedida((Statement) resultado, null, proxy));
+                case "prepareStatement" -> envolver(PreparedStatement.class,
+                        new SentenciaMedida((Statement) resultado, (String) argumentos[0], proxy));
+                case "prepareCall" -> envolver(CallableStatement.class,
+                        new SentenciaMedida((Statement) resultado, (String) argumentos[0], proxy));
+                default -> resultado;
+            };
+        }
+    }
+
+    private final class SentenciaMedida extends Manejador<Statement> {
+
+        private final String sqlPreparado;
+        private final EstadisticasConsultas.Consulta consultaPreparada;
+        private final Object conexion;
+        private Object[] parametros;
+        private int cantidadParametros;
+        private EstadisticasConsultas.Consulta ultimaConsulta;
+
+        SentenciaMedida(Statement destino, String sqlPreparado, Object conexion) {
+            super(destino);
+            this.sqlPreparado = sqlPreparado;
+            this.consultaPreparada = sqlPreparado != null ? estadisticas.consulta(sqlPreparado, false) : null;
+            this.conexion = conexion;
+        }
+
+        @Override
+        Object interceptar(Method metodo, Object[] argumentos) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                return ejecutar(metodo, argumentos);
+            }
+            if (nombre.startsWith("set") && argumentos != null && argumentos.length >= 2
+                    && argumentos[0] instanceof Integer indice) {
+                guardarParametro(indice, nombre.equals("setNull") ? null : argumentos[1]);
+            } else if (nombre.equals("clearParameters")) {
+                cantidadParametros = 0;
+            } else if (nombre.equals("getConnection")) {
+                return conexion;
+            }
+            Object resultado = delegar(metodo, argumentos);
+            if (resultado instanceof ResultSet resultSet && nombre.equals("getResultSet") && ultimaConsulta != null) {
+                return envolver(ResultSet.class, new ResultadoMedido(resultSet, ultimaConsulta, proxy));
+            }
+            return resultado;
+        }
+
+        private Object ejecutar(Method metodo, Object[] argumentos) throws Throwable {
+            presupuesto.contar();
+            String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                    ? texto : sqlPreparado;
+            if (sql == null) {
+                // executeBatch de un Statement sin SQL propio
+                return delegar(metodo, argumentos);
+            }
+            EstadisticasConsultas.Consulta consulta = sql == sqlPreparado ? consultaPreparada : estadisticas.consulta(sql, true);
+            ultimaConsulta = consulta;
+            Trazador.Span span = iniciarSpan(consulta);
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = delegar(metodo, argumentos);
+            } catch (Throwable e) {
+                trazador.terminar(span, e);
+                throw e;
+            }
+            long nanos = System.nanoTime() - inicio;
+
+            long filas = switch (resultado) {
+                case Integer cantidad -> Math.max(cantidad, 0);
+                case Long cantidad -> Math.max(cantidad, 0);
+                case int[] cantidades -> Arrays.stream(cantidades).filter(c -> c > 0).sum();
+                case long[] cantidades -> Arrays.stream(cantidades).filter(c -> c > 0).sum();
+                case null, default -> 0;
+            };
+            estadisticas.registrar(consulta, sql, nanos, filas, parametros, cantidadParametros);
+            if (span != null && filas > 0) {
+                span.atributo("db.rows_affected", filas);
+            }
+            trazador.terminar(span, null);
+            if (resultado instanceof ResultSet resultSet) {
+                return envolver(ResultSet.class, new ResultadoMedido(resultSet, consulta, proxy));
+            }
+            return resultado;
+        }
+
+        private Trazador.Span iniciarSpan(EstadisticasConsultas.Consulta consulta) {
+            String firma = consulta.getFirma();
+            int espacio = firma.indexOf(' ');
+            String operacion = (espacio > 0 ? firma.substring(0, espacio) : firma).toUpperCase(Locale.ROOT);
+            Trazador.Span span = trazador.iniciar("SQL " + operacion, Trazador.TipoSpan.CLIENTE, true);
+            if (span != null) {
+                span.atributo("db.system", sistema)
+                        .atributo("db.operation", operacion)
+                        .atributo("db.statement", firma);
+            }
+            return span;
+        }
+
+        private void guardarParametro(int indice, Object valor) {
+            if (indice < 1) {
+                return;
+            }
+            if (parametros == null || parametros.length <= indice) {
+                parametros = parametros == null ? new Object[Math.max(indice + 1, 8)]
+                        : Arrays.copyOf(parametros, Math.max(indice + 1, parametros.length * 2));
+            }
+            parametros[indice] = valor;
+            cantidadParametros = Math.max(cantidadParametros, indice);
+        }
+    }
+
+    private static final class ResultadoMedido extends Manejador<ResultSet> {
+
+        private final EstadisticasConsultas.Consulta consulta;
+        private final Object sentencia;
+
+        ResultadoMedido(ResultSet destino, EstadisticasConsultas.Consulta consulta, Object sentencia) {
+            super(destino);
+            this.consulta = consulta;
+            this.sentencia = sentencia;
+        }
+
+        @Override
+        Object interceptar(Method metodo, Object[] argumentos) throws Throwable {
+            Object resultado = delegar(metodo, argumentos);
+            switch (metodo.getName()) {
+                case "next":
+                    if (Boolean.TRUE.equals(resultado)) {
+                        consulta.sumarFila();
+                    }
+                    return resultado;
+                case "getStatement":
+                    return sentencia;
+                default:
+                    return resultado;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ahorros.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta hilos virtuales fijados (pinned) a su hilo portador.
+ *
+ * Un hilo virtual que bloquea dentro de un bloque synchronized (o en código
+ * nativo) no libera su portador, y con pocos portadores eso anula la ventaja
+ * de los hilos virtuales. La JVM emite el evento JFR jdk.VirtualThreadPinned
+ * en esos casos; este detector lo escucha en proceso y registra los bloqueos
+ * que superan el umbral, señalando los marcos de nuestro propio código.
+ */
+@Slf4j
+public class DetectorPinning {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PAQUETE_PROPIO = "com.ahorros.";
+    private static final int MARCOS_A_MOSTRAR = 5;
+
+    private final Duration umbral;
+    private final AtomicLong detectados = new AtomicLong();
+    private RecordingStream stream;
+
+    /**
+     * @param umbral Duración mínima del bloqueo para ser registrado
+     */
+    public DetectorPinning(Duration umbral) {
+        this.umbral = umbral;
+    }
+
+    /**
+     * Inicia la escucha de eventos en segundo plano.
+     */
+    public void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Detector de pinning iniciado (umbral {} ms)", umbral.toMillis());
+    }
+
+    /**
+     * Detiene la escucha de eventos.
+     */
+    public void detener() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * @return Número de bloqueos con el hilo fijado detectados desde el inicio
+     */
+    public long getDetectados() {
+        return detectados.get();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        detectados.incrementAndGet();
+
+        List<RecordedFrame> marcos = evento.getStackTrace() != null
+                ? evento.getStackTrace().getFrames()
+                : List.of();
+        List<RecordedFrame> propios = marcos.stream()
+                .filter(marco -> marco.getMethod().getType().getName().startsWith(PAQUETE_PROPIO))
+                .collect(Collectors.toList());
+
+        String traza = (propios.isEmpty() ? marcos : propios).stream()
+                .limit(MARCOS_A_MOSTRAR)
+                .map(marco -> marco.getMethod().getType().getName() + "." + marco.getMethod().getName()
+                        + ":" + marco.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+
+        if (propios.isEmpty()) {
+            log.debug("Hilo virtual fijado {} ms fuera de nuestro código: {}",
+                    evento.getDuration().toMillis(), traza);
+        } else {
+            log.warn("Hilo virtual fijado {} ms en nuestro código: {}",
+                    evento.getDuration().toMillis(), traza);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ahorros.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+
+/**
+ * Configuración del modo de ejecución con hilos virtuales.
+ *
+ * Se activa con spring.threads.virtual.enabled=true. Con esa propiedad Spring
+ * Boot ya ejecuta las solicitudes de Tomcat y las tareas @Async en hilos
+ * virtuales; esta clase agrega lo que el modo necesita para no saturar la
+ * base de datos:
+ * - Un {@link LimitadorConexiones} con tantos permisos como conexiones el pool de Hikari
+ * - Un filtro que hace pasar cada solicitud por el limitador
+ * - Un decorador de tareas para que @Async y las respuestas asíncronas también lo usen
+ * - Un {@link DetectorPinning} que reporta hilos virtuales fijados a su portador
+ *
+ * Sin la propiedad, la aplicación usa el pool de hilos de plataforma de
+ * Tomcat, que ya acota la concurrencia, y nada de esto se registra.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class EjecucionVirtualConfig {
+
+    @Bean
+    public LimitadorConexiones limitadorConexiones(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanoPool,
+            @Value("${ejecucion.limitador.espera-ms:5000}") long esperaMs) {
+        return new LimitadorConexiones(tamanoPool, esperaMs);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FiltroLimitadorConexiones> filtroLimitadorConexiones(LimitadorConexiones limitador) {
+        FilterRegistrationBean<FiltroLimitadorConexiones> registro =
+                new FilterRegistrationBean<>(new FiltroLimitadorConexiones(limitador));
+        registro.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registro;
+    }
+
+    /**
+     * Spring Boot aplica este decorador al ejecutor de tareas de la aplicación,
+     * que atiende @Async y las respuestas asíncronas de Spring MVC.
+     */
+    @Bean
+    public TaskDecorator decoradorLimitadorConexiones(LimitadorConexiones limitador) {
+        return tarea -> () -> limitador.ejecutar(tarea);
+    }
+
+    @Bean(initMethod = "iniciar", destroyMethod = "detener")
+    @ConditionalOnProperty(name = "ejecucion.pinning.habilitado", havingValue = "true", matchIfMissing = true)
+    public DetectorPinning detectorPinning(@Value("${ejecucion.pinning.umbral-ms:20}") long umbralMs) {
+        return new DetectorPinning(Duration.ofMillis(umbralMs));
+    }
+}
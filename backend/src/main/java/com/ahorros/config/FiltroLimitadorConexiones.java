@@ -0,0 +1,41 @@
+package com.ahorros.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que hace pasar cada solicitud por el {@link LimitadorConexiones}.
+ *
+ * Si no se obtiene un permiso dentro del tiempo de espera se responde 503
+ * (Service Unavailable) sin llegar al controlador.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class FiltroLimitadorConexiones extends OncePerRequestFilter {
+
+    private final LimitadorConexiones limitador;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limitador.adquirir()) {
+            log.warn("Solicitud rechazada por falta de conexiones: {} {} ({} en espera)",
+                    request.getMethod(), request.getRequestURI(), limitador.getEnEspera());
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "No hay conexiones disponibles");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limitador.liberar();
+        }
+    }
+}
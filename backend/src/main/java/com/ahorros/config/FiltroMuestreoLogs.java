@@ -0,0 +1,113 @@
+package com.ahorros.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Logback que muestrea las líneas INFO repetitivas de la aplicación.
+ *
+ * Cada plantilla de mensaje ("Buscando cuenta con ID: {}") se registra
+ * completa hasta porSegundo veces por segundo; por encima de eso solo una de
+ * cada muestreo. Como el filtro se evalúa antes de formatear el mensaje, las
+ * líneas omitidas no formatean sus parámetros (BigDecimal incluidos) ni
+ * ocupan la cola del appender. WARN y ERROR nunca se muestrean, ni los
+ * loggers que empiezan con excluir (la auditoría).
+ *
+ * La cantidad de líneas omitidas queda en el contexto de Logback bajo
+ * {@link #OMITIDAS}, como un LongAdder, para publicarla como métrica.
+ */
+public class FiltroMuestreoLogs extends TurboFilter {
+
+    /**
+     * Clave del contexto de Logback con el LongAdder de líneas omitidas.
+     */
+    public static final String OMITIDAS = "ahorros.logs.omitidas";
+
+    /**
+     * Plantillas distintas que se siguen como máximo; las que no entran no se
+     * muestrean, para no crecer sin límite con mensajes armados a mano.
+     */
+    private static final int MAX_PLANTILLAS = 2000;
+
+    private String prefijo = "com.ahorros.";
+    private String excluir = "com.ahorros.auditoria";
+    private int porSegundo = 10;
+    private int muestreo = 100;
+
+    private final Map<String, Ventana> ventanas = new ConcurrentHashMap<>();
+    private final LongAdder omitidas = new LongAdder();
+
+    /**
+     * Líneas de una plantilla en el segundo actual.
+     */
+    private static final class Ventana {
+        final AtomicLong segundo = new AtomicLong();
+        final AtomicInteger lineas = new AtomicInteger();
+    }
+
+    @Override
+    public void start() {
+        if (porSegundo < 0 || muestreo < 1) {
+            addError("porSegundo debe ser 0 o más y muestreo 1 o más");
+            return;
+        }
+        getContext().putObject(OMITIDAS, omitidas);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marcador, Logger logger, Level nivel, String formato, Object[] parametros, Throwable error) {
+        if (nivel != Level.INFO || formato == null
+                || nivel.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        String nombre = logger.getName();
+        if (!nombre.startsWith(prefijo) || nombre.startsWith(excluir)) {
+            return FilterReply.NEUTRAL;
+        }
+        Ventana ventana = ventanas.get(formato);
+        if (ventana == null) {
+            if (ventanas.size() >= MAX_PLANTILLAS) {
+                return FilterReply.NEUTRAL;
+            }
+            ventana = ventanas.computeIfAbsent(formato, f -> new Ventana());
+        }
+
+        long segundo = System.currentTimeMillis() / 1000;
+        long anterior = ventana.segundo.get();
+        if (segundo != anterior && ventana.segundo.compareAndSet(anterior, segundo)) {
+            ventana.lineas.set(0);
+        }
+        int linea = ventana.lineas.incrementAndGet();
+        if (linea <= porSegundo || (linea - porSegundo) % muestreo == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        omitidas.increment();
+        return FilterReply.DENY;
+    }
+
+    public void setPrefijo(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public void setExcluir(String excluir) {
+        this.excluir = excluir;
+    }
+
+    public void setPorSegundo(int porSegundo) {
+        this.porSegundo = porSegundo;
+    }
+
+    public void setMuestreo(int muestreo) {
+        this.muestreo = muestreo;
+    }
+}
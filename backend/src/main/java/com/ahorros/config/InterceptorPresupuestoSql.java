@@ -0,0 +1,62 @@
+package com.ahorros.config;
+
+import com.ahorros.services.PresupuestoConsultas;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Atribuye a cada solicitud HTTP las sentencias SQL que ejecuta y le aplica
+ * el {@link PresupuestoSql} de su método o de su controlador.
+ *
+ * Solo se cuentan los despachos originales (no los de error ni los
+ * asíncronos). El presupuesto de cada método se busca una sola vez.
+ */
+@RequiredArgsConstructor
+public class InterceptorPresupuestoSql implements AsyncHandlerInterceptor {
+
+    private static final int SIN_PRESUPUESTO = -1;
+
+    private final PresupuestoConsultas presupuesto;
+
+    private final Map<Method, Integer> maximos = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST && handler instanceof HandlerMethod metodo) {
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            presupuesto.iniciar(request.getMethod() + " " + patron,
+                    maximos.computeIfAbsent(metodo.getMethod(), m -> maximo(metodo)));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        presupuesto.terminar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            presupuesto.terminar();
+        }
+    }
+
+    private static int maximo(HandlerMethod metodo) {
+        PresupuestoSql anotacion = AnnotatedElementUtils.findMergedAnnotation(metodo.getMethod(), PresupuestoSql.class);
+        if (anotacion == null) {
+            anotacion = AnnotatedElementUtils.findMergedAnnotation(metodo.getBeanType(), PresupuestoSql.class);
+        }
+        return anotacion != null ? anotacion.max() : SIN_PRESUPUESTO;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ahorros.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita cuántas tareas usan la base de datos al mismo tiempo.
+ *
+ * Con hilos virtuales no hay un pool de hilos que acote la concurrencia: cada
+ * solicitud obtiene su propio hilo y todas compiten por las conexiones de
+ * Hikari. El semáforo tiene tantos permisos como conexiones el pool, de modo
+ * que las tareas sobrantes esperan aquí (un hilo virtual bloqueado es barato)
+ * en lugar de acumularse en la cola de Hikari hasta agotar su timeout.
+ */
+@Slf4j
+public class LimitadorConexiones {
+
+    private final Semaphore permisos;
+    private final int capacidad;
+    private final long esperaMs;
+
+    /**
+     * @param capacidad Número de permisos, normalmente el tamaño del pool de conexiones
+     * @param esperaMs Tiempo máximo de espera por un permiso, en milisegundos
+     */
+    public LimitadorConexiones(int capacidad, long esperaMs) {
+        this.permisos = new Semaphore(capacidad, true);
+        this.capacidad = capacidad;
+        this.esperaMs = esperaMs;
+        log.info("Limitador de conexiones creado con {} permisos (espera máxima {} ms)", capacidad, esperaMs);
+    }
+
+    /**
+     * Intenta obtener un permiso esperando como máximo el tiempo configurado.
+     *
+     * @return true si se obtuvo el permiso, false si se agotó la espera
+     */
+    public boolean adquirir() {
+        try {
+            return permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Libera un permiso obtenido con {@link #adquirir()}.
+     */
+    public void liberar() {
+        permisos.release();
+    }
+
+    /**
+     * Ejecuta una tarea dentro de un permiso.
+     *
+     * @param tarea La tarea a ejecutar
+     */
+    public void ejecutar(Runnable tarea) {
+        if (!adquirir()) {
+            throw new RuntimeException("No hay conexiones disponibles después de esperar " + esperaMs + " ms");
+        }
+        try {
+            tarea.run();
+        } finally {
+            liberar();
+        }
+    }
+
+    /**
+     * @return Número total de permisos
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * @return Número de permisos libres en este momento
+     */
+    public int getDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    /**
+     * @return Número aproximado de tareas esperando un permiso
+     */
+    public int getEnEspera() {
+        return permisos.getQueueLength();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ahorros.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Configuración de las métricas de Micrometer.
+ *
+ * Los servicios anotados con @Timed a nivel de clase miden todos sus métodos
+ * públicos en el timer ahorros.servicios (etiquetas class, method y
+ * exception). Los métodos de los repositorios, el pool de Hikari y las
+ * sesiones de Hibernate los mide Spring Boot. ahorros.logs.descartados
+ * cuenta las líneas de log que no se escribieron, por muestreo o por la cola
+ * llena. Todo se publica en /actuator/prometheus.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registro) {
+        return new TimedAspect(registro);
+    }
+
+    @Bean
+    public MeterBinder metricasLogs() {
+        return registro -> {
+            if (LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto) {
+                registrarDescartados(registro, contexto, FiltroMuestreoLogs.OMITIDAS, "muestreo");
+                registrarDescartados(registro, contexto, AppenderAsincrono.DESCARTADOS, "cola");
+            }
+        };
+    }
+
+    /**
+     * Los contadores los crea Logback antes que Spring y se comparten por el
+     * contexto de Logback.
+     */
+    private static void registrarDescartados(MeterRegistry registro, LoggerContext contexto, String clave, String motivo) {
+        if (contexto.getObject(clave) instanceof LongAdder contador) {
+            FunctionCounter.builder("ahorros.logs.descartados", contador, LongAdder::sum)
+                    .description("Líneas de log no escritas")
+                    .tag("motivo", motivo)
+                    .register(registro);
+        }
+    }
+}
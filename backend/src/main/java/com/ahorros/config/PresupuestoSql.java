@@ -0,0 +1,26 @@
+package com.ahorros.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL que puede ejecutar una solicitud HTTP.
+ *
+ * Se declara en los métodos de un controlador o en la clase (vale para
+ * todos sus métodos que no declaren uno propio). Una solicitud que lo supera
+ * se registra en el log o falla, según consultas.presupuesto.modo; así un
+ * N+1 nuevo se detecta en cuanto se ejecuta el endpoint.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PresupuestoSql {
+
+    /**
+     * Sentencias permitidas por solicitud.
+     */
+    int max();
+}
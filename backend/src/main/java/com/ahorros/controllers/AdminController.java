@@ -0,0 +1,295 @@
+package com.ahorros.controllers;
+
+import com.ahorros.dto.CargaDTO;
+import com.ahorros.dto.ConsultasDTO;
+import com.ahorros.dto.JfrEstadoDTO;
+import com.ahorros.dto.JfrResumenDTO;
+import com.ahorros.dto.RendimientoDTO;
+import com.ahorros.services.EstadisticasConsultas;
+import com.ahorros.services.EstadisticasRendimiento;
+import com.ahorros.services.GrabadorJfr;
+import com.ahorros.services.MonitorCarga;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST de diagnóstico para administración.
+ *
+ * Expone datos del funcionamiento interno de la aplicación que ayudan a
+ * investigar problemas de rendimiento en producción.
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Administración", description = "API de diagnóstico del sistema")
+@CrossOrigin(origins = "http://localhost:4200")
+public class AdminController {
+
+    /**
+     * Monitor de carga por cuenta, usuario y endpoint.
+     */
+    private final MonitorCarga monitorCarga;
+
+    /**
+     * Estadísticas de depósitos y retiros por segundo.
+     */
+    private final EstadisticasRendimiento estadisticasRendimiento;
+
+    /**
+     * Estadísticas de las sentencias SQL por firma.
+     */
+    private final EstadisticasConsultas estadisticasConsultas;
+
+    /**
+     * Grabación continua de Java Flight Recorder.
+     */
+    private final GrabadorJfr grabadorJfr;
+
+    /**
+     * Obtiene las cuentas, usuarios y endpoints con más llamadas recientes.
+     *
+     * Endpoint: GET /api/admin/carga?ventana={segundos}&limite={limite}
+     *
+     * @param ventana Duración de la ventana en segundos
+     * @param limite Máximo de claves por dimensión
+     * @return Claves más frecuentes con sus llamadas estimadas
+     */
+    @GetMapping("/carga")
+    @Operation(summary = "Obtener claves con más carga",
+               description = "Retorna las cuentas, usuarios y endpoints con más llamadas a los servicios en la ventana indicada (valores aproximados)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Carga obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = CargaDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Ventana o límite inválidos")
+    })
+    public ResponseEntity<CargaDTO> obtenerCarga(
+            @Parameter(description = "Ventana en segundos") @RequestParam(defaultValue = "60") long ventana,
+            @Parameter(description = "Máximo de claves por dimensión") @RequestParam(defaultValue = "10") int limite) {
+        try {
+            return ResponseEntity.ok(monitorCarga.obtener(ventana, limite));
+        } catch (RuntimeException e) {
+            log.error("Error al obtener la carga: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Obtiene depósitos y retiros por segundo, fallos por motivo y latencias.
+     *
+     * Endpoint: GET /api/admin/throughput
+     *
+     * @return Estadísticas de las ventanas de 1, 5 y 15 minutos
+     */
+    @GetMapping("/throughput")
+    @Operation(summary = "Obtener rendimiento de transacciones",
+               description = "Retorna depósitos y retiros por segundo, fallos por motivo y latencias p50/p99 en ventanas de 1, 5 y 15 minutos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rendimiento obtenido exitosamente",
+                    content = @Content(schema = @Schema(implementation = RendimientoDTO.class)))
+    })
+    public ResponseEntity<RendimientoDTO> obtenerRendimiento() {
+        return ResponseEntity.ok(estadisticasRendimiento.obtener());
+    }
+
+    /**
+     * Obtiene las sentencias SQL agrupadas por firma y el resumen de Hibernate.
+     *
+     * Endpoint: GET /api/admin/queries?orden={orden}&limite={limite}
+     *
+     * @param orden total, maximo, promedio, ejecuciones o filas
+     * @param limite Máximo de sentencias
+     * @return Sentencias con ejecuciones, tiempos y filas
+     */
+    @GetMapping("/queries")
+    @Operation(summary = "Obtener estadísticas de consultas SQL",
+               description = "Retorna por firma de SQL las ejecuciones, el tiempo total, promedio y máximo y las filas, junto con las estadísticas de Hibernate")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente",
+                    content = @Content(schema = @Schema(implementation = ConsultasDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Orden o límite inválidos")
+    })
+    public ResponseEntity<ConsultasDTO> obtenerConsultas(
+            @Parameter(description = "Criterio de orden: total, maximo, promedio, ejecuciones o filas") @RequestParam(defaultValue = "total") String orden,
+            @Parameter(description = "Máximo de sentencias") @RequestParam(defaultValue = "50") int limite) {
+        try {
+            return ResponseEntity.ok(estadisticasConsultas.obtener(orden, limite));
+        } catch (RuntimeException e) {
+            log.error("Error al obtener las consultas: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Pone en cero las estadísticas de consultas.
+     *
+     * Endpoint: DELETE /api/admin/queries
+     *
+     * @return Respuesta sin contenido
+     */
+    @DeleteMapping("/queries")
+    @Operation(summary = "Reiniciar estadísticas de consultas SQL",
+               description = "Pone en cero las estadísticas por firma y las de Hibernate")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Estadísticas reiniciadas")
+    })
+    public ResponseEntity<Void> reiniciarConsultas() {
+        estadisticasConsultas.reiniciar();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Obtiene el estado de la grabación continua de JFR y los volcados guardados.
+     *
+     * Endpoint: GET /api/admin/jfr
+     *
+     * @return Estado de la grabación
+     */
+    @GetMapping("/jfr")
+    @Operation(summary = "Obtener estado de JFR",
+               description = "Retorna si la grabación continua de Java Flight Recorder está activa, su configuración y los volcados guardados")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado obtenido exitosamente",
+                    content = @Content(schema = @Schema(implementation = JfrEstadoDTO.class)))
+    })
+    public ResponseEntity<JfrEstadoDTO> obtenerEstadoJfr() {
+        return ResponseEntity.ok(grabadorJfr.estado());
+    }
+
+    /**
+     * Inicia la grabación continua de JFR.
+     *
+     * Endpoint: POST /api/admin/jfr/iniciar
+     *
+     * @return Estado de la grabación
+     */
+    @PostMapping("/jfr/iniciar")
+    @Operation(summary = "Iniciar grabación de JFR",
+               description = "Inicia la grabación continua de Java Flight Recorder si no está activa")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grabación activa",
+                    content = @Content(schema = @Schema(implementation = JfrEstadoDTO.class))),
+        @ApiResponse(responseCode = "400", description = "No se pudo iniciar la grabación")
+    })
+    public ResponseEntity<JfrEstadoDTO> iniciarJfr() {
+        try {
+            return ResponseEntity.ok(grabadorJfr.iniciar());
+        } catch (RuntimeException e) {
+            log.error("Error al iniciar JFR: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Detiene la grabación continua de JFR.
+     *
+     * Endpoint: POST /api/admin/jfr/detener
+     *
+     * @return Estado de la grabación
+     */
+    @PostMapping("/jfr/detener")
+    @Operation(summary = "Detener grabación de JFR",
+               description = "Detiene la grabación continua de Java Flight Recorder y descarta su búfer; los volcados guardados se conservan")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grabación detenida",
+                    content = @Content(schema = @Schema(implementation = JfrEstadoDTO.class)))
+    })
+    public ResponseEntity<JfrEstadoDTO> detenerJfr() {
+        return ResponseEntity.ok(grabadorJfr.detener());
+    }
+
+    /**
+     * Vuelca los últimos minutos de la grabación continua y retorna su resumen.
+     *
+     * Endpoint: POST /api/admin/jfr/volcar?minutos={minutos}
+     *
+     * @param minutos Minutos a volcar
+     * @return Resumen del volcado
+     */
+    @PostMapping("/jfr/volcar")
+    @Operation(summary = "Volcar grabación de JFR",
+               description = "Guarda los últimos minutos de la grabación continua en un archivo .jfr y retorna los métodos con más CPU, las asignaciones, los monitores y los depósitos y retiros del período")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Volcado realizado exitosamente",
+                    content = @Content(schema = @Schema(implementation = JfrResumenDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Grabación inactiva o minutos inválidos")
+    })
+    public ResponseEntity<JfrResumenDTO> volcarJfr(
+            @Parameter(description = "Minutos a volcar") @RequestParam(defaultValue = "5") long minutos) {
+        try {
+            return ResponseEntity.ok(grabadorJfr.volcar(minutos));
+        } catch (RuntimeException e) {
+            log.error("Error al volcar JFR: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Obtiene el resumen de un volcado guardado.
+     *
+     * Endpoint: GET /api/admin/jfr/volcados/{archivo}/resumen
+     *
+     * @param archivo Nombre del archivo
+     * @return Resumen del volcado
+     */
+    @GetMapping("/jfr/volcados/{archivo}/resumen")
+    @Operation(summary = "Resumir volcado de JFR",
+               description = "Retorna el resumen de un volcado guardado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente",
+                    content = @Content(schema = @Schema(implementation = JfrResumenDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Volcado no encontrado")
+    })
+    public ResponseEntity<JfrResumenDTO> resumirVolcadoJfr(
+            @Parameter(description = "Nombre del archivo") @PathVariable String archivo) {
+        try {
+            return ResponseEntity.ok(grabadorJfr.resumen(archivo));
+        } catch (RuntimeException e) {
+            log.error("Error al resumir el volcado {}: {}", archivo, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Descarga un volcado guardado para abrirlo con JDK Mission Control o jfr.
+     *
+     * Endpoint: GET /api/admin/jfr/volcados/{archivo}
+     *
+     * @param archivo Nombre del archivo
+     * @return Archivo .jfr
+     */
+    @GetMapping("/jfr/volcados/{archivo}")
+    @Operation(summary = "Descargar volcado de JFR",
+               description = "Descarga un volcado guardado en formato .jfr")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archivo del volcado"),
+        @ApiResponse(responseCode = "404", description = "Volcado no encontrado")
+    })
+    public ResponseEntity<Resource> descargarVolcadoJfr(
+            @Parameter(description = "Nombre del archivo") @PathVariable String archivo) {
+        try {
+            FileSystemResource recurso = new FileSystemResource(grabadorJfr.archivo(archivo));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(archivo).build().toString())
+                    .body(recurso);
+        } catch (RuntimeException e) {
+            log.error("Error al descargar el volcado {}: {}", archivo, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
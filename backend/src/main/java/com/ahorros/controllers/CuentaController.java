@@ -1,7 +1,9 @@
 package com.ahorros.controllers;
 
 import com.ahorros.dto.CuentaDTO;
+import com.ahorros.dto.FiltroCuentaDTO;
 import com.ahorros.services.CuentaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +14,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador REST para la gestión de cuentas de ahorros.
@@ -54,6 +59,11 @@ public class CuentaController {
      */
     private final CuentaService cuentaService;
 
+    /**
+     * ObjectMapper de la aplicación, usado para las respuestas en streaming.
+     */
+    private final ObjectMapper objectMapper;
+
     /**
      * Crea una nueva cuenta de ahorros.
      * 
@@ -108,6 +118,45 @@ public class CuentaController {
         return ResponseEntity.ok(cuentas);
     }
 
+    /**
+     * Obtiene varias cuentas por sus IDs en una sola petición.
+     * 
+     * Endpoint: GET /api/cuentas?ids=1,2,3&fields=id,saldo
+     * 
+     * Si se indica fields, solo se consultan y retornan esos campos.
+     * 
+     * @param ids Los IDs de las cuentas
+     * @param fields Los campos a incluir en la respuesta (opcional)
+     * @return Lista de cuentas encontradas con código de respuesta 200 (OK)
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Obtener varias cuentas por ID", 
+               description = "Retorna las cuentas indicadas, opcionalmente limitadas a algunos campos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de cuentas obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = CuentaDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Demasiados IDs o campo no soportado")
+    })
+    public ResponseEntity<List<?>> obtenerCuentasPorIds(
+            @Parameter(description = "IDs de las cuentas separados por comas", required = true)
+            @RequestParam Set<Long> ids,
+            @Parameter(description = "Campos a incluir separados por comas", required = false)
+            @RequestParam(required = false) Set<String> fields) {
+        
+        log.info("Recibida solicitud para obtener {} cuentas por ID", ids.size());
+        
+        try {
+            List<?> cuentas = (fields == null || fields.isEmpty())
+                    ? cuentaService.obtenerCuentasPorIds(ids)
+                    : cuentaService.obtenerCuentasPorIds(ids, fields);
+            log.info("Se retornaron {} cuentas", cuentas.size());
+            return ResponseEntity.ok(cuentas);
+        } catch (RuntimeException e) {
+            log.error("Error al obtener cuentas: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Obtiene una cuenta por su ID.
      * 
@@ -196,6 +245,43 @@ public class CuentaController {
         return ResponseEntity.ok(cuentas);
     }
 
+    /**
+     * Filtra cuentas combinando cualquier conjunto de criterios.
+     * 
+     * Endpoint: GET /api/cuentas/filtro?saldoMin=100&activa=true&titular=Ju&orden=saldo&direccion=DESC&limite=50
+     * 
+     * La respuesta se escribe a medida que se leen las filas y contiene el cursor
+     * para pedir la página siguiente (parámetro cursor).
+     * 
+     * @param filtro Los criterios del filtro
+     * @return Página de cuentas con el cursor siguiente
+     */
+    @GetMapping("/filtro")
+    @Operation(summary = "Filtrar cuentas", 
+               description = "Filtra cuentas por saldo, estado, prefijo de titular y fecha de creación, con paginación por cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de cuentas obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Criterios de orden o paginación inválidos")
+    })
+    public ResponseEntity<StreamingResponseBody> filtrarCuentas(
+            @Parameter(description = "Criterios del filtro")
+            @ModelAttribute FiltroCuentaDTO filtro) {
+        
+        log.info("Recibida solicitud para filtrar cuentas: {}", filtro);
+        
+        try {
+            cuentaService.validarFiltro(filtro);
+        } catch (RuntimeException e) {
+            log.error("Error al filtrar cuentas: {}", e.getMessage());
+            throw e;
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(PaginaStreaming.<CuentaDTO>de(objectMapper,
+                        consumidor -> cuentaService.filtrarCuentas(filtro, consumidor)));
+    }
+
     /**
      * Obtiene todas las cuentas activas.
      * 
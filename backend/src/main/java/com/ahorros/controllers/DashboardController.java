@@ -0,0 +1,62 @@
+package com.ahorros.controllers;
+
+import com.ahorros.dto.ResumenDashboardDTO;
+import com.ahorros.services.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST del dashboard.
+ *
+ * Expone en un único endpoint los datos que el dashboard necesita al cargar,
+ * evitando que el cliente haga una llamada HTTP por cada sección.
+ */
+@RestController
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dashboard", description = "API para el resumen del dashboard")
+@CrossOrigin(origins = "http://localhost:4200")
+public class DashboardController {
+
+    /**
+     * Servicio del dashboard inyectado por Spring.
+     */
+    private final DashboardService dashboardService;
+
+    /**
+     * Obtiene el resumen del dashboard.
+     *
+     * Endpoint: GET /api/dashboard/resumen?usuarioId={usuarioId}
+     *
+     * Las secciones que no pudieron calcularse a tiempo se retornan vacías y
+     * se listan en seccionesNoDisponibles; la respuesta sigue siendo 200.
+     *
+     * @param usuarioId ID del usuario para el conteo de notificaciones no leídas (opcional)
+     * @return El resumen del dashboard
+     */
+    @GetMapping("/resumen")
+    @Operation(summary = "Obtener resumen del dashboard",
+               description = "Retorna estadísticas, transacciones recientes, cuentas activas y notificaciones no leídas en una sola respuesta")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente",
+                    content = @Content(schema = @Schema(implementation = ResumenDashboardDTO.class)))
+    })
+    public ResponseEntity<ResumenDashboardDTO> obtenerResumen(
+            @Parameter(description = "ID del usuario") @RequestParam(required = false) Long usuarioId) {
+        log.info("Recibida solicitud para obtener el resumen del dashboard");
+
+        ResumenDashboardDTO resumen = dashboardService.obtenerResumen(usuarioId);
+
+        return ResponseEntity.ok(resumen);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ahorros.controllers;
+
+import com.ahorros.dto.EjecucionInteresesDTO;
+import com.ahorros.services.MotorIntereses;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST para el cálculo de intereses.
+ * 
+ * El cálculo corre solo cada noche (intereses.cron); estos endpoints permiten
+ * lanzarlo a mano para una fecha, por ejemplo para reanudar una ejecución
+ * interrumpida, y consultar su avance.
+ */
+@RestController
+@RequestMapping("/intereses")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Intereses", description = "API para el cálculo diario de intereses")
+@CrossOrigin(origins = "http://localhost:4200")
+public class InteresController {
+
+    /**
+     * Motor de intereses inyectado por Spring.
+     */
+    private final MotorIntereses motorIntereses;
+
+    /**
+     * Inicia el cálculo de intereses de una fecha.
+     * 
+     * Endpoint: POST /api/intereses/ejecuciones?fecha=2024-01-31
+     * 
+     * @param fecha Fecha del interés; por defecto ayer
+     * @return Estado inicial de la ejecución con código 202 (Accepted)
+     */
+    @PostMapping("/ejecuciones")
+    @Operation(summary = "Calcular intereses", description = "Abona en segundo plano el interés diario de una fecha; los bloques ya abonados se omiten")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Cálculo iniciado",
+                    content = @Content(schema = @Schema(implementation = EjecucionInteresesDTO.class))),
+        @ApiResponse(responseCode = "409", description = "Ya hay un cálculo en curso o la fecha no es válida")
+    })
+    public ResponseEntity<?> iniciarEjecucion(
+            @Parameter(description = "Fecha del interés (yyyy-MM-dd); por defecto ayer")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+
+        LocalDate fechaInteres = fecha != null ? fecha : LocalDate.now().minusDays(1);
+        log.info("Recibida solicitud para calcular intereses del {}", fechaInteres);
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(motorIntereses.iniciarEjecucion(fechaInteres));
+        } catch (RuntimeException e) {
+            log.error("No se pudo iniciar el cálculo de intereses: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el estado de la última ejecución del cálculo de intereses.
+     * 
+     * Endpoint: GET /api/intereses/ejecuciones/ultima
+     * 
+     * @return Estado de la ejecución con código 200, o 404 si no hubo ninguna
+     */
+    @GetMapping("/ejecuciones/ultima")
+    @Operation(summary = "Última ejecución", description = "Retorna el avance y el rendimiento de la última ejecución")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado obtenido exitosamente",
+                    content = @Content(schema = @Schema(implementation = EjecucionInteresesDTO.class))),
+        @ApiResponse(responseCode = "404", description = "No hubo ejecuciones desde el inicio de la aplicación")
+    })
+    public ResponseEntity<EjecucionInteresesDTO> obtenerUltimaEjecucion() {
+        EjecucionInteresesDTO ejecucion = motorIntereses.obtenerUltimaEjecucion();
+        return ejecucion != null ? ResponseEntity.ok(ejecucion) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.ahorros.controllers;
+
+import com.ahorros.dto.MetaAhorroDTO;
+import com.ahorros.services.MetaAhorroService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para las metas de ahorro de una cuenta.
+ */
+@RestController
+@RequestMapping("/cuentas/{cuentaId}/metas")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Metas de ahorro", description = "API para gestión de metas de ahorro por cuenta")
+@CrossOrigin(origins = "http://localhost:4200")
+public class MetaAhorroController {
+
+    /**
+     * Servicio de metas de ahorro inyectado por Spring.
+     */
+    private final MetaAhorroService metaAhorroService;
+
+    /**
+     * Obtiene las metas de una cuenta con su progreso.
+     * 
+     * Endpoint: GET /api/cuentas/{cuentaId}/metas
+     * 
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de metas con código de respuesta 200 (OK)
+     */
+    @GetMapping
+    @Operation(summary = "Obtener metas de una cuenta", description = "Retorna las metas de ahorro de la cuenta con su progreso actual")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Metas obtenidas exitosamente",
+                    content = @Content(schema = @Schema(implementation = MetaAhorroDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Cuenta no encontrada")
+    })
+    public ResponseEntity<List<MetaAhorroDTO>> obtenerMetas(
+            @Parameter(description = "ID de la cuenta", required = true)
+            @PathVariable Long cuentaId) {
+
+        log.info("Recibida solicitud para obtener metas de la cuenta ID: {}", cuentaId);
+
+        try {
+            return ResponseEntity.ok(metaAhorroService.obtenerMetas(cuentaId));
+        } catch (RuntimeException e) {
+            log.error("Error al obtener metas: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Crea una meta de ahorro para una cuenta.
+     * 
+     * Endpoint: POST /api/cuentas/{cuentaId}/metas
+     * 
+     * @param cuentaId El ID de la cuenta
+     * @param metaDTO Nombre, monto objetivo y fecha límite (opcional) de la meta
+     * @return La meta creada con código de respuesta 201 (Created)
+     */
+    @PostMapping
+    @Operation(summary = "Crear meta", description = "Crea una meta de ahorro; el progreso cuenta desde su creación")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Meta creada exitosamente",
+                    content = @Content(schema = @Schema(implementation = MetaAhorroDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o cuenta no encontrada")
+    })
+    public ResponseEntity<MetaAhorroDTO> crearMeta(
+            @Parameter(description = "ID de la cuenta", required = true)
+            @PathVariable Long cuentaId,
+            @Parameter(description = "Datos de la meta", required = true)
+            @RequestBody MetaAhorroDTO metaDTO) {
+
+        log.info("Recibida solicitud para crear meta en la cuenta ID: {}", cuentaId);
+
+        try {
+            MetaAhorroDTO metaCreada = metaAhorroService.crearMeta(cuentaId, metaDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(metaCreada);
+        } catch (RuntimeException e) {
+            log.error("Error al crear meta: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Elimina una meta de ahorro.
+     * 
+     * Endpoint: DELETE /api/cuentas/{cuentaId}/metas/{metaId}
+     * 
+     * @param cuentaId El ID de la cuenta
+     * @param metaId El ID de la meta
+     * @return Respuesta vacía con código 204 (No Content)
+     */
+    @DeleteMapping("/{metaId}")
+    @Operation(summary = "Eliminar meta", description = "Elimina una meta de ahorro de la cuenta")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Meta eliminada exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Meta no encontrada")
+    })
+    public ResponseEntity<Void> eliminarMeta(
+            @Parameter(description = "ID de la cuenta", required = true)
+            @PathVariable Long cuentaId,
+            @Parameter(description = "ID de la meta", required = true)
+            @PathVariable Long metaId) {
+
+        log.info("Recibida solicitud para eliminar la meta {} de la cuenta ID: {}", metaId, cuentaId);
+
+        try {
+            metaAhorroService.eliminarMeta(cuentaId, metaId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            log.error("Error al eliminar meta: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
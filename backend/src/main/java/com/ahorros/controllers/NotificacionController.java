@@ -1,10 +1,16 @@
 package com.ahorros.controllers;
 
 import com.ahorros.dto.NotificacionDTO;
+import com.ahorros.dto.PaginaNotificacionesDTO;
+import com.ahorros.dto.ProgresoDifusionDTO;
+import com.ahorros.models.PoliticaNotificacion;
 import com.ahorros.services.NotificacionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +34,27 @@ public class NotificacionController {
         return ResponseEntity.ok(notificaciones);
     }
     
+    /**
+     * Obtiene una página de la bandeja de un usuario (paginación por cursor)
+     * @param usuarioId ID del usuario
+     * @param cursor siguienteCursor de la página anterior (opcional)
+     * @param limite Tamaño de la página
+     * @param soloNoLeidas Si solo se incluyen las no leídas
+     * @return Página de notificaciones
+     */
+    @GetMapping("/usuario/{usuarioId}/bandeja")
+    public ResponseEntity<?> obtenerBandeja(@PathVariable Long usuarioId,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(defaultValue = "20") int limite,
+                                            @RequestParam(defaultValue = "false") boolean soloNoLeidas) {
+        try {
+            PaginaNotificacionesDTO pagina = notificacionService.obtenerBandeja(usuarioId, cursor, limite, soloNoLeidas);
+            return ResponseEntity.ok(pagina);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     /**
      * Obtiene las notificaciones no leídas de un usuario
      * @param usuarioId ID del usuario
@@ -50,6 +77,58 @@ public class NotificacionController {
         return ResponseEntity.ok(Map.of("count", count));
     }
     
+    /**
+     * Abre un stream SSE con las notificaciones nuevas de un usuario
+     * @param usuarioId ID del usuario
+     * @param ultimoId Último id recibido, enviado por el navegador al reconectarse
+     * @return Stream de eventos "notificacion"
+     */
+    @GetMapping(value = "/usuario/{usuarioId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> suscribir(@PathVariable Long usuarioId,
+                                                @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoId) {
+        try {
+            return ResponseEntity.ok(notificacionService.suscribir(usuarioId, ultimoId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Obtiene la política de notificaciones de un usuario
+     * @param usuarioId ID del usuario
+     * @return Política del usuario
+     */
+    @GetMapping("/usuario/{usuarioId}/politica")
+    public ResponseEntity<?> obtenerPolitica(@PathVariable Long usuarioId) {
+        try {
+            return ResponseEntity.ok(Map.of("politica", notificacionService.obtenerPolitica(usuarioId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Cambia la política de notificaciones de un usuario (INMEDIATA, AGRUPADA o RESUMEN_DIARIO)
+     * @param usuarioId ID del usuario
+     * @param request Datos con la política
+     * @return Respuesta de éxito
+     */
+    @PutMapping("/usuario/{usuarioId}/politica")
+    public ResponseEntity<?> actualizarPolitica(@PathVariable Long usuarioId, @RequestBody Map<String, String> request) {
+        try {
+            String politica = request.get("politica");
+            if (politica == null) {
+                return ResponseEntity.badRequest().body("La política es obligatoria");
+            }
+            notificacionService.actualizarPolitica(usuarioId, PoliticaNotificacion.valueOf(politica));
+            return ResponseEntity.ok().body("Política de notificaciones actualizada");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Política no válida, use INMEDIATA, AGRUPADA o RESUMEN_DIARIO");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     /**
      * Obtiene una notificación por ID
      * @param id ID de la notificación
@@ -88,6 +167,43 @@ public class NotificacionController {
         }
     }
     
+    /**
+     * Envía una notificación a todos los usuarios activos; la difusión corre en segundo plano
+     * @param request Datos de la notificación (mensaje y, opcionalmente, tipo)
+     * @return Progreso inicial de la difusión
+     */
+    @PostMapping("/broadcast")
+    public ResponseEntity<?> difundir(@RequestBody Map<String, String> request) {
+        String mensaje = request.get("mensaje");
+        if (mensaje == null || mensaje.isBlank()) {
+            return ResponseEntity.badRequest().body("El mensaje es obligatorio");
+        }
+        String tipo = request.getOrDefault("tipo", "DIFUSION");
+        ProgresoDifusionDTO progreso = notificacionService.difundir(mensaje, tipo);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progreso);
+    }
+    
+    /**
+     * Obtiene el progreso de las últimas difusiones
+     * @return Lista de difusiones
+     */
+    @GetMapping("/broadcast")
+    public ResponseEntity<List<ProgresoDifusionDTO>> obtenerDifusiones() {
+        return ResponseEntity.ok(notificacionService.obtenerDifusiones());
+    }
+    
+    /**
+     * Obtiene el progreso de una difusión
+     * @param id ID de la difusión
+     * @return Progreso de la difusión
+     */
+    @GetMapping("/broadcast/{id}")
+    public ResponseEntity<ProgresoDifusionDTO> obtenerDifusion(@PathVariable Long id) {
+        return notificacionService.obtenerDifusion(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * Marca una notificación como leída
      * @param id ID de la notificación
@@ -103,6 +219,21 @@ public class NotificacionController {
         }
     }
     
+    /**
+     * Marca como leídas varias notificaciones en una sola operación
+     * @param ids IDs de las notificaciones
+     * @return Número de notificaciones que estaban no leídas
+     */
+    @PutMapping("/leer")
+    public ResponseEntity<?> marcarComoLeidas(@RequestBody List<Long> ids) {
+        try {
+            int actualizadas = notificacionService.marcarComoLeidas(ids);
+            return ResponseEntity.ok(Map.of("actualizadas", actualizadas));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     /**
      * Marca todas las notificaciones de un usuario como leídas
      * @param usuarioId ID del usuario
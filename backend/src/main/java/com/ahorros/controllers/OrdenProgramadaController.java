@@ -0,0 +1,143 @@
+package com.ahorros.controllers;
+
+import com.ahorros.dto.OrdenProgramadaDTO;
+import com.ahorros.services.OrdenProgramadaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para las órdenes programadas (depósitos y transferencias recurrentes).
+ */
+@RestController
+@RequestMapping("/ordenes-programadas")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Órdenes programadas", description = "API para depósitos y transferencias recurrentes")
+@CrossOrigin(origins = "http://localhost:4200")
+public class OrdenProgramadaController {
+
+    /**
+     * Servicio de órdenes programadas inyectado por Spring.
+     */
+    private final OrdenProgramadaService ordenProgramadaService;
+
+    /**
+     * Obtiene las órdenes programadas.
+     *
+     * Endpoint: GET /api/ordenes-programadas?cuentaId=1
+     *
+     * @param cuentaId El ID de una cuenta (opcional)
+     * @return Lista de órdenes con código de respuesta 200 (OK)
+     */
+    @GetMapping
+    @Operation(summary = "Obtener órdenes programadas", description = "Retorna todas las órdenes, o las de una cuenta como origen o destino")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Órdenes obtenidas exitosamente",
+                    content = @Content(schema = @Schema(implementation = OrdenProgramadaDTO.class)))
+    })
+    public ResponseEntity<List<OrdenProgramadaDTO>> obtenerOrdenes(
+            @Parameter(description = "ID de la cuenta (opcional)")
+            @RequestParam(required = false) Long cuentaId) {
+
+        log.info("Recibida solicitud para obtener órdenes programadas, cuenta: {}", cuentaId);
+        return ResponseEntity.ok(ordenProgramadaService.obtenerOrdenes(cuentaId));
+    }
+
+    /**
+     * Obtiene una orden programada por su ID.
+     *
+     * Endpoint: GET /api/ordenes-programadas/{id}
+     *
+     * @param id El ID de la orden
+     * @return La orden con código 200, o 404 si no existe
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener orden programada", description = "Retorna una orden con su próxima ejecución y el resultado de la última")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orden encontrada",
+                    content = @Content(schema = @Schema(implementation = OrdenProgramadaDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Orden no encontrada")
+    })
+    public ResponseEntity<OrdenProgramadaDTO> obtenerOrden(
+            @Parameter(description = "ID de la orden", required = true)
+            @PathVariable Long id) {
+
+        try {
+            return ResponseEntity.ok(ordenProgramadaService.obtenerOrden(id));
+        } catch (RuntimeException e) {
+            log.error("Error al obtener orden programada: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Crea una orden programada.
+     *
+     * Endpoint: POST /api/ordenes-programadas
+     *
+     * @param ordenDTO Los datos de la orden
+     * @return La orden creada con código de respuesta 201 (Created)
+     */
+    @PostMapping
+    @Operation(summary = "Crear orden programada", description = "Crea un depósito o una transferencia recurrente; la primera ejecución es fechaInicio")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Orden creada exitosamente",
+                    content = @Content(schema = @Schema(implementation = OrdenProgramadaDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o cuenta no encontrada")
+    })
+    public ResponseEntity<OrdenProgramadaDTO> crearOrden(
+            @Parameter(description = "Datos de la orden", required = true)
+            @RequestBody OrdenProgramadaDTO ordenDTO) {
+
+        log.info("Recibida solicitud para crear orden programada hacia cuenta ID: {}", ordenDTO.getCuentaDestinoId());
+
+        try {
+            OrdenProgramadaDTO ordenCreada = ordenProgramadaService.crearOrden(ordenDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ordenCreada);
+        } catch (RuntimeException e) {
+            log.error("Error al crear orden programada: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Cancela una orden programada.
+     *
+     * Endpoint: DELETE /api/ordenes-programadas/{id}
+     *
+     * @param id El ID de la orden
+     * @return Respuesta vacía con código 204 (No Content)
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancelar orden programada", description = "Desactiva la orden; no vuelve a ejecutarse")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Orden cancelada exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Orden no encontrada")
+    })
+    public ResponseEntity<Void> cancelarOrden(
+            @Parameter(description = "ID de la orden", required = true)
+            @PathVariable Long id) {
+
+        log.info("Recibida solicitud para cancelar la orden programada {}", id);
+
+        try {
+            ordenProgramadaService.cancelarOrden(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            log.error("Error al cancelar orden programada: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ahorros.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Utilidad para escribir páginas de resultados en JSON a medida que se leen.
+ * 
+ * Produce un cuerpo con la forma:
+ * {"contenido": [...], "siguienteCursor": "..."}
+ * 
+ * Cada elemento se serializa apenas el servicio lo entrega, de modo que ni la
+ * página completa ni su representación JSON se mantienen en memoria.
+ */
+final class PaginaStreaming {
+
+    private PaginaStreaming() {
+    }
+
+    /**
+     * Crea el cuerpo de respuesta de una página.
+     * 
+     * @param objectMapper El ObjectMapper configurado de la aplicación
+     * @param productor Recibe el consumidor de elementos y retorna el cursor siguiente (o null)
+     * @param <T> Tipo de los elementos de la página
+     * @return El cuerpo de respuesta para retornar desde el controlador
+     */
+    static <T> StreamingResponseBody de(ObjectMapper objectMapper, Function<Consumer<T>, String> productor) {
+        return salida -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(salida)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("contenido");
+                String siguienteCursor = productor.apply(elemento -> {
+                    try {
+                        json.writeObject(elemento);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+                json.writeStringField("siguienteCursor", siguienteCursor);
+                json.writeEndObject();
+            }
+        };
+    }
+}
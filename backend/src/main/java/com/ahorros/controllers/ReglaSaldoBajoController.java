@@ -0,0 +1,88 @@
+package com.ahorros.controllers;
+
+import com.ahorros.models.ReglaSaldoBajo;
+import com.ahorros.services.ReglaSaldoBajoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reglas-saldo-bajo")
+@CrossOrigin(origins = "*")
+public class ReglaSaldoBajoController {
+    
+    @Autowired
+    private ReglaSaldoBajoService reglaSaldoBajoService;
+    
+    /**
+     * Obtiene todas las reglas de saldo bajo
+     * @return Lista de reglas
+     */
+    @GetMapping
+    public ResponseEntity<List<ReglaSaldoBajo>> obtenerTodas() {
+        return ResponseEntity.ok(reglaSaldoBajoService.obtenerTodas());
+    }
+    
+    /**
+     * Crea o reemplaza la regla de saldo bajo de una cuenta
+     * @param cuentaId ID de la cuenta
+     * @param request Datos de la regla (umbral y, opcionalmente, margenRearme)
+     * @return Regla guardada
+     */
+    @PutMapping("/cuenta/{cuentaId}")
+    public ResponseEntity<?> guardarReglaCuenta(@PathVariable Long cuentaId, @RequestBody Map<String, String> request) {
+        try {
+            String umbral = request.get("umbral");
+            if (umbral == null) {
+                return ResponseEntity.badRequest().body("El umbral es obligatorio");
+            }
+            return ResponseEntity.ok(reglaSaldoBajoService.guardarReglaCuenta(
+                    cuentaId, new BigDecimal(umbral), new BigDecimal(request.getOrDefault("margenRearme", "0"))));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body("Umbral y margenRearme deben ser números válidos");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Crea o reemplaza la regla de saldo bajo general de un usuario
+     * @param usuarioId ID del usuario
+     * @param request Datos de la regla (umbral y, opcionalmente, margenRearme)
+     * @return Regla guardada
+     */
+    @PutMapping("/usuario/{usuarioId}")
+    public ResponseEntity<?> guardarReglaUsuario(@PathVariable Long usuarioId, @RequestBody Map<String, String> request) {
+        try {
+            String umbral = request.get("umbral");
+            if (umbral == null) {
+                return ResponseEntity.badRequest().body("El umbral es obligatorio");
+            }
+            return ResponseEntity.ok(reglaSaldoBajoService.guardarReglaUsuario(
+                    usuarioId, new BigDecimal(umbral), new BigDecimal(request.getOrDefault("margenRearme", "0"))));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body("Umbral y margenRearme deben ser números válidos");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Elimina una regla de saldo bajo
+     * @param id ID de la regla
+     * @return Respuesta de éxito
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> eliminarRegla(@PathVariable Long id) {
+        try {
+            reglaSaldoBajoService.eliminarRegla(id);
+            return ResponseEntity.ok().body("Regla eliminada");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
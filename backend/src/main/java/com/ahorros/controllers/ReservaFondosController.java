@@ -0,0 +1,176 @@
+package com.ahorros.controllers;
+
+import com.ahorros.dto.ReservaFondosDTO;
+import com.ahorros.services.ReservaFondosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Controlador REST para las reservas de fondos: autorizar un retiro, y
+ * después capturarlo o liberarlo.
+ */
+@RestController
+@RequestMapping("/reservas")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reservas de fondos", description = "API para autorizar y capturar retiros")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReservaFondosController {
+
+    /**
+     * Servicio de reservas inyectado por Spring.
+     */
+    private final ReservaFondosService reservaFondosService;
+
+    /**
+     * Reserva fondos de una cuenta.
+     *
+     * Endpoint: POST /api/reservas
+     *
+     * @param reservaDTO Cuenta, monto, descripción y minutos hasta el vencimiento (opcional)
+     * @return La reserva creada con código de respuesta 201 (Created)
+     */
+    @PostMapping
+    @Operation(summary = "Reservar fondos", description = "Retiene un monto del saldo disponible hasta capturarlo, liberarlo o que venza")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Reserva creada exitosamente",
+                    content = @Content(schema = @Schema(implementation = ReservaFondosDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos, cuenta no encontrada o saldo disponible insuficiente")
+    })
+    public ResponseEntity<ReservaFondosDTO> crearReserva(
+            @Parameter(description = "Datos de la reserva", required = true)
+            @RequestBody ReservaFondosDTO reservaDTO) {
+
+        log.info("Recibida solicitud para reservar {} en cuenta ID: {}", reservaDTO.getMonto(), reservaDTO.getCuentaId());
+
+        try {
+            ReservaFondosDTO reservaCreada = reservaFondosService.crearReserva(reservaDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservaCreada);
+        } catch (RuntimeException e) {
+            log.error("Error al crear reserva: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene las reservas de una cuenta.
+     *
+     * Endpoint: GET /api/reservas?cuentaId=1
+     *
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de reservas con código de respuesta 200 (OK)
+     */
+    @GetMapping
+    @Operation(summary = "Obtener reservas de una cuenta", description = "Retorna las reservas de la cuenta, de la más reciente a la más antigua")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservas obtenidas exitosamente",
+                    content = @Content(schema = @Schema(implementation = ReservaFondosDTO.class)))
+    })
+    public ResponseEntity<List<ReservaFondosDTO>> obtenerReservas(
+            @Parameter(description = "ID de la cuenta", required = true)
+            @RequestParam Long cuentaId) {
+
+        return ResponseEntity.ok(reservaFondosService.obtenerReservas(cuentaId));
+    }
+
+    /**
+     * Obtiene una reserva por su ID.
+     *
+     * Endpoint: GET /api/reservas/{id}
+     *
+     * @param id El ID de la reserva
+     * @return La reserva con código 200, o 404 si no existe
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener reserva", description = "Retorna el estado de una reserva")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reserva encontrada",
+                    content = @Content(schema = @Schema(implementation = ReservaFondosDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+    })
+    public ResponseEntity<ReservaFondosDTO> obtenerReserva(
+            @Parameter(description = "ID de la reserva", required = true)
+            @PathVariable Long id) {
+
+        try {
+            return ResponseEntity.ok(reservaFondosService.obtenerReserva(id));
+        } catch (RuntimeException e) {
+            log.error("Error al obtener reserva: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Captura una reserva y retira el monto de la cuenta.
+     *
+     * Endpoint: POST /api/reservas/{id}/captura?monto=25.00
+     *
+     * @param id El ID de la reserva
+     * @param monto Monto a capturar (opcional, por defecto el reservado)
+     * @return La reserva capturada con código 200 (OK)
+     */
+    @PostMapping("/{id}/captura")
+    @Operation(summary = "Capturar reserva", description = "Convierte la reserva en un retiro por el monto indicado; el resto se libera")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reserva capturada exitosamente",
+                    content = @Content(schema = @Schema(implementation = ReservaFondosDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Reserva no activa, vencida o monto inválido")
+    })
+    public ResponseEntity<ReservaFondosDTO> capturarReserva(
+            @Parameter(description = "ID de la reserva", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Monto a capturar; por defecto el reservado")
+            @RequestParam(required = false) BigDecimal monto) {
+
+        log.info("Recibida solicitud para capturar la reserva {}", id);
+
+        try {
+            return ResponseEntity.ok(reservaFondosService.capturarReserva(id, monto));
+        } catch (RuntimeException e) {
+            log.error("Error al capturar reserva: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Libera una reserva sin retirar fondos.
+     *
+     * Endpoint: DELETE /api/reservas/{id}
+     *
+     * @param id El ID de la reserva
+     * @return La reserva liberada con código 200 (OK)
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Liberar reserva", description = "Devuelve el monto reservado al saldo disponible")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reserva liberada exitosamente",
+                    content = @Content(schema = @Schema(implementation = ReservaFondosDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Reserva no encontrada o no activa")
+    })
+    public ResponseEntity<ReservaFondosDTO> liberarReserva(
+            @Parameter(description = "ID de la reserva", required = true)
+            @PathVariable Long id) {
+
+        log.info("Recibida solicitud para liberar la reserva {}", id);
+
+        try {
+            return ResponseEntity.ok(reservaFondosService.liberarReserva(id));
+        } catch (RuntimeException e) {
+            log.error("Error al liberar reserva: {}", e.getMessage());
+            throw e;
+        }
+    }
+}
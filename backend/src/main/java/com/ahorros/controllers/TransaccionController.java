@@ -1,7 +1,10 @@
 package com.ahorros.controllers;
 
+import com.ahorros.config.PresupuestoSql;
+import com.ahorros.dto.FiltroTransaccionDTO;
 import com.ahorros.dto.TransaccionDTO;
 import com.ahorros.services.TransaccionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,12 +15,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador REST para la gestión de transacciones de cuentas de ahorros.
@@ -29,8 +35,14 @@ import java.util.List;
  * - POST /transacciones/deposito: Realizar un depósito
  * - POST /transacciones/retiro: Realizar un retiro
  * - GET /transacciones: Obtener todas las transacciones
+ * - GET /transacciones?ids=: Obtener varias transacciones por ID
  * - GET /transacciones/cuenta/{cuentaId}: Obtener transacciones de una cuenta
+ * - GET /transacciones/filtro: Filtrar transacciones combinando criterios
  * - GET /transacciones/estadisticas: Obtener estadísticas de transacciones
+ * 
+ * Cada endpoint declara con @PresupuestoSql cuántas sentencias SQL puede
+ * ejecutar. El filtro no lo declara porque consulta en el hilo de la
+ * respuesta en streaming, fuera de la solicitud.
  */
 @RestController
 @RequestMapping("/transacciones")
@@ -45,6 +57,11 @@ public class TransaccionController {
      */
     private final TransaccionService transaccionService;
 
+    /**
+     * ObjectMapper de la aplicación, usado para las respuestas en streaming.
+     */
+    private final ObjectMapper objectMapper;
+
     /**
      * Realiza un depósito en una cuenta.
      * 
@@ -54,6 +71,7 @@ public class TransaccionController {
      * @return La transacción creada con código de respuesta 201 (Created)
      */
     @PostMapping("/deposito")
+    @PresupuestoSql(max = 6)
     @Operation(summary = "Realizar depósito", description = "Realiza un depósito en una cuenta de ahorros")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Depósito realizado exitosamente",
@@ -88,6 +106,7 @@ public class TransaccionController {
      * @return La transacción creada con código de respuesta 201 (Created)
      */
     @PostMapping("/retiro")
+    @PresupuestoSql(max = 6)
     @Operation(summary = "Realizar retiro", description = "Realiza un retiro de una cuenta de ahorros")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Retiro realizado exitosamente",
@@ -121,6 +140,7 @@ public class TransaccionController {
      * @return Lista de todas las transacciones con código de respuesta 200 (OK)
      */
     @GetMapping
+    @PresupuestoSql(max = 1)
     @Operation(summary = "Obtener todas las transacciones", description = "Retorna todas las transacciones del sistema")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de transacciones obtenida exitosamente",
@@ -135,6 +155,83 @@ public class TransaccionController {
         return ResponseEntity.ok(transacciones);
     }
 
+    /**
+     * Obtiene varias transacciones por sus IDs en una sola petición.
+     * 
+     * Endpoint: GET /api/transacciones?ids=1,2,3&fields=id,monto
+     * 
+     * Si se indica fields, solo se consultan y retornan esos campos.
+     * 
+     * @param ids Los IDs de las transacciones
+     * @param fields Los campos a incluir en la respuesta (opcional)
+     * @return Lista de transacciones encontradas con código de respuesta 200 (OK)
+     */
+    @GetMapping(params = "ids")
+    @PresupuestoSql(max = 1)
+    @Operation(summary = "Obtener varias transacciones por ID", 
+               description = "Retorna las transacciones indicadas, opcionalmente limitadas a algunos campos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de transacciones obtenida exitosamente",
+                    content = @Content(schema = @Schema(implementation = TransaccionDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Demasiados IDs o campo no soportado")
+    })
+    public ResponseEntity<List<?>> obtenerTransaccionesPorIds(
+            @Parameter(description = "IDs de las transacciones separados por comas", required = true)
+            @RequestParam Set<Long> ids,
+            @Parameter(description = "Campos a incluir separados por comas", required = false)
+            @RequestParam(required = false) Set<String> fields) {
+        
+        log.info("Recibida solicitud para obtener {} transacciones por ID", ids.size());
+        
+        try {
+            List<?> transacciones = (fields == null || fields.isEmpty())
+                    ? transaccionService.obtenerTransaccionesPorIds(ids)
+                    : transaccionService.obtenerTransaccionesPorIds(ids, fields);
+            log.info("Se retornaron {} transacciones", transacciones.size());
+            return ResponseEntity.ok(transacciones);
+        } catch (RuntimeException e) {
+            log.error("Error al obtener transacciones: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Filtra transacciones combinando cualquier conjunto de criterios.
+     * 
+     * Endpoint: GET /api/transacciones/filtro?cuentaId=1&tipo=RETIRO&fechaDesde=2024-01-01T00:00:00&orden=fechaTransaccion
+     * 
+     * La respuesta se escribe a medida que se leen las filas y contiene el cursor
+     * para pedir la página siguiente (parámetro cursor).
+     * 
+     * @param filtro Los criterios del filtro
+     * @return Página de transacciones con el cursor siguiente
+     */
+    @GetMapping("/filtro")
+    @Operation(summary = "Filtrar transacciones", 
+               description = "Filtra transacciones por cuenta, tipo, monto y fecha, con paginación por cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de transacciones obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Criterios de orden, tipo o paginación inválidos")
+    })
+    public ResponseEntity<StreamingResponseBody> filtrarTransacciones(
+            @Parameter(description = "Criterios del filtro")
+            @ModelAttribute FiltroTransaccionDTO filtro) {
+        
+        log.info("Recibida solicitud para filtrar transacciones: {}", filtro);
+        
+        try {
+            transaccionService.validarFiltro(filtro);
+        } catch (RuntimeException e) {
+            log.error("Error al filtrar transacciones: {}", e.getMessage());
+            throw e;
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(PaginaStreaming.<TransaccionDTO>de(objectMapper,
+                        consumidor -> transaccionService.filtrarTransacciones(filtro, consumidor)));
+    }
+
     /**
      * Obtiene las transacciones de una cuenta específica.
      * 
@@ -144,6 +241,7 @@ public class TransaccionController {
      * @return Lista de transacciones de la cuenta
      */
     @GetMapping("/cuenta/{cuentaId}")
+    @PresupuestoSql(max = 2)
     @Operation(summary = "Obtener transacciones por cuenta", description = "Retorna todas las transacciones de una cuenta específica")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de transacciones obtenida exitosamente",
@@ -175,6 +273,7 @@ public class TransaccionController {
      * @return La transacción encontrada
      */
     @GetMapping("/{id}")
+    @PresupuestoSql(max = 1)
     @Operation(summary = "Obtener transacción por ID", description = "Retorna una transacción específica por su ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transacción encontrada exitosamente",
@@ -206,6 +305,7 @@ public class TransaccionController {
      * @return Lista de transacciones del tipo especificado
      */
     @GetMapping("/tipo/{tipo}")
+    @PresupuestoSql(max = 1)
     @Operation(summary = "Obtener transacciones por tipo", description = "Retorna transacciones de un tipo específico")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de transacciones obtenida exitosamente",
@@ -233,6 +333,7 @@ public class TransaccionController {
      * @return Lista de transacciones de la cuenta del tipo especificado
      */
     @GetMapping("/cuenta/{cuentaId}/tipo/{tipo}")
+    @PresupuestoSql(max = 2)
     @Operation(summary = "Obtener transacciones por cuenta y tipo", 
                description = "Retorna transacciones de una cuenta específica de un tipo determinado")
     @ApiResponses(value = {
@@ -268,6 +369,7 @@ public class TransaccionController {
      * @return Estadísticas de transacciones de la cuenta
      */
     @GetMapping("/estadisticas/cuenta/{cuentaId}")
+    @PresupuestoSql(max = 2)
     @Operation(summary = "Obtener estadísticas por cuenta", 
                description = "Retorna estadísticas de transacciones de una cuenta específica")
     @ApiResponses(value = {
@@ -300,6 +402,7 @@ public class TransaccionController {
      * @return El total de depósitos
      */
     @GetMapping("/depositos/cuenta/{cuentaId}")
+    @PresupuestoSql(max = 2)
     @Operation(summary = "Obtener total de depósitos por cuenta", 
                description = "Retorna el total de depósitos de una cuenta específica")
     @ApiResponses(value = {
@@ -331,6 +434,7 @@ public class TransaccionController {
      * @return El total de retiros
      */
     @GetMapping("/retiros/cuenta/{cuentaId}")
+    @PresupuestoSql(max = 2)
     @Operation(summary = "Obtener total de retiros por cuenta", 
                description = "Retorna el total de retiros de una cuenta específica")
     @ApiResponses(value = {
@@ -362,6 +466,7 @@ public class TransaccionController {
      * @return Lista de las transacciones más recientes
      */
     @GetMapping("/recientes")
+    @PresupuestoSql(max = 1)
     @Operation(summary = "Obtener transacciones recientes", 
                description = "Retorna las transacciones más recientes del sistema")
     @ApiResponses(value = {
@@ -388,6 +493,7 @@ public class TransaccionController {
      * @return Estadísticas globales de transacciones
      */
     @GetMapping("/estadisticas/globales")
+    @PresupuestoSql(max = 3)
     @Operation(summary = "Obtener estadísticas globales", 
                description = "Retorna estadísticas globales de todas las transacciones del sistema")
     @ApiResponses(value = {
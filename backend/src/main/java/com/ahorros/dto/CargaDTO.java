@@ -0,0 +1,52 @@
+package com.ahorros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con las cuentas, usuarios y endpoints que más llamadas hicieron a los
+ * servicios de cuentas y transacciones en una ventana reciente.
+ *
+ * Las llamadas de cada clave son estimaciones: nunca menores que las reales
+ * y como mucho errorMaximo por encima (con alta probabilidad).
+ */
+@Data
+@NoArgsConstructor
+public class CargaDTO {
+
+    /**
+     * Duración de la ventana efectivamente cubierta, en segundos.
+     */
+    private long ventanaSegundos;
+
+    /**
+     * Llamadas totales en la ventana.
+     */
+    private long llamadas;
+
+    /**
+     * Sobreestimación máxima de las llamadas de una clave.
+     */
+    private long errorMaximo;
+
+    private List<Frecuencia> cuentas = new ArrayList<>();
+
+    private List<Frecuencia> usuarios = new ArrayList<>();
+
+    private List<Frecuencia> endpoints = new ArrayList<>();
+
+    /**
+     * Clave (ID de cuenta, ID de usuario o endpoint) y sus llamadas estimadas.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Frecuencia {
+        private String clave;
+        private long llamadas;
+    }
+}
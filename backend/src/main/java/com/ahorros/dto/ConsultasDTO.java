@@ -0,0 +1,59 @@
+package com.ahorros.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con las estadísticas de las sentencias SQL por firma y el resumen de
+ * las estadísticas de Hibernate.
+ */
+@Data
+@NoArgsConstructor
+public class ConsultasDTO {
+
+    /**
+     * Número de firmas distintas registradas.
+     */
+    private int firmas;
+
+    /**
+     * Duración a partir de la cual una sentencia se registra en el log.
+     */
+    private long umbralLentaMs;
+
+    private List<Consulta> consultas = new ArrayList<>();
+
+    /**
+     * Contadores globales de Hibernate (sesiones, sentencias, cargas, flushes...).
+     */
+    private Map<String, Object> hibernate = new LinkedHashMap<>();
+
+    /**
+     * Acumulados de una firma SQL. Para las consultas el tiempo es el de
+     * ejecución, sin la lectura de las filas.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Consulta {
+
+        private String sql;
+
+        private long ejecuciones;
+
+        private double tiempoTotalMs;
+
+        private double tiempoPromedioMs;
+
+        private double tiempoMaximoMs;
+
+        /**
+         * Filas leídas (consultas) o modificadas (inserciones, actualizaciones y borrados).
+         */
+        private long filas;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * DTO (Data Transfer Object) para la entidad Cuenta.
@@ -25,6 +27,22 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class CuentaDTO {
 
+    /**
+     * Campos que el cliente puede solicitar con el parámetro fields=.
+     * Asocia el nombre del campo en el JSON con su ruta en la entidad Cuenta.
+     */
+    public static final Map<String, String> CAMPOS_PROYECTABLES = new LinkedHashMap<>();
+
+    static {
+        CAMPOS_PROYECTABLES.put("id", "id");
+        CAMPOS_PROYECTABLES.put("numeroCuenta", "numeroCuenta");
+        CAMPOS_PROYECTABLES.put("titular", "titular");
+        CAMPOS_PROYECTABLES.put("saldo", "saldo");
+        CAMPOS_PROYECTABLES.put("activa", "activa");
+        CAMPOS_PROYECTABLES.put("fechaCreacion", "fechaCreacion");
+        CAMPOS_PROYECTABLES.put("fechaActualizacion", "fechaActualizacion");
+    }
+
     /**
      * Identificador único de la cuenta.
      * Se envía al frontend para identificar la cuenta.
@@ -49,6 +67,16 @@ public class CuentaDTO {
      */
     private BigDecimal saldo;
 
+    /**
+     * Suma de las reservas de fondos activas.
+     */
+    private BigDecimal saldoRetenido;
+
+    /**
+     * Saldo que se puede retirar (saldo - saldoRetenido).
+     */
+    private BigDecimal saldoDisponible;
+
     /**
      * Estado de la cuenta (activa/inactiva).
      * Indica si la cuenta está disponible para transacciones.
@@ -67,6 +95,18 @@ public class CuentaDTO {
      */
     private LocalDateTime fechaActualizacion;
 
+    /**
+     * ID del usuario propietario de la cuenta (opcional).
+     * Permite enviarle notificaciones de las transacciones de la cuenta.
+     */
+    private Long usuarioId;
+
+    /**
+     * Perfil de límites de retiro (por ejemplo ESTANDAR).
+     * Determina cuántos retiros y qué monto se permiten por hora y por día.
+     */
+    private String perfilLimites;
+
     /**
      * Constructor que crea un DTO a partir de una entidad Cuenta.
      * Este método facilita la conversión de entidad a DTO.
@@ -78,9 +118,13 @@ public class CuentaDTO {
         this.numeroCuenta = cuenta.getNumeroCuenta();
         this.titular = cuenta.getTitular();
         this.saldo = cuenta.getSaldo();
+        this.saldoRetenido = cuenta.getSaldoRetenido();
+        this.saldoDisponible = cuenta.getSaldoDisponible();
         this.activa = cuenta.getActiva();
         this.fechaCreacion = cuenta.getFechaCreacion();
         this.fechaActualizacion = cuenta.getFechaActualizacion();
+        this.usuarioId = cuenta.getUsuario() != null ? cuenta.getUsuario().getId() : null;
+        this.perfilLimites = cuenta.getPerfilLimites();
     }
 
     /**
@@ -95,6 +139,9 @@ public class CuentaDTO {
         cuenta.setTitular(this.titular);
         cuenta.setSaldo(this.saldo != null ? this.saldo : BigDecimal.ZERO);
         cuenta.setActiva(this.activa != null ? this.activa : true);
+        if (this.perfilLimites != null) {
+            cuenta.setPerfilLimites(this.perfilLimites.toUpperCase());
+        }
         return cuenta;
     }
 } 
\ No newline at end of file
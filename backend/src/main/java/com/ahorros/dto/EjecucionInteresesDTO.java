@@ -0,0 +1,76 @@
+package com.ahorros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con el estado de una ejecución del cálculo de intereses.
+ * 
+ * Los bloques omitidos son los que ya se habían procesado para la misma
+ * fecha (por una ejecución anterior interrumpida o repetida).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EjecucionInteresesDTO {
+
+    /**
+     * Fecha a la que corresponde el interés.
+     */
+    private LocalDate fecha;
+
+    /**
+     * Estado de la ejecución: EN_CURSO, COMPLETADA o CON_ERRORES.
+     */
+    private String estado;
+
+    /**
+     * Número de bloques de cuentas de la ejecución.
+     */
+    private long bloquesTotales;
+
+    /**
+     * Bloques procesados en esta ejecución.
+     */
+    private long bloquesProcesados;
+
+    /**
+     * Bloques omitidos porque ya estaban procesados.
+     */
+    private long bloquesOmitidos;
+
+    /**
+     * Bloques que fallaron; se reintentan al repetir la ejecución.
+     */
+    private long bloquesFallidos;
+
+    /**
+     * Cuentas que recibieron interés en esta ejecución.
+     */
+    private long cuentasAbonadas;
+
+    /**
+     * Suma de los intereses abonados en esta ejecución.
+     */
+    private BigDecimal totalInteres;
+
+    /**
+     * Fecha y hora de inicio.
+     */
+    private LocalDateTime inicio;
+
+    /**
+     * Fecha y hora de fin, o null si sigue en curso.
+     */
+    private LocalDateTime fin;
+
+    /**
+     * Cuentas abonadas por segundo.
+     */
+    private long cuentasPorSegundo;
+}
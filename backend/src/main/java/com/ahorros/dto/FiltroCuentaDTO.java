@@ -0,0 +1,76 @@
+package com.ahorros.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con los criterios del filtro dinámico de cuentas.
+ * 
+ * Todos los criterios son opcionales y se combinan con AND en una única consulta.
+ * Se recibe desde los parámetros de consulta de GET /cuentas/filtro.
+ * 
+ * La paginación es por keyset: el cliente envía el cursor retornado en la
+ * página anterior en lugar de un número de página, por lo que el costo de
+ * cada página no depende de su posición.
+ */
+@Data
+@NoArgsConstructor
+public class FiltroCuentaDTO {
+
+    /**
+     * Saldo mínimo (inclusive).
+     */
+    private BigDecimal saldoMin;
+
+    /**
+     * Saldo máximo (inclusive).
+     */
+    private BigDecimal saldoMax;
+
+    /**
+     * Estado de la cuenta (activa/inactiva).
+     */
+    private Boolean activa;
+
+    /**
+     * Prefijo del nombre del titular.
+     * Se usa LIKE 'prefijo%' para que la búsqueda pueda aprovechar el índice.
+     */
+    private String titular;
+
+    /**
+     * Fecha de creación mínima (inclusive).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fechaDesde;
+
+    /**
+     * Fecha de creación máxima (inclusive).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fechaHasta;
+
+    /**
+     * Campo de ordenamiento: id, saldo, titular o fechaCreacion.
+     */
+    private String orden = "id";
+
+    /**
+     * Dirección del ordenamiento: ASC o DESC.
+     */
+    private String direccion = "ASC";
+
+    /**
+     * Número máximo de resultados de la página.
+     */
+    private int limite = 50;
+
+    /**
+     * Cursor opaco retornado en la página anterior (opcional).
+     */
+    private String cursor;
+}
@@ -0,0 +1,73 @@
+package com.ahorros.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con los criterios del filtro dinámico de transacciones.
+ * 
+ * Todos los criterios son opcionales y se combinan con AND en una única consulta.
+ * Se recibe desde los parámetros de consulta de GET /transacciones/filtro.
+ * 
+ * La paginación es por keyset, igual que en FiltroCuentaDTO.
+ */
+@Data
+@NoArgsConstructor
+public class FiltroTransaccionDTO {
+
+    /**
+     * ID de la cuenta de las transacciones.
+     */
+    private Long cuentaId;
+
+    /**
+     * Tipo de transacción (DEPOSITO o RETIRO).
+     */
+    private String tipo;
+
+    /**
+     * Monto mínimo (inclusive).
+     */
+    private BigDecimal montoMin;
+
+    /**
+     * Monto máximo (inclusive).
+     */
+    private BigDecimal montoMax;
+
+    /**
+     * Fecha de transacción mínima (inclusive).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fechaDesde;
+
+    /**
+     * Fecha de transacción máxima (inclusive).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fechaHasta;
+
+    /**
+     * Campo de ordenamiento: id, monto o fechaTransaccion.
+     */
+    private String orden = "id";
+
+    /**
+     * Dirección del ordenamiento: ASC o DESC.
+     */
+    private String direccion = "ASC";
+
+    /**
+     * Número máximo de resultados de la página.
+     */
+    private int limite = 50;
+
+    /**
+     * Cursor opaco retornado en la página anterior (opcional).
+     */
+    private String cursor;
+}
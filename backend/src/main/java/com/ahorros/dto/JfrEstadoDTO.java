@@ -0,0 +1,41 @@
+package com.ahorros.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el estado de la grabación continua de Java Flight Recorder y los
+ * volcados guardados.
+ */
+@Data
+@NoArgsConstructor
+public class JfrEstadoDTO {
+
+    /**
+     * Si la grabación continua está activa.
+     */
+    private boolean activa;
+
+    /**
+     * Configuración de JFR usada (default o profile).
+     */
+    private String configuracion;
+
+    /**
+     * Antigüedad máxima de los datos que conserva el búfer circular.
+     */
+    private long maxEdadMinutos;
+
+    /**
+     * Tamaño máximo en disco del búfer circular.
+     */
+    private long maxMb;
+
+    /**
+     * Archivos de volcado disponibles, del más reciente al más antiguo.
+     */
+    private List<String> volcados = new ArrayList<>();
+}
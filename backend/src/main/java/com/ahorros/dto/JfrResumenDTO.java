@@ -0,0 +1,103 @@
+package com.ahorros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resumen de un volcado de Java Flight Recorder: métodos que más
+ * CPU usan, dónde se asigna memoria, monitores con más espera y los
+ * depósitos y retiros registrados.
+ *
+ * Las muestras de CPU y de asignación son estadísticas, así que los
+ * porcentajes son aproximados.
+ */
+@Data
+@NoArgsConstructor
+public class JfrResumenDTO {
+
+    private String archivo;
+
+    private LocalDateTime desde;
+
+    private LocalDateTime hasta;
+
+    /**
+     * Muestras de ejecución (jdk.ExecutionSample) en el período.
+     */
+    private long muestrasCpu;
+
+    /**
+     * Métodos en la cima de la pila de las muestras de CPU.
+     */
+    private List<Metodo> metodosCalientes = new ArrayList<>();
+
+    /**
+     * Primer método de la aplicación (com.ahorros) en la pila de las muestras de CPU.
+     */
+    private List<Metodo> metodosPropios = new ArrayList<>();
+
+    /**
+     * Bytes asignados estimados a partir de jdk.ObjectAllocationSample.
+     */
+    private long bytesAsignados;
+
+    private List<Asignacion> asignacionesPorMetodo = new ArrayList<>();
+
+    private List<Asignacion> asignacionesPorClase = new ArrayList<>();
+
+    /**
+     * Monitores con más tiempo de espera para entrar (jdk.JavaMonitorEnter).
+     */
+    private List<Monitor> monitores = new ArrayList<>();
+
+    /**
+     * Depósitos y retiros (evento com.ahorros.Transaccion) por tipo y resultado.
+     */
+    private List<Operaciones> transacciones = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Metodo {
+        private String metodo;
+        private long muestras;
+        private double porcentaje;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Asignacion {
+        private String clave;
+        private long bytes;
+        private double porcentaje;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Monitor {
+        private String clase;
+        private long esperas;
+        private double tiempoTotalMs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Operaciones {
+        private String tipo;
+        private String resultado;
+        private long operaciones;
+        private double duracionPromedioMs;
+        private double duracionMaximaMs;
+        private double tiempoBdPromedioMs;
+        private double sentenciasPromedio;
+        private double esperaConexionPromedioMs;
+        private double esperaBloqueoPromedioMs;
+    }
+}
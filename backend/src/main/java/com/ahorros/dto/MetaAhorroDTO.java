@@ -0,0 +1,91 @@
+package com.ahorros.dto;
+
+import com.ahorros.models.MetaAhorro;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para las metas de ahorro.
+ * 
+ * Al crear una meta solo se envían nombre, montoObjetivo y fechaLimite; el
+ * resto de campos se calculan a partir del estado mantenido de la cuenta.
+ */
+@Data
+@NoArgsConstructor
+public class MetaAhorroDTO {
+
+    /**
+     * Identificador único de la meta.
+     */
+    private Long id;
+
+    /**
+     * ID de la cuenta a la que pertenece la meta.
+     */
+    private Long cuentaId;
+
+    /**
+     * Nombre descriptivo de la meta.
+     */
+    private String nombre;
+
+    /**
+     * Monto que se quiere ahorrar.
+     */
+    private BigDecimal montoObjetivo;
+
+    /**
+     * Fecha límite para alcanzar la meta (opcional).
+     */
+    private LocalDate fechaLimite;
+
+    /**
+     * Monto ahorrado desde la creación de la meta, entre cero y montoObjetivo.
+     */
+    private BigDecimal montoAhorrado;
+
+    /**
+     * Porcentaje de avance (0 a 100).
+     */
+    private BigDecimal porcentaje;
+
+    /**
+     * Indica si la meta ya se alcanzó.
+     */
+    private Boolean alcanzada;
+
+    /**
+     * Fecha y hora en que se alcanzó la meta.
+     */
+    private LocalDateTime fechaAlcanzada;
+
+    /**
+     * Fecha y hora de creación de la meta.
+     */
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Constructor que crea un DTO a partir de una meta y el flujo neto actual de su cuenta.
+     * 
+     * @param meta La meta de ahorro
+     * @param flujoNeto Flujo neto actual de la cuenta
+     */
+    public MetaAhorroDTO(MetaAhorro meta, BigDecimal flujoNeto) {
+        this.id = meta.getId();
+        this.cuentaId = meta.getCuenta().getId();
+        this.nombre = meta.getNombre();
+        this.montoObjetivo = meta.getMontoObjetivo();
+        this.fechaLimite = meta.getFechaLimite();
+        this.montoAhorrado = meta.calcularMontoAhorrado(flujoNeto);
+        this.porcentaje = montoAhorrado.multiply(BigDecimal.valueOf(100))
+                .divide(meta.getMontoObjetivo(), 2, RoundingMode.DOWN);
+        this.alcanzada = meta.getAlcanzada();
+        this.fechaAlcanzada = meta.getFechaAlcanzada();
+        this.fechaCreacion = meta.getFechaCreacion();
+    }
+}
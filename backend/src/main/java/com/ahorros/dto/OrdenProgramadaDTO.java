@@ -0,0 +1,112 @@
+package com.ahorros.dto;
+
+import com.ahorros.models.OrdenProgramada;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para las órdenes programadas.
+ *
+ * Al crear una orden se envían tipo, cuentas, monto, frecuencia, descripción
+ * y fechaInicio (opcional, por defecto ahora); el resto lo mantiene el
+ * planificador.
+ */
+@Data
+@NoArgsConstructor
+public class OrdenProgramadaDTO {
+
+    /**
+     * Identificador único de la orden.
+     */
+    private Long id;
+
+    /**
+     * Tipo de orden (DEPOSITO o TRANSFERENCIA).
+     */
+    private String tipo;
+
+    /**
+     * Cuenta de la que sale el dinero (solo TRANSFERENCIA).
+     */
+    private Long cuentaOrigenId;
+
+    /**
+     * Cuenta que recibe el dinero.
+     */
+    private Long cuentaDestinoId;
+
+    /**
+     * Monto de cada ejecución.
+     */
+    private BigDecimal monto;
+
+    /**
+     * Frecuencia (DIARIA, SEMANAL, QUINCENAL o MENSUAL).
+     */
+    private String frecuencia;
+
+    /**
+     * Descripción de las transacciones generadas.
+     */
+    private String descripcion;
+
+    /**
+     * Fecha y hora de la primera ejecución.
+     */
+    private LocalDateTime fechaInicio;
+
+    /**
+     * Fecha y hora de la próxima ejecución.
+     */
+    private LocalDateTime proximaEjecucion;
+
+    /**
+     * Número de ejecuciones vencidas hasta ahora.
+     */
+    private Integer ejecuciones;
+
+    /**
+     * Fecha y hora de la última ejecución exitosa.
+     */
+    private LocalDateTime ultimaEjecucion;
+
+    /**
+     * Motivo del último fallo.
+     */
+    private String ultimoError;
+
+    /**
+     * Indica si la orden está activa.
+     */
+    private Boolean activa;
+
+    /**
+     * Fecha y hora de creación de la orden.
+     */
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Constructor que crea un DTO a partir de una orden programada.
+     *
+     * @param orden La orden programada
+     */
+    public OrdenProgramadaDTO(OrdenProgramada orden) {
+        this.id = orden.getId();
+        this.tipo = orden.getTipo().name();
+        this.cuentaOrigenId = orden.getCuentaOrigenId();
+        this.cuentaDestinoId = orden.getCuentaDestinoId();
+        this.monto = orden.getMonto();
+        this.frecuencia = orden.getFrecuencia().name();
+        this.descripcion = orden.getDescripcion();
+        this.fechaInicio = orden.getFechaInicio();
+        this.proximaEjecucion = orden.getProximaEjecucion();
+        this.ejecuciones = orden.getEjecuciones();
+        this.ultimaEjecucion = orden.getUltimaEjecucion();
+        this.ultimoError = orden.getUltimoError();
+        this.activa = orden.getActiva();
+        this.fechaCreacion = orden.getFechaCreacion();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ahorros.dto;
+
+import java.util.List;
+
+/**
+ * Página de la bandeja de notificaciones.
+ * siguienteCursor es el id a enviar como cursor para pedir la página siguiente;
+ * es null cuando no hay más notificaciones.
+ */
+public class PaginaNotificacionesDTO {
+    
+    private List<NotificacionDTO> contenido;
+    private Long siguienteCursor;
+    
+    // Constructor vacío
+    public PaginaNotificacionesDTO() {}
+    
+    // Constructor con campos
+    public PaginaNotificacionesDTO(List<NotificacionDTO> contenido, Long siguienteCursor) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+    }
+    
+    // Getters y Setters
+    public List<NotificacionDTO> getContenido() {
+        return contenido;
+    }
+    
+    public void setContenido(List<NotificacionDTO> contenido) {
+        this.contenido = contenido;
+    }
+    
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+    
+    public void setSiguienteCursor(Long siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
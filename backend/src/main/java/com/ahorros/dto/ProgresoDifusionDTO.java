@@ -0,0 +1,112 @@
+package com.ahorros.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de una difusión masiva de notificaciones.
+ * estado es EN_CURSO, COMPLETADA o FALLIDA; totalUsuarios es el número de
+ * usuarios activos al iniciar, así que notificacionesCreadas puede terminar
+ * siendo algo distinto si se activan o desactivan usuarios durante la difusión.
+ */
+public class ProgresoDifusionDTO {
+    
+    private Long id;
+    private String mensaje;
+    private String tipo;
+    private String estado;
+    private long totalUsuarios;
+    private long notificacionesCreadas;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private String error;
+    
+    // Constructor vacío
+    public ProgresoDifusionDTO() {}
+    
+    // Constructor con campos
+    public ProgresoDifusionDTO(Long id, String mensaje, String tipo, String estado, long totalUsuarios,
+                               long notificacionesCreadas, LocalDateTime fechaInicio, LocalDateTime fechaFin, String error) {
+        this.id = id;
+        this.mensaje = mensaje;
+        this.tipo = tipo;
+        this.estado = estado;
+        this.totalUsuarios = totalUsuarios;
+        this.notificacionesCreadas = notificacionesCreadas;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.error = error;
+    }
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getMensaje() {
+        return mensaje;
+    }
+    
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public long getTotalUsuarios() {
+        return totalUsuarios;
+    }
+    
+    public void setTotalUsuarios(long totalUsuarios) {
+        this.totalUsuarios = totalUsuarios;
+    }
+    
+    public long getNotificacionesCreadas() {
+        return notificacionesCreadas;
+    }
+    
+    public void setNotificacionesCreadas(long notificacionesCreadas) {
+        this.notificacionesCreadas = notificacionesCreadas;
+    }
+    
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+    
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+    
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+    
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
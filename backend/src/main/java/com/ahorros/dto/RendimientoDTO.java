@@ -0,0 +1,61 @@
+package com.ahorros.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con el rendimiento de depósitos y retiros en ventanas recientes.
+ */
+@Data
+@NoArgsConstructor
+public class RendimientoDTO {
+
+    /**
+     * Estadísticas por ventana (1, 5 y 15 minutos).
+     */
+    private List<Ventana> ventanas = new ArrayList<>();
+
+    /**
+     * Estadísticas de los últimos segundos completos de una ventana.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Ventana {
+
+        private int segundos;
+
+        private double depositosPorSegundo;
+
+        private double retirosPorSegundo;
+
+        /**
+         * Operaciones fallidas por motivo (solo los motivos con fallos).
+         */
+        private Map<String, Long> fallos = new LinkedHashMap<>();
+
+        private Latencia deposito;
+
+        private Latencia retiro;
+    }
+
+    /**
+     * Percentiles de latencia de un tipo de operación, incluidas las fallidas.
+     * Cada percentil es el límite superior del intervalo del histograma que
+     * lo contiene (error relativo menor al 12,5 %).
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Latencia {
+
+        private long operaciones;
+
+        private Double p50Ms;
+
+        private Double p99Ms;
+    }
+}
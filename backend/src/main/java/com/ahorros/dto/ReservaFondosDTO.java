@@ -0,0 +1,92 @@
+package com.ahorros.dto;
+
+import com.ahorros.models.ReservaFondos;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para las reservas de fondos.
+ *
+ * Al crear una reserva se envían cuentaId, monto, descripcion y, opcionalmente,
+ * minutosExpiracion; el resto lo completa el servidor.
+ */
+@Data
+@NoArgsConstructor
+public class ReservaFondosDTO {
+
+    /**
+     * Identificador único de la reserva.
+     */
+    private Long id;
+
+    /**
+     * ID de la cuenta sobre la que se reservan los fondos.
+     */
+    private Long cuentaId;
+
+    /**
+     * Monto reservado.
+     */
+    private BigDecimal monto;
+
+    /**
+     * Descripción de la reserva.
+     */
+    private String descripcion;
+
+    /**
+     * Minutos hasta que la reserva vence (solo al crear).
+     */
+    private Long minutosExpiracion;
+
+    /**
+     * Estado (ACTIVA, CAPTURADA, LIBERADA o EXPIRADA).
+     */
+    private String estado;
+
+    /**
+     * Fecha y hora en que la reserva vence.
+     */
+    private LocalDateTime fechaExpiracion;
+
+    /**
+     * Fecha y hora en que la reserva dejó de estar activa.
+     */
+    private LocalDateTime fechaResolucion;
+
+    /**
+     * Monto retirado al capturar.
+     */
+    private BigDecimal montoCapturado;
+
+    /**
+     * ID de la transacción de retiro creada al capturar.
+     */
+    private Long transaccionId;
+
+    /**
+     * Fecha y hora de creación de la reserva.
+     */
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Constructor que crea un DTO a partir de una reserva.
+     *
+     * @param reserva La reserva de fondos
+     */
+    public ReservaFondosDTO(ReservaFondos reserva) {
+        this.id = reserva.getId();
+        this.cuentaId = reserva.getCuentaId();
+        this.monto = reserva.getMonto();
+        this.descripcion = reserva.getDescripcion();
+        this.estado = reserva.getEstado().name();
+        this.fechaExpiracion = reserva.getFechaExpiracion();
+        this.fechaResolucion = reserva.getFechaResolucion();
+        this.montoCapturado = reserva.getMontoCapturado();
+        this.transaccionId = reserva.getTransaccionId();
+        this.fechaCreacion = reserva.getFechaCreacion();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ahorros.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resumen agregado del dashboard.
+ *
+ * Reúne en una sola respuesta los datos que el dashboard pedía en llamadas
+ * separadas. Cada sección se calcula de forma independiente: si una no está
+ * disponible (error o fuera de plazo) queda en null y su nombre se agrega a
+ * {@link #seccionesNoDisponibles}, sin afectar al resto.
+ */
+@Data
+@NoArgsConstructor
+public class ResumenDashboardDTO {
+
+    public static final String SECCION_ESTADISTICAS_CUENTAS = "estadisticasCuentas";
+    public static final String SECCION_ESTADISTICAS_TRANSACCIONES = "estadisticasTransacciones";
+    public static final String SECCION_TRANSACCIONES_RECIENTES = "transaccionesRecientes";
+    public static final String SECCION_CUENTAS_ACTIVAS = "cuentasActivas";
+    public static final String SECCION_NOTIFICACIONES_NO_LEIDAS = "notificacionesNoLeidas";
+
+    /**
+     * Estadísticas de cuentas [total cuentas, cuentas activas, saldo total].
+     */
+    private Object[] estadisticasCuentas;
+
+    /**
+     * Estadísticas globales de transacciones [total depósitos, total retiros, total transacciones].
+     */
+    private Object[] estadisticasTransacciones;
+
+    /**
+     * Transacciones más recientes del sistema.
+     */
+    private List<TransaccionDTO> transaccionesRecientes;
+
+    /**
+     * Cuentas activas.
+     */
+    private List<CuentaDTO> cuentasActivas;
+
+    /**
+     * Notificaciones no leídas del usuario (solo si se indicó usuarioId).
+     */
+    private Long notificacionesNoLeidas;
+
+    /**
+     * Secciones que no pudieron calcularse dentro del plazo.
+     */
+    private List<String> seccionesNoDisponibles = new ArrayList<>();
+}
@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * DTO (Data Transfer Object) para la entidad Transaccion.
@@ -20,6 +22,26 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class TransaccionDTO {
 
+    /**
+     * Campos que el cliente puede solicitar con el parámetro fields=.
+     * Asocia el nombre del campo en el JSON con su ruta en la entidad Transaccion.
+     * tipoDescripcion se deriva de la columna tipo, y los datos de la cuenta
+     * se obtienen con un join sobre la relación cuenta.
+     */
+    public static final Map<String, String> CAMPOS_PROYECTABLES = new LinkedHashMap<>();
+
+    static {
+        CAMPOS_PROYECTABLES.put("id", "id");
+        CAMPOS_PROYECTABLES.put("tipo", "tipo");
+        CAMPOS_PROYECTABLES.put("tipoDescripcion", "tipo");
+        CAMPOS_PROYECTABLES.put("monto", "monto");
+        CAMPOS_PROYECTABLES.put("saldoResultante", "saldoResultante");
+        CAMPOS_PROYECTABLES.put("descripcion", "descripcion");
+        CAMPOS_PROYECTABLES.put("fechaTransaccion", "fechaTransaccion");
+        CAMPOS_PROYECTABLES.put("cuentaId", "cuenta.id");
+        CAMPOS_PROYECTABLES.put("numeroCuenta", "cuenta.numeroCuenta");
+    }
+
     /**
      * Identificador único de la transacción.
      */
@@ -20,7 +20,7 @@ import java.util.List;
  * 
  * Esta clase utiliza anotaciones de JPA para mapear la tabla en la base de datos:
  * - @Entity: Indica que esta clase es una entidad JPA
- * - @Table: Define el nombre de la tabla en la base de datos
+ * - @Table: Define el nombre de la tabla y los índices usados por el filtro dinámico
  * - @Id: Marca el campo como clave primaria
  * - @GeneratedValue: Configura la generación automática del ID
  * 
@@ -32,7 +32,11 @@ import java.util.List;
  * Lombok se utiliza para generar automáticamente getters, setters, constructores, etc.
  */
 @Entity
-@Table(name = "cuentas")
+@Table(name = "cuentas", indexes = {
+    @Index(name = "idx_cuentas_saldo", columnList = "saldo"),
+    @Index(name = "idx_cuentas_titular", columnList = "titular"),
+    @Index(name = "idx_cuentas_fecha_creacion", columnList = "fecha_creacion")
+})
 @Data                   // Genera getters, setters, toString, equals, hashCode
 @NoArgsConstructor      // Constructor sin argumentos
 @AllArgsConstructor     // Constructor con todos los argumentos
@@ -95,6 +99,36 @@ public class Cuenta {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
 
+    /**
+     * Suma de los depósitos menos los retiros desde la creación de la cuenta.
+     * Las metas de ahorro miden su progreso contra este acumulado, así que un
+     * movimiento solo tiene que sumarse aquí.
+     */
+    @Column(name = "flujo_neto", nullable = false, precision = 15, scale = 2)
+    private BigDecimal flujoNeto = BigDecimal.ZERO;
+
+    /**
+     * Menor flujo neto objetivo entre las metas pendientes, o null si no hay.
+     * Permite saber con una sola comparación si un depósito alcanzó alguna meta.
+     */
+    @Column(name = "proxima_meta_flujo", precision = 15, scale = 2)
+    private BigDecimal proximaMetaFlujo;
+
+    /**
+     * Suma de las reservas de fondos activas de la cuenta.
+     * El saldo disponible para retirar es saldo - saldoRetenido; el saldo
+     * contable (saldo) no cambia hasta que una reserva se captura. Quien lo
+     * modifica debe leer la cuenta con CuentaRepository.findByIdParaActualizar.
+     */
+    @Column(name = "saldo_retenido", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoRetenido = BigDecimal.ZERO;
+
+    /**
+     * Perfil de límites de retiro de la cuenta (ver LimitesRetiro).
+     */
+    @Column(name = "perfil_limites", nullable = false, length = 30)
+    private String perfilLimites = "ESTANDAR";
+
     /**
      * Lista de transacciones asociadas a esta cuenta.
      * Relación uno a muchos: una cuenta puede tener muchas transacciones.
@@ -105,6 +139,13 @@ public class Cuenta {
     @OneToMany(mappedBy = "cuenta", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaccion> transacciones = new ArrayList<>();
 
+    /**
+     * Metas de ahorro de la cuenta.
+     * Se eliminan junto con la cuenta.
+     */
+    @OneToMany(mappedBy = "cuenta", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<MetaAhorro> metas = new ArrayList<>();
+
     /**
      * Usuario propietario de la cuenta.
      * Relación muchos a uno: muchos usuarios pueden tener muchas cuentas.
@@ -146,21 +187,66 @@ public class Cuenta {
             throw new IllegalArgumentException("El monto del depósito debe ser positivo");
         }
         this.saldo = this.saldo.add(monto);
+        this.flujoNeto = this.flujoNeto.add(monto);
     }
 
     /**
      * Método para realizar un retiro de la cuenta.
      * 
      * @param monto El monto a retirar
-     * @throws IllegalArgumentException si el monto es negativo o excede el saldo
+     * @throws IllegalArgumentException si el monto es negativo o excede el saldo disponible
      */
     public void retirar(BigDecimal monto) {
         if (monto.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("El monto del retiro debe ser positivo");
         }
-        if (monto.compareTo(this.saldo) > 0) {
+        if (monto.compareTo(getSaldoDisponible()) > 0) {
             throw new IllegalArgumentException("Saldo insuficiente para realizar el retiro");
         }
         this.saldo = this.saldo.subtract(monto);
+        this.flujoNeto = this.flujoNeto.subtract(monto);
+    }
+
+    /**
+     * Indica si el flujo neto actual alcanzó la meta pendiente más cercana.
+     * 
+     * @return true si hay al menos una meta pendiente alcanzada
+     */
+    public boolean alcanzaProximaMeta() {
+        return proximaMetaFlujo != null && flujoNeto.compareTo(proximaMetaFlujo) >= 0;
+    }
+
+    /**
+     * Obtiene el saldo que se puede retirar o reservar.
+     * 
+     * @return Saldo menos las reservas activas
+     */
+    public BigDecimal getSaldoDisponible() {
+        return saldo.subtract(saldoRetenido);
+    }
+
+    /**
+     * Método para reservar fondos de la cuenta sin retirarlos.
+     * 
+     * @param monto El monto a reservar
+     * @throws IllegalArgumentException si el monto es negativo o excede el saldo disponible
+     */
+    public void retener(BigDecimal monto) {
+        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El monto de la reserva debe ser positivo");
+        }
+        if (monto.compareTo(getSaldoDisponible()) > 0) {
+            throw new IllegalArgumentException("Saldo disponible insuficiente para la reserva");
+        }
+        this.saldoRetenido = this.saldoRetenido.add(monto);
+    }
+
+    /**
+     * Método para liberar fondos reservados.
+     * 
+     * @param monto El monto reservado a liberar
+     */
+    public void liberar(BigDecimal monto) {
+        this.saldoRetenido = this.saldoRetenido.subtract(monto).max(BigDecimal.ZERO);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.ahorros.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Punto de control del cálculo diario de intereses.
+ * 
+ * Cada fila registra que el bloque de cuentas [idDesde, idHasta] ya recibió
+ * el interés de una fecha. Se inserta en la misma transacción que los abonos
+ * del bloque, así que un bloque está completo o no aparece; la restricción
+ * única impide abonar dos veces el mismo bloque y fecha.
+ */
+@Entity
+@Table(name = "lotes_interes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_lotes_interes_fecha_desde", columnNames = {"fecha", "id_desde"})
+})
+@Data
+@NoArgsConstructor
+public class LoteInteres {
+
+    /**
+     * Identificador único del lote (clave primaria).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Fecha a la que corresponde el interés.
+     */
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * Primer ID de cuenta del bloque (inclusivo).
+     */
+    @Column(name = "id_desde", nullable = false)
+    private Long idDesde;
+
+    /**
+     * Último ID de cuenta del bloque (inclusivo).
+     */
+    @Column(name = "id_hasta", nullable = false)
+    private Long idHasta;
+
+    /**
+     * Número de cuentas que recibieron interés en el bloque.
+     */
+    @Column(nullable = false)
+    private Integer cuentas;
+
+    /**
+     * Suma de los intereses abonados en el bloque.
+     */
+    @Column(name = "total_interes", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalInteres;
+
+    /**
+     * Fecha y hora en que se procesó el bloque.
+     */
+    @Column(name = "fecha_proceso", nullable = false)
+    private LocalDateTime fechaProceso;
+
+    /**
+     * Constructor con los datos del bloque procesado.
+     * 
+     * @param fecha Fecha del interés
+     * @param idDesde Primer ID del bloque
+     * @param idHasta Último ID del bloque
+     * @param cuentas Cuentas abonadas
+     * @param totalInteres Total abonado
+     */
+    public LoteInteres(LocalDate fecha, Long idDesde, Long idHasta, Integer cuentas, BigDecimal totalInteres) {
+        this.fecha = fecha;
+        this.idDesde = idDesde;
+        this.idHasta = idHasta;
+        this.cuentas = cuentas;
+        this.totalInteres = totalInteres;
+        this.fechaProceso = LocalDateTime.now();
+    }
+}
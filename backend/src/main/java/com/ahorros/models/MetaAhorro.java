@@ -0,0 +1,132 @@
+package com.ahorros.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una meta de ahorro de una cuenta.
+ * 
+ * El progreso no se guarda ni se recalcula desde el historial: la meta guarda
+ * el flujo neto de la cuenta al crearse (flujoInicial) y el flujo neto que
+ * debe alcanzar (flujoObjetivo = flujoInicial + montoObjetivo). El monto
+ * ahorrado es en todo momento el flujo neto actual de la cuenta menos
+ * flujoInicial.
+ */
+@Entity
+@Table(name = "metas_ahorro", indexes = {
+    @Index(name = "idx_metas_ahorro_pendientes", columnList = "cuenta_id, alcanzada, flujo_objetivo")
+})
+@Data
+@NoArgsConstructor
+public class MetaAhorro {
+
+    /**
+     * Identificador único de la meta (clave primaria).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Nombre descriptivo de la meta.
+     */
+    @Column(nullable = false)
+    @NotBlank(message = "El nombre de la meta es obligatorio")
+    private String nombre;
+
+    /**
+     * Monto que se quiere ahorrar.
+     */
+    @Column(name = "monto_objetivo", nullable = false, precision = 15, scale = 2)
+    @NotNull(message = "El monto objetivo es obligatorio")
+    @Positive(message = "El monto objetivo debe ser positivo")
+    private BigDecimal montoObjetivo;
+
+    /**
+     * Fecha límite para alcanzar la meta (opcional).
+     */
+    @Column(name = "fecha_limite")
+    private LocalDate fechaLimite;
+
+    /**
+     * Flujo neto de la cuenta al crear la meta.
+     */
+    @Column(name = "flujo_inicial", nullable = false, precision = 15, scale = 2)
+    private BigDecimal flujoInicial;
+
+    /**
+     * Flujo neto de la cuenta con el que la meta se considera alcanzada.
+     */
+    @Column(name = "flujo_objetivo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal flujoObjetivo;
+
+    /**
+     * Indica si la meta ya se alcanzó. Una vez alcanzada no vuelve a pendiente.
+     */
+    @Column(nullable = false)
+    private Boolean alcanzada = false;
+
+    /**
+     * Fecha y hora en que se alcanzó la meta.
+     */
+    @Column(name = "fecha_alcanzada")
+    private LocalDateTime fechaAlcanzada;
+
+    /**
+     * Fecha y hora de creación de la meta.
+     */
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Cuenta a la que pertenece la meta.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cuenta_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Cuenta cuenta;
+
+    /**
+     * Constructor para una meta nueva.
+     * 
+     * @param nombre Nombre de la meta
+     * @param montoObjetivo Monto a ahorrar
+     * @param fechaLimite Fecha límite (opcional)
+     * @param cuenta Cuenta de la meta; su flujo neto actual es el punto de partida
+     */
+    public MetaAhorro(String nombre, BigDecimal montoObjetivo, LocalDate fechaLimite, Cuenta cuenta) {
+        this.nombre = nombre;
+        this.montoObjetivo = montoObjetivo;
+        this.fechaLimite = fechaLimite;
+        this.cuenta = cuenta;
+        this.flujoInicial = cuenta.getFlujoNeto();
+        this.flujoObjetivo = this.flujoInicial.add(montoObjetivo);
+    }
+
+    /**
+     * Calcula el monto ahorrado para la meta, entre cero y el monto objetivo.
+     * 
+     * @param flujoNeto Flujo neto actual de la cuenta
+     * @return Monto ahorrado
+     */
+    public BigDecimal calcularMontoAhorrado(BigDecimal flujoNeto) {
+        BigDecimal ahorrado = flujoNeto.subtract(flujoInicial);
+        if (ahorrado.signum() < 0) {
+            return BigDecimal.ZERO;
+        }
+        return ahorrado.min(montoObjetivo);
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notificaciones")
+@Table(name = "notificaciones", indexes = {
+    @Index(name = "idx_notificaciones_usuario_id", columnList = "usuario_id, id"),
+    @Index(name = "idx_notificaciones_leida_fecha", columnList = "leida, fecha_creacion")
+})
 public class Notificacion {
     
     @Id
@@ -23,6 +26,9 @@ public class Notificacion {
     @Column(nullable = false)
     private boolean leida = false;
     
+    @Column(name = "difusion_id", length = 36)
+    private String difusionId; // Solo en las notificaciones creadas por una difusión masiva
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     private Usuario usuario;
@@ -78,6 +84,14 @@ public class Notificacion {
         this.leida = leida;
     }
     
+    public String getDifusionId() {
+        return difusionId;
+    }
+    
+    public void setDifusionId(String difusionId) {
+        this.difusionId = difusionId;
+    }
+    
     public Usuario getUsuario() {
         return usuario;
     }
@@ -0,0 +1,85 @@
+package com.ahorros.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Notificación leída que la tarea de retención sacó de la tabla principal.
+ * Conserva el id original y guarda el usuario como id simple, sin relación.
+ */
+@Entity
+@Table(name = "notificaciones_archivadas", indexes = {
+    @Index(name = "idx_notificaciones_archivadas_usuario", columnList = "usuario_id")
+})
+public class NotificacionArchivada {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String mensaje;
+    
+    @Column(nullable = false)
+    private String tipo;
+    
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+    
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+    
+    @Column(nullable = false)
+    private LocalDateTime fechaArchivado;
+    
+    // Constructores
+    public NotificacionArchivada() {}
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getMensaje() {
+        return mensaje;
+    }
+    
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+    
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+    
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+    
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+    
+    public LocalDateTime getFechaArchivado() {
+        return fechaArchivado;
+    }
+    
+    public void setFechaArchivado(LocalDateTime fechaArchivado) {
+        this.fechaArchivado = fechaArchivado;
+    }
+}
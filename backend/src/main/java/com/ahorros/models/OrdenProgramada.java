@@ -0,0 +1,173 @@
+package com.ahorros.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una orden programada: un depósito recurrente en
+ * una cuenta o una transferencia recurrente entre dos cuentas.
+ *
+ * Las ejecuciones se calculan desde fechaInicio (fechaInicio + n períodos)
+ * y no desde la ejecución anterior, así una orden mensual del día 31 se
+ * ejecuta el último día de los meses cortos sin desplazarse después.
+ */
+@Entity
+@Table(name = "ordenes_programadas", indexes = {
+    @Index(name = "idx_ordenes_programadas_destino", columnList = "cuenta_destino_id"),
+    @Index(name = "idx_ordenes_programadas_origen", columnList = "cuenta_origen_id")
+})
+@Data
+@NoArgsConstructor
+public class OrdenProgramada {
+
+    /**
+     * Identificador único de la orden (clave primaria).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Tipo de orden.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoOrden tipo;
+
+    /**
+     * Cuenta de la que sale el dinero (solo transferencias).
+     */
+    @Column(name = "cuenta_origen_id")
+    private Long cuentaOrigenId;
+
+    /**
+     * Cuenta que recibe el dinero.
+     */
+    @Column(name = "cuenta_destino_id", nullable = false)
+    private Long cuentaDestinoId;
+
+    /**
+     * Monto de cada ejecución.
+     */
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal monto;
+
+    /**
+     * Frecuencia de ejecución.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Frecuencia frecuencia;
+
+    /**
+     * Descripción que llevan las transacciones generadas.
+     */
+    @Column(length = 255)
+    private String descripcion;
+
+    /**
+     * Fecha y hora de la primera ejecución.
+     */
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDateTime fechaInicio;
+
+    /**
+     * Número de ejecuciones vencidas hasta ahora (ejecutadas, fallidas u omitidas).
+     */
+    @Column(nullable = false)
+    private Integer ejecuciones = 0;
+
+    /**
+     * Fecha y hora de la próxima ejecución.
+     */
+    @Column(name = "proxima_ejecucion", nullable = false)
+    private LocalDateTime proximaEjecucion;
+
+    /**
+     * Fecha y hora de la última ejecución exitosa.
+     */
+    @Column(name = "ultima_ejecucion")
+    private LocalDateTime ultimaEjecucion;
+
+    /**
+     * Motivo del último fallo, o null si la última ejecución fue exitosa.
+     */
+    @Column(name = "ultimo_error", length = 255)
+    private String ultimoError;
+
+    /**
+     * Indica si la orden está activa. Una orden cancelada no vuelve a ejecutarse.
+     */
+    @Column(nullable = false)
+    private Boolean activa = true;
+
+    /**
+     * Versión para control de concurrencia optimista: si dos procesos ejecutan
+     * el mismo vencimiento solo uno confirma su transacción.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Fecha y hora de creación de la orden.
+     */
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Cuenta la ejecución vencida y calcula la siguiente a partir de fechaInicio.
+     */
+    public void avanzar() {
+        ejecuciones++;
+        proximaEjecucion = frecuencia.sumar(fechaInicio, ejecuciones);
+    }
+
+    /**
+     * Tipos de orden programada.
+     */
+    public enum TipoOrden {
+        DEPOSITO("Depósito recurrente"),
+        TRANSFERENCIA("Transferencia recurrente");
+
+        private final String descripcion;
+
+        TipoOrden(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Frecuencias de ejecución.
+     */
+    public enum Frecuencia {
+        DIARIA,
+        SEMANAL,
+        QUINCENAL,
+        MENSUAL;
+
+        /**
+         * Suma un número de períodos a una fecha.
+         * @param fecha Fecha de partida
+         * @param periodos Número de períodos
+         * @return Fecha resultante
+         */
+        public LocalDateTime sumar(LocalDateTime fecha, long periodos) {
+            return switch (this) {
+                case DIARIA -> fecha.plusDays(periodos);
+                case SEMANAL -> fecha.plusWeeks(periodos);
+                case QUINCENAL -> fecha.plusWeeks(2 * periodos);
+                case MENSUAL -> fecha.plusMonths(periodos);
+            };
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ahorros.models;
+
+/**
+ * Política de entrega de las notificaciones de transacciones de un usuario.
+ * Las alertas de saldo bajo se entregan siempre de inmediato.
+ */
+public enum PoliticaNotificacion {
+    INMEDIATA,      // Una notificación por transacción
+    AGRUPADA,       // Una notificación por cuenta y tipo en cada ventana de tiempo
+    RESUMEN_DIARIO  // Una notificación por día con el resumen de todas las cuentas
+}
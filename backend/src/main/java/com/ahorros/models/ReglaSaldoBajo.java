@@ -0,0 +1,97 @@
+package com.ahorros.models;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Regla de alerta de saldo bajo para una cuenta o para todas las cuentas de un usuario.
+ * La alerta se dispara cuando el saldo baja de umbral y se rearma cuando vuelve
+ * a ser al menos umbral + margenRearme.
+ */
+@Entity
+@Table(name = "reglas_saldo_bajo", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reglas_saldo_bajo_cuenta", columnNames = "cuenta_id"),
+    @UniqueConstraint(name = "uk_reglas_saldo_bajo_usuario", columnNames = "usuario_id")
+})
+public class ReglaSaldoBajo {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal umbral;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal margenRearme = BigDecimal.ZERO;
+    
+    @Column(nullable = false)
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public ReglaSaldoBajo() {}
+    
+    public ReglaSaldoBajo(Long cuentaId, Long usuarioId, BigDecimal umbral, BigDecimal margenRearme) {
+        this.cuentaId = cuentaId;
+        this.usuarioId = usuarioId;
+        this.umbral = umbral;
+        this.margenRearme = margenRearme;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+    
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+    
+    public BigDecimal getUmbral() {
+        return umbral;
+    }
+    
+    public void setUmbral(BigDecimal umbral) {
+        this.umbral = umbral;
+    }
+    
+    public BigDecimal getMargenRearme() {
+        return margenRearme;
+    }
+    
+    public void setMargenRearme(BigDecimal margenRearme) {
+        this.margenRearme = margenRearme;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ahorros.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una reserva de fondos (autorización) sobre una cuenta.
+ *
+ * Mientras está ACTIVA su monto se suma a Cuenta.saldoRetenido y no se puede
+ * retirar. Termina al capturarse (se convierte en un retiro por el monto
+ * capturado), al liberarse o al vencer fechaExpiracion.
+ */
+@Entity
+@Table(name = "reservas_fondos", indexes = {
+    @Index(name = "idx_reservas_fondos_cuenta", columnList = "cuenta_id"),
+    @Index(name = "idx_reservas_fondos_estado", columnList = "estado")
+})
+@Data
+@NoArgsConstructor
+public class ReservaFondos {
+
+    /**
+     * Identificador único de la reserva (clave primaria).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Cuenta sobre la que se reservan los fondos.
+     */
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    /**
+     * Monto reservado.
+     */
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal monto;
+
+    /**
+     * Descripción de la reserva; se usa también en el retiro al capturarla.
+     */
+    @Column(length = 255)
+    private String descripcion;
+
+    /**
+     * Estado de la reserva.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoReserva estado = EstadoReserva.ACTIVA;
+
+    /**
+     * Fecha y hora en que la reserva vence si no se captura ni se libera.
+     */
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    /**
+     * Fecha y hora en que la reserva dejó de estar activa.
+     */
+    @Column(name = "fecha_resolucion")
+    private LocalDateTime fechaResolucion;
+
+    /**
+     * Monto finalmente retirado al capturar (puede ser menor que el reservado).
+     */
+    @Column(name = "monto_capturado", precision = 15, scale = 2)
+    private BigDecimal montoCapturado;
+
+    /**
+     * Transacción de retiro creada al capturar.
+     */
+    @Column(name = "transaccion_id")
+    private Long transaccionId;
+
+    /**
+     * Versión para control de concurrencia optimista: una captura y el
+     * vencimiento de la misma reserva no pueden confirmarse los dos.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Fecha y hora de creación de la reserva.
+     */
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    /**
+     * Indica si la reserva sigue activa y no venció.
+     *
+     * @param ahora Fecha y hora de referencia
+     * @return true si todavía se puede capturar
+     */
+    public boolean estaVigente(LocalDateTime ahora) {
+        return estado == EstadoReserva.ACTIVA && fechaExpiracion.isAfter(ahora);
+    }
+
+    /**
+     * Marca la reserva como terminada con el estado dado.
+     *
+     * @param nuevoEstado CAPTURADA, LIBERADA o EXPIRADA
+     */
+    public void resolver(EstadoReserva nuevoEstado) {
+        this.estado = nuevoEstado;
+        this.fechaResolucion = LocalDateTime.now();
+    }
+
+    /**
+     * Estados de una reserva de fondos.
+     */
+    public enum EstadoReserva {
+        ACTIVA,
+        CAPTURADA,
+        LIBERADA,
+        EXPIRADA
+    }
+}
@@ -25,7 +25,11 @@ import java.time.LocalDateTime;
  * - El saldo resultante después de la transacción
  */
 @Entity
-@Table(name = "transacciones")
+@Table(name = "transacciones", indexes = {
+    @Index(name = "idx_transacciones_cuenta_fecha", columnList = "cuenta_id, fecha_transaccion"),
+    @Index(name = "idx_transacciones_fecha", columnList = "fecha_transaccion"),
+    @Index(name = "idx_transacciones_monto", columnList = "monto")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -102,7 +106,12 @@ public class Transaccion {
         /**
          * Transacción de retiro (retirar dinero de la cuenta).
          */
-        RETIRO("Retiro");
+        RETIRO("Retiro"),
+
+        /**
+         * Abono de intereses generado por el cálculo diario de intereses.
+         */
+        INTERES("Interés");
 
         private final String descripcion;
 
@@ -27,6 +27,10 @@ public class Usuario {
     @Column(nullable = false)
     private boolean activo = true;
     
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PoliticaNotificacion politicaNotificaciones = PoliticaNotificacion.INMEDIATA;
+    
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Cuenta> cuentas;
     
@@ -92,6 +96,14 @@ public class Usuario {
         this.activo = activo;
     }
     
+    public PoliticaNotificacion getPoliticaNotificaciones() {
+        return politicaNotificaciones;
+    }
+    
+    public void setPoliticaNotificaciones(PoliticaNotificacion politicaNotificaciones) {
+        this.politicaNotificaciones = politicaNotificaciones;
+    }
+    
     public List<Cuenta> getCuentas() {
         return cuentas;
     }
@@ -1,12 +1,15 @@
 package com.ahorros.repositories;
 
 import com.ahorros.models.Cuenta;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +39,40 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
      */
     Optional<Cuenta> findByNumeroCuenta(String numeroCuenta);
 
+    /**
+     * Busca varias cuentas por ID en una sola consulta (cláusula IN).
+     * 
+     * @param ids Los IDs de las cuentas
+     * @return Lista de cuentas encontradas, ordenadas por ID
+     */
+    List<Cuenta> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Busca una cuenta por ID bloqueando su fila (SELECT ... FOR UPDATE) hasta
+     * el fin de la transacción.
+     * 
+     * Las operaciones que modifican una cuenta deben leerla con este método:
+     * Hibernate actualiza todas las columnas de la entidad, así que dos
+     * transacciones que la leyeran sin bloqueo se pisarían el saldo.
+     * 
+     * @param id El ID de la cuenta
+     * @return Optional que contiene la cuenta bloqueada si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.id = :id")
+    Optional<Cuenta> findByIdParaActualizar(@Param("id") Long id);
+
+    /**
+     * Busca varias cuentas por ID bloqueando sus filas, en orden de ID para que
+     * dos transacciones que bloquean cuentas en común no se esperen en ciclo.
+     * 
+     * @param ids Los IDs de las cuentas
+     * @return Lista de cuentas bloqueadas, ordenadas por ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.id IN :ids ORDER BY c.id")
+    List<Cuenta> findByIdInParaActualizar(@Param("ids") Collection<Long> ids);
+
     /**
      * Busca cuentas por el nombre del titular.
      * 
@@ -162,4 +199,20 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
      */
     @Query("SELECT SUM(c.saldo) FROM Cuenta c WHERE c.activa = true")
     BigDecimal getSaldoTotalActivas();
-} 
\ No newline at end of file
+
+    /**
+     * Consulta personalizada para obtener el menor ID de cuenta.
+     * 
+     * @return El menor ID, o null si no hay cuentas
+     */
+    @Query("SELECT MIN(c.id) FROM Cuenta c")
+    Long findMinId();
+
+    /**
+     * Consulta personalizada para obtener el mayor ID de cuenta.
+     * 
+     * @return El mayor ID, o null si no hay cuentas
+     */
+    @Query("SELECT MAX(c.id) FROM Cuenta c")
+    Long findMaxId();
+}
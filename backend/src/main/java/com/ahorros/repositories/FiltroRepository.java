@@ -0,0 +1,306 @@
+package com.ahorros.repositories;
+
+import com.ahorros.dto.FiltroCuentaDTO;
+import com.ahorros.dto.FiltroTransaccionDTO;
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.Transaccion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio para el filtro dinámico de cuentas y transacciones.
+ *
+ * Construye con la Criteria API una única consulta a partir de cualquier
+ * combinación de criterios de FiltroCuentaDTO / FiltroTransaccionDTO, en lugar
+ * de tener un método fijo por cada combinación posible.
+ *
+ * Características de la consulta generada:
+ * - Los predicados se ordenan de más a menos selectivo (igualdad por clave,
+ *   prefijo, rangos cerrados, rangos abiertos, categorías y booleanos)
+ * - El prefijo del titular usa LIKE 'x%' para poder usar el índice sobre titular
+ * - La paginación es por keyset (campo de orden + id como desempate), por lo
+ *   que nunca se usa OFFSET
+ * - Los resultados se leen como Stream con un fetch size acotado
+ */
+@Repository
+public class FiltroRepository {
+
+    /**
+     * Número máximo de resultados por página.
+     */
+    public static final int LIMITE_MAXIMO = 500;
+
+    /**
+     * Campos por los que se puede ordenar (y paginar) cada entidad, con su tipo.
+     * Todos son columnas no nulas con índice o clave primaria.
+     */
+    private static final Map<String, Class<?>> ORDENES_CUENTA = Map.of(
+            "id", Long.class, "saldo", BigDecimal.class, "titular", String.class, "fechaCreacion", LocalDateTime.class);
+    private static final Map<String, Class<?>> ORDENES_TRANSACCION = Map.of(
+            "id", Long.class, "monto", BigDecimal.class, "fechaTransaccion", LocalDateTime.class);
+
+    /**
+     * Selectividad estimada de cada clase de predicado (menor = más selectivo).
+     */
+    private static final int SELECTIVIDAD_IGUALDAD_CLAVE = 0;
+    private static final int SELECTIVIDAD_PREFIJO = 1;
+    private static final int SELECTIVIDAD_RANGO_CERRADO = 2;
+    private static final int SELECTIVIDAD_RANGO_ABIERTO = 3;
+    private static final int SELECTIVIDAD_CATEGORIA = 4;
+    private static final int SELECTIVIDAD_BOOLEANO = 5;
+
+    /**
+     * EntityManager compartido inyectado por Spring.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Valida los parámetros de ordenamiento y paginación del filtro de cuentas.
+     *
+     * @param filtro El filtro a validar
+     * @throws RuntimeException si el orden, la dirección, el límite o el cursor no son válidos
+     */
+    public void validar(FiltroCuentaDTO filtro) {
+        validarPaginacion(ORDENES_CUENTA, filtro.getOrden(), filtro.getDireccion(), filtro.getLimite(), filtro.getCursor());
+    }
+
+    /**
+     * Valida los parámetros de ordenamiento y paginación del filtro de transacciones.
+     *
+     * @param filtro El filtro a validar
+     * @throws RuntimeException si el orden, la dirección, el límite, el cursor o el tipo no son válidos
+     */
+    public void validar(FiltroTransaccionDTO filtro) {
+        validarPaginacion(ORDENES_TRANSACCION, filtro.getOrden(), filtro.getDireccion(), filtro.getLimite(), filtro.getCursor());
+        if (filtro.getTipo() != null) {
+            Transaccion.TipoTransaccion.valueOf(filtro.getTipo().toUpperCase());
+        }
+    }
+
+    /**
+     * Ejecuta el filtro de cuentas.
+     * El Stream debe cerrarse y consumirse dentro de una transacción.
+     *
+     * @param filtro Los criterios del filtro
+     * @return Stream con las cuentas de la página solicitada
+     */
+    public Stream<Cuenta> filtrarCuentas(FiltroCuentaDTO filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Cuenta> consulta = cb.createQuery(Cuenta.class);
+        Root<Cuenta> cuenta = consulta.from(Cuenta.class);
+
+        List<Map.Entry<Integer, Predicate>> predicados = new ArrayList<>();
+        agregarRango(cb, predicados, cuenta.<BigDecimal>get("saldo"), filtro.getSaldoMin(), filtro.getSaldoMax());
+        agregarRango(cb, predicados, cuenta.<LocalDateTime>get("fechaCreacion"), filtro.getFechaDesde(), filtro.getFechaHasta());
+        if (filtro.getTitular() != null && !filtro.getTitular().isBlank()) {
+            predicados.add(Map.entry(SELECTIVIDAD_PREFIJO,
+                    cb.like(cuenta.<String>get("titular"), escaparLike(filtro.getTitular()) + "%", '\\')));
+        }
+        if (filtro.getActiva() != null) {
+            predicados.add(Map.entry(SELECTIVIDAD_BOOLEANO, cb.equal(cuenta.get("activa"), filtro.getActiva())));
+        }
+
+        return ejecutar(cb, consulta, cuenta, predicados,
+                filtro.getOrden(), filtro.getDireccion(), filtro.getCursor(), filtro.getLimite());
+    }
+
+    /**
+     * Ejecuta el filtro de transacciones.
+     * La cuenta asociada se carga en el mismo join para construir los DTOs.
+     * El Stream debe cerrarse y consumirse dentro de una transacción.
+     *
+     * @param filtro Los criterios del filtro
+     * @return Stream con las transacciones de la página solicitada
+     */
+    public Stream<Transaccion> filtrarTransacciones(FiltroTransaccionDTO filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaccion> consulta = cb.createQuery(Transaccion.class);
+        Root<Transaccion> transaccion = consulta.from(Transaccion.class);
+        transaccion.fetch("cuenta", JoinType.INNER);
+
+        List<Map.Entry<Integer, Predicate>> predicados = new ArrayList<>();
+        if (filtro.getCuentaId() != null) {
+            predicados.add(Map.entry(SELECTIVIDAD_IGUALDAD_CLAVE,
+                    cb.equal(transaccion.get("cuenta").get("id"), filtro.getCuentaId())));
+        }
+        agregarRango(cb, predicados, transaccion.<LocalDateTime>get("fechaTransaccion"), filtro.getFechaDesde(), filtro.getFechaHasta());
+        agregarRango(cb, predicados, transaccion.<BigDecimal>get("monto"), filtro.getMontoMin(), filtro.getMontoMax());
+        if (filtro.getTipo() != null) {
+            predicados.add(Map.entry(SELECTIVIDAD_CATEGORIA, cb.equal(transaccion.get("tipo"),
+                    Transaccion.TipoTransaccion.valueOf(filtro.getTipo().toUpperCase()))));
+        }
+
+        return ejecutar(cb, consulta, transaccion, predicados,
+                filtro.getOrden(), filtro.getDireccion(), filtro.getCursor(), filtro.getLimite());
+    }
+
+    /**
+     * Genera el cursor de la página siguiente a partir de la última cuenta leída.
+     *
+     * @param cuenta La última cuenta de la página
+     * @param orden El campo de ordenamiento del filtro
+     * @return El cursor opaco
+     */
+    public static String cursorDe(Cuenta cuenta, String orden) {
+        Object valor = switch (orden) {
+            case "saldo" -> cuenta.getSaldo();
+            case "titular" -> cuenta.getTitular();
+            case "fechaCreacion" -> cuenta.getFechaCreacion();
+            default -> cuenta.getId();
+        };
+        return codificarCursor(valor, cuenta.getId());
+    }
+
+    /**
+     * Genera el cursor de la página siguiente a partir de la última transacción leída.
+     *
+     * @param transaccion La última transacción de la página
+     * @param orden El campo de ordenamiento del filtro
+     * @return El cursor opaco
+     */
+    public static String cursorDe(Transaccion transaccion, String orden) {
+        Object valor = switch (orden) {
+            case "monto" -> transaccion.getMonto();
+            case "fechaTransaccion" -> transaccion.getFechaTransaccion();
+            default -> transaccion.getId();
+        };
+        return codificarCursor(valor, transaccion.getId());
+    }
+
+    /**
+     * Aplica predicados, ordenamiento, keyset y límite, y ejecuta la consulta como Stream.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> Stream<T> ejecutar(CriteriaBuilder cb, CriteriaQuery<T> consulta, Root<T> raiz,
+                                   List<Map.Entry<Integer, Predicate>> predicados,
+                                   String orden, String direccion, String cursor, int limite) {
+        boolean descendente = "DESC".equalsIgnoreCase(direccion);
+        Expression<Comparable> campo = raiz.get(orden);
+        Expression<Long> id = raiz.get("id");
+
+        // Keyset: continuar justo después de la última fila de la página anterior
+        if (cursor != null && !cursor.isBlank()) {
+            String[] partes = decodificarCursor(cursor);
+            Comparable valor = convertir(partes[0], campo.getJavaType());
+            Long ultimoId = Long.valueOf(partes[1]);
+
+            Predicate despues;
+            if ("id".equals(orden)) {
+                despues = descendente ? cb.lessThan(id, ultimoId) : cb.greaterThan(id, ultimoId);
+            } else {
+                Predicate desempate = descendente ? cb.lessThan(id, ultimoId) : cb.greaterThan(id, ultimoId);
+                despues = cb.or(
+                        descendente ? cb.lessThan(campo, valor) : cb.greaterThan(campo, valor),
+                        cb.and(cb.equal(campo, valor), desempate));
+            }
+            predicados.add(Map.entry(SELECTIVIDAD_RANGO_ABIERTO, despues));
+        }
+
+        // Los predicados más selectivos primero
+        predicados.sort(Map.Entry.comparingByKey());
+        consulta.where(predicados.stream().map(Map.Entry::getValue).toArray(Predicate[]::new));
+
+        if ("id".equals(orden)) {
+            consulta.orderBy(descendente ? cb.desc(id) : cb.asc(id));
+        } else {
+            consulta.orderBy(descendente ? cb.desc(campo) : cb.asc(campo),
+                    descendente ? cb.desc(id) : cb.asc(id));
+        }
+
+        return entityManager.createQuery(consulta)
+                .setMaxResults(limite)
+                .setHint("org.hibernate.fetchSize", Math.min(limite, 100))
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+
+    /**
+     * Agrega un predicado de rango; es cerrado si se indican ambos extremos.
+     */
+    private <Y extends Comparable<? super Y>> void agregarRango(CriteriaBuilder cb,
+                                                                 List<Map.Entry<Integer, Predicate>> predicados,
+                                                                 Path<Y> campo, Y minimo, Y maximo) {
+        if (minimo != null && maximo != null) {
+            predicados.add(Map.entry(SELECTIVIDAD_RANGO_CERRADO, cb.between(campo, minimo, maximo)));
+        } else if (minimo != null) {
+            predicados.add(Map.entry(SELECTIVIDAD_RANGO_ABIERTO, cb.greaterThanOrEqualTo(campo, minimo)));
+        } else if (maximo != null) {
+            predicados.add(Map.entry(SELECTIVIDAD_RANGO_ABIERTO, cb.lessThanOrEqualTo(campo, maximo)));
+        }
+    }
+
+    private void validarPaginacion(Map<String, Class<?>> ordenes, String orden, String direccion, int limite, String cursor) {
+        if (!ordenes.containsKey(orden)) {
+            throw new RuntimeException("Campo de orden no soportado: " + orden);
+        }
+        if (!"ASC".equalsIgnoreCase(direccion) && !"DESC".equalsIgnoreCase(direccion)) {
+            throw new RuntimeException("La dirección debe ser ASC o DESC");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new RuntimeException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            // El valor también se convierte aquí: si fallara al ejecutar la
+            // consulta, la respuesta en streaming ya habría empezado
+            String valor = decodificarCursor(cursor)[0];
+            try {
+                convertir(valor, ordenes.get(orden));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Cursor inválido");
+            }
+        }
+    }
+
+    private static String codificarCursor(Object valor, Long id) {
+        String texto = valor + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf('|');
+            String[] partes = {texto.substring(0, separador), texto.substring(separador + 1)};
+            Long.valueOf(partes[1]);
+            return partes;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable convertir(String valor, Class<?> tipo) {
+        if (tipo == BigDecimal.class) {
+            return new BigDecimal(valor);
+        }
+        if (tipo == LocalDateTime.class) {
+            return LocalDateTime.parse(valor);
+        }
+        if (tipo == Long.class) {
+            return Long.valueOf(valor);
+        }
+        return valor;
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,26 @@
+package com.ahorros.repositories;
+
+import com.ahorros.models.LoteInteres;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de los puntos de control del cálculo de intereses.
+ */
+@Repository
+public interface LoteInteresRepository extends JpaRepository<LoteInteres, Long> {
+
+    /**
+     * Obtiene el inicio de los bloques ya procesados para una fecha.
+     * 
+     * @param fecha Fecha del interés
+     * @return Lista de IDs iniciales de los bloques procesados
+     */
+    @Query("SELECT l.idDesde FROM LoteInteres l WHERE l.fecha = :fecha")
+    List<Long> findIdDesdeByFecha(@Param("fecha") LocalDate fecha);
+}
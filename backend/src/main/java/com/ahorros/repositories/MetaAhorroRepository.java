@@ -0,0 +1,55 @@
+package com.ahorros.repositories;
+
+import com.ahorros.models.MetaAhorro;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para las metas de ahorro.
+ */
+@Repository
+public interface MetaAhorroRepository extends JpaRepository<MetaAhorro, Long> {
+
+    /**
+     * Busca las metas de una cuenta en orden de creación.
+     * 
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de metas de la cuenta
+     */
+    List<MetaAhorro> findByCuentaIdOrderByIdAsc(Long cuentaId);
+
+    /**
+     * Busca una meta de una cuenta.
+     * 
+     * @param id El ID de la meta
+     * @param cuentaId El ID de la cuenta
+     * @return Optional con la meta si existe y pertenece a la cuenta
+     */
+    Optional<MetaAhorro> findByIdAndCuentaId(Long id, Long cuentaId);
+
+    /**
+     * Busca las metas pendientes de una cuenta que el flujo neto dado ya alcanza.
+     * 
+     * @param cuentaId El ID de la cuenta
+     * @param flujoNeto Flujo neto actual de la cuenta
+     * @return Lista de metas alcanzadas, de la menor a la mayor
+     */
+    @Query("SELECT m FROM MetaAhorro m WHERE m.cuenta.id = :cuentaId AND m.alcanzada = false " +
+           "AND m.flujoObjetivo <= :flujoNeto ORDER BY m.flujoObjetivo")
+    List<MetaAhorro> findPendientesAlcanzadas(@Param("cuentaId") Long cuentaId, @Param("flujoNeto") BigDecimal flujoNeto);
+
+    /**
+     * Obtiene el menor flujo objetivo entre las metas pendientes de una cuenta.
+     * 
+     * @param cuentaId El ID de la cuenta
+     * @return Flujo objetivo más cercano, o null si no hay metas pendientes
+     */
+    @Query("SELECT MIN(m.flujoObjetivo) FROM MetaAhorro m WHERE m.cuenta.id = :cuentaId AND m.alcanzada = false")
+    BigDecimal findProximoFlujoObjetivo(@Param("cuentaId") Long cuentaId);
+}
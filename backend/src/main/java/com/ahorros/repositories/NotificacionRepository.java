@@ -1,12 +1,16 @@
 package com.ahorros.repositories;
 
 import com.ahorros.models.Notificacion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -33,19 +37,143 @@ public interface NotificacionRepository extends JpaRepository<Notificacion, Long
      */
     long countByUsuarioIdAndLeidaFalse(Long usuarioId);
     
+    /**
+     * Busca las notificaciones de un usuario posteriores a un id, en orden de creación
+     * @param usuarioId ID del usuario
+     * @param id Id a partir del cual buscar (exclusivo)
+     * @return Como máximo 100 notificaciones
+     */
+    List<Notificacion> findTop100ByUsuarioIdAndIdGreaterThanOrderByIdAsc(Long usuarioId, Long id);
+    
+    /**
+     * Cuenta las notificaciones no leídas de varios usuarios en una sola consulta
+     * @param usuarioIds IDs de los usuarios
+     * @return Filas [usuarioId, cantidad]; los usuarios sin no leídas no aparecen
+     */
+    @Query("SELECT n.usuario.id, COUNT(n) FROM Notificacion n WHERE n.leida = false AND n.usuario.id IN :usuarioIds GROUP BY n.usuario.id")
+    List<Object[]> contarNoLeidasPorUsuario(@Param("usuarioIds") Collection<Long> usuarioIds);
+    
     /**
      * Marca todas las notificaciones de un usuario como leídas
      * @param usuarioId ID del usuario
+     * @return Número de notificaciones que estaban no leídas
      */
+    @Transactional
     @Modifying
-    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.usuario.id = :usuarioId")
-    void marcarTodasComoLeidas(@Param("usuarioId") Long usuarioId);
+    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.usuario.id = :usuarioId AND n.leida = false")
+    int marcarTodasComoLeidas(@Param("usuarioId") Long usuarioId);
     
     /**
      * Marca una notificación específica como leída
      * @param notificacionId ID de la notificación
+     * @return 1 si la notificación estaba no leída, 0 si ya estaba leída
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.id = :notificacionId AND n.leida = false")
+    int marcarComoLeida(@Param("notificacionId") Long notificacionId);
+    
+    /**
+     * Página de la bandeja de un usuario: notificaciones con id menor al cursor, de la más nueva a la más antigua
+     * @param usuarioId ID del usuario
+     * @param cursor Id a partir del cual buscar (exclusivo)
+     * @param limite Tamaño de la página
+     * @return Lista de notificaciones
+     */
+    List<Notificacion> findByUsuarioIdAndIdLessThanOrderByIdDesc(Long usuarioId, Long cursor, Limit limite);
+    
+    /**
+     * Igual que la página de la bandeja, solo con las notificaciones no leídas
+     * @param usuarioId ID del usuario
+     * @param cursor Id a partir del cual buscar (exclusivo)
+     * @param limite Tamaño de la página
+     * @return Lista de notificaciones no leídas
+     */
+    List<Notificacion> findByUsuarioIdAndLeidaFalseAndIdLessThanOrderByIdDesc(Long usuarioId, Long cursor, Limit limite);
+    
+    /**
+     * Cuenta, por usuario, cuántas de las notificaciones indicadas están no leídas
+     * @param ids IDs de las notificaciones
+     * @return Filas [usuarioId, cantidad]
+     */
+    @Query("SELECT n.usuario.id, COUNT(n) FROM Notificacion n WHERE n.id IN :ids AND n.leida = false GROUP BY n.usuario.id")
+    List<Object[]> contarNoLeidasPorUsuarioEnIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Marca como leídas varias notificaciones en una sola sentencia
+     * @param ids IDs de las notificaciones
+     * @return Número de notificaciones que estaban no leídas
      */
+    @Transactional
     @Modifying
-    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.id = :notificacionId")
-    void marcarComoLeida(@Param("notificacionId") Long notificacionId);
-} 
\ No newline at end of file
+    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.id IN :ids AND n.leida = false")
+    int marcarComoLeidas(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Marca como leídas las notificaciones indicadas que pertenecen a un usuario
+     * @param ids IDs de las notificaciones
+     * @param usuarioId ID del usuario
+     * @return Número de notificaciones del usuario que estaban no leídas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notificacion n SET n.leida = true WHERE n.id IN :ids AND n.usuario.id = :usuarioId AND n.leida = false")
+    int marcarComoLeidasDeUsuario(@Param("ids") Collection<Long> ids, @Param("usuarioId") Long usuarioId);
+    
+    /**
+     * Busca ids de notificaciones leídas creadas antes de una fecha, para la retención
+     * @param fechaLimite Fecha de creación máxima (exclusiva)
+     * @param lote Cantidad máxima de ids
+     * @return Lista de ids en orden ascendente
+     */
+    @Query("SELECT n.id FROM Notificacion n WHERE n.leida = true AND n.fechaCreacion < :fechaLimite ORDER BY n.id")
+    List<Long> findIdsLeidasAnterioresA(@Param("fechaLimite") LocalDateTime fechaLimite, Limit lote);
+    
+    /**
+     * Copia notificaciones a la tabla de archivadas
+     * @param ids IDs de las notificaciones
+     * @param fechaArchivado Fecha de archivado
+     * @return Número de notificaciones copiadas
+     */
+    @Modifying
+    @Query("INSERT INTO NotificacionArchivada (id, mensaje, tipo, fechaCreacion, usuarioId, fechaArchivado) " +
+           "SELECT n.id, n.mensaje, n.tipo, n.fechaCreacion, n.usuario.id, :fechaArchivado FROM Notificacion n WHERE n.id IN :ids")
+    int archivar(@Param("ids") Collection<Long> ids, @Param("fechaArchivado") LocalDateTime fechaArchivado);
+    
+    /**
+     * Elimina varias notificaciones en una sola sentencia
+     * @param ids IDs de las notificaciones
+     * @return Número de notificaciones eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM Notificacion n WHERE n.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Crea la misma notificación para todos los usuarios activos de un rango de ids, en una sola sentencia
+     * @param mensaje Mensaje de la notificación
+     * @param tipo Tipo de la notificación
+     * @param fechaCreacion Fecha de creación
+     * @param difusionId Identificador de la difusión, guardado en cada notificación
+     * @param desde Id de usuario inicial (inclusivo)
+     * @param hasta Id de usuario final (inclusivo)
+     * @return Número de notificaciones creadas
+     */
+    @Modifying
+    @Query("INSERT INTO Notificacion (mensaje, tipo, fechaCreacion, leida, difusionId, usuario) " +
+           "SELECT :mensaje, :tipo, :fechaCreacion, false, :difusionId, u FROM Usuario u " +
+           "WHERE u.activo = true AND u.id BETWEEN :desde AND :hasta")
+    int difundir(@Param("mensaje") String mensaje, @Param("tipo") String tipo,
+                 @Param("fechaCreacion") LocalDateTime fechaCreacion, @Param("difusionId") String difusionId,
+                 @Param("desde") Long desde, @Param("hasta") Long hasta);
+    
+    /**
+     * Busca las notificaciones de una difusión para algunos usuarios
+     * @param usuarioIds IDs de los usuarios
+     * @param difusionId Identificador de la difusión
+     * @return Lista de notificaciones
+     */
+    @Query("SELECT n FROM Notificacion n WHERE n.usuario.id IN :usuarioIds AND n.difusionId = :difusionId")
+    List<Notificacion> findDifundidas(@Param("usuarioIds") Collection<Long> usuarioIds,
+                                      @Param("difusionId") String difusionId);
+}
@@ -0,0 +1,34 @@
+package com.ahorros.repositories;
+
+import com.ahorros.models.OrdenProgramada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para las órdenes programadas.
+ */
+@Repository
+public interface OrdenProgramadaRepository extends JpaRepository<OrdenProgramada, Long> {
+
+    /**
+     * Busca las órdenes en las que participa una cuenta, como origen o destino.
+     *
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de órdenes en orden de creación
+     */
+    @Query("SELECT o FROM OrdenProgramada o WHERE o.cuentaDestinoId = :cuentaId OR o.cuentaOrigenId = :cuentaId ORDER BY o.id")
+    List<OrdenProgramada> findByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    /**
+     * Obtiene el ID y la próxima ejecución de todas las órdenes activas,
+     * sin cargar las entidades.
+     *
+     * @return Lista de pares [id, proximaEjecucion]
+     */
+    @Query("SELECT o.id, o.proximaEjecucion FROM OrdenProgramada o WHERE o.activa = true")
+    List<Object[]> findProgramacionActivas();
+}
@@ -0,0 +1,82 @@
+package com.ahorros.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Repositorio para consultas con proyección parcial de columnas.
+ *
+ * Permite seleccionar solo los campos solicitados por el cliente (sparse fieldsets)
+ * en lugar de cargar la entidad completa. La consulta JPQL se construye a partir de
+ * un mapa de campos permitidos (nombre en el JSON -> ruta JPA), de modo que nunca se
+ * concatena texto proveniente de la petición HTTP.
+ *
+ * Todas las búsquedas se resuelven con una única consulta usando la cláusula IN.
+ */
+@Repository
+public class ProyeccionRepository {
+
+    /**
+     * EntityManager compartido inyectado por Spring.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Filtra el mapa de campos permitidos dejando solo los solicitados.
+     *
+     * @param permitidos Mapa de campos proyectables de un DTO
+     * @param solicitados Nombres de campos pedidos por el cliente
+     * @return Mapa ordenado con los campos solicitados y sus rutas JPA
+     * @throws RuntimeException si se solicita un campo no soportado
+     */
+    public Map<String, String> resolverCampos(Map<String, String> permitidos, Collection<String> solicitados) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        for (String campo : solicitados) {
+            String ruta = permitidos.get(campo.trim());
+            if (ruta == null) {
+                throw new RuntimeException("Campo no soportado: " + campo);
+            }
+            campos.put(campo.trim(), ruta);
+        }
+        return campos;
+    }
+
+    /**
+     * Busca varias entidades por ID proyectando solo los campos indicados.
+     *
+     * @param entidad Nombre de la entidad JPA (por ejemplo "Cuenta")
+     * @param campos Mapa ordenado de nombre de campo en el resultado -> ruta JPA (por ejemplo "cuentaId" -> "cuenta.id")
+     * @param ids Los IDs a buscar
+     * @return Lista de mapas (campo -> valor) en el orden de los IDs
+     */
+    public List<Map<String, Object>> buscarPorIds(String entidad, Map<String, String> campos, Collection<Long> ids) {
+        StringJoiner select = new StringJoiner(", ");
+        campos.forEach((alias, ruta) -> select.add("e." + ruta + " AS " + alias));
+
+        String jpql = "SELECT " + select + " FROM " + entidad + " e WHERE e.id IN :ids ORDER BY e.id";
+
+        List<Tuple> filas = entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        List<Map<String, Object>> resultado = new ArrayList<>(filas.size());
+        for (Tuple fila : filas) {
+            Map<String, Object> valores = new LinkedHashMap<>();
+            for (String alias : campos.keySet()) {
+                valores.put(alias, fila.get(alias));
+            }
+            resultado.add(valores);
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ahorros.repositories;
+
+import com.ahorros.models.ReglaSaldoBajo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ReglaSaldoBajoRepository extends JpaRepository<ReglaSaldoBajo, Long> {
+    
+    /**
+     * Busca la regla de una cuenta
+     * @param cuentaId ID de la cuenta
+     * @return Optional con la regla si existe
+     */
+    Optional<ReglaSaldoBajo> findByCuentaId(Long cuentaId);
+    
+    /**
+     * Busca la regla general de un usuario
+     * @param usuarioId ID del usuario
+     * @return Optional con la regla si existe
+     */
+    Optional<ReglaSaldoBajo> findByUsuarioId(Long usuarioId);
+    
+    /**
+     * Fecha de la última modificación de cualquier regla
+     * @return Fecha máxima de actualización, o null si no hay reglas
+     */
+    @Query("SELECT MAX(r.fechaActualizacion) FROM ReglaSaldoBajo r")
+    LocalDateTime findUltimaActualizacion();
+}
@@ -0,0 +1,34 @@
+package com.ahorros.repositories;
+
+import com.ahorros.models.ReservaFondos;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para las reservas de fondos.
+ */
+@Repository
+public interface ReservaFondosRepository extends JpaRepository<ReservaFondos, Long> {
+
+    /**
+     * Busca las reservas de una cuenta, de la más reciente a la más antigua.
+     *
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de reservas de la cuenta
+     */
+    List<ReservaFondos> findByCuentaIdOrderByIdDesc(Long cuentaId);
+
+    /**
+     * Obtiene el ID y la fecha de expiración de las reservas en un estado,
+     * sin cargar las entidades.
+     *
+     * @param estado Estado de las reservas (normalmente ACTIVA)
+     * @return Lista de pares [id, fechaExpiracion]
+     */
+    @Query("SELECT r.id, r.fechaExpiracion FROM ReservaFondos r WHERE r.estado = :estado")
+    List<Object[]> findExpiracionPorEstado(@Param("estado") ReservaFondos.EstadoReserva estado);
+}
@@ -8,7 +8,9 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para la entidad Transaccion.
@@ -30,11 +32,41 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
 
     /**
      * Busca transacciones de una cuenta ordenadas por fecha (más recientes primero).
+     * La cuenta se carga en el mismo join.
      * 
      * @param cuentaId El ID de la cuenta
      * @return Lista de transacciones ordenadas por fecha descendente
      */
-    List<Transaccion> findByCuentaIdOrderByFechaTransaccionDesc(Long cuentaId);
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta c WHERE c.id = :cuentaId ORDER BY t.fechaTransaccion DESC")
+    List<Transaccion> findByCuentaIdOrderByFechaTransaccionDesc(@Param("cuentaId") Long cuentaId);
+
+    /**
+     * Busca todas las transacciones con su cuenta en una sola consulta.
+     * 
+     * @return Lista de todas las transacciones
+     */
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta")
+    List<Transaccion> findAllConCuenta();
+
+    /**
+     * Busca una transacción por ID con su cuenta en una sola consulta.
+     * 
+     * @param id El ID de la transacción
+     * @return La transacción si existe
+     */
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta WHERE t.id = :id")
+    Optional<Transaccion> findByIdConCuenta(@Param("id") Long id);
+
+    /**
+     * Busca varias transacciones por ID en una sola consulta.
+     * La cuenta asociada se carga en el mismo join para evitar una consulta
+     * adicional por cada transacción al construir los DTOs.
+     * 
+     * @param ids Los IDs de las transacciones
+     * @return Lista de transacciones encontradas, ordenadas por ID
+     */
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta WHERE t.id IN :ids ORDER BY t.id")
+    List<Transaccion> findByIdInConCuenta(@Param("ids") Collection<Long> ids);
 
     /**
      * Busca transacciones por tipo (DEPOSITO o RETIRO).
@@ -42,7 +74,8 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
      * @param tipo El tipo de transacción
      * @return Lista de transacciones del tipo especificado
      */
-    List<Transaccion> findByTipo(Transaccion.TipoTransaccion tipo);
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta WHERE t.tipo = :tipo")
+    List<Transaccion> findByTipo(@Param("tipo") Transaccion.TipoTransaccion tipo);
 
     /**
      * Busca transacciones de una cuenta por tipo.
@@ -51,7 +84,8 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
      * @param tipo El tipo de transacción
      * @return Lista de transacciones de la cuenta del tipo especificado
      */
-    List<Transaccion> findByCuentaIdAndTipo(Long cuentaId, Transaccion.TipoTransaccion tipo);
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta c WHERE c.id = :cuentaId AND t.tipo = :tipo")
+    List<Transaccion> findByCuentaIdAndTipo(@Param("cuentaId") Long cuentaId, @Param("tipo") Transaccion.TipoTransaccion tipo);
 
     /**
      * Busca transacciones con monto mayor al especificado.
@@ -184,7 +218,7 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
      * @param limit El número máximo de transacciones a retornar
      * @return Lista de las transacciones más recientes
      */
-    @Query("SELECT t FROM Transaccion t ORDER BY t.fechaTransaccion DESC")
+    @Query("SELECT t FROM Transaccion t JOIN FETCH t.cuenta ORDER BY t.fechaTransaccion DESC LIMIT :limit")
     List<Transaccion> findTopTransaccionesRecientes(@Param("limit") int limit);
 
     /**
@@ -200,12 +234,22 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
      * Obtiene estadísticas de transacciones por cuenta.
      * 
      * @param cuentaId El ID de la cuenta
-     * @return Array con [total depósitos, total retiros, número de transacciones]
+     * @return Una sola fila con [total depósitos, total retiros, número de transacciones]
      */
     @Query("SELECT " +
            "COALESCE(SUM(CASE WHEN t.tipo = 'DEPOSITO' THEN t.monto ELSE 0 END), 0), " +
            "COALESCE(SUM(CASE WHEN t.tipo = 'RETIRO' THEN t.monto ELSE 0 END), 0), " +
            "COUNT(t) " +
            "FROM Transaccion t WHERE t.cuenta.id = :cuentaId")
-    Object[] getEstadisticasTransaccionesByCuentaId(@Param("cuentaId") Long cuentaId);
-} 
\ No newline at end of file
+    List<Object[]> getEstadisticasTransaccionesByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    /**
+     * Obtiene los movimientos de un tipo posteriores a una fecha, sin cargar las entidades.
+     * 
+     * @param tipo El tipo de transacción
+     * @param desde Fecha desde la que buscar
+     * @return Lista de [cuentaId, monto, fechaTransaccion]
+     */
+    @Query("SELECT t.cuenta.id, t.monto, t.fechaTransaccion FROM Transaccion t WHERE t.tipo = :tipo AND t.fechaTransaccion >= :desde")
+    List<Object[]> findMovimientosDesde(@Param("tipo") Transaccion.TipoTransaccion tipo, @Param("desde") LocalDateTime desde);
+}
@@ -1,7 +1,10 @@
 package com.ahorros.repositories;
 
 import com.ahorros.models.Usuario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -29,4 +32,19 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      * @return Lista de usuarios activos
      */
     List<Usuario> findByActivoTrue();
-} 
\ No newline at end of file
+    
+    /**
+     * Cuenta los usuarios activos
+     * @return Número de usuarios activos
+     */
+    long countByActivoTrue();
+    
+    /**
+     * Busca solo los ids de usuarios activos posteriores a un id, en orden ascendente
+     * @param cursor Id a partir del cual buscar (exclusivo)
+     * @param limite Cantidad máxima de ids
+     * @return Lista de ids
+     */
+    @Query("SELECT u.id FROM Usuario u WHERE u.activo = true AND u.id > :cursor ORDER BY u.id")
+    List<Long> findIdsActivosPosterioresA(@Param("cursor") Long cursor, Limit limite);
+}
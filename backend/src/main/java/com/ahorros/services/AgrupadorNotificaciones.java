@@ -0,0 +1,170 @@
+package com.ahorros.services;
+
+import com.ahorros.models.PoliticaNotificacion;
+import com.ahorros.models.Usuario;
+import com.ahorros.repositories.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Agrupa en memoria las notificaciones de transacciones según la política de cada usuario.
+ *
+ * Con la política AGRUPADA las transacciones de una misma cuenta y tipo se
+ * acumulan durante una ventana (notificaciones.agrupacion.ventana-segundos) y
+ * se escribe una sola notificación al cerrarla. Con RESUMEN_DIARIO se acumulan
+ * hasta la publicación del resumen diario. NotificacionService extrae los
+ * grupos cerrados y escribe las notificaciones; esta clase no toca la tabla
+ * de notificaciones.
+ *
+ * Las políticas se cachean por usuario al primer uso y se actualizan al
+ * cambiarlas, así que evaluar una transacción no consulta la base de datos.
+ */
+@Component
+public class AgrupadorNotificaciones {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${notificaciones.agrupacion.ventana-segundos:300}")
+    private long ventanaSegundos;
+
+    private final Map<Long, PoliticaNotificacion> politicas = new ConcurrentHashMap<>();
+    private final Map<Clave, Grupo> grupos = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene la política de un usuario (cacheada).
+     * @param usuarioId ID del usuario
+     * @return Política del usuario, INMEDIATA si no existe
+     */
+    public PoliticaNotificacion obtenerPolitica(Long usuarioId) {
+        return politicas.computeIfAbsent(usuarioId, id -> usuarioRepository.findById(id)
+                .map(Usuario::getPoliticaNotificaciones)
+                .orElse(PoliticaNotificacion.INMEDIATA));
+    }
+
+    /**
+     * Actualiza la política cacheada de un usuario. Los grupos ya abiertos se
+     * cierran con la política con la que se abrieron.
+     * @param usuarioId ID del usuario
+     * @param politica Nueva política
+     */
+    public void actualizarPolitica(Long usuarioId, PoliticaNotificacion politica) {
+        politicas.put(usuarioId, politica);
+    }
+
+    /**
+     * Agrega una transacción al grupo que le corresponde, si el usuario no tiene política inmediata.
+     * La acumulación ocurre después del commit de la transacción actual.
+     * @param usuarioId ID del usuario
+     * @param tipoTransaccion Tipo de transacción (DEPOSITO, RETIRO)
+     * @param monto Monto de la transacción
+     * @param numeroCuenta Número de cuenta
+     * @return true si la transacción quedó agrupada, false si debe notificarse de inmediato
+     */
+    public boolean agregar(Long usuarioId, String tipoTransaccion, BigDecimal monto, String numeroCuenta) {
+        PoliticaNotificacion politica = obtenerPolitica(usuarioId);
+        if (politica == PoliticaNotificacion.INMEDIATA) {
+            return false;
+        }
+        Clave clave = new Clave(usuarioId, numeroCuenta, tipoTransaccion);
+        DespuesDelCommit.ejecutar(() -> grupos.compute(clave, (k, grupo) -> {
+            Grupo actual = grupo != null ? grupo : new Grupo(k, politica, Instant.now());
+            actual.cantidad++;
+            actual.total = actual.total.add(monto);
+            return actual;
+        }));
+        return true;
+    }
+
+    /**
+     * Retira los grupos AGRUPADA cuya ventana ya cerró.
+     * @param ahora Instante actual
+     * @return Grupos retirados
+     */
+    public List<Grupo> extraerVencidos(Instant ahora) {
+        Instant limite = ahora.minusSeconds(ventanaSegundos);
+        return extraer(grupo -> grupo.politica == PoliticaNotificacion.AGRUPADA && !grupo.inicio.isAfter(limite));
+    }
+
+    /**
+     * Retira todos los grupos de una política, sin importar su ventana.
+     * @param politica Política de los grupos a retirar
+     * @return Grupos retirados
+     */
+    public List<Grupo> extraer(PoliticaNotificacion politica) {
+        return extraer(grupo -> grupo.politica == politica);
+    }
+
+    /**
+     * @return Número de grupos abiertos
+     */
+    public int contarGrupos() {
+        return grupos.size();
+    }
+
+    private List<Grupo> extraer(Predicate<Grupo> condicion) {
+        List<Grupo> extraidos = new ArrayList<>();
+        for (Map.Entry<Clave, Grupo> entrada : grupos.entrySet()) {
+            Grupo grupo = entrada.getValue();
+            // remove(clave, grupo) es atómico con compute: después de retirarlo nadie más lo modifica
+            if (condicion.test(grupo) && grupos.remove(entrada.getKey(), grupo)) {
+                extraidos.add(grupo);
+            }
+        }
+        return extraidos;
+    }
+
+    private record Clave(Long usuarioId, String numeroCuenta, String tipoTransaccion) {
+    }
+
+    /**
+     * Transacciones acumuladas de una cuenta y tipo.
+     */
+    public static class Grupo {
+
+        private final Long usuarioId;
+        private final String numeroCuenta;
+        private final String tipoTransaccion;
+        private final PoliticaNotificacion politica;
+        private final Instant inicio;
+        private int cantidad;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        private Grupo(Clave clave, PoliticaNotificacion politica, Instant inicio) {
+            this.usuarioId = clave.usuarioId();
+            this.numeroCuenta = clave.numeroCuenta();
+            this.tipoTransaccion = clave.tipoTransaccion();
+            this.politica = politica;
+            this.inicio = inicio;
+        }
+
+        public Long getUsuarioId() {
+            return usuarioId;
+        }
+
+        public String getNumeroCuenta() {
+            return numeroCuenta;
+        }
+
+        public String getTipoTransaccion() {
+            return tipoTransaccion;
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+    }
+}
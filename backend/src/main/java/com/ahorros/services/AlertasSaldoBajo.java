@@ -0,0 +1,171 @@
+package com.ahorros.services;
+
+import com.ahorros.models.ReglaSaldoBajo;
+import com.ahorros.repositories.ReglaSaldoBajoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evalúa las alertas de saldo bajo contra una tabla de reglas en memoria.
+ *
+ * La regla aplicable a una cuenta es la de la propia cuenta, si no la del
+ * usuario propietario y si no la regla por defecto
+ * (notificaciones.saldo-bajo.umbral y notificaciones.saldo-bajo.margen-rearme).
+ * Evaluar no consulta la base de datos.
+ *
+ * La alerta solo se dispara al cruzar el umbral hacia abajo. Después queda
+ * desarmada hasta que el saldo vuelve a ser al menos umbral + margen de
+ * rearme, así una cuenta que oscila cerca del umbral no genera una alerta en
+ * cada retiro. El estado de cada cuenta vive en memoria: tras un reinicio
+ * todas empiezan armadas.
+ *
+ * La tabla se recarga al modificar reglas desde la API y periódicamente si
+ * cambiaron en la base de datos; cada recarga reemplaza la tabla completa, así
+ * que quien evalúa nunca ve una tabla a medio cargar.
+ */
+@Component
+@Slf4j
+public class AlertasSaldoBajo {
+
+    @Autowired
+    private ReglaSaldoBajoRepository reglaSaldoBajoRepository;
+
+    @Autowired
+    private MeterRegistry registroMetricas;
+
+    @Value("${notificaciones.saldo-bajo.umbral:100}")
+    private BigDecimal umbralPorDefecto;
+
+    @Value("${notificaciones.saldo-bajo.margen-rearme:20}")
+    private BigDecimal margenPorDefecto;
+
+    private Regla reglaPorDefecto;
+
+    private volatile Tabla tabla = new Tabla(Map.of(), Map.of(), 0, null);
+
+    /**
+     * Cuentas con la alerta desarmada (ya alertaron y no se han recuperado)
+     */
+    private final Map<Long, Boolean> desarmadas = new ConcurrentHashMap<>();
+
+    private Counter alertas;
+
+    @PostConstruct
+    public void iniciar() {
+        reglaPorDefecto = new Regla(umbralPorDefecto, margenPorDefecto);
+        alertas = Counter.builder("ahorros.alertas.saldo.bajo")
+                .description("Alertas de saldo bajo disparadas")
+                .register(registroMetricas);
+    }
+
+    /**
+     * Evalúa el saldo de una cuenta tras un retiro y actualiza su estado.
+     * El estado cambia después del commit: si el movimiento se revierte, la
+     * cuenta queda como estaba.
+     * @param cuentaId ID de la cuenta
+     * @param usuarioId ID del usuario propietario, o null
+     * @param saldo Saldo resultante
+     * @return true si el saldo acaba de cruzar el umbral hacia abajo y debe alertarse
+     */
+    public boolean evaluar(Long cuentaId, Long usuarioId, BigDecimal saldo) {
+        Regla regla = reglaAplicable(cuentaId, usuarioId);
+
+        if (saldo.compareTo(regla.umbral()) < 0) {
+            if (desarmadas.containsKey(cuentaId)) {
+                return false;
+            }
+            DespuesDelCommit.ejecutar(() -> {
+                if (desarmadas.putIfAbsent(cuentaId, Boolean.TRUE) == null) {
+                    alertas.increment();
+                }
+            });
+            return true;
+        }
+        rearmarSiRecuperada(cuentaId, regla, saldo);
+        return false;
+    }
+
+    /**
+     * Rearma la alerta de una cuenta tras un depósito si su saldo volvió a ser
+     * al menos umbral + margen de rearme. Nunca la desarma: un depósito que deja
+     * la cuenta aún bajo el umbral no cuenta como cruce.
+     * @param cuentaId ID de la cuenta
+     * @param usuarioId ID del usuario propietario, o null
+     * @param saldo Saldo resultante
+     */
+    public void rearmar(Long cuentaId, Long usuarioId, BigDecimal saldo) {
+        rearmarSiRecuperada(cuentaId, reglaAplicable(cuentaId, usuarioId), saldo);
+    }
+
+    private void rearmarSiRecuperada(Long cuentaId, Regla regla, BigDecimal saldo) {
+        if (saldo.compareTo(regla.umbral().add(regla.margenRearme())) >= 0 && desarmadas.containsKey(cuentaId)) {
+            DespuesDelCommit.ejecutar(() -> desarmadas.remove(cuentaId));
+        }
+    }
+
+    /**
+     * Vuelve a cargar todas las reglas desde la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargar() {
+        Map<Long, Regla> porCuenta = new HashMap<>();
+        Map<Long, Regla> porUsuario = new HashMap<>();
+        long cantidad = 0;
+        for (ReglaSaldoBajo regla : reglaSaldoBajoRepository.findAll()) {
+            Regla valor = new Regla(regla.getUmbral(), regla.getMargenRearme());
+            if (regla.getCuentaId() != null) {
+                porCuenta.put(regla.getCuentaId(), valor);
+            } else if (regla.getUsuarioId() != null) {
+                porUsuario.put(regla.getUsuarioId(), valor);
+            }
+            cantidad++;
+        }
+        tabla = new Tabla(Map.copyOf(porCuenta), Map.copyOf(porUsuario), cantidad,
+                reglaSaldoBajoRepository.findUltimaActualizacion());
+        log.debug("Reglas de saldo bajo cargadas: {} por cuenta, {} por usuario", porCuenta.size(), porUsuario.size());
+    }
+
+    /**
+     * Recarga las reglas si cambiaron en la base de datos desde la última carga
+     * (por ejemplo, desde otra instancia de la aplicación).
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.saldo-bajo.recarga-ms:60000}")
+    public void recargarSiCambio() {
+        Tabla actual = tabla;
+        if (reglaSaldoBajoRepository.count() != actual.cantidad()
+                || !Objects.equals(reglaSaldoBajoRepository.findUltimaActualizacion(), actual.ultimaActualizacion())) {
+            recargar();
+        }
+    }
+
+    private Regla reglaAplicable(Long cuentaId, Long usuarioId) {
+        Tabla actual = tabla;
+        Regla regla = actual.porCuenta().get(cuentaId);
+        if (regla == null && usuarioId != null) {
+            regla = actual.porUsuario().get(usuarioId);
+        }
+        return regla != null ? regla : reglaPorDefecto;
+    }
+
+    private record Regla(BigDecimal umbral, BigDecimal margenRearme) {
+    }
+
+    private record Tabla(Map<Long, Regla> porCuenta, Map<Long, Regla> porUsuario,
+                         long cantidad, LocalDateTime ultimaActualizacion) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.ahorros.services;
+
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.LoteInteres;
+import com.ahorros.models.Transaccion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registro de auditoría de los movimientos de dinero.
+ *
+ * Escribe en el logger com.ahorros.auditoria, que no se muestrea ni se
+ * descarta y va a su propio archivo (ver logback-spring.xml). Cada línea
+ * lleva los datos del movimiento como campos JSON. Los depósitos y retiros
+ * se registran después del commit, así solo quedan los que se confirmaron.
+ */
+final class Auditoria {
+
+    private static final Logger log = LoggerFactory.getLogger("com.ahorros.auditoria");
+
+    private Auditoria() {
+    }
+
+    /**
+     * Registra un depósito o retiro cuando se confirme su transacción.
+     *
+     * @param transaccion Transacción guardada
+     * @param cuenta Cuenta con el saldo actualizado
+     */
+    static void movimiento(Transaccion transaccion, Cuenta cuenta) {
+        Long usuarioId = cuenta.getUsuario() != null ? cuenta.getUsuario().getId() : null;
+        DespuesDelCommit.ejecutar(() -> log.atInfo()
+                .setMessage(transaccion.getTipo().name())
+                .addKeyValue("transaccionId", transaccion.getId())
+                .addKeyValue("tipo", transaccion.getTipo().name())
+                .addKeyValue("cuentaId", cuenta.getId())
+                .addKeyValue("numeroCuenta", cuenta.getNumeroCuenta())
+                .addKeyValue("usuarioId", usuarioId)
+                .addKeyValue("monto", transaccion.getMonto())
+                .addKeyValue("saldoResultante", transaccion.getSaldoResultante())
+                .log());
+    }
+
+    /**
+     * Registra el abono de intereses de un bloque de cuentas ya confirmado.
+     *
+     * @param lote Lote de intereses guardado
+     */
+    static void intereses(LoteInteres lote) {
+        log.atInfo()
+                .setMessage("INTERES")
+                .addKeyValue("loteId", lote.getId())
+                .addKeyValue("tipo", "INTERES")
+                .addKeyValue("fecha", lote.getFecha())
+                .addKeyValue("cuentaIdDesde", lote.getIdDesde())
+                .addKeyValue("cuentaIdHasta", lote.getIdHasta())
+                .addKeyValue("cuentas", lote.getCuentas())
+                .addKeyValue("monto", lote.getTotalInteres())
+                .log();
+    }
+}
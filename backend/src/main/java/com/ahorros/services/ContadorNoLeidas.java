@@ -0,0 +1,134 @@
+package com.ahorros.services;
+
+import com.ahorros.repositories.NotificacionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores en memoria de notificaciones no leídas por usuario.
+ *
+ * El contador de un usuario se siembra desde la base de datos la primera vez
+ * que se consulta; a partir de ahí lo mantienen las operaciones de
+ * NotificacionService y las consultas del contador no tocan la base de datos.
+ *
+ * Las actualizaciones que ocurren mientras se siembra un contador pueden
+ * contarse dos veces o ninguna, así que una tarea periódica compara los
+ * contadores con la base de datos y corrige las diferencias.
+ */
+@Component
+@Slf4j
+public class ContadorNoLeidas {
+
+    private static final int USUARIOS_POR_CONSULTA = 500;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    private final Map<Long, AtomicLong> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene el número de notificaciones no leídas de un usuario.
+     * @param usuarioId ID del usuario
+     * @return Número de notificaciones no leídas
+     */
+    public long obtener(Long usuarioId) {
+        return contadores.computeIfAbsent(usuarioId,
+                id -> new AtomicLong(notificacionRepository.countByUsuarioIdAndLeidaFalse(id))).get();
+    }
+
+    /**
+     * Suma una notificación no leída al usuario.
+     * @param usuarioId ID del usuario
+     */
+    public void incrementar(Long usuarioId) {
+        DespuesDelCommit.ejecutar(() -> ajustar(usuarioId, 1));
+    }
+
+    /**
+     * Resta una notificación no leída al usuario.
+     * @param usuarioId ID del usuario
+     */
+    public void decrementar(Long usuarioId) {
+        DespuesDelCommit.ejecutar(() -> ajustar(usuarioId, -1));
+    }
+
+    /**
+     * Resta varias notificaciones no leídas al usuario.
+     * @param usuarioId ID del usuario
+     * @param cantidad Número de notificaciones que dejaron de estar no leídas
+     */
+    public void decrementar(Long usuarioId, long cantidad) {
+        DespuesDelCommit.ejecutar(() -> ajustar(usuarioId, -cantidad));
+    }
+
+    /**
+     * Deja el contador del usuario en cero.
+     * @param usuarioId ID del usuario
+     */
+    public void reiniciar(Long usuarioId) {
+        DespuesDelCommit.ejecutar(() -> contadores.computeIfPresent(usuarioId, (id, contador) -> {
+            contador.set(0);
+            return contador;
+        }));
+    }
+
+    /**
+     * Compara los contadores en memoria con la base de datos y corrige los que difieren.
+     *
+     * Un contador que cambia mientras se consulta su valor real no se toca; se
+     * revisa de nuevo en la siguiente ejecución.
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.contadores.correccion-ms:300000}")
+    public void corregirDesviaciones() {
+        List<Long> usuarios = new ArrayList<>(contadores.keySet());
+        int corregidos = 0;
+
+        for (int inicio = 0; inicio < usuarios.size(); inicio += USUARIOS_POR_CONSULTA) {
+            List<Long> lote = usuarios.subList(inicio, Math.min(inicio + USUARIOS_POR_CONSULTA, usuarios.size()));
+
+            Map<Long, Long> antes = new HashMap<>();
+            for (Long usuarioId : lote) {
+                AtomicLong contador = contadores.get(usuarioId);
+                if (contador != null) {
+                    antes.put(usuarioId, contador.get());
+                }
+            }
+
+            Map<Long, Long> reales = new HashMap<>();
+            for (Object[] fila : notificacionRepository.contarNoLeidasPorUsuario(lote)) {
+                reales.put((Long) fila[0], (Long) fila[1]);
+            }
+
+            for (Map.Entry<Long, Long> entrada : antes.entrySet()) {
+                long real = reales.getOrDefault(entrada.getKey(), 0L);
+                long valorAntes = entrada.getValue();
+                AtomicLong contador = contadores.get(entrada.getKey());
+                if (real != valorAntes && contador != null && contador.compareAndSet(valorAntes, real)) {
+                    corregidos++;
+                    log.debug("Contador de no leídas del usuario {} corregido: {} -> {}",
+                            entrada.getKey(), valorAntes, real);
+                }
+            }
+        }
+
+        if (corregidos > 0) {
+            log.info("Se corrigieron {} de {} contadores de notificaciones no leídas", corregidos, usuarios.size());
+        }
+    }
+
+    private void ajustar(Long usuarioId, long delta) {
+        contadores.computeIfPresent(usuarioId, (id, contador) -> {
+            contador.updateAndGet(valor -> Math.max(0, valor + delta));
+            return contador;
+        });
+    }
+}
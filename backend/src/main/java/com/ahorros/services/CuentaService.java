@@ -1,17 +1,26 @@
 package com.ahorros.services;
 
 import com.ahorros.dto.CuentaDTO;
+import com.ahorros.dto.FiltroCuentaDTO;
 import com.ahorros.models.Cuenta;
 import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.FiltroRepository;
+import com.ahorros.repositories.ProyeccionRepository;
+import com.ahorros.repositories.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para la gestión de cuentas de ahorros.
@@ -27,6 +36,7 @@ import java.util.stream.Collectors;
  * Aquí es donde se implementa la lógica de negocio y las reglas de validación.
  */
 @Service
+@Timed(value = "ahorros.servicios", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
@@ -38,12 +48,38 @@ public class CuentaService {
      */
     private final CuentaRepository cuentaRepository;
 
+    /**
+     * Repositorio de consultas con proyección parcial de columnas.
+     */
+    private final ProyeccionRepository proyeccionRepository;
+
+    /**
+     * Repositorio del filtro dinámico de cuentas.
+     */
+    private final FiltroRepository filtroRepository;
+
+    /**
+     * Repositorio de usuarios, para asociar la cuenta a su propietario.
+     */
+    private final UsuarioRepository usuarioRepository;
+
+    /**
+     * Límites de retiro, para validar el perfil de la cuenta.
+     */
+    private final LimitesRetiro limitesRetiro;
+
+    /**
+     * Número máximo de IDs aceptados en una consulta múltiple.
+     * Limita el tamaño de la cláusula IN generada.
+     */
+    public static final int MAX_IDS_POR_CONSULTA = 100;
+
     /**
      * Crea una nueva cuenta de ahorros.
      * 
      * @param cuentaDTO Los datos de la cuenta a crear
      * @return La cuenta creada como DTO
-     * @throws RuntimeException si el número de cuenta ya existe
+     * @throws RuntimeException si el número de cuenta ya existe o el usuario indicado no existe
      */
     public CuentaDTO crearCuenta(CuentaDTO cuentaDTO) {
         log.info("Creando nueva cuenta: {}", cuentaDTO.getNumeroCuenta());
@@ -60,8 +96,17 @@ public class CuentaService {
             throw new RuntimeException("El saldo inicial debe ser mayor o igual a cero");
         }
 
+        // Validar el perfil de límites de retiro si se indicó
+        validarPerfilLimites(cuentaDTO.getPerfilLimites());
+
         // Convertir DTO a entidad
         Cuenta cuenta = cuentaDTO.toEntity();
+
+        // Asociar el propietario si se indicó
+        if (cuentaDTO.getUsuarioId() != null) {
+            cuenta.setUsuario(usuarioRepository.findById(cuentaDTO.getUsuarioId())
+                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado")));
+        }
         
         // Guardar la cuenta en la base de datos
         Cuenta cuentaGuardada = cuentaRepository.save(cuenta);
@@ -117,6 +162,60 @@ public class CuentaService {
         return new CuentaDTO(cuenta);
     }
 
+    /**
+     * Obtiene varias cuentas por sus IDs en una sola consulta.
+     * Los IDs que no existen se omiten del resultado.
+     * 
+     * @param ids Los IDs de las cuentas
+     * @return Lista de cuentas encontradas como DTOs, ordenadas por ID
+     * @throws RuntimeException si se solicitan más IDs de los permitidos
+     */
+    @Transactional(readOnly = true)
+    public List<CuentaDTO> obtenerCuentasPorIds(Collection<Long> ids) {
+        log.info("Buscando {} cuentas por ID", ids.size());
+        validarCantidadIds(ids);
+
+        List<CuentaDTO> cuentasDTO = cuentaRepository.findByIdInOrderByIdAsc(ids).stream()
+                .map(CuentaDTO::new)
+                .collect(Collectors.toList());
+
+        log.info("Se encontraron {} cuentas", cuentasDTO.size());
+
+        return cuentasDTO;
+    }
+
+    /**
+     * Obtiene varias cuentas por sus IDs seleccionando solo algunos campos.
+     * La consulta SQL proyecta únicamente las columnas solicitadas.
+     * 
+     * @param ids Los IDs de las cuentas
+     * @param campos Los campos de CuentaDTO a incluir
+     * @return Lista de mapas campo -> valor, ordenados por ID
+     * @throws RuntimeException si se solicitan más IDs de los permitidos o un campo desconocido
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> obtenerCuentasPorIds(Collection<Long> ids, Collection<String> campos) {
+        log.info("Buscando {} cuentas por ID con campos: {}", ids.size(), campos);
+        validarCantidadIds(ids);
+
+        Map<String, String> proyeccion = proyeccionRepository.resolverCampos(CuentaDTO.CAMPOS_PROYECTABLES, campos);
+
+        return proyeccionRepository.buscarPorIds("Cuenta", proyeccion, ids);
+    }
+
+    /**
+     * Valida que la cantidad de IDs de una consulta múltiple esté dentro del límite.
+     * 
+     * @param ids Los IDs solicitados
+     * @throws RuntimeException si la lista está vacía o supera el máximo permitido
+     */
+    private void validarCantidadIds(Collection<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS_POR_CONSULTA) {
+            log.error("Cantidad de IDs inválida: {}", ids.size());
+            throw new RuntimeException("Se deben indicar entre 1 y " + MAX_IDS_POR_CONSULTA + " IDs");
+        }
+    }
+
     /**
      * Obtiene una cuenta por su número de cuenta.
      * 
@@ -162,6 +261,45 @@ public class CuentaService {
         return cuentasDTO;
     }
 
+    /**
+     * Valida los criterios de un filtro de cuentas antes de ejecutarlo.
+     * 
+     * @param filtro Los criterios del filtro
+     * @throws RuntimeException si el orden, la dirección, el límite o el cursor no son válidos
+     */
+    public void validarFiltro(FiltroCuentaDTO filtro) {
+        filtroRepository.validar(filtro);
+    }
+
+    /**
+     * Filtra cuentas combinando cualquier conjunto de criterios en una sola consulta.
+     * Las cuentas se entregan una a una al consumidor a medida que se leen,
+     * sin materializar la página completa en memoria.
+     * 
+     * @param filtro Los criterios del filtro
+     * @param consumidor Recibe cada cuenta encontrada como DTO
+     * @return El cursor de la página siguiente, o null si no hay más resultados
+     */
+    @Transactional(readOnly = true)
+    public String filtrarCuentas(FiltroCuentaDTO filtro, Consumer<CuentaDTO> consumidor) {
+        log.info("Filtrando cuentas: {}", filtro);
+        filtroRepository.validar(filtro);
+
+        int leidas = 0;
+        Cuenta ultima = null;
+        try (Stream<Cuenta> cuentas = filtroRepository.filtrarCuentas(filtro)) {
+            for (Cuenta cuenta : (Iterable<Cuenta>) cuentas::iterator) {
+                consumidor.accept(new CuentaDTO(cuenta));
+                ultima = cuenta;
+                leidas++;
+            }
+        }
+
+        log.info("Filtro de cuentas retornó {} resultados", leidas);
+
+        return leidas == filtro.getLimite() ? FiltroRepository.cursorDe(ultima, filtro.getOrden()) : null;
+    }
+
     /**
      * Obtiene todas las cuentas activas.
      * 
@@ -193,8 +331,8 @@ public class CuentaService {
     public CuentaDTO actualizarCuenta(Long id, CuentaDTO cuentaDTO) {
         log.info("Actualizando cuenta con ID: {}", id);
         
-        // Verificar que la cuenta existe
-        Optional<Cuenta> cuentaOptional = cuentaRepository.findById(id);
+        // Verificar que la cuenta existe; se bloquea porque al guardarla se escriben todas sus columnas
+        Optional<Cuenta> cuentaOptional = cuentaRepository.findByIdParaActualizar(id);
         
         if (cuentaOptional.isEmpty()) {
             log.error("No se encontró la cuenta con ID: {}", id);
@@ -211,6 +349,11 @@ public class CuentaService {
         if (cuentaDTO.getActiva() != null) {
             cuentaExistente.setActiva(cuentaDTO.getActiva());
         }
+
+        if (cuentaDTO.getPerfilLimites() != null) {
+            validarPerfilLimites(cuentaDTO.getPerfilLimites());
+            cuentaExistente.setPerfilLimites(cuentaDTO.getPerfilLimites().toUpperCase());
+        }
         
         // No permitir actualizar el número de cuenta ni el saldo desde aquí
         // El saldo se actualiza solo a través de transacciones
@@ -322,4 +465,11 @@ public class CuentaService {
     public boolean existeNumeroCuenta(String numeroCuenta) {
         return cuentaRepository.existsByNumeroCuenta(numeroCuenta);
     }
-} 
\ No newline at end of file
+
+    private void validarPerfilLimites(String perfilLimites) {
+        if (perfilLimites != null && !limitesRetiro.existePerfil(perfilLimites.toUpperCase())) {
+            log.error("Perfil de límites desconocido: {}", perfilLimites);
+            throw new RuntimeException("Perfil de límites desconocido: " + perfilLimites);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.CuentaDTO;
+import com.ahorros.dto.ResumenDashboardDTO;
+import com.ahorros.dto.TransaccionDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Servicio que compone el resumen del dashboard.
+ *
+ * Cada sección se delega al servicio que ya la calcula y se ejecuta en su
+ * propio hilo virtual, de modo que el tiempo total es el de la sección más
+ * lenta y no la suma de todas. Todas las secciones comparten el mismo plazo
+ * contado desde el inicio de la solicitud; la que no termina a tiempo se
+ * cancela y se reporta como no disponible sin afectar a las demás.
+ *
+ * Este servicio no es transaccional: cada sección abre su propia transacción
+ * de solo lectura en el servicio correspondiente.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardService {
+
+    private final CuentaService cuentaService;
+    private final TransaccionService transaccionService;
+    private final NotificacionService notificacionService;
+
+    /**
+     * Ejecutor de un hilo virtual por tarea, compartido por todas las solicitudes.
+     */
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Plazo máximo por sección, en milisegundos.
+     */
+    @Value("${dashboard.plazo-ms:2000}")
+    private long plazoMs;
+
+    /**
+     * Número de transacciones recientes incluidas en el resumen.
+     */
+    @Value("${dashboard.transacciones-recientes:5}")
+    private int transaccionesRecientes;
+
+    /**
+     * Obtiene el resumen del dashboard.
+     *
+     * @param usuarioId ID del usuario para el conteo de notificaciones (opcional)
+     * @return El resumen con las secciones disponibles
+     */
+    public ResumenDashboardDTO obtenerResumen(Long usuarioId) {
+        log.info("Obteniendo resumen del dashboard (usuario: {})", usuarioId);
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+
+        Future<Object[]> estadisticasCuentas = ejecutor.submit(cuentaService::obtenerEstadisticas);
+        Future<Object[]> estadisticasTransacciones = ejecutor.submit(transaccionService::obtenerEstadisticasGlobales);
+        Future<List<TransaccionDTO>> recientes = ejecutor.submit(() -> transaccionService.obtenerTransaccionesRecientes(transaccionesRecientes));
+        Future<List<CuentaDTO>> cuentasActivas = ejecutor.submit(cuentaService::obtenerCuentasActivas);
+        Future<Long> noLeidas = usuarioId != null
+                ? ejecutor.submit(() -> notificacionService.contarNotificacionesNoLeidas(usuarioId))
+                : null;
+
+        ResumenDashboardDTO resumen = new ResumenDashboardDTO();
+        resumen.setEstadisticasCuentas(
+                esperar(ResumenDashboardDTO.SECCION_ESTADISTICAS_CUENTAS, estadisticasCuentas, limite, resumen));
+        resumen.setEstadisticasTransacciones(
+                esperar(ResumenDashboardDTO.SECCION_ESTADISTICAS_TRANSACCIONES, estadisticasTransacciones, limite, resumen));
+        resumen.setTransaccionesRecientes(
+                esperar(ResumenDashboardDTO.SECCION_TRANSACCIONES_RECIENTES, recientes, limite, resumen));
+        resumen.setCuentasActivas(
+                esperar(ResumenDashboardDTO.SECCION_CUENTAS_ACTIVAS, cuentasActivas, limite, resumen));
+        if (noLeidas != null) {
+            resumen.setNotificacionesNoLeidas(
+                    esperar(ResumenDashboardDTO.SECCION_NOTIFICACIONES_NO_LEIDAS, noLeidas, limite, resumen));
+        }
+
+        log.info("Resumen del dashboard obtenido, secciones no disponibles: {}", resumen.getSeccionesNoDisponibles());
+
+        return resumen;
+    }
+
+    /**
+     * Espera el resultado de una sección hasta el plazo común.
+     *
+     * Si la sección falla o no termina a tiempo se cancela, se registra como
+     * no disponible en el resumen y se retorna null.
+     */
+    private <T> T esperar(String seccion, Future<T> tarea, long limite, ResumenDashboardDTO resumen) {
+        try {
+            return tarea.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            tarea.cancel(true);
+            log.warn("La sección {} del dashboard superó el plazo de {} ms", seccion, plazoMs);
+        } catch (ExecutionException e) {
+            log.warn("Error al obtener la sección {} del dashboard: {}", seccion, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            tarea.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        resumen.getSeccionesNoDisponibles().add(seccion);
+        return null;
+    }
+
+    /**
+     * Cierra el ejecutor al detener la aplicación.
+     */
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package com.ahorros.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta acciones en memoria solo cuando la transacción actual se confirma.
+ *
+ * Los estados en memoria (contadores, agrupaciones, envíos SSE) no se
+ * revierten con un rollback, así que se actualizan después del commit. Si no
+ * hay transacción activa la acción se ejecuta de inmediato.
+ */
+final class DespuesDelCommit {
+
+    private DespuesDelCommit() {
+    }
+
+    static void ejecutar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.ahorros.services;
+
+import com.ahorros.models.Transaccion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detección de movimientos inusuales por cuenta, en línea y en memoria.
+ *
+ * Cada cuenta tiene un modelo por tipo de movimiento (depósito o retiro) que
+ * se actualiza con cada operación confirmada:
+ * - media y varianza exponenciales (EWMA) del logaritmo del monto
+ * - media y varianza exponenciales del logaritmo del tiempo entre operaciones
+ * - histograma de la hora del día con decaimiento exponencial
+ *
+ * Antes de cada operación se comparan sus datos con el modelo. Las señales
+ * son un monto muy por encima de lo habitual, una ráfaga (varias operaciones
+ * seguidas mucho más juntas que lo habitual) y una hora en la que la cuenta
+ * casi nunca opera. Un retiro se bloquea si su monto supera
+ * anomalias.umbral-bloqueo desviaciones o si coinciden dos señales; con una
+ * sola señal se marca. Los depósitos solo se marcan. Mientras un modelo tiene
+ * menos de anomalias.minimo-observaciones operaciones solo aprende.
+ *
+ * Evaluar es aritmética sobre unos pocos números y no consulta la base de
+ * datos. Los modelos se guardan en anomalias.archivo periódicamente y al
+ * detener la aplicación, y se cargan al iniciar.
+ */
+@Component
+@Slf4j
+public class DetectorAnomalias {
+
+    private static final int VERSION_ARCHIVO = 1;
+    /**
+     * Varianza mínima del logaritmo (desviación 0.5): con montos muy parejos
+     * la varianza es casi cero y sin este piso cualquier variación sería inusual.
+     */
+    private static final double VARIANZA_MINIMA = 0.25;
+
+    @Value("${anomalias.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${anomalias.alfa:0.1}")
+    private double alfa;
+
+    @Value("${anomalias.minimo-observaciones:10}")
+    private int minimoObservaciones;
+
+    @Value("${anomalias.umbral-marca:3.0}")
+    private double umbralMarca;
+
+    @Value("${anomalias.umbral-bloqueo:5.0}")
+    private double umbralBloqueo;
+
+    @Value("${anomalias.rafaga.operaciones:3}")
+    private int operacionesRafaga;
+
+    @Value("${anomalias.rafaga.segundos:10}")
+    private long segundosRafaga;
+
+    @Value("${anomalias.hora.probabilidad-minima:0.02}")
+    private double probabilidadHoraMinima;
+
+    @Value("${anomalias.presupuesto-micros:200}")
+    private long presupuestoMicros;
+
+    @Value("${anomalias.archivo:./data/anomalias.dat}")
+    private Path archivo;
+
+    private final Map<Long, ModeloMovimiento> modelos = new ConcurrentHashMap<>();
+
+    private final AtomicLong evaluacionesLentas = new AtomicLong();
+
+    /**
+     * Resultado de evaluar una operación.
+     */
+    public enum Accion {
+        PERMITIR,
+        MARCAR,
+        BLOQUEAR
+    }
+
+    /**
+     * Acción sugerida y motivos que la provocaron.
+     */
+    public record Evaluacion(Accion accion, List<String> motivos) {
+
+        private static final Evaluacion PERMITIDA = new Evaluacion(Accion.PERMITIR, List.of());
+
+        /**
+         * @return Motivos separados por coma
+         */
+        public String descripcion() {
+            return String.join(", ", motivos);
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (entrada.readInt() != VERSION_ARCHIVO) {
+                log.warn("Versión desconocida del archivo de modelos de anomalías {}; se ignora", archivo);
+                return;
+            }
+            int cantidad = entrada.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                long clave = entrada.readLong();
+                modelos.put(clave, ModeloMovimiento.leer(entrada));
+            }
+            log.info("Modelos de anomalías cargados: {}", cantidad);
+        } catch (IOException e) {
+            log.warn("No se pudieron cargar los modelos de anomalías de {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Evalúa una operación contra el modelo de la cuenta. Si no se bloquea,
+     * el modelo aprende de ella cuando la transacción actual se confirma.
+     *
+     * @param cuentaId ID de la cuenta
+     * @param tipo DEPOSITO o RETIRO
+     * @param monto Monto de la operación
+     * @return Acción y motivos
+     */
+    public Evaluacion evaluar(Long cuentaId, Transaccion.TipoTransaccion tipo, BigDecimal monto) {
+        if (!habilitado) {
+            return Evaluacion.PERMITIDA;
+        }
+        long inicio = System.nanoTime();
+        long instante = System.currentTimeMillis();
+        int hora = LocalDateTime.now().getHour();
+        double logMonto = Math.log(Math.max(monto.doubleValue(), 0.01));
+        long clave = clave(cuentaId, tipo);
+        ModeloMovimiento modelo = modelos.computeIfAbsent(clave, k -> new ModeloMovimiento());
+
+        List<String> motivos = new ArrayList<>(3);
+        double zMonto;
+        synchronized (modelo) {
+            zMonto = modelo.evaluar(this, instante, hora, logMonto, motivos);
+        }
+
+        Accion accion = Accion.PERMITIR;
+        if (!motivos.isEmpty()) {
+            boolean bloquear = tipo == Transaccion.TipoTransaccion.RETIRO
+                    && (zMonto >= umbralBloqueo || motivos.size() >= 2);
+            accion = bloquear ? Accion.BLOQUEAR : Accion.MARCAR;
+        }
+        if (accion != Accion.BLOQUEAR) {
+            DespuesDelCommit.ejecutar(() -> {
+                synchronized (modelo) {
+                    modelo.aprender(this, instante, hora, logMonto);
+                }
+            });
+        }
+
+        long micros = (System.nanoTime() - inicio) / 1000;
+        if (micros > presupuestoMicros) {
+            evaluacionesLentas.incrementAndGet();
+            log.debug("Evaluación de anomalías de la cuenta {} tardó {} µs", cuentaId, micros);
+        }
+        return accion == Accion.PERMITIR ? Evaluacion.PERMITIDA : new Evaluacion(accion, List.copyOf(motivos));
+    }
+
+    /**
+     * @return Evaluaciones que superaron anomalias.presupuesto-micros desde el inicio
+     */
+    public long getEvaluacionesLentas() {
+        return evaluacionesLentas.get();
+    }
+
+    /**
+     * Guarda los modelos en disco. Se escribe un archivo temporal y se
+     * reemplaza el anterior, así un corte a mitad no deja un archivo dañado.
+     */
+    @Scheduled(fixedDelayString = "${anomalias.snapshot-ms:300000}", initialDelayString = "${anomalias.snapshot-ms:300000}")
+    @PreDestroy
+    public synchronized void guardar() {
+        if (modelos.isEmpty()) {
+            return;
+        }
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            Path temporal = Files.createTempFile(directorio, "anomalias", ".tmp");
+            int cantidad;
+            try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                // La cantidad se fija antes de escribir; los modelos creados después quedan para la próxima vez
+                List<Map.Entry<Long, ModeloMovimiento>> entradas = new ArrayList<>(modelos.entrySet());
+                cantidad = entradas.size();
+                salida.writeInt(VERSION_ARCHIVO);
+                salida.writeInt(cantidad);
+                for (Map.Entry<Long, ModeloMovimiento> entrada : entradas) {
+                    salida.writeLong(entrada.getKey());
+                    synchronized (entrada.getValue()) {
+                        entrada.getValue().escribir(salida);
+                    }
+                }
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Modelos de anomalías guardados: {}", cantidad);
+        } catch (IOException e) {
+            log.warn("No se pudieron guardar los modelos de anomalías en {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private static long clave(Long cuentaId, Transaccion.TipoTransaccion tipo) {
+        return cuentaId * 2 + (tipo == Transaccion.TipoTransaccion.RETIRO ? 1 : 0);
+    }
+
+    /**
+     * Modelo en línea de los movimientos de un tipo de una cuenta.
+     */
+    private static final class ModeloMovimiento {
+
+        private long observaciones;
+        private double mediaMonto;
+        private double varianzaMonto;
+        private long ultimoInstante;
+        private double mediaIntervalo;
+        private double varianzaIntervalo;
+        private int rafaga;
+        /**
+         * Histograma de horas con decaimiento: en vez de multiplicar las 24
+         * ranuras en cada operación, cada operación suma un peso que crece
+         * en 1 / (1 - alfa); se renormaliza cuando el peso es muy grande.
+         */
+        private final float[] horas = new float[24];
+        private double pesoHora = 1;
+        private double totalHoras;
+
+        /**
+         * Agrega a motivos las señales de la operación.
+         * @return Desviaciones del monto respecto de la media, o 0 si el modelo aún aprende
+         */
+        private double evaluar(DetectorAnomalias detector, long instante, int hora, double logMonto, List<String> motivos) {
+            if (observaciones < detector.minimoObservaciones) {
+                return 0;
+            }
+            double zMonto = (logMonto - mediaMonto) / Math.sqrt(Math.max(varianzaMonto, VARIANZA_MINIMA));
+            if (zMonto >= detector.umbralMarca) {
+                motivos.add("monto inusual");
+            }
+            if (rafaga + 1 >= detector.operacionesRafaga && esIntervaloCorto(detector, instante)) {
+                motivos.add("ráfaga de operaciones");
+            }
+            if (totalHoras > 0 && horas[hora] / totalHoras < detector.probabilidadHoraMinima) {
+                motivos.add("hora inusual");
+            }
+            return zMonto;
+        }
+
+        private void aprender(DetectorAnomalias detector, long instante, int hora, double logMonto) {
+            double alfa = detector.alfa;
+            if (observaciones == 0) {
+                mediaMonto = logMonto;
+            } else {
+                double diferencia = logMonto - mediaMonto;
+                mediaMonto += alfa * diferencia;
+                varianzaMonto = (1 - alfa) * (varianzaMonto + alfa * diferencia * diferencia);
+            }
+
+            if (ultimoInstante > 0) {
+                rafaga = esIntervaloCorto(detector, instante) ? rafaga + 1 : 0;
+                double logIntervalo = Math.log(Math.max(instante - ultimoInstante, 1000) / 1000.0);
+                if (observaciones == 1) {
+                    mediaIntervalo = logIntervalo;
+                } else {
+                    double diferencia = logIntervalo - mediaIntervalo;
+                    mediaIntervalo += alfa * diferencia;
+                    varianzaIntervalo = (1 - alfa) * (varianzaIntervalo + alfa * diferencia * diferencia);
+                }
+            }
+            ultimoInstante = Math.max(ultimoInstante, instante);
+
+            pesoHora /= 1 - alfa;
+            horas[hora] += (float) pesoHora;
+            totalHoras += pesoHora;
+            if (pesoHora > 1e12) {
+                for (int i = 0; i < horas.length; i++) {
+                    horas[i] /= (float) pesoHora;
+                }
+                totalHoras /= pesoHora;
+                pesoHora = 1;
+            }
+            observaciones++;
+        }
+
+        /**
+         * Un intervalo es corto si está muy por debajo del habitual de la
+         * cuenta o, mientras no hay historial suficiente, si es menor que
+         * anomalias.rafaga.segundos.
+         */
+        private boolean esIntervaloCorto(DetectorAnomalias detector, long instante) {
+            if (ultimoInstante == 0) {
+                return false;
+            }
+            double segundos = Math.max(instante - ultimoInstante, 1000) / 1000.0;
+            if (observaciones <= detector.minimoObservaciones) {
+                return segundos < detector.segundosRafaga;
+            }
+            double z = (Math.log(segundos) - mediaIntervalo) / Math.sqrt(Math.max(varianzaIntervalo, VARIANZA_MINIMA));
+            return z <= -detector.umbralMarca;
+        }
+
+        private void escribir(DataOutputStream salida) throws IOException {
+            salida.writeLong(observaciones);
+            salida.writeDouble(mediaMonto);
+            salida.writeDouble(varianzaMonto);
+            salida.writeLong(ultimoInstante);
+            salida.writeDouble(mediaIntervalo);
+            salida.writeDouble(varianzaIntervalo);
+            salida.writeInt(rafaga);
+            salida.writeDouble(pesoHora);
+            salida.writeDouble(totalHoras);
+            for (float valor : horas) {
+                salida.writeFloat(valor);
+            }
+        }
+
+        private static ModeloMovimiento leer(DataInputStream entrada) throws IOException {
+            ModeloMovimiento modelo = new ModeloMovimiento();
+            modelo.observaciones = entrada.readLong();
+            modelo.mediaMonto = entrada.readDouble();
+            modelo.varianzaMonto = entrada.readDouble();
+            modelo.ultimoInstante = entrada.readLong();
+            modelo.mediaIntervalo = entrada.readDouble();
+            modelo.varianzaIntervalo = entrada.readDouble();
+            modelo.rafaga = entrada.readInt();
+            modelo.pesoHora = entrada.readDouble();
+            modelo.totalHoras = entrada.readDouble();
+            for (int i = 0; i < modelo.horas.length; i++) {
+                modelo.horas[i] = entrada.readFloat();
+            }
+            return modelo;
+        }
+    }
+}
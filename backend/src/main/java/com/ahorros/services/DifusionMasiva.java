@@ -0,0 +1,207 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.NotificacionDTO;
+import com.ahorros.dto.ProgresoDifusionDTO;
+import com.ahorros.models.Notificacion;
+import com.ahorros.repositories.NotificacionRepository;
+import com.ahorros.repositories.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Difusión de una misma notificación a todos los usuarios activos.
+ *
+ * Cada difusión corre en segundo plano. Recorre los ids de los usuarios
+ * activos por lotes (solo ids, en orden) y crea las notificaciones de cada
+ * lote con un único INSERT ... SELECT en su propia transacción, así que la
+ * base de datos no devuelve filas ni se cargan entidades Usuario.
+ *
+ * Después de cada lote se ajustan los contadores de no leídas y se envía la
+ * notificación por SSE a los usuarios del lote que estén conectados. El
+ * progreso de las últimas difusiones se puede consultar mientras corren.
+ */
+@Component
+@Slf4j
+public class DifusionMasiva {
+
+    private static final int DIFUSIONES_CONSERVADAS = 50;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private ContadorNoLeidas contadorNoLeidas;
+
+    @Autowired
+    private DifusorNotificaciones difusorNotificaciones;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notificaciones.difusion.lote:5000}")
+    private int tamanoLote;
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Map<Long, Difusion> difusiones = new ConcurrentHashMap<>();
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Inicia una difusión en segundo plano.
+     * @param mensaje Mensaje de la notificación
+     * @param tipo Tipo de la notificación
+     * @return Progreso inicial de la difusión
+     */
+    public ProgresoDifusionDTO iniciar(String mensaje, String tipo) {
+        Difusion difusion = new Difusion(secuencia.incrementAndGet(), mensaje, tipo,
+                LocalDateTime.now(), usuarioRepository.countByActivoTrue());
+        difusiones.put(difusion.id, difusion);
+        descartarAntiguas();
+
+        ejecutor.submit(() -> ejecutar(difusion));
+        log.info("Difusión {} iniciada para {} usuarios activos", difusion.id, difusion.totalUsuarios);
+        return difusion.progreso();
+    }
+
+    /**
+     * Obtiene el progreso de una difusión.
+     * @param id ID de la difusión
+     * @return Optional con el progreso si la difusión existe
+     */
+    public Optional<ProgresoDifusionDTO> obtener(Long id) {
+        return Optional.ofNullable(difusiones.get(id)).map(Difusion::progreso);
+    }
+
+    /**
+     * @return Progreso de las últimas difusiones, de la más reciente a la más antigua
+     */
+    public List<ProgresoDifusionDTO> listar() {
+        return difusiones.values().stream()
+                .sorted(Comparator.comparing((Difusion difusion) -> difusion.id).reversed())
+                .map(Difusion::progreso)
+                .toList();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    private void ejecutar(Difusion difusion) {
+        long cursor = 0L;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = usuarioRepository.findIdsActivosPosterioresA(cursor, Limit.of(tamanoLote));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Long desde = ids.get(0);
+                Long hasta = ids.get(ids.size() - 1);
+                Integer creadas = transactionTemplate.execute(estado -> notificacionRepository.difundir(
+                        difusion.mensaje, difusion.tipo, difusion.fechaCreacion, difusion.clave, desde, hasta));
+                difusion.creadas.addAndGet(creadas != null ? creadas : 0);
+
+                ids.forEach(contadorNoLeidas::incrementar);
+                publicarConectados(difusion, ids);
+
+                cursor = hasta;
+                if (ids.size() < tamanoLote) {
+                    break;
+                }
+            }
+            difusion.estado = "COMPLETADA";
+            log.info("Difusión {} completada: {} notificaciones", difusion.id, difusion.creadas.get());
+        } catch (RuntimeException e) {
+            difusion.error = e.getMessage();
+            difusion.estado = "FALLIDA";
+            log.error("Difusión {} fallida tras {} notificaciones", difusion.id, difusion.creadas.get(), e);
+        } finally {
+            difusion.fechaFin = LocalDateTime.now();
+        }
+    }
+
+    private void publicarConectados(Difusion difusion, List<Long> ids) {
+        List<Long> conectados = new ArrayList<>();
+        for (Long usuarioId : ids) {
+            if (difusorNotificaciones.usuariosConectados().contains(usuarioId)) {
+                conectados.add(usuarioId);
+            }
+        }
+        if (conectados.isEmpty()) {
+            return;
+        }
+        for (Notificacion notificacion : notificacionRepository.findDifundidas(conectados, difusion.clave)) {
+            difusorNotificaciones.publicar(new NotificacionDTO(
+                    notificacion.getId(),
+                    notificacion.getMensaje(),
+                    notificacion.getTipo(),
+                    notificacion.getFechaCreacion(),
+                    notificacion.isLeida(),
+                    notificacion.getUsuario().getId()));
+        }
+    }
+
+    private void descartarAntiguas() {
+        if (difusiones.size() <= DIFUSIONES_CONSERVADAS) {
+            return;
+        }
+        difusiones.values().stream()
+                .filter(difusion -> difusion.fechaFin != null)
+                .map(difusion -> difusion.id)
+                .sorted()
+                .limit(difusiones.size() - DIFUSIONES_CONSERVADAS)
+                .forEach(difusiones::remove);
+    }
+
+    /**
+     * Estado en memoria de una difusión; solo la modifica el hilo que la ejecuta.
+     *
+     * La clave se guarda en cada notificación creada para volver a encontrarlas;
+     * el id es solo un número correlativo en memoria y se repite al reiniciar.
+     */
+    private static class Difusion {
+
+        private final Long id;
+        private final String clave = UUID.randomUUID().toString();
+        private final String mensaje;
+        private final String tipo;
+        private final LocalDateTime fechaCreacion;
+        private final long totalUsuarios;
+        private final AtomicLong creadas = new AtomicLong();
+        private volatile String estado = "EN_CURSO";
+        private volatile String error;
+        private volatile LocalDateTime fechaFin;
+
+        private Difusion(Long id, String mensaje, String tipo, LocalDateTime fechaCreacion, long totalUsuarios) {
+            this.id = id;
+            this.mensaje = mensaje;
+            this.tipo = tipo;
+            this.fechaCreacion = fechaCreacion;
+            this.totalUsuarios = totalUsuarios;
+        }
+
+        private ProgresoDifusionDTO progreso() {
+            return new ProgresoDifusionDTO(id, mensaje, tipo, estado, totalUsuarios, creadas.get(),
+                    fechaCreacion, fechaFin, error);
+        }
+    }
+}
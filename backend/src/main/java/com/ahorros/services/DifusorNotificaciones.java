@@ -0,0 +1,215 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.NotificacionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Difusor en proceso de notificaciones por Server-Sent Events.
+ *
+ * Mantiene las conexiones SSE abiertas de cada usuario y les envía las
+ * notificaciones nuevas que publica NotificacionService. Una conexión inactiva
+ * no ocupa ningún hilo: solo el socket de Tomcat y su SseEmitter.
+ *
+ * Los envíos de cada usuario se encadenan en una cola propia que se ejecuta en
+ * hilos virtuales, así se conserva el orden de los eventos y un cliente lento
+ * no bloquea a quien publica ni a los demás usuarios.
+ *
+ * El id de cada evento es el id de la notificación. Cuando el navegador se
+ * reconecta envía Last-Event-ID y se reenvían las notificaciones posteriores.
+ */
+@Component
+@Slf4j
+public class DifusorNotificaciones {
+
+    private static final String EVENTO = "notificacion";
+    private static final long RECONEXION_MS = 5000;
+
+    @Value("${notificaciones.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Void>> colas = new ConcurrentHashMap<>();
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Abre una suscripción SSE para un usuario.
+     *
+     * @param usuarioId ID del usuario
+     * @param ultimoId Último id recibido por el cliente (Last-Event-ID), o null
+     * @param pendientes Notificaciones posteriores a ultimoId, consultadas solo si ultimoId no es null
+     * @return El emisor SSE de la conexión
+     */
+    public SseEmitter suscribir(Long usuarioId, Long ultimoId, Supplier<List<NotificacionDTO>> pendientes) {
+        SseEmitter emisor = new SseEmitter(timeoutMs);
+        Suscripcion suscripcion = new Suscripcion(emisor, ultimoId);
+
+        emisor.onCompletion(() -> quitar(usuarioId, suscripcion));
+        emisor.onTimeout(() -> quitar(usuarioId, suscripcion));
+        emisor.onError(error -> quitar(usuarioId, suscripcion));
+
+        suscripciones.computeIfAbsent(usuarioId, id -> ConcurrentHashMap.newKeySet()).add(suscripcion);
+
+        encolar(usuarioId, () -> {
+            if (!enviar(usuarioId, suscripcion, SseEmitter.event().reconnectTime(RECONEXION_MS).comment("conectado"))) {
+                return;
+            }
+            if (ultimoId != null) {
+                for (NotificacionDTO notificacion : pendientes.get()) {
+                    if (!enviarNotificacion(usuarioId, suscripcion, notificacion)) {
+                        return;
+                    }
+                }
+            }
+            suscripcion.lista = true;
+        });
+
+        log.debug("Suscripción SSE abierta para el usuario {} (último id: {})", usuarioId, ultimoId);
+        return emisor;
+    }
+
+    /**
+     * Publica una notificación a las conexiones abiertas de su usuario.
+     *
+     * Si hay una transacción activa el envío se hace después del commit, para
+     * no anunciar notificaciones que luego se reviertan.
+     *
+     * @param notificacion La notificación creada
+     */
+    public void publicar(NotificacionDTO notificacion) {
+        DespuesDelCommit.ejecutar(() -> difundir(notificacion));
+    }
+
+    /**
+     * Envía un comentario periódico a todas las conexiones para que los proxies
+     * no las cierren por inactividad y para detectar clientes desconectados.
+     */
+    @Scheduled(fixedRateString = "${notificaciones.sse.heartbeat-ms:25000}")
+    public void enviarLatidos() {
+        suscripciones.forEach((usuarioId, conjunto) -> encolar(usuarioId, () -> {
+            for (Suscripcion suscripcion : conjunto) {
+                enviar(usuarioId, suscripcion, SseEmitter.event().comment("latido"));
+            }
+        }));
+    }
+
+    /**
+     * @return Número de conexiones SSE abiertas
+     */
+    public int contarConexiones() {
+        return suscripciones.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * @return IDs de los usuarios con al menos una conexión SSE abierta
+     */
+    public Set<Long> usuariosConectados() {
+        return suscripciones.keySet();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscripciones.values().forEach(conjunto -> conjunto.forEach(suscripcion -> suscripcion.emisor.complete()));
+        ejecutor.shutdownNow();
+    }
+
+    private void difundir(NotificacionDTO notificacion) {
+        Long usuarioId = notificacion.getUsuarioId();
+        Set<Suscripcion> conjunto = suscripciones.get(usuarioId);
+        if (conjunto == null) {
+            return;
+        }
+        encolar(usuarioId, () -> {
+            for (Suscripcion suscripcion : conjunto) {
+                if (suscripcion.lista) {
+                    enviarNotificacion(usuarioId, suscripcion, notificacion);
+                }
+            }
+        });
+    }
+
+    private boolean enviarNotificacion(Long usuarioId, Suscripcion suscripcion, NotificacionDTO notificacion) {
+        if (suscripcion.ultimoId != null && notificacion.getId() <= suscripcion.ultimoId) {
+            return true;
+        }
+        boolean enviado = enviar(usuarioId, suscripcion, SseEmitter.event()
+                .id(String.valueOf(notificacion.getId()))
+                .name(EVENTO)
+                .data(notificacion, MediaType.APPLICATION_JSON));
+        if (enviado) {
+            suscripcion.ultimoId = notificacion.getId();
+        }
+        return enviado;
+    }
+
+    private boolean enviar(Long usuarioId, Suscripcion suscripcion, SseEmitter.SseEventBuilder evento) {
+        try {
+            suscripcion.emisor.send(evento);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // El cliente se desconectó; Spring MVC completa la solicitud por su cuenta
+            quitar(usuarioId, suscripcion);
+            return false;
+        }
+    }
+
+    private void encolar(Long usuarioId, Runnable tarea) {
+        CompletableFuture<Void> cola = colas.compute(usuarioId, (id, anterior) ->
+                (anterior != null ? anterior : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(tarea, ejecutor)
+                        .exceptionally(error -> {
+                            log.warn("Error al enviar notificaciones SSE al usuario {}: {}", usuarioId, error.getMessage());
+                            return null;
+                        }));
+        // Si al terminar el usuario ya no tiene conexiones y no se encoló nada detrás, la cola se descarta
+        cola.whenComplete((resultado, error) -> {
+            if (!suscripciones.containsKey(usuarioId)) {
+                colas.remove(usuarioId, cola);
+            }
+        });
+    }
+
+    private void quitar(Long usuarioId, Suscripcion suscripcion) {
+        Set<Suscripcion> restantes = suscripciones.computeIfPresent(usuarioId, (id, conjunto) -> {
+            conjunto.remove(suscripcion);
+            return conjunto.isEmpty() ? null : conjunto;
+        });
+        if (restantes == null) {
+            // Una cola que todavía se ejecuta se quita sola al terminar; quitarla ahora
+            // dejaría que el siguiente encolar empiece otra en paralelo
+            colas.computeIfPresent(usuarioId, (id, cola) -> cola.isDone() ? null : cola);
+        }
+    }
+
+    /**
+     * Una conexión SSE abierta.
+     *
+     * Solo se modifica desde la cola de su usuario, que ejecuta una tarea a la vez.
+     */
+    private static class Suscripcion {
+
+        private final SseEmitter emisor;
+        private volatile Long ultimoId;
+        private volatile boolean lista;
+
+        private Suscripcion(SseEmitter emisor, Long ultimoId) {
+            this.emisor = emisor;
+            this.ultimoId = ultimoId;
+        }
+    }
+}
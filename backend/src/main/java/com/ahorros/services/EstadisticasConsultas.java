@@ -0,0 +1,285 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.ConsultasDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Estadísticas de las sentencias SQL ejecutadas, agrupadas por firma.
+ *
+ * La firma es el SQL con los literales reemplazados por ? y las listas de
+ * parámetros (in (?, ?, ?)) reducidas a una, así las consultas que solo
+ * cambian en sus valores se acumulan juntas. Por firma se cuentan las
+ * ejecuciones, el tiempo total y máximo de ejecución y las filas leídas o
+ * modificadas. Se guardan como mucho consultas.max-firmas firmas; las demás
+ * se acumulan en una sola entrada.
+ *
+ * Las sentencias que tardan consultas.umbral-lenta-ms o más se registran en
+ * el log con sus parámetros. Los datos llegan desde el DataSource medido
+ * (ver config.DataSourceMedido).
+ */
+@Component
+@Slf4j
+public class EstadisticasConsultas {
+
+    private static final String OTRAS = "(otras consultas)";
+    private static final int MAX_SQL_CACHE = 4096;
+    private static final int MAX_LARGO_PARAMETRO = 100;
+
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    /**
+     * Acumulados del hilo desde que empezó: nanosegundos en sentencias,
+     * sentencias ejecutadas y nanosegundos esperando una conexión del pool.
+     * Quien quiera medir una operación resta los valores de antes y después.
+     */
+    private static final ThreadLocal<long[]> ACUMULADO_HILO = ThreadLocal.withInitial(() -> new long[3]);
+
+    @Autowired
+    private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Value("${consultas.umbral-lenta-ms:200}")
+    private long umbralLentaMs;
+
+    @Value("${consultas.max-firmas:500}")
+    private int maxFirmas;
+
+    private final Map<String, Consulta> porFirma = new ConcurrentHashMap<>();
+
+    /**
+     * Consulta de cada SQL ya visto, para no normalizarlo en cada ejecución
+     */
+    private final Map<String, Consulta> porSql = new ConcurrentHashMap<>();
+
+    /**
+     * Acumulados de una firma.
+     */
+    public static final class Consulta {
+
+        private final String firma;
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder nanosTotal = new LongAdder();
+        private final AtomicLong nanosMaximo = new AtomicLong();
+        private final LongAdder filas = new LongAdder();
+
+        private Consulta(String firma) {
+            this.firma = firma;
+        }
+
+        /**
+         * @return SQL normalizado de la firma
+         */
+        public String getFirma() {
+            return firma;
+        }
+
+        /**
+         * Suma una fila leída de un ResultSet de esta consulta.
+         */
+        public void sumarFila() {
+            filas.increment();
+        }
+    }
+
+    /**
+     * Obtiene los acumulados de la firma de un SQL.
+     *
+     * @param sql Sentencia tal como se envía al driver
+     * @param conLiterales true si puede tener valores literales (Statement sin parámetros)
+     * @return Acumulados de su firma
+     */
+    public Consulta consulta(String sql, boolean conLiterales) {
+        Consulta consulta = porSql.get(sql);
+        if (consulta != null) {
+            return consulta;
+        }
+        String firma = firma(sql, conLiterales);
+        consulta = porFirma.get(firma);
+        if (consulta == null) {
+            consulta = porFirma.size() < maxFirmas
+                    ? porFirma.computeIfAbsent(firma, Consulta::new)
+                    : porFirma.computeIfAbsent(OTRAS, Consulta::new);
+        }
+        if (porSql.size() < MAX_SQL_CACHE) {
+            porSql.putIfAbsent(sql, consulta);
+        }
+        return consulta;
+    }
+
+    /**
+     * Registra una ejecución y, si superó el umbral, la escribe en el log.
+     *
+     * @param consulta Acumulados de la firma
+     * @param sql Sentencia ejecutada
+     * @param nanos Duración de la ejecución
+     * @param filas Filas modificadas (las leídas se suman con Consulta.sumarFila)
+     * @param parametros Parámetros por posición (el índice 0 no se usa), o null
+     * @param cantidadParametros Mayor posición asignada en parametros
+     */
+    public void registrar(Consulta consulta, String sql, long nanos, long filas, Object[] parametros, int cantidadParametros) {
+        long[] acumulado = ACUMULADO_HILO.get();
+        acumulado[0] += nanos;
+        acumulado[1]++;
+        consulta.ejecuciones.increment();
+        consulta.nanosTotal.add(nanos);
+        if (filas > 0) {
+            consulta.filas.add(filas);
+        }
+        long maximo = consulta.nanosMaximo.get();
+        while (nanos > maximo && !consulta.nanosMaximo.compareAndSet(maximo, nanos)) {
+            maximo = consulta.nanosMaximo.get();
+        }
+        if (nanos >= umbralLentaMs * 1_000_000) {
+            log.warn("Consulta lenta ({} ms): {} | parámetros: {}",
+                    nanos / 1_000_000, ESPACIOS.matcher(sql).replaceAll(" "), describir(parametros, cantidadParametros));
+        }
+    }
+
+    /**
+     * Registra el tiempo que el hilo esperó una conexión del pool.
+     *
+     * @param nanos Duración de la espera
+     */
+    public void registrarEsperaConexion(long nanos) {
+        ACUMULADO_HILO.get()[2] += nanos;
+    }
+
+    /**
+     * @return Nanosegundos que el hilo actual pasó ejecutando sentencias
+     */
+    public static long tiempoBdDelHilo() {
+        return ACUMULADO_HILO.get()[0];
+    }
+
+    /**
+     * @return Sentencias ejecutadas por el hilo actual
+     */
+    public static long sentenciasDelHilo() {
+        return ACUMULADO_HILO.get()[1];
+    }
+
+    /**
+     * @return Nanosegundos que el hilo actual esperó conexiones del pool
+     */
+    public static long esperaConexionDelHilo() {
+        return ACUMULADO_HILO.get()[2];
+    }
+
+    /**
+     * Obtiene las consultas ordenadas por un criterio y el resumen de Hibernate.
+     *
+     * @param orden total, maximo, promedio, ejecuciones o filas
+     * @param limite Máximo de consultas
+     * @return Consultas y estadísticas de Hibernate
+     */
+    public ConsultasDTO obtener(String orden, int limite) {
+        if (limite < 1) {
+            throw new RuntimeException("El límite debe ser positivo");
+        }
+        Comparator<ConsultasDTO.Consulta> comparador = switch (orden) {
+            case "total" -> Comparator.comparingDouble(ConsultasDTO.Consulta::getTiempoTotalMs);
+            case "maximo" -> Comparator.comparingDouble(ConsultasDTO.Consulta::getTiempoMaximoMs);
+            case "promedio" -> Comparator.comparingDouble(ConsultasDTO.Consulta::getTiempoPromedioMs);
+            case "ejecuciones" -> Comparator.comparingLong(ConsultasDTO.Consulta::getEjecuciones);
+            case "filas" -> Comparator.comparingLong(ConsultasDTO.Consulta::getFilas);
+            default -> throw new RuntimeException("Orden no válido: " + orden);
+        };
+
+        ConsultasDTO resultado = new ConsultasDTO();
+        resultado.setFirmas(porFirma.size());
+        resultado.setUmbralLentaMs(umbralLentaMs);
+        resultado.setConsultas(porFirma.values().stream()
+                .map(EstadisticasConsultas::convertirADTO)
+                .sorted(comparador.reversed())
+                .limit(limite)
+                .collect(Collectors.toList()));
+        resultado.setHibernate(resumenHibernate());
+        return resultado;
+    }
+
+    /**
+     * Pone en cero las estadísticas propias y las de Hibernate.
+     */
+    public void reiniciar() {
+        porSql.clear();
+        porFirma.clear();
+        estadisticasHibernate().clear();
+        log.info("Estadísticas de consultas reiniciadas");
+    }
+
+    private Map<String, Object> resumenHibernate() {
+        Statistics estadisticas = estadisticasHibernate();
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("habilitadas", estadisticas.isStatisticsEnabled());
+        resumen.put("sesionesAbiertas", estadisticas.getSessionOpenCount());
+        resumen.put("transacciones", estadisticas.getTransactionCount());
+        resumen.put("sentenciasPreparadas", estadisticas.getPrepareStatementCount());
+        resumen.put("consultasEjecutadas", estadisticas.getQueryExecutionCount());
+        resumen.put("consultaMasLentaMs", estadisticas.getQueryExecutionMaxTime());
+        resumen.put("consultaMasLenta", estadisticas.getQueryExecutionMaxTimeQueryString());
+        resumen.put("entidadesCargadas", estadisticas.getEntityLoadCount());
+        resumen.put("entidadesObtenidas", estadisticas.getEntityFetchCount());
+        resumen.put("coleccionesObtenidas", estadisticas.getCollectionFetchCount());
+        resumen.put("flushes", estadisticas.getFlushCount());
+        resumen.put("fallosOptimistas", estadisticas.getOptimisticFailureCount());
+        return resumen;
+    }
+
+    private Statistics estadisticasHibernate() {
+        return entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static ConsultasDTO.Consulta convertirADTO(Consulta consulta) {
+        long ejecuciones = consulta.ejecuciones.sum();
+        double totalMs = consulta.nanosTotal.sum() / 1_000_000.0;
+        ConsultasDTO.Consulta dto = new ConsultasDTO.Consulta();
+        dto.setSql(consulta.firma);
+        dto.setEjecuciones(ejecuciones);
+        dto.setTiempoTotalMs(totalMs);
+        dto.setTiempoPromedioMs(ejecuciones > 0 ? totalMs / ejecuciones : 0);
+        dto.setTiempoMaximoMs(consulta.nanosMaximo.get() / 1_000_000.0);
+        dto.setFilas(consulta.filas.sum());
+        return dto;
+    }
+
+    private static String firma(String sql, boolean conLiterales) {
+        String firma = sql.strip();
+        if (conLiterales) {
+            firma = TEXTO.matcher(firma).replaceAll("?");
+            firma = NUMERO.matcher(firma).replaceAll("?");
+        }
+        firma = LISTA.matcher(firma).replaceAll("?...");
+        return ESPACIOS.matcher(firma).replaceAll(" ");
+    }
+
+    private static String describir(Object[] parametros, int cantidad) {
+        if (parametros == null || cantidad < 1) {
+            return "[]";
+        }
+        return Arrays.stream(parametros, 1, cantidad + 1)
+                .map(valor -> {
+                    String texto = String.valueOf(valor);
+                    return texto.length() > MAX_LARGO_PARAMETRO ? texto.substring(0, MAX_LARGO_PARAMETRO) + "..." : texto;
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,281 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.RendimientoDTO;
+import com.ahorros.models.Transaccion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Operaciones por segundo, fallos por motivo y latencias de depósitos y
+ * retiros en ventanas de 1, 5 y 15 minutos.
+ *
+ * Cada segundo tiene una cubeta en un búfer circular de 15 minutos. Una
+ * cubeta es un arreglo de contadores atómicos: operaciones exitosas por
+ * tipo, fallos por motivo y un histograma de latencias por tipo. El
+ * histograma es log-lineal (8 subdivisiones por potencia de 2 de
+ * microsegundos), así que los percentiles tienen un error relativo menor al
+ * 12,5 %. Registrar una operación son dos incrementos atómicos; una cubeta
+ * se reutiliza con un compare-and-set de su segundo, sin bloqueos.
+ *
+ * Las operaciones exitosas se registran al confirmarse la transacción, así
+ * que su latencia incluye el commit. Cada resultado también suma en el
+ * contador de Micrometer ahorros.transacciones, con las etiquetas tipo
+ * (deposito, retiro) y resultado (exito o el motivo del fallo).
+ */
+@Component
+public class EstadisticasRendimiento {
+
+    /**
+     * Ventanas reportadas, en segundos.
+     */
+    public static final List<Integer> VENTANAS = List.of(60, 300, 900);
+
+    private static final int SEGUNDOS = 900 + 1;
+    private static final int SUBDIVISIONES_LOG = 3;
+    private static final int MAX_EXPONENTE = 27;
+    private static final int RANURAS_LATENCIA = (MAX_EXPONENTE - SUBDIVISIONES_LOG + 2) << SUBDIVISIONES_LOG;
+
+    private static final int EXITOS = 0;
+    private static final int FALLOS = EXITOS + 2;
+    private static final int LATENCIAS = FALLOS + MotivoFallo.values().length;
+    private static final int TAMANO_CUBETA = LATENCIAS + 2 * RANURAS_LATENCIA;
+
+    /**
+     * Motivo de un depósito o retiro fallido, según el mensaje de la excepción.
+     */
+    public enum MotivoFallo {
+        SALDO_INSUFICIENTE("Saldo insuficiente"),
+        CUENTA_NO_ENCONTRADA("Cuenta no encontrada"),
+        CUENTA_INACTIVA("La cuenta está inactiva"),
+        MONTO_INVALIDO("El monto del"),
+        LIMITE_RETIRO("Se superó el límite"),
+        ACTIVIDAD_INUSUAL("Retiro bloqueado por actividad inusual"),
+        OTRO("");
+
+        private final String prefijo;
+
+        MotivoFallo(String prefijo) {
+            this.prefijo = prefijo;
+        }
+
+        static MotivoFallo de(RuntimeException e) {
+            String mensaje = e.getMessage() != null ? e.getMessage() : "";
+            for (MotivoFallo motivo : values()) {
+                if (mensaje.startsWith(motivo.prefijo)) {
+                    return motivo;
+                }
+            }
+            return OTRO;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry registroMetricas;
+
+    @Value("${rendimiento.habilitado:true}")
+    private boolean habilitado;
+
+    /**
+     * Contadores por tipo y resultado; el resultado es el ordinal del motivo o, para éxitos, el último índice
+     */
+    private final Counter[][] contadores = new Counter[2][MotivoFallo.values().length + 1];
+
+    private final AtomicLong[] segundos = new AtomicLong[SEGUNDOS];
+    private final AtomicLongArray[] cubetas = new AtomicLongArray[SEGUNDOS];
+
+    public EstadisticasRendimiento() {
+        for (int i = 0; i < SEGUNDOS; i++) {
+            segundos[i] = new AtomicLong(Long.MIN_VALUE);
+            cubetas[i] = new AtomicLongArray(TAMANO_CUBETA);
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        for (Transaccion.TipoTransaccion tipo : List.of(Transaccion.TipoTransaccion.DEPOSITO, Transaccion.TipoTransaccion.RETIRO)) {
+            for (int resultado = 0; resultado <= MotivoFallo.values().length; resultado++) {
+                String nombre = resultado < MotivoFallo.values().length ? MotivoFallo.values()[resultado].name() : "EXITO";
+                contadores[indiceTipo(tipo)][resultado] = Counter.builder("ahorros.transacciones")
+                        .description("Depósitos y retiros por resultado")
+                        .tag("tipo", tipo.name().toLowerCase(Locale.ROOT))
+                        .tag("resultado", nombre.toLowerCase(Locale.ROOT))
+                        .register(registroMetricas);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta un depósito o retiro y registra su resultado y su latencia.
+     * Si hay una transacción activa, el éxito se registra al confirmarse.
+     *
+     * @param tipo DEPOSITO o RETIRO
+     * @param operacion Operación a ejecutar
+     * @return Resultado de la operación
+     */
+    public <T> T medir(Transaccion.TipoTransaccion tipo, Supplier<T> operacion) {
+        if (!habilitado) {
+            return operacion.get();
+        }
+        long inicio = System.nanoTime();
+        T resultado;
+        try {
+            resultado = operacion.get();
+        } catch (RuntimeException e) {
+            registrar(tipo, MotivoFallo.de(e), inicio);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    registrar(tipo, estado == STATUS_COMMITTED ? null : MotivoFallo.OTRO, inicio);
+                }
+            });
+        } else {
+            registrar(tipo, null, inicio);
+        }
+        return resultado;
+    }
+
+    /**
+     * Calcula las estadísticas de cada ventana con los segundos ya completos.
+     *
+     * @return Estadísticas por ventana
+     */
+    public RendimientoDTO obtener() {
+        long actual = System.currentTimeMillis() / 1000;
+        RendimientoDTO rendimiento = new RendimientoDTO();
+        for (int ventana : VENTANAS) {
+            long[] suma = new long[TAMANO_CUBETA];
+            for (long segundo = actual - ventana; segundo < actual; segundo++) {
+                int indice = (int) Math.floorMod(segundo, (long) SEGUNDOS);
+                AtomicLongArray cubeta = cubetas[indice];
+                if (segundos[indice].get() != segundo) {
+                    continue;
+                }
+                for (int i = 0; i < TAMANO_CUBETA; i++) {
+                    suma[i] += cubeta.get(i);
+                }
+            }
+            rendimiento.getVentanas().add(resumir(ventana, suma));
+        }
+        return rendimiento;
+    }
+
+    private void registrar(Transaccion.TipoTransaccion tipo, MotivoFallo fallo, long inicio) {
+        long nanos = System.nanoTime() - inicio;
+        AtomicLongArray cubeta = cubetaActual(System.currentTimeMillis() / 1000);
+        int indiceTipo = indiceTipo(tipo);
+        cubeta.incrementAndGet(fallo == null ? EXITOS + indiceTipo : FALLOS + fallo.ordinal());
+        cubeta.incrementAndGet(LATENCIAS + indiceTipo * RANURAS_LATENCIA + ranuraLatencia(nanos / 1000));
+        contadores[indiceTipo][fallo == null ? MotivoFallo.values().length : fallo.ordinal()].increment();
+    }
+
+    private static int indiceTipo(Transaccion.TipoTransaccion tipo) {
+        return tipo == Transaccion.TipoTransaccion.DEPOSITO ? 0 : 1;
+    }
+
+    /**
+     * Cubeta del segundo indicado. Si guarda un segundo anterior, el primer
+     * hilo que la reclama con compare-and-set la pone en cero.
+     */
+    private AtomicLongArray cubetaActual(long segundo) {
+        int indice = (int) Math.floorMod(segundo, (long) SEGUNDOS);
+        AtomicLong sello = segundos[indice];
+        long anterior = sello.get();
+        if (anterior < segundo && sello.compareAndSet(anterior, segundo)) {
+            AtomicLongArray cubeta = cubetas[indice];
+            for (int i = 0; i < TAMANO_CUBETA; i++) {
+                cubeta.set(i, 0);
+            }
+        }
+        return cubetas[indice];
+    }
+
+    private RendimientoDTO.Ventana resumir(int ventana, long[] suma) {
+        RendimientoDTO.Ventana resumen = new RendimientoDTO.Ventana();
+        resumen.setSegundos(ventana);
+        resumen.setDepositosPorSegundo((double) suma[EXITOS] / ventana);
+        resumen.setRetirosPorSegundo((double) suma[EXITOS + 1] / ventana);
+        Map<String, Long> fallos = new LinkedHashMap<>();
+        for (MotivoFallo motivo : MotivoFallo.values()) {
+            if (suma[FALLOS + motivo.ordinal()] > 0) {
+                fallos.put(motivo.name(), suma[FALLOS + motivo.ordinal()]);
+            }
+        }
+        resumen.setFallos(fallos);
+        resumen.setDeposito(percentiles(suma, LATENCIAS));
+        resumen.setRetiro(percentiles(suma, LATENCIAS + RANURAS_LATENCIA));
+        return resumen;
+    }
+
+    private static RendimientoDTO.Latencia percentiles(long[] suma, int desde) {
+        long total = 0;
+        for (int i = 0; i < RANURAS_LATENCIA; i++) {
+            total += suma[desde + i];
+        }
+        RendimientoDTO.Latencia latencia = new RendimientoDTO.Latencia();
+        latencia.setOperaciones(total);
+        if (total == 0) {
+            return latencia;
+        }
+        latencia.setP50Ms(percentil(suma, desde, total, 0.50));
+        latencia.setP99Ms(percentil(suma, desde, total, 0.99));
+        return latencia;
+    }
+
+    /**
+     * Límite superior, en milisegundos, de la ranura que contiene el percentil.
+     */
+    private static double percentil(long[] suma, int desde, long total, double fraccion) {
+        long objetivo = (long) Math.ceil(total * fraccion);
+        long acumulado = 0;
+        for (int i = 0; i < RANURAS_LATENCIA; i++) {
+            acumulado += suma[desde + i];
+            if (acumulado >= objetivo) {
+                return limiteSuperior(i) / 1000.0;
+            }
+        }
+        return limiteSuperior(RANURAS_LATENCIA - 1) / 1000.0;
+    }
+
+    /**
+     * Ranura log-lineal de una latencia: valores menores que 8 µs tienen una
+     * ranura cada uno y cada potencia de 2 siguiente se divide en 8.
+     */
+    private static int ranuraLatencia(long micros) {
+        long valor = Math.max(0, Math.min(micros, (1L << MAX_EXPONENTE + 1) - 1));
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        if (exponente < SUBDIVISIONES_LOG) {
+            return (int) valor;
+        }
+        int desplazamiento = exponente - SUBDIVISIONES_LOG;
+        return ((desplazamiento + 1) << SUBDIVISIONES_LOG) + (int) ((valor >> desplazamiento) & ((1 << SUBDIVISIONES_LOG) - 1));
+    }
+
+    /**
+     * Mayor latencia, en microsegundos, que cae en una ranura.
+     */
+    private static long limiteSuperior(int ranura) {
+        if (ranura < 1 << SUBDIVISIONES_LOG) {
+            return ranura;
+        }
+        int desplazamiento = (ranura >> SUBDIVISIONES_LOG) - 1;
+        long base = (long) ((ranura & ((1 << SUBDIVISIONES_LOG) - 1)) | (1 << SUBDIVISIONES_LOG)) << desplazamiento;
+        return base + (1L << desplazamiento) - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ahorros.services;
+
+import com.ahorros.models.Transaccion;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Evento de Java Flight Recorder de un depósito o retiro.
+ *
+ * Su duración va desde que empieza la operación hasta que termina su
+ * transacción (commit incluido). Lleva la cuenta, el tipo, el resultado, el
+ * tiempo en sentencias SQL, el tiempo esperando una conexión del pool y el
+ * tiempo esperando el bloqueo de la fila de la cuenta, que es donde dos
+ * operaciones sobre la misma cuenta compiten entre sí. La espera del bloqueo
+ * es la duración completa de la lectura hecha con bloquear; la parte que pasa
+ * en la base de datos también cuenta en tiempoBd. Las esperas en monitores
+ * de la JVM ya las registran los eventos jdk.JavaMonitorEnter. Si ninguna
+ * grabación de JFR está activa no se crea nada más que el evento.
+ */
+@Name("com.ahorros.Transaccion")
+@Label("Transacción")
+@Category("Ahorros")
+@Description("Depósito o retiro, hasta el fin de su transacción")
+@StackTrace(false)
+final class EventoTransaccion extends jdk.jfr.Event {
+
+    @Label("ID de cuenta")
+    long cuentaId;
+
+    @Label("Tipo")
+    String tipo;
+
+    @Label("Resultado")
+    @Description("EXITO o el motivo del fallo")
+    String resultado;
+
+    @Label("Tiempo en base de datos")
+    @Timespan(Timespan.NANOSECONDS)
+    long tiempoBd;
+
+    @Label("Sentencias SQL")
+    long sentencias;
+
+    @Label("Espera de conexión")
+    @Description("Tiempo esperando una conexión libre del pool")
+    @Timespan(Timespan.NANOSECONDS)
+    long esperaConexion;
+
+    @Label("Espera de bloqueo")
+    @Description("Tiempo leyendo la cuenta con SELECT ... FOR UPDATE, incluida la espera del bloqueo")
+    @Timespan(Timespan.NANOSECONDS)
+    long esperaBloqueo;
+
+    /**
+     * Nanosegundos acumulados por el hilo en lecturas con bloqueo
+     */
+    private static final ThreadLocal<long[]> ESPERA_BLOQUEO_HILO = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Ejecuta una lectura que bloquea filas y acumula su duración como espera
+     * de bloqueo del hilo.
+     *
+     * @param lectura Lectura con bloqueo, por ejemplo CuentaRepository.findByIdParaActualizar
+     * @return Resultado de la lectura
+     */
+    static <T> T bloquear(Supplier<T> lectura) {
+        long inicio = System.nanoTime();
+        try {
+            return lectura.get();
+        } finally {
+            ESPERA_BLOQUEO_HILO.get()[0] += System.nanoTime() - inicio;
+        }
+    }
+
+    /**
+     * Ejecuta una operación y la registra como evento, si JFR lo está grabando.
+     *
+     * @param cuentaId ID de la cuenta
+     * @param tipo DEPOSITO o RETIRO
+     * @param operacion Operación a ejecutar
+     * @return Resultado de la operación
+     */
+    static <T> T medir(Long cuentaId, Transaccion.TipoTransaccion tipo, Supplier<T> operacion) {
+        EventoTransaccion evento = new EventoTransaccion();
+        if (!evento.isEnabled()) {
+            return operacion.get();
+        }
+        evento.cuentaId = cuentaId != null ? cuentaId : 0;
+        evento.tipo = tipo.name();
+        long bdInicial = EstadisticasConsultas.tiempoBdDelHilo();
+        long sentenciasIniciales = EstadisticasConsultas.sentenciasDelHilo();
+        long esperaInicial = EstadisticasConsultas.esperaConexionDelHilo();
+        long bloqueoInicial = ESPERA_BLOQUEO_HILO.get()[0];
+        evento.begin();
+
+        T resultado;
+        try {
+            resultado = operacion.get();
+        } catch (RuntimeException e) {
+            evento.terminar(EstadisticasRendimiento.MotivoFallo.de(e).name(),
+                    bdInicial, sentenciasIniciales, esperaInicial, bloqueoInicial);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    evento.terminar(estado == STATUS_COMMITTED ? "EXITO" : EstadisticasRendimiento.MotivoFallo.OTRO.name(),
+                            bdInicial, sentenciasIniciales, esperaInicial, bloqueoInicial);
+                }
+            });
+        } else {
+            evento.terminar("EXITO", bdInicial, sentenciasIniciales, esperaInicial, bloqueoInicial);
+        }
+        return resultado;
+    }
+
+    private void terminar(String resultado, long bdInicial, long sentenciasIniciales, long esperaInicial,
+                          long bloqueoInicial) {
+        end();
+        this.resultado = resultado;
+        this.tiempoBd = EstadisticasConsultas.tiempoBdDelHilo() - bdInicial;
+        this.sentencias = EstadisticasConsultas.sentenciasDelHilo() - sentenciasIniciales;
+        this.esperaConexion = EstadisticasConsultas.esperaConexionDelHilo() - esperaInicial;
+        this.esperaBloqueo = ESPERA_BLOQUEO_HILO.get()[0] - bloqueoInicial;
+        commit();
+    }
+}
@@ -0,0 +1,158 @@
+package com.ahorros.services;
+
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.ReservaFondos;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.ReservaFondosRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Libera las reservas de fondos que vencen sin capturarse.
+ *
+ * Las fechas de expiración de las reservas activas se guardan en memoria en
+ * un PlanificadorVencimientos (ranuras de reservas.tick-segundos), cargado
+ * desde reservas_fondos al iniciar, así que no se consulta la base de datos
+ * para buscar vencidas. Lo que vence en cada revisión se libera en el hilo
+ * del planificador por lotes de reservas.lote, cada lote en una transacción
+ * que marca las reservas EXPIRADA y descuenta su monto de
+ * Cuenta.saldoRetenido. Las
+ * reservas que se capturaron o liberaron antes de vencer se ignoran.
+ */
+@Component
+@Slf4j
+public class ExpiradorReservas {
+
+    private static final int MAX_INTENTOS = 3;
+
+    /**
+     * Ticks que espera un lote que no se pudo expirar antes de volver a intentarlo
+     */
+    private static final long TICKS_REINTENTO = 3;
+
+    @Autowired
+    private ReservaFondosRepository reservaFondosRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reservas.tick-segundos:5}")
+    private long segundosPorTick;
+
+    @Value("${reservas.lote:500}")
+    private int tamanoLote;
+
+    private PlanificadorVencimientos<Long> vencimientos;
+
+    @PostConstruct
+    public void iniciar() {
+        vencimientos = new PlanificadorVencimientos<>(segundosPorTick,
+                vencidas -> liberarVencidas(vencidas.stream().map(RuedaTemporizadora.Entrada::valor).toList()));
+    }
+
+    /**
+     * Carga en la rueda las reservas activas; las ya vencidas se liberan en la primera revisión.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        List<Object[]> expiraciones = reservaFondosRepository.findExpiracionPorEstado(ReservaFondos.EstadoReserva.ACTIVA);
+        vencimientos.cargar(expiraciones);
+        log.info("Reservas de fondos activas cargadas: {}", expiraciones.size());
+    }
+
+    /**
+     * Agrega a la rueda el vencimiento de una reserva.
+     * @param reservaId ID de la reserva
+     * @param fechaExpiracion Fecha y hora de vencimiento
+     */
+    public void programar(Long reservaId, LocalDateTime fechaExpiracion) {
+        vencimientos.programar(reservaId, fechaExpiracion);
+    }
+
+    /**
+     * Avanza la rueda hasta ahora y libera en segundo plano las reservas vencidas.
+     */
+    @Scheduled(fixedDelayString = "${reservas.revision-ms:5000}")
+    public void revisar() {
+        vencimientos.revisar();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        vencimientos.cerrar();
+    }
+
+    private void liberarVencidas(List<Long> ids) {
+        int expiradas = 0;
+        for (int desde = 0; desde < ids.size(); desde += tamanoLote) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + tamanoLote, ids.size()));
+            try {
+                expiradas += expirarLote(lote);
+            } catch (RuntimeException e) {
+                // Las reservas siguen ACTIVA y reteniendo fondos: vuelven a la rueda en vez de perderse
+                log.error("Error al liberar {} reservas vencidas; se reintentará", lote.size(), e);
+                lote.forEach(id -> vencimientos.programarDentroDe(id, TICKS_REINTENTO));
+            }
+        }
+        log.info("Reservas de fondos vencidas: {} de {} liberadas", expiradas, ids.size());
+    }
+
+    /**
+     * Expira un lote en una transacción. Las cuentas se bloquean antes de
+     * modificarlas, como en el resto de las operaciones; si una reserva se
+     * capturó o liberó a la vez, su versión cambió, el lote se revierte y se
+     * vuelve a intentar leyendo el estado actual.
+     */
+    private int expirarLote(List<Long> ids) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> expirar(ids));
+            } catch (OptimisticLockingFailureException e) {
+                if (intento >= MAX_INTENTOS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private int expirar(List<Long> ids) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ReservaFondos> reservas = reservaFondosRepository.findAllById(ids).stream()
+                .filter(reserva -> reserva.getEstado() == ReservaFondos.EstadoReserva.ACTIVA)
+                .filter(reserva -> !reserva.getFechaExpiracion().isAfter(ahora))
+                .toList();
+        if (reservas.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Cuenta> cuentas = cuentaRepository.findByIdInParaActualizar(
+                        reservas.stream().map(ReservaFondos::getCuentaId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Cuenta::getId, Function.identity()));
+        for (ReservaFondos reserva : reservas) {
+            Cuenta cuenta = cuentas.get(reserva.getCuentaId());
+            if (cuenta != null) {
+                cuenta.liberar(reserva.getMonto());
+            }
+            reserva.resolver(ReservaFondos.EstadoReserva.EXPIRADA);
+        }
+        return reservas.size();
+    }
+}
@@ -0,0 +1,252 @@
+package com.ahorros.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe las trazas en archivos rotativos en formato JSON de OTLP.
+ *
+ * Cada línea es un ExportTraceServiceRequest con una traza completa, el
+ * formato que lee el receptor otlpjsonfile del OpenTelemetry Collector. Los
+ * ids van en hexadecimal y los enteros de 64 bits como texto, como indica la
+ * codificación JSON de OTLP.
+ *
+ * Las trazas llegan por una cola acotada y las escribe un único hilo; si la
+ * cola está llena la traza se pierde en vez de frenar la solicitud. El
+ * archivo actual es trazas.jsonl; al superar el tamaño máximo pasa a ser
+ * trazas.1.jsonl (y los anteriores se corren un número) y se conservan como
+ * mucho los archivos indicados.
+ */
+@Slf4j
+class ExportadorTrazas {
+
+    private static final String ACTUAL = "trazas.jsonl";
+    private static final int MAX_LOTE = 100;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path directorio;
+    private final long bytesMaximos;
+    private final int archivos;
+    private final String servicio;
+    private final BlockingQueue<Trazador.Traza> cola;
+    private final JsonFactory fabrica = new JsonFactory();
+    private final ExecutorService escritor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("exportador-trazas").daemon().factory());
+
+    private volatile boolean activo = true;
+    private OutputStream salida;
+    private long bytesEscritos;
+
+    /**
+     * @param directorio Directorio de los archivos
+     * @param bytesMaximos Tamaño a partir del cual se rota el archivo actual
+     * @param archivos Archivos a conservar, contando el actual
+     * @param capacidadCola Trazas pendientes como máximo
+     * @param servicio Valor del atributo service.name
+     */
+    ExportadorTrazas(Path directorio, long bytesMaximos, int archivos, int capacidadCola, String servicio) {
+        this.directorio = directorio;
+        this.bytesMaximos = bytesMaximos;
+        this.archivos = Math.max(1, archivos);
+        this.servicio = servicio;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        escritor.submit(this::escribirPendientes);
+    }
+
+    /**
+     * Encola una traza para escribirla.
+     *
+     * @return false si la cola estaba llena y la traza se descartó
+     */
+    boolean enviar(Trazador.Traza traza) {
+        return cola.offer(traza);
+    }
+
+    /**
+     * Escribe lo pendiente y cierra el archivo.
+     */
+    void cerrar() {
+        activo = false;
+        escritor.shutdown();
+        try {
+            escritor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor. No se detiene con una interrupción porque
+     * interrumpir la escritura en un FileChannel cierra el archivo.
+     */
+    private void escribirPendientes() {
+        List<Trazador.Traza> lote = new ArrayList<>(MAX_LOTE);
+        try {
+            while (activo || !cola.isEmpty()) {
+                Trazador.Traza traza = cola.poll(200, TimeUnit.MILLISECONDS);
+                if (traza != null) {
+                    lote.add(traza);
+                    cola.drainTo(lote, MAX_LOTE - 1);
+                    escribir(lote);
+                    lote.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cerrarArchivo();
+        }
+    }
+
+    private void escribir(List<Trazador.Traza> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            if (salida == null) {
+                abrir();
+            }
+            for (Trazador.Traza traza : lote) {
+                byte[] linea = serializar(traza);
+                salida.write(linea);
+                bytesEscritos += linea.length;
+            }
+            salida.flush();
+            if (bytesEscritos >= bytesMaximos) {
+                rotar();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron escribir {} trazas en {}: {}", lote.size(), directorio, e.getMessage());
+            cerrarArchivo();
+        }
+    }
+
+    private void abrir() throws IOException {
+        Files.createDirectories(directorio);
+        Path archivo = directorio.resolve(ACTUAL);
+        salida = new BufferedOutputStream(Files.newOutputStream(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        bytesEscritos = Files.size(archivo);
+    }
+
+    private void rotar() throws IOException {
+        cerrarArchivo();
+        Files.deleteIfExists(directorio.resolve(nombre(archivos - 1)));
+        for (int i = archivos - 2; i >= 0; i--) {
+            Path origen = directorio.resolve(nombre(i));
+            if (Files.exists(origen)) {
+                Files.move(origen, directorio.resolve(nombre(i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static String nombre(int indice) {
+        return indice == 0 ? ACTUAL : "trazas." + indice + ".jsonl";
+    }
+
+    private void cerrarArchivo() {
+        if (salida == null) {
+            return;
+        }
+        try {
+            salida.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el archivo de trazas: {}", e.getMessage());
+        }
+        salida = null;
+    }
+
+    private byte[] serializar(Trazador.Traza traza) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512 + traza.spans.size() * 256);
+        try (JsonGenerator json = fabrica.createGenerator(bytes, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            escribirAtributo(json, "service.name", servicio);
+            json.writeEndArray();
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", "com.ahorros");
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            String traceId = HEX.toHexDigits(traza.idAlto) + HEX.toHexDigits(traza.idBajo);
+            for (Trazador.Span span : traza.spans) {
+                escribirSpan(json, traceId, span);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        bytes.write('\n');
+        return bytes.toByteArray();
+    }
+
+    private static void escribirSpan(JsonGenerator json, String traceId, Trazador.Span span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", traceId);
+        json.writeStringField("spanId", HEX.toHexDigits(span.id));
+        if (span.padre != null) {
+            json.writeStringField("parentSpanId", HEX.toHexDigits(span.padre.id));
+        }
+        json.writeStringField("name", span.nombre);
+        json.writeNumberField("kind", span.tipo.codigo);
+        json.writeStringField("startTimeUnixNano", Long.toString(span.inicioEpocaNanos()));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.finEpocaNanos()));
+        json.writeArrayFieldStart("attributes");
+        for (int i = 0; i < span.atributos.size(); i += 2) {
+            escribirAtributo(json, (String) span.atributos.get(i), span.atributos.get(i + 1));
+        }
+        json.writeEndArray();
+        if (span.error != null) {
+            json.writeObjectFieldStart("status");
+            json.writeNumberField("code", 2);
+            json.writeStringField("message", span.error);
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void escribirAtributo(JsonGenerator json, String clave, Object valor) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", clave);
+        json.writeObjectFieldStart("value");
+        switch (valor) {
+            case Boolean booleano -> json.writeBooleanField("boolValue", booleano);
+            case Integer entero -> json.writeStringField("intValue", entero.toString());
+            case Long entero -> json.writeStringField("intValue", entero.toString());
+            case Number numero -> json.writeNumberField("doubleValue", numero.doubleValue());
+            default -> json.writeStringField("stringValue", valor.toString());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
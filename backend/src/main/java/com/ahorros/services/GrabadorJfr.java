@@ -0,0 +1,389 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.JfrEstadoDTO;
+import com.ahorros.dto.JfrResumenDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Grabación continua de Java Flight Recorder y volcados bajo demanda.
+ *
+ * Al iniciar la aplicación se arranca una grabación con la configuración
+ * jfr.configuracion ("default", con un costo cercano al 1 %) que guarda en
+ * disco un búfer circular de los últimos jfr.max-edad-minutos (y como mucho
+ * jfr.max-mb). Cuando hace falta un perfil de un momento dado se vuelcan los
+ * últimos minutos del búfer a un archivo .jfr, que se puede descargar o
+ * resumir: métodos con más muestras de CPU, dónde se asigna memoria,
+ * monitores con más espera y los eventos com.ahorros.Transaccion de
+ * TransaccionService. Todo usa la API de JFR de la JVM, sin agentes ni
+ * reinicios.
+ *
+ * El volcado de una ventana usa el comando de diagnóstico JFR.dump (el
+ * mismo de jcmd) a través de su MBean; si no está disponible se vuelca el
+ * búfer completo y el resumen se limita a la ventana.
+ */
+@Component
+@Slf4j
+public class GrabadorJfr {
+
+    private static final String NOMBRE = "ahorros-continua";
+    private static final String EVENTO_TRANSACCION = "com.ahorros.Transaccion";
+    private static final String PAQUETE_PROPIO = "com.ahorros.";
+    private static final Pattern ARCHIVO = Pattern.compile("ahorros-\\d{8}-\\d{6}\\.jfr");
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${jfr.continuo:true}")
+    private boolean continuo;
+
+    @Value("${jfr.configuracion:default}")
+    private String configuracion;
+
+    @Value("${jfr.max-edad-minutos:30}")
+    private long maxEdadMinutos;
+
+    @Value("${jfr.max-mb:250}")
+    private long maxMb;
+
+    @Value("${jfr.directorio:./data/jfr}")
+    private Path directorio;
+
+    @Value("${jfr.max-volcados:10}")
+    private int maxVolcados;
+
+    @Value("${jfr.top:15}")
+    private int top;
+
+    /**
+     * Acceso sincronizado sobre this
+     */
+    private Recording grabacion;
+
+    @PostConstruct
+    public void arrancar() {
+        if (continuo) {
+            iniciar();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void cerrar() {
+        if (grabacion != null) {
+            grabacion.close();
+            grabacion = null;
+        }
+    }
+
+    /**
+     * Inicia la grabación continua si no está activa.
+     *
+     * @return Estado de la grabación
+     * @throws RuntimeException si la configuración no existe o JFR no está disponible
+     */
+    public synchronized JfrEstadoDTO iniciar() {
+        if (grabacion == null || grabacion.getState() != RecordingState.RUNNING) {
+            try {
+                Recording nueva = new Recording(Configuration.getConfiguration(configuracion));
+                nueva.setName(NOMBRE);
+                nueva.setToDisk(true);
+                nueva.setMaxAge(Duration.ofMinutes(maxEdadMinutos));
+                nueva.setMaxSize(maxMb * 1024 * 1024);
+                nueva.enable(EVENTO_TRANSACCION);
+                nueva.start();
+                grabacion = nueva;
+                log.info("Grabación continua de JFR iniciada (configuración {}, {} min, {} MB)",
+                        configuracion, maxEdadMinutos, maxMb);
+            } catch (Exception e) {
+                throw new RuntimeException("No se pudo iniciar la grabación de JFR: " + e.getMessage(), e);
+            }
+        }
+        return estado();
+    }
+
+    /**
+     * Detiene la grabación continua y descarta su búfer.
+     *
+     * @return Estado de la grabación
+     */
+    public synchronized JfrEstadoDTO detener() {
+        if (grabacion != null) {
+            grabacion.close();
+            grabacion = null;
+            log.info("Grabación continua de JFR detenida");
+        }
+        return estado();
+    }
+
+    /**
+     * @return Estado de la grabación y volcados disponibles
+     */
+    public synchronized JfrEstadoDTO estado() {
+        JfrEstadoDTO estado = new JfrEstadoDTO();
+        estado.setActiva(grabacion != null && grabacion.getState() == RecordingState.RUNNING);
+        estado.setConfiguracion(configuracion);
+        estado.setMaxEdadMinutos(maxEdadMinutos);
+        estado.setMaxMb(maxMb);
+        estado.setVolcados(volcados().stream().map(archivo -> archivo.getFileName().toString()).collect(Collectors.toList()));
+        return estado;
+    }
+
+    /**
+     * Vuelca los últimos minutos de la grabación continua a un archivo y lo resume.
+     *
+     * @param minutos Minutos a volcar
+     * @return Resumen del volcado
+     * @throws RuntimeException si la grabación no está activa o los minutos no son válidos
+     */
+    public JfrResumenDTO volcar(long minutos) {
+        if (minutos < 1 || minutos > maxEdadMinutos) {
+            throw new RuntimeException("Los minutos deben estar entre 1 y " + maxEdadMinutos);
+        }
+        Instant desde = Instant.now().minus(Duration.ofMinutes(minutos));
+        Path archivo;
+        synchronized (this) {
+            if (grabacion == null || grabacion.getState() != RecordingState.RUNNING) {
+                throw new RuntimeException("La grabación continua de JFR no está activa");
+            }
+            try {
+                Files.createDirectories(directorio);
+                archivo = directorio.resolve("ahorros-" + LocalDateTime.now().format(FORMATO_ARCHIVO) + ".jfr")
+                        .toAbsolutePath();
+                volcarVentana(archivo, minutos);
+            } catch (IOException e) {
+                throw new RuntimeException("No se pudo volcar la grabación de JFR: " + e.getMessage(), e);
+            }
+        }
+        log.info("Volcados {} minutos de JFR en {}", minutos, archivo);
+        eliminarAntiguos();
+        return resumir(archivo, desde);
+    }
+
+    /**
+     * Resume un volcado guardado.
+     *
+     * @param nombre Nombre del archivo
+     * @return Resumen del volcado
+     * @throws RuntimeException si el archivo no existe
+     */
+    public JfrResumenDTO resumen(String nombre) {
+        return resumir(archivo(nombre), Instant.MIN);
+    }
+
+    /**
+     * Ruta de un volcado guardado; solo se aceptan nombres generados por este grabador.
+     *
+     * @param nombre Nombre del archivo
+     * @return Ruta del archivo
+     * @throws RuntimeException si el nombre no es válido o el archivo no existe
+     */
+    public Path archivo(String nombre) {
+        if (!ARCHIVO.matcher(nombre).matches()) {
+            throw new RuntimeException("Nombre de volcado no válido: " + nombre);
+        }
+        Path archivo = directorio.resolve(nombre);
+        if (!Files.isRegularFile(archivo)) {
+            throw new RuntimeException("Volcado no encontrado: " + nombre);
+        }
+        return archivo;
+    }
+
+    private void volcarVentana(Path archivo, long minutos) throws IOException {
+        try {
+            ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                    "jfrDump",
+                    new Object[]{new String[]{"name=" + NOMBRE, "filename=" + archivo, "begin=-" + minutos + "m"}},
+                    new String[]{String[].class.getName()});
+        } catch (Exception e) {
+            log.warn("JFR.dump no disponible ({}); se vuelca el búfer completo", e.getMessage());
+            grabacion.dump(archivo);
+        }
+        if (!Files.exists(archivo)) {
+            // Sin datos en la ventana JFR.dump no crea el archivo
+            grabacion.dump(archivo);
+        }
+    }
+
+    private List<Path> volcados() {
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(archivo -> ARCHIVO.matcher(archivo.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing((Path archivo) -> archivo.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("No se pudieron listar los volcados de JFR en {}: {}", directorio, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void eliminarAntiguos() {
+        List<Path> archivos = volcados();
+        for (Path archivo : archivos.subList(Math.min(maxVolcados, archivos.size()), archivos.size())) {
+            try {
+                Files.deleteIfExists(archivo);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el volcado de JFR {}: {}", archivo, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Recorre los eventos del archivo una vez y acumula lo que necesita el resumen.
+     */
+    private JfrResumenDTO resumir(Path archivo, Instant desde) {
+        Map<String, Long> calientes = new HashMap<>();
+        Map<String, Long> propios = new HashMap<>();
+        Map<String, Long> bytesPorMetodo = new HashMap<>();
+        Map<String, Long> bytesPorClase = new HashMap<>();
+        Map<String, long[]> monitores = new HashMap<>();
+        Map<String, double[]> operaciones = new TreeMap<>();
+        long muestras = 0;
+        long bytes = 0;
+        Instant primero = null;
+        Instant ultimo = null;
+
+        try (RecordingFile grabado = new RecordingFile(archivo)) {
+            while (grabado.hasMoreEvents()) {
+                RecordedEvent evento = grabado.readEvent();
+                if (evento.getStartTime().isBefore(desde)) {
+                    continue;
+                }
+                primero = primero == null || evento.getStartTime().isBefore(primero) ? evento.getStartTime() : primero;
+                ultimo = ultimo == null || evento.getEndTime().isAfter(ultimo) ? evento.getEndTime() : ultimo;
+                switch (evento.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        muestras++;
+                        calientes.merge(metodoSuperior(evento.getStackTrace(), false), 1L, Long::sum);
+                        propios.merge(metodoSuperior(evento.getStackTrace(), true), 1L, Long::sum);
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        long peso = evento.getLong("weight");
+                        bytes += peso;
+                        bytesPorMetodo.merge(metodoSuperior(evento.getStackTrace(), false), peso, Long::sum);
+                        bytesPorClase.merge(evento.getClass("objectClass").getName(), peso, Long::sum);
+                    }
+                    case "jdk.JavaMonitorEnter" -> {
+                        long[] monitor = monitores.computeIfAbsent(evento.getClass("monitorClass").getName(), c -> new long[2]);
+                        monitor[0]++;
+                        monitor[1] += evento.getDuration().toNanos();
+                    }
+                    case EVENTO_TRANSACCION -> {
+                        double[] acumulado = operaciones.computeIfAbsent(
+                                evento.getString("tipo") + "|" + evento.getString("resultado"), c -> new double[7]);
+                        double duracionMs = evento.getDuration().toNanos() / 1_000_000.0;
+                        acumulado[0]++;
+                        acumulado[1] += duracionMs;
+                        acumulado[2] = Math.max(acumulado[2], duracionMs);
+                        acumulado[3] += evento.getLong("tiempoBd") / 1_000_000.0;
+                        acumulado[4] += evento.getLong("sentencias");
+                        acumulado[5] += evento.getLong("esperaConexion") / 1_000_000.0;
+                        acumulado[6] += evento.getLong("esperaBloqueo") / 1_000_000.0;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el volcado de JFR: " + e.getMessage(), e);
+        }
+
+        JfrResumenDTO resumen = new JfrResumenDTO();
+        resumen.setArchivo(archivo.getFileName().toString());
+        resumen.setDesde(primero != null ? LocalDateTime.ofInstant(primero, ZoneId.systemDefault()) : null);
+        resumen.setHasta(ultimo != null ? LocalDateTime.ofInstant(ultimo, ZoneId.systemDefault()) : null);
+        resumen.setMuestrasCpu(muestras);
+        resumen.setMetodosCalientes(mayores(calientes, muestras, JfrResumenDTO.Metodo::new));
+        propios.remove(null);
+        resumen.setMetodosPropios(mayores(propios, muestras, JfrResumenDTO.Metodo::new));
+        resumen.setBytesAsignados(bytes);
+        resumen.setAsignacionesPorMetodo(mayores(bytesPorMetodo, bytes, JfrResumenDTO.Asignacion::new));
+        resumen.setAsignacionesPorClase(mayores(bytesPorClase, bytes, JfrResumenDTO.Asignacion::new));
+        resumen.setMonitores(monitores.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entrada) -> entrada.getValue()[1]).reversed())
+                .limit(top)
+                .map(entrada -> new JfrResumenDTO.Monitor(entrada.getKey(), entrada.getValue()[0], entrada.getValue()[1] / 1_000_000.0))
+                .collect(Collectors.toList()));
+        resumen.setTransacciones(operaciones.entrySet().stream()
+                .map(entrada -> convertirOperaciones(entrada.getKey(), entrada.getValue()))
+                .collect(Collectors.toList()));
+        return resumen;
+    }
+
+    private <T> List<T> mayores(Map<String, Long> conteos, long total, Agregado<T> crear) {
+        return conteos.entrySet().stream()
+                .filter(entrada -> entrada.getKey() != null)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entrada -> crear.crear(entrada.getKey(), entrada.getValue(),
+                        total > 0 ? Math.round(entrada.getValue() * 1000.0 / total) / 10.0 : 0))
+                .collect(Collectors.toList());
+    }
+
+    @FunctionalInterface
+    private interface Agregado<T> {
+        T crear(String clave, long valor, double porcentaje);
+    }
+
+    private static JfrResumenDTO.Operaciones convertirOperaciones(String clave, double[] acumulado) {
+        String[] partes = clave.split("\\|", 2);
+        double cantidad = acumulado[0];
+        JfrResumenDTO.Operaciones dto = new JfrResumenDTO.Operaciones();
+        dto.setTipo(partes[0]);
+        dto.setResultado(partes[1]);
+        dto.setOperaciones((long) cantidad);
+        dto.setDuracionPromedioMs(acumulado[1] / cantidad);
+        dto.setDuracionMaximaMs(acumulado[2]);
+        dto.setTiempoBdPromedioMs(acumulado[3] / cantidad);
+        dto.setSentenciasPromedio(acumulado[4] / cantidad);
+        dto.setEsperaConexionPromedioMs(acumulado[5] / cantidad);
+        dto.setEsperaBloqueoPromedioMs(acumulado[6] / cantidad);
+        return dto;
+    }
+
+    /**
+     * Método de la cima de la pila, o el primero de la aplicación si soloPropios.
+     */
+    private static String metodoSuperior(RecordedStackTrace pila, boolean soloPropios) {
+        if (pila == null) {
+            return null;
+        }
+        for (RecordedFrame marco : pila.getFrames()) {
+            String clase = marco.getMethod().getType().getName();
+            if (!soloPropios || (clase.startsWith(PAQUETE_PROPIO) && !clase.contains("$$"))) {
+                return clase + "." + marco.getMethod().getName();
+            }
+        }
+        return null;
+    }
+}
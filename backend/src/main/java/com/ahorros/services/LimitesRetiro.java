@@ -0,0 +1,242 @@
+package com.ahorros.services;
+
+import com.ahorros.models.Transaccion;
+import com.ahorros.repositories.TransaccionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Límites de velocidad de retiros por cuenta: número de retiros y monto
+ * máximo en ventanas móviles (por defecto una hora y 24 horas).
+ *
+ * Cada cuenta con retiros recientes tiene en memoria una VentanaDeslizante
+ * por duración configurada (limites.retiro.ventanas-segundos), así que
+ * comprobar un retiro es una suma en memoria y no una consulta. Los límites
+ * de cada ventana dependen del perfil de la cuenta (Cuenta.perfilLimites) y
+ * se configuran con limites.retiro.perfil.NOMBRE = "maxRetiros:montoMaximo"
+ * por ventana, separados por comas; 0 significa sin límite.
+ *
+ * El retiro se cuenta al comprobarlo, así dos retiros simultáneos no pueden
+ * pasar los dos con el último cupo; si su transacción se revierte se descuenta.
+ * Al iniciar, las ventanas se reconstruyen con los retiros de transacciones
+ * dentro de la ventana más larga.
+ */
+@Component
+@Slf4j
+public class LimitesRetiro {
+
+    /**
+     * Perfil de las cuentas nuevas y de las cuentas con un perfil no configurado.
+     */
+    public static final String PERFIL_ESTANDAR = "ESTANDAR";
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private Environment entorno;
+
+    @Value("${limites.retiro.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${limites.retiro.ventanas-segundos:3600,86400}")
+    private long[] ventanasSegundos;
+
+    @Value("${limites.retiro.ranuras:24}")
+    private int ranuras;
+
+    private Map<String, Limite[]> perfiles;
+
+    private final Map<Long, VentanaDeslizante[]> porCuenta = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void iniciar() {
+        Map<String, String> configurados = Binder.get(entorno)
+                .bind("limites.retiro.perfil", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        Map<String, Limite[]> leidos = new HashMap<>();
+        configurados.forEach((nombre, valor) -> leidos.put(nombre.toUpperCase(), leerLimites(nombre, valor)));
+        leidos.putIfAbsent(PERFIL_ESTANDAR, new Limite[ventanasSegundos.length]);
+        perfiles = Map.copyOf(leidos);
+    }
+
+    /**
+     * Reconstruye las ventanas con los retiros recientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long ventanaMaxima = 0;
+        for (long segundos : ventanasSegundos) {
+            ventanaMaxima = Math.max(ventanaMaxima, segundos);
+        }
+        List<Object[]> retiros = transaccionRepository.findMovimientosDesde(
+                Transaccion.TipoTransaccion.RETIRO, LocalDateTime.now().minusSeconds(ventanaMaxima));
+        for (Object[] fila : retiros) {
+            long instante = Timestamp.valueOf((LocalDateTime) fila[2]).getTime();
+            long centavos = aCentavos((BigDecimal) fila[1]);
+            porCuenta.compute((Long) fila[0], (cuentaId, ventanas) -> {
+                VentanaDeslizante[] actuales = ventanas != null ? ventanas : nuevasVentanas();
+                for (VentanaDeslizante ventana : actuales) {
+                    ventana.registrar(instante, centavos);
+                }
+                return actuales;
+            });
+        }
+        log.info("Límites de retiro: {} retiros recientes cargados en {} cuentas", retiros.size(), porCuenta.size());
+    }
+
+    /**
+     * Comprueba que un retiro no supere los límites del perfil y lo cuenta.
+     * Si hay una transacción activa y se revierte, el retiro se descuenta.
+     *
+     * @param cuentaId ID de la cuenta
+     * @param perfil Perfil de límites de la cuenta
+     * @param monto Monto del retiro
+     * @throws RuntimeException si el retiro supera algún límite
+     */
+    public void consumir(Long cuentaId, String perfil, BigDecimal monto) {
+        if (!habilitado) {
+            return;
+        }
+        Limite[] limites = perfiles.getOrDefault(perfil, perfiles.get(PERFIL_ESTANDAR));
+        long instante = System.currentTimeMillis();
+        long centavos = aCentavos(monto);
+
+        // compute bloquea solo la entrada de esta cuenta; si lanza una excepción el mapa no cambia
+        porCuenta.compute(cuentaId, (id, ventanas) -> {
+            VentanaDeslizante[] actuales = ventanas != null ? ventanas : nuevasVentanas();
+            for (int i = 0; i < actuales.length; i++) {
+                actuales[i].avanzar(instante);
+                verificar(limites[i], actuales[i], centavos, ventanasSegundos[i]);
+            }
+            for (VentanaDeslizante ventana : actuales) {
+                ventana.registrar(instante, centavos);
+            }
+            return actuales;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    if (estado != STATUS_COMMITTED) {
+                        revertir(cuentaId, instante, centavos);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * @param perfil Nombre del perfil
+     * @return true si el perfil está configurado
+     */
+    public boolean existePerfil(String perfil) {
+        return perfiles.containsKey(perfil);
+    }
+
+    /**
+     * Elimina de memoria las cuentas sin retiros dentro de ninguna ventana.
+     */
+    @Scheduled(fixedDelayString = "${limites.retiro.limpieza-ms:600000}")
+    public void limpiar() {
+        long instante = System.currentTimeMillis();
+        for (Long cuentaId : porCuenta.keySet()) {
+            porCuenta.computeIfPresent(cuentaId, (id, ventanas) -> {
+                boolean vacias = true;
+                for (VentanaDeslizante ventana : ventanas) {
+                    ventana.avanzar(instante);
+                    vacias &= ventana.vacia();
+                }
+                return vacias ? null : ventanas;
+            });
+        }
+    }
+
+    private void revertir(Long cuentaId, long instante, long centavos) {
+        porCuenta.computeIfPresent(cuentaId, (id, ventanas) -> {
+            for (VentanaDeslizante ventana : ventanas) {
+                ventana.revertir(instante, centavos);
+            }
+            return ventanas;
+        });
+    }
+
+    private void verificar(Limite limite, VentanaDeslizante ventana, long centavos, long segundos) {
+        if (limite == null) {
+            return;
+        }
+        if (limite.maxRetiros() > 0 && ventana.conteo() + 1 > limite.maxRetiros()) {
+            throw new RuntimeException("Se superó el límite de " + limite.maxRetiros()
+                    + " retiros en " + describir(segundos));
+        }
+        if (limite.montoMaximo() > 0 && ventana.monto() + centavos > limite.montoMaximo()) {
+            throw new RuntimeException("Se superó el límite de " + BigDecimal.valueOf(limite.montoMaximo(), 2)
+                    + " en retiros en " + describir(segundos));
+        }
+    }
+
+    private VentanaDeslizante[] nuevasVentanas() {
+        VentanaDeslizante[] ventanas = new VentanaDeslizante[ventanasSegundos.length];
+        for (int i = 0; i < ventanas.length; i++) {
+            ventanas[i] = new VentanaDeslizante(ventanasSegundos[i] * 1000, ranuras);
+        }
+        return ventanas;
+    }
+
+    private Limite[] leerLimites(String perfil, String configuracion) {
+        String[] partes = configuracion.split(",");
+        if (partes.length != ventanasSegundos.length) {
+            throw new RuntimeException("El perfil de límites " + perfil + " debe tener "
+                    + ventanasSegundos.length + " límites, uno por ventana");
+        }
+        Limite[] limites = new Limite[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            String[] valores = partes[i].trim().split(":");
+            if (valores.length != 2) {
+                throw new RuntimeException("Límite inválido en el perfil " + perfil + ": " + partes[i]);
+            }
+            limites[i] = new Limite(Integer.parseInt(valores[0].trim()), aCentavos(new BigDecimal(valores[1].trim())));
+        }
+        return limites;
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.movePointRight(2).longValue();
+    }
+
+    private static String describir(long segundos) {
+        if (segundos % 3600 == 0) {
+            return segundos / 3600 + " h";
+        }
+        if (segundos % 60 == 0) {
+            return segundos / 60 + " min";
+        }
+        return segundos + " s";
+    }
+
+    /**
+     * Límite de una ventana; los montos en centavos y 0 significa sin límite.
+     */
+    private record Limite(int maxRetiros, long montoMaximo) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.MetaAhorroDTO;
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.MetaAhorro;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.MetaAhorroRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio para la gestión de metas de ahorro.
+ *
+ * El progreso de las metas se mantiene de forma incremental: cada depósito o
+ * retiro solo actualiza el flujo neto de la cuenta (ver Cuenta.depositar y
+ * Cuenta.retirar). Para detectar metas alcanzadas basta comparar el flujo
+ * neto con Cuenta.proximaMetaFlujo, el objetivo pendiente más cercano; solo
+ * cuando se cruza se consultan las metas. Así el costo de un depósito no
+ * depende de cuántas metas tenga la cuenta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class MetaAhorroService {
+
+    /**
+     * Repositorio de metas inyectado por Spring.
+     */
+    private final MetaAhorroRepository metaAhorroRepository;
+
+    /**
+     * Repositorio de cuentas inyectado por Spring.
+     */
+    private final CuentaRepository cuentaRepository;
+
+    /**
+     * Servicio de notificaciones inyectado por Spring.
+     */
+    private final NotificacionService notificacionService;
+
+    /**
+     * Crea una meta de ahorro para una cuenta.
+     * El progreso empieza en cero: solo cuentan los movimientos posteriores.
+     *
+     * @param cuentaId El ID de la cuenta
+     * @param metaDTO Nombre, monto objetivo y fecha límite de la meta
+     * @return La meta creada como DTO
+     * @throws RuntimeException si la cuenta no existe o los datos son inválidos
+     */
+    public MetaAhorroDTO crearMeta(Long cuentaId, MetaAhorroDTO metaDTO) {
+        log.info("Creando meta de ahorro para cuenta ID: {}", cuentaId);
+
+        Cuenta cuenta = cuentaRepository.findByIdParaActualizar(cuentaId)
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
+
+        if (metaDTO.getNombre() == null || metaDTO.getNombre().isBlank()) {
+            throw new RuntimeException("El nombre de la meta es obligatorio");
+        }
+        if (metaDTO.getMontoObjetivo() == null || metaDTO.getMontoObjetivo().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("El monto objetivo debe ser positivo");
+        }
+        if (metaDTO.getFechaLimite() != null && metaDTO.getFechaLimite().isBefore(LocalDate.now())) {
+            throw new RuntimeException("La fecha límite no puede ser anterior a hoy");
+        }
+
+        MetaAhorro meta = metaAhorroRepository.save(new MetaAhorro(
+                metaDTO.getNombre(), metaDTO.getMontoObjetivo(), metaDTO.getFechaLimite(), cuenta));
+
+        if (cuenta.getProximaMetaFlujo() == null || meta.getFlujoObjetivo().compareTo(cuenta.getProximaMetaFlujo()) < 0) {
+            cuenta.setProximaMetaFlujo(meta.getFlujoObjetivo());
+        }
+
+        log.info("Meta de ahorro creada con ID: {}", meta.getId());
+        return new MetaAhorroDTO(meta, cuenta.getFlujoNeto());
+    }
+
+    /**
+     * Obtiene las metas de una cuenta con su progreso actual.
+     *
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de metas como DTOs
+     * @throws RuntimeException si la cuenta no existe
+     */
+    @Transactional(readOnly = true)
+    public List<MetaAhorroDTO> obtenerMetas(Long cuentaId) {
+        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
+
+        return metaAhorroRepository.findByCuentaIdOrderByIdAsc(cuentaId).stream()
+                .map(meta -> new MetaAhorroDTO(meta, cuenta.getFlujoNeto()))
+                .toList();
+    }
+
+    /**
+     * Elimina una meta de una cuenta.
+     *
+     * @param cuentaId El ID de la cuenta
+     * @param metaId El ID de la meta
+     * @throws RuntimeException si la meta no existe en la cuenta
+     */
+    public void eliminarMeta(Long cuentaId, Long metaId) {
+        // La cuenta se bloquea antes de leer la meta, así meta.getCuenta() es la misma instancia bloqueada
+        Cuenta cuenta = cuentaRepository.findByIdParaActualizar(cuentaId)
+                .orElseThrow(() -> new RuntimeException("Meta no encontrada"));
+        MetaAhorro meta = metaAhorroRepository.findByIdAndCuentaId(metaId, cuentaId)
+                .orElseThrow(() -> new RuntimeException("Meta no encontrada"));
+
+        cuenta.getMetas().remove(meta);
+        metaAhorroRepository.delete(meta);
+
+        if (!meta.getAlcanzada()) {
+            cuenta.setProximaMetaFlujo(metaAhorroRepository.findProximoFlujoObjetivo(cuentaId));
+        }
+        log.info("Meta de ahorro {} eliminada", metaId);
+    }
+
+    /**
+     * Revisa las metas de una cuenta después de un movimiento que aumentó su flujo neto.
+     *
+     * Si el flujo neto no alcanza la meta pendiente más cercana no hace nada más
+     * que una comparación. Si la alcanza, marca como alcanzadas las metas
+     * cruzadas, notifica al usuario propietario y calcula la siguiente meta
+     * pendiente. La cuenta se guarda con el resto de la transacción.
+     *
+     * @param cuenta La cuenta con el flujo neto ya actualizado
+     */
+    public void registrarAumento(Cuenta cuenta) {
+        if (!cuenta.alcanzaProximaMeta()) {
+            return;
+        }
+
+        List<MetaAhorro> alcanzadas = metaAhorroRepository.findPendientesAlcanzadas(cuenta.getId(), cuenta.getFlujoNeto());
+        LocalDateTime ahora = LocalDateTime.now();
+        for (MetaAhorro meta : alcanzadas) {
+            meta.setAlcanzada(true);
+            meta.setFechaAlcanzada(ahora);
+            log.info("Meta de ahorro {} alcanzada en cuenta {}", meta.getId(), cuenta.getNumeroCuenta());
+
+            if (cuenta.getUsuario() != null) {
+                try {
+                    notificacionService.crearNotificacionMetaAlcanzada(
+                        cuenta.getUsuario().getId(),
+                        meta.getNombre(),
+                        meta.getMontoObjetivo().toString(),
+                        cuenta.getNumeroCuenta()
+                    );
+                } catch (Exception e) {
+                    log.warn("No se pudo crear la notificación de meta alcanzada: {}", e.getMessage());
+                }
+            }
+        }
+
+        cuenta.setProximaMetaFlujo(metaAhorroRepository.findProximoFlujoObjetivo(cuenta.getId()));
+    }
+}
@@ -0,0 +1,179 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.CargaDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cuentas, usuarios y endpoints que más carga generan, en ventanas móviles.
+ *
+ * El tiempo se divide en ranuras de carga.ranura-segundos y se guardan las
+ * últimas carga.ranuras en un búfer circular. Cada ranura tiene un
+ * SketchFrecuencias por dimensión (cuenta, usuario, endpoint), así que la
+ * memoria es fija sin importar cuántas claves distintas aparezcan. Al
+ * consultar una ventana se suman los sketches de sus ranuras y se estiman
+ * los candidatos de todas ellas.
+ *
+ * Registrar una llamada no bloquea ni reserva memoria (salvo cuando cambian
+ * los candidatos de una ranura), así que puede quedar activo siempre.
+ */
+@Component
+@Slf4j
+public class MonitorCarga {
+
+    @Value("${carga.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${carga.ranura-segundos:10}")
+    private long segundosPorRanura;
+
+    @Value("${carga.ranuras:60}")
+    private int numeroRanuras;
+
+    @Value("${carga.profundidad:4}")
+    private int profundidad;
+
+    @Value("${carga.ancho:1024}")
+    private int ancho;
+
+    @Value("${carga.top:20}")
+    private int top;
+
+    private Ranura[] ranuras;
+
+    @PostConstruct
+    public void iniciar() {
+        ranuras = new Ranura[numeroRanuras];
+        for (int i = 0; i < numeroRanuras; i++) {
+            ranuras[i] = new Ranura();
+        }
+        log.info("Monitor de carga: {} ranuras de {} s", numeroRanuras, segundosPorRanura);
+    }
+
+    /**
+     * Registra una llamada. Las claves nulas se omiten.
+     *
+     * @param cuentaId ID de la cuenta afectada
+     * @param usuarioId ID del usuario
+     * @param endpoint Método y ruta del endpoint que originó la llamada
+     */
+    public void registrar(Long cuentaId, Long usuarioId, String endpoint) {
+        if (!habilitado) {
+            return;
+        }
+        Ranura ranura = ranuraActual(System.currentTimeMillis() / 1000 / segundosPorRanura);
+        ranura.llamadas.increment();
+        if (cuentaId != null) {
+            ranura.cuentas.registrar(cuentaId);
+        }
+        if (usuarioId != null) {
+            ranura.usuarios.registrar(usuarioId);
+        }
+        if (endpoint != null) {
+            ranura.endpoints.registrar(endpoint);
+        }
+    }
+
+    /**
+     * Obtiene las claves más frecuentes de una ventana que termina ahora.
+     *
+     * @param ventanaSegundos Duración de la ventana (se redondea a ranuras completas)
+     * @param limite Máximo de claves por dimensión
+     * @return Claves más frecuentes por dimensión
+     */
+    public CargaDTO obtener(long ventanaSegundos, int limite) {
+        if (ventanaSegundos <= 0) {
+            throw new RuntimeException("La ventana debe ser positiva");
+        }
+        if (limite < 1 || limite > top) {
+            throw new RuntimeException("El límite debe estar entre 1 y " + top);
+        }
+        long actual = System.currentTimeMillis() / 1000 / segundosPorRanura;
+        int cantidad = (int) Math.min(numeroRanuras, (ventanaSegundos + segundosPorRanura - 1) / segundosPorRanura);
+
+        List<Ranura> incluidas = new ArrayList<>(cantidad);
+        for (long numero = actual; numero > actual - cantidad; numero--) {
+            Ranura ranura = ranuras[(int) Math.floorMod(numero, (long) numeroRanuras)];
+            if (ranura.numero == numero) {
+                incluidas.add(ranura);
+            }
+        }
+
+        CargaDTO carga = new CargaDTO();
+        carga.setVentanaSegundos(cantidad * segundosPorRanura);
+        for (Ranura ranura : incluidas) {
+            carga.setLlamadas(carga.getLlamadas() + ranura.llamadas.sum());
+        }
+        carga.setErrorMaximo((long) Math.ceil(Math.E / ranuras[0].cuentas.ancho() * carga.getLlamadas()));
+        carga.setCuentas(masFrecuentes(incluidas, ranura -> ranura.cuentas, limite));
+        carga.setUsuarios(masFrecuentes(incluidas, ranura -> ranura.usuarios, limite));
+        carga.setEndpoints(masFrecuentes(incluidas, ranura -> ranura.endpoints, limite));
+        return carga;
+    }
+
+    private List<CargaDTO.Frecuencia> masFrecuentes(List<Ranura> incluidas,
+                                                    Function<Ranura, SketchFrecuencias> dimension,
+                                                    int limite) {
+        if (incluidas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        SketchFrecuencias referencia = dimension.apply(incluidas.get(0));
+        long[] acumulado = new long[referencia.tamano()];
+        Set<Object> claves = new HashSet<>();
+        for (Ranura ranura : incluidas) {
+            SketchFrecuencias sketch = dimension.apply(ranura);
+            sketch.sumarEn(acumulado);
+            claves.addAll(sketch.candidatos());
+        }
+        return claves.stream()
+                .map(clave -> new CargaDTO.Frecuencia(clave.toString(), referencia.estimar(acumulado, clave)))
+                .sorted(Comparator.comparingLong(CargaDTO.Frecuencia::getLlamadas).reversed())
+                .limit(limite)
+                .toList();
+    }
+
+    /**
+     * Ranura del número indicado; si contiene una ranura anterior se vacía.
+     */
+    private Ranura ranuraActual(long numero) {
+        Ranura ranura = ranuras[(int) Math.floorMod(numero, (long) numeroRanuras)];
+        if (ranura.numero != numero) {
+            synchronized (ranura) {
+                if (ranura.numero < numero) {
+                    ranura.limpiar();
+                    ranura.numero = numero;
+                }
+            }
+        }
+        return ranura;
+    }
+
+    /**
+     * Frecuencias de un intervalo de carga.ranura-segundos.
+     */
+    private final class Ranura {
+
+        private volatile long numero = Long.MIN_VALUE;
+        private final LongAdder llamadas = new LongAdder();
+        private final SketchFrecuencias cuentas = new SketchFrecuencias(profundidad, ancho, top);
+        private final SketchFrecuencias usuarios = new SketchFrecuencias(profundidad, ancho, top);
+        private final SketchFrecuencias endpoints = new SketchFrecuencias(profundidad, ancho, top);
+
+        private void limpiar() {
+            llamadas.reset();
+            cuentas.limpiar();
+            usuarios.limpiar();
+            endpoints.limpiar();
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.EjecucionInteresesDTO;
+import com.ahorros.models.LoteInteres;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.LoteInteresRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cálculo diario de intereses de las cuentas de ahorro.
+ *
+ * La tasa anual depende del saldo según los tramos de intereses.tramos
+ * ("saldoDesde:tasa%" separados por comas); el interés diario es
+ * saldo * tasa / 100 / intereses.base-dias, redondeado a centavos.
+ *
+ * Las cuentas se dividen en bloques de IDs consecutivos
+ * (intereses.bloque) que se reparten en un ForkJoinPool. Cada bloque se
+ * procesa en una sola transacción: recorre sus cuentas con un cursor de solo
+ * avance, inserta las transacciones INTERES y actualiza los saldos en lotes
+ * JDBC, y registra un punto de control en lotes_interes. Al repetir la
+ * ejecución para la misma fecha los bloques con punto de control se omiten,
+ * así que se puede reanudar después de una caída sin abonar dos veces.
+ *
+ * Las cuentas del bloque quedan bloqueadas (FOR UPDATE) hasta el commit, igual
+ * que en los depósitos y retiros (CuentaRepository.findByIdParaActualizar), y
+ * el interés se suma al saldo en la propia sentencia UPDATE.
+ *
+ * Los intereses no cuentan para el flujo neto de las metas de ahorro, que
+ * solo miden depósitos y retiros.
+ */
+@Component
+@Slf4j
+public class MotorIntereses {
+
+    private static final String SQL_CUENTAS =
+            "SELECT id, saldo FROM cuentas WHERE id BETWEEN ? AND ? AND activa = true AND saldo > 0 ORDER BY id FOR UPDATE";
+
+    private static final String SQL_INSERTAR_TRANSACCION =
+            "INSERT INTO transacciones (tipo, monto, saldo_resultante, descripcion, fecha_transaccion, cuenta_id) " +
+            "VALUES ('INTERES', ?, ?, ?, ?, ?)";
+
+    private static final String SQL_ACTUALIZAR_SALDO =
+            "UPDATE cuentas SET saldo = saldo + ?, fecha_actualizacion = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private LoteInteresRepository loteInteresRepository;
+
+    @Value("${intereses.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${intereses.tramos:0:0.50,1000:1.00,10000:1.50}")
+    private String tramosConfigurados;
+
+    @Value("${intereses.base-dias:365}")
+    private int baseDias;
+
+    @Value("${intereses.bloque:1000}")
+    private int tamanoBloque;
+
+    @Value("${intereses.lote-jdbc:500}")
+    private int tamanoLoteJdbc;
+
+    @Value("${intereses.paralelismo:0}")
+    private int paralelismoConfigurado;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int tamanoPoolConexiones;
+
+    private List<Tramo> tramos;
+    private int paralelismo;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private final AtomicReference<Ejecucion> ultimaEjecucion = new AtomicReference<>();
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+
+    @PostConstruct
+    public void iniciar() {
+        tramos = leerTramos(tramosConfigurados);
+        // Cada hilo del pool ocupa una conexión; se dejan al menos dos para las solicitudes web
+        paralelismo = paralelismoConfigurado > 0
+                ? paralelismoConfigurado
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), tamanoPoolConexiones - 2));
+    }
+
+    /**
+     * Ejecución programada según intereses.cron: abona el interés del día anterior.
+     */
+    @Scheduled(cron = "${intereses.cron:0 15 0 * * *}")
+    public void ejecutarProgramada() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            iniciarEjecucion(LocalDate.now().minusDays(1));
+        } catch (RuntimeException e) {
+            log.warn("No se inició el cálculo programado de intereses: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia en segundo plano el cálculo de intereses de una fecha.
+     *
+     * @param fecha Fecha del interés
+     * @return Estado inicial de la ejecución
+     * @throws RuntimeException si ya hay una ejecución en curso o la fecha es futura
+     */
+    public EjecucionInteresesDTO iniciarEjecucion(LocalDate fecha) {
+        if (fecha.isAfter(LocalDate.now())) {
+            throw new RuntimeException("No se pueden calcular intereses de una fecha futura");
+        }
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new RuntimeException("Ya hay un cálculo de intereses en curso");
+        }
+        Ejecucion ejecucion = new Ejecucion(fecha);
+        ultimaEjecucion.set(ejecucion);
+        try {
+            ejecutor.submit(() -> {
+                try {
+                    ejecutar(ejecucion);
+                } finally {
+                    enCurso.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            enCurso.set(false);
+            throw e;
+        }
+        return ejecucion.estado();
+    }
+
+    /**
+     * @return Estado de la última ejecución, o null si no hubo ninguna
+     */
+    public EjecucionInteresesDTO obtenerUltimaEjecucion() {
+        Ejecucion ejecucion = ultimaEjecucion.get();
+        return ejecucion != null ? ejecucion.estado() : null;
+    }
+
+    /**
+     * Calcula el interés diario de un saldo.
+     *
+     * @param saldo Saldo de la cuenta
+     * @return Interés del día, redondeado a centavos
+     */
+    public BigDecimal calcularInteresDiario(BigDecimal saldo) {
+        Tramo tramo = null;
+        for (Tramo candidato : tramos) {
+            if (saldo.compareTo(candidato.desde()) < 0) {
+                break;
+            }
+            tramo = candidato;
+        }
+        if (tramo == null) {
+            return BigDecimal.ZERO;
+        }
+        return saldo.multiply(tramo.factorDiario()).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    private void ejecutar(Ejecucion ejecucion) {
+        Long minId = cuentaRepository.findMinId();
+        Long maxId = cuentaRepository.findMaxId();
+        if (minId == null) {
+            ejecucion.terminar();
+            return;
+        }
+        // Los bloques se alinean a múltiplos de intereses.bloque para que sus límites no dependan
+        // de las cuentas existentes; por eso el tamaño no debe cambiar entre ejecuciones de una misma fecha
+        long primerId = Math.floorDiv(minId, tamanoBloque) * (long) tamanoBloque;
+        ejecucion.bloquesTotales = (maxId - primerId) / tamanoBloque + 1;
+        ejecucion.procesados.addAll(loteInteresRepository.findIdDesdeByFecha(ejecucion.fecha));
+
+        log.info("Calculando intereses del {} para las cuentas {}-{} en {} bloques con paralelismo {}",
+                ejecucion.fecha, minId, maxId, ejecucion.bloquesTotales, paralelismo);
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new Particion(this, ejecucion, 0, ejecucion.bloquesTotales, primerId));
+        } finally {
+            pool.shutdown();
+        }
+        ejecucion.terminar();
+
+        EjecucionInteresesDTO estado = ejecucion.estado();
+        log.info("Intereses del {}: {} cuentas, total {}, {} bloques procesados, {} omitidos, {} fallidos, {} cuentas/s",
+                estado.getFecha(), estado.getCuentasAbonadas(), estado.getTotalInteres(), estado.getBloquesProcesados(),
+                estado.getBloquesOmitidos(), estado.getBloquesFallidos(), estado.getCuentasPorSegundo());
+    }
+
+    private void procesarBloque(Ejecucion ejecucion, long desde, long hasta) {
+        if (ejecucion.procesados.contains(desde)) {
+            ejecucion.bloquesOmitidos.incrementAndGet();
+            return;
+        }
+        try {
+            LoteInteres lote = transactionTemplate.execute(estado -> abonarBloque(ejecucion.fecha, desde, hasta));
+            ejecucion.registrar(lote);
+            if (lote.getCuentas() > 0) {
+                Auditoria.intereses(lote);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Otra ejecución registró el bloque primero; esta transacción se revirtió completa
+            ejecucion.bloquesOmitidos.incrementAndGet();
+        } catch (RuntimeException e) {
+            ejecucion.bloquesFallidos.incrementAndGet();
+            log.error("Error al abonar intereses del {} en las cuentas {}-{}", ejecucion.fecha, desde, hasta, e);
+        }
+    }
+
+    private LoteInteres abonarBloque(LocalDate fecha, long desde, long hasta) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        String descripcion = "Interés diario del " + fecha;
+        List<Object[]> transacciones = new ArrayList<>(tamanoLoteJdbc);
+        List<Object[]> saldos = new ArrayList<>(tamanoLoteJdbc);
+        AtomicLong cuentas = new AtomicLong();
+        BigDecimal[] total = {BigDecimal.ZERO};
+
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement sentencia = conexion.prepareStatement(SQL_CUENTAS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            sentencia.setFetchSize(tamanoLoteJdbc);
+            sentencia.setLong(1, desde);
+            sentencia.setLong(2, hasta);
+            return sentencia;
+        }, fila -> {
+            long cuentaId = fila.getLong(1);
+            BigDecimal saldo = fila.getBigDecimal(2);
+            BigDecimal interes = calcularInteresDiario(saldo);
+            if (interes.signum() <= 0) {
+                return;
+            }
+            BigDecimal nuevoSaldo = saldo.add(interes);
+            transacciones.add(new Object[]{interes, nuevoSaldo, descripcion, ahora, cuentaId});
+            saldos.add(new Object[]{interes, ahora, cuentaId});
+            cuentas.incrementAndGet();
+            total[0] = total[0].add(interes);
+            if (transacciones.size() >= tamanoLoteJdbc) {
+                escribirLote(transacciones, saldos);
+            }
+        });
+        escribirLote(transacciones, saldos);
+
+        return loteInteresRepository.save(new LoteInteres(fecha, desde, hasta, (int) cuentas.get(), total[0]));
+    }
+
+    private void escribirLote(List<Object[]> transacciones, List<Object[]> saldos) {
+        if (transacciones.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR_TRANSACCION, transacciones);
+        jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_SALDO, saldos);
+        transacciones.clear();
+        saldos.clear();
+    }
+
+    private List<Tramo> leerTramos(String configuracion) {
+        List<Tramo> resultado = new ArrayList<>();
+        MathContext precision = MathContext.DECIMAL64;
+        BigDecimal divisor = BigDecimal.valueOf(100L * baseDias);
+        for (String texto : configuracion.split(",")) {
+            String[] partes = texto.trim().split(":");
+            if (partes.length != 2) {
+                throw new RuntimeException("Tramo de interés inválido: " + texto);
+            }
+            BigDecimal tasa = new BigDecimal(partes[1].trim());
+            resultado.add(new Tramo(new BigDecimal(partes[0].trim()), tasa.divide(divisor, precision)));
+        }
+        if (resultado.isEmpty()) {
+            throw new RuntimeException("Debe configurarse al menos un tramo de interés");
+        }
+        resultado.sort(Comparator.comparing(Tramo::desde));
+        return List.copyOf(resultado);
+    }
+
+    /**
+     * Tramo de saldo con el factor diario precalculado (tasa / 100 / base-dias).
+     */
+    private record Tramo(BigDecimal desde, BigDecimal factorDiario) {
+    }
+
+    /**
+     * Divide un rango de bloques en mitades hasta llegar a un bloque.
+     */
+    private static class Particion extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient MotorIntereses motor;
+        private final transient Ejecucion ejecucion;
+        private final long primerBloque;
+        private final long finBloques;
+        private final long primerId;
+
+        private Particion(MotorIntereses motor, Ejecucion ejecucion, long primerBloque, long finBloques, long primerId) {
+            this.motor = motor;
+            this.ejecucion = ejecucion;
+            this.primerBloque = primerBloque;
+            this.finBloques = finBloques;
+            this.primerId = primerId;
+        }
+
+        @Override
+        protected void compute() {
+            if (finBloques - primerBloque == 1) {
+                long desde = primerId + primerBloque * motor.tamanoBloque;
+                motor.procesarBloque(ejecucion, desde, desde + motor.tamanoBloque - 1);
+                return;
+            }
+            long medio = (primerBloque + finBloques) >>> 1;
+            invokeAll(new Particion(motor, ejecucion, primerBloque, medio, primerId),
+                    new Particion(motor, ejecucion, medio, finBloques, primerId));
+        }
+    }
+
+    /**
+     * Progreso de una ejecución; los contadores se actualizan desde los hilos del pool.
+     */
+    private static class Ejecucion {
+
+        private final LocalDate fecha;
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private final Set<Long> procesados = new HashSet<>();
+        private final AtomicLong bloquesProcesados = new AtomicLong();
+        private final AtomicLong bloquesOmitidos = new AtomicLong();
+        private final AtomicLong bloquesFallidos = new AtomicLong();
+        private final AtomicLong cuentasAbonadas = new AtomicLong();
+        private final AtomicReference<BigDecimal> totalInteres = new AtomicReference<>(BigDecimal.ZERO);
+        private volatile long bloquesTotales;
+        private volatile LocalDateTime fin;
+
+        private Ejecucion(LocalDate fecha) {
+            this.fecha = fecha;
+        }
+
+        private void registrar(LoteInteres lote) {
+            bloquesProcesados.incrementAndGet();
+            cuentasAbonadas.addAndGet(lote.getCuentas());
+            totalInteres.accumulateAndGet(lote.getTotalInteres(), BigDecimal::add);
+        }
+
+        private void terminar() {
+            fin = LocalDateTime.now();
+        }
+
+        private EjecucionInteresesDTO estado() {
+            LocalDateTime finActual = fin;
+            String estado = finActual == null ? "EN_CURSO" : bloquesFallidos.get() > 0 ? "CON_ERRORES" : "COMPLETADA";
+            long milisegundos = Math.max(1, Duration.between(inicio, finActual != null ? finActual : LocalDateTime.now()).toMillis());
+            return new EjecucionInteresesDTO(fecha, estado, bloquesTotales, bloquesProcesados.get(),
+                    bloquesOmitidos.get(), bloquesFallidos.get(), cuentasAbonadas.get(), totalInteres.get(),
+                    inicio, finActual, cuentasAbonadas.get() * 1000 / milisegundos);
+        }
+    }
+}
@@ -1,26 +1,59 @@
 package com.ahorros.services;
 
 import com.ahorros.dto.NotificacionDTO;
+import com.ahorros.dto.PaginaNotificacionesDTO;
+import com.ahorros.dto.ProgresoDifusionDTO;
 import com.ahorros.models.Notificacion;
+import com.ahorros.models.PoliticaNotificacion;
 import com.ahorros.models.Usuario;
 import com.ahorros.repositories.NotificacionRepository;
 import com.ahorros.repositories.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ahorros.servicios", histogram = true)
+@Slf4j
 public class NotificacionService {
     
+    public static final int LIMITE_BANDEJA_MAXIMO = 100;
+    public static final int MAX_IDS_POR_OPERACION = 500;
+    
     @Autowired
     private NotificacionRepository notificacionRepository;
     
     @Autowired
     private UsuarioRepository usuarioRepository;
     
+    @Autowired
+    private DifusorNotificaciones difusorNotificaciones;
+    
+    @Autowired
+    private ContadorNoLeidas contadorNoLeidas;
+    
+    @Autowired
+    private AgrupadorNotificaciones agrupadorNotificaciones;
+    
+    @Autowired
+    private DifusionMasiva difusionMasiva;
+    
     /**
      * Obtiene todas las notificaciones de un usuario
      * @param usuarioId ID del usuario
@@ -33,6 +66,32 @@ public class NotificacionService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Obtiene una página de la bandeja de un usuario, de la notificación más nueva a la más antigua
+     * @param usuarioId ID del usuario
+     * @param cursor siguienteCursor de la página anterior, o null para la primera página
+     * @param limite Tamaño de la página (máximo LIMITE_BANDEJA_MAXIMO)
+     * @param soloNoLeidas Si solo se incluyen las no leídas
+     * @return Página de notificaciones
+     */
+    public PaginaNotificacionesDTO obtenerBandeja(Long usuarioId, Long cursor, int limite, boolean soloNoLeidas) {
+        if (limite < 1 || limite > LIMITE_BANDEJA_MAXIMO) {
+            throw new RuntimeException("El límite debe estar entre 1 y " + LIMITE_BANDEJA_MAXIMO);
+        }
+        Long desde = cursor != null ? cursor : Long.MAX_VALUE;
+        List<Notificacion> notificaciones = soloNoLeidas
+                ? notificacionRepository.findByUsuarioIdAndLeidaFalseAndIdLessThanOrderByIdDesc(usuarioId, desde, Limit.of(limite))
+                : notificacionRepository.findByUsuarioIdAndIdLessThanOrderByIdDesc(usuarioId, desde, Limit.of(limite));
+        
+        Long siguienteCursor = notificaciones.size() == limite
+                ? notificaciones.get(notificaciones.size() - 1).getId()
+                : null;
+        List<NotificacionDTO> contenido = notificaciones.stream()
+                .map(this::convertirADTO)
+                .collect(Collectors.toList());
+        return new PaginaNotificacionesDTO(contenido, siguienteCursor);
+    }
+    
     /**
      * Obtiene las notificaciones no leídas de un usuario
      * @param usuarioId ID del usuario
@@ -46,12 +105,12 @@ public class NotificacionService {
     }
     
     /**
-     * Cuenta las notificaciones no leídas de un usuario
+     * Cuenta las notificaciones no leídas de un usuario (desde el contador en memoria)
      * @param usuarioId ID del usuario
      * @return Número de notificaciones no leídas
      */
     public long contarNotificacionesNoLeidas(Long usuarioId) {
-        return notificacionRepository.countByUsuarioIdAndLeidaFalse(usuarioId);
+        return contadorNoLeidas.obtener(usuarioId);
     }
     
     /**
@@ -67,7 +126,64 @@ public class NotificacionService {
         
         Notificacion notificacion = new Notificacion(mensaje, tipo, usuario);
         Notificacion notificacionGuardada = notificacionRepository.save(notificacion);
-        return convertirADTO(notificacionGuardada);
+        NotificacionDTO notificacionDTO = convertirADTO(notificacionGuardada);
+        contadorNoLeidas.incrementar(usuarioId);
+        difusorNotificaciones.publicar(notificacionDTO);
+        return notificacionDTO;
+    }
+    
+    /**
+     * Inicia la difusión de una notificación a todos los usuarios activos
+     * @param mensaje Mensaje de la notificación
+     * @param tipo Tipo de notificación
+     * @return Progreso inicial de la difusión
+     */
+    public ProgresoDifusionDTO difundir(String mensaje, String tipo) {
+        return difusionMasiva.iniciar(mensaje, tipo);
+    }
+    
+    /**
+     * Obtiene el progreso de una difusión
+     * @param id ID de la difusión
+     * @return Optional con el progreso si la difusión existe
+     */
+    public Optional<ProgresoDifusionDTO> obtenerDifusion(Long id) {
+        return difusionMasiva.obtener(id);
+    }
+    
+    /**
+     * Obtiene el progreso de las últimas difusiones
+     * @return Lista de difusiones, de la más reciente a la más antigua
+     */
+    public List<ProgresoDifusionDTO> obtenerDifusiones() {
+        return difusionMasiva.listar();
+    }
+    
+    /**
+     * Abre una suscripción SSE a las notificaciones nuevas de un usuario
+     * @param usuarioId ID del usuario
+     * @param ultimoId Último id recibido por el cliente (Last-Event-ID), o null
+     * @return Emisor SSE de la suscripción
+     */
+    public SseEmitter suscribir(Long usuarioId, Long ultimoId) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
+        return difusorNotificaciones.suscribir(usuarioId, ultimoId,
+                () -> obtenerNotificacionesPosteriores(usuarioId, ultimoId));
+    }
+    
+    /**
+     * Obtiene las notificaciones de un usuario posteriores a un id, en orden de creación
+     * @param usuarioId ID del usuario
+     * @param ultimoId Id a partir del cual buscar (exclusivo)
+     * @return Lista de DTOs de notificaciones (como máximo 100)
+     */
+    public List<NotificacionDTO> obtenerNotificacionesPosteriores(Long usuarioId, Long ultimoId) {
+        return notificacionRepository.findTop100ByUsuarioIdAndIdGreaterThanOrderByIdAsc(usuarioId, ultimoId)
+                .stream()
+                .map(this::convertirADTO)
+                .collect(Collectors.toList());
     }
     
     /**
@@ -75,10 +191,46 @@ public class NotificacionService {
      * @param notificacionId ID de la notificación
      */
     public void marcarComoLeida(Long notificacionId) {
-        if (!notificacionRepository.existsById(notificacionId)) {
-            throw new RuntimeException("Notificación no encontrada");
+        Notificacion notificacion = notificacionRepository.findById(notificacionId)
+                .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
+        if (notificacionRepository.marcarComoLeida(notificacionId) > 0) {
+            contadorNoLeidas.decrementar(notificacion.getUsuario().getId());
+        }
+    }
+    
+    /**
+     * Marca como leídas varias notificaciones con una sola sentencia (una por usuario si son de varios)
+     * @param ids IDs de las notificaciones
+     * @return Número de notificaciones que estaban no leídas
+     */
+    @Transactional
+    public int marcarComoLeidas(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un id");
+        }
+        if (ids.size() > MAX_IDS_POR_OPERACION) {
+            throw new RuntimeException("No se pueden marcar más de " + MAX_IDS_POR_OPERACION + " notificaciones a la vez");
         }
-        notificacionRepository.marcarComoLeida(notificacionId);
+        
+        List<Object[]> noLeidasPorUsuario = notificacionRepository.contarNoLeidasPorUsuarioEnIds(ids);
+        
+        if (noLeidasPorUsuario.size() == 1) {
+            // Caso habitual: todas son del mismo usuario y el conteo exacto es el de la actualización
+            int actualizadas = notificacionRepository.marcarComoLeidas(ids);
+            contadorNoLeidas.decrementar((Long) noLeidasPorUsuario.get(0)[0], actualizadas);
+            return actualizadas;
+        }
+        
+        // Con varios usuarios se actualiza por usuario, para descontar a cada uno lo que
+        // la sentencia cambió y no lo contado antes (otra solicitud pudo marcarlas a la vez)
+        int actualizadas = 0;
+        for (Object[] fila : noLeidasPorUsuario) {
+            Long usuarioId = (Long) fila[0];
+            int delUsuario = notificacionRepository.marcarComoLeidasDeUsuario(ids, usuarioId);
+            contadorNoLeidas.decrementar(usuarioId, delUsuario);
+            actualizadas += delUsuario;
+        }
+        return actualizadas;
     }
     
     /**
@@ -87,6 +239,7 @@ public class NotificacionService {
      */
     public void marcarTodasComoLeidas(Long usuarioId) {
         notificacionRepository.marcarTodasComoLeidas(usuarioId);
+        contadorNoLeidas.reiniciar(usuarioId);
     }
     
     /**
@@ -94,10 +247,12 @@ public class NotificacionService {
      * @param notificacionId ID de la notificación
      */
     public void eliminarNotificacion(Long notificacionId) {
-        if (!notificacionRepository.existsById(notificacionId)) {
-            throw new RuntimeException("Notificación no encontrada");
-        }
+        Notificacion notificacion = notificacionRepository.findById(notificacionId)
+                .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
         notificacionRepository.deleteById(notificacionId);
+        if (!notificacion.isLeida()) {
+            contadorNoLeidas.decrementar(notificacion.getUsuario().getId());
+        }
     }
     
     /**
@@ -118,6 +273,11 @@ public class NotificacionService {
      * @param numeroCuenta Número de cuenta
      */
     public void crearNotificacionTransaccion(Long usuarioId, String tipoTransaccion, String monto, String numeroCuenta) {
+        // Con política agrupada o resumen diario la transacción se acumula y se notifica después
+        if (agrupadorNotificaciones.agregar(usuarioId, tipoTransaccion, new BigDecimal(monto), numeroCuenta)) {
+            return;
+        }
+        
         String mensaje;
         String tipo;
         
@@ -143,6 +303,142 @@ public class NotificacionService {
         crearNotificacion(mensaje, "SALDO_BAJO", usuarioId);
     }
     
+    /**
+     * Crea una notificación de meta de ahorro alcanzada
+     * @param usuarioId ID del usuario
+     * @param nombreMeta Nombre de la meta
+     * @param montoObjetivo Monto de la meta
+     * @param numeroCuenta Número de cuenta
+     */
+    public void crearNotificacionMetaAlcanzada(Long usuarioId, String nombreMeta, String montoObjetivo, String numeroCuenta) {
+        String mensaje = String.format("¡Felicidades! Alcanzaste la meta \"%s\" de $%s en la cuenta %s", nombreMeta, montoObjetivo, numeroCuenta);
+        crearNotificacion(mensaje, "META_ALCANZADA", usuarioId);
+    }
+
+    /**
+     * Crea una notificación de movimiento inusual que se realizó
+     * @param usuarioId ID del usuario
+     * @param tipoTransaccion Tipo de transacción (DEPOSITO, RETIRO)
+     * @param monto Monto de la transacción
+     * @param numeroCuenta Número de cuenta
+     * @param motivos Señales detectadas
+     */
+    public void crearNotificacionActividadInusual(Long usuarioId, String tipoTransaccion, String monto, String numeroCuenta, String motivos) {
+        String operacion = "DEPOSITO".equals(tipoTransaccion) ? "depósito" : "retiro";
+        String mensaje = String.format("Revisa el %s de $%s en la cuenta %s: %s", operacion, monto, numeroCuenta, motivos);
+        crearNotificacion(mensaje, "ACTIVIDAD_INUSUAL", usuarioId);
+    }
+
+    /**
+     * Crea una notificación de retiro bloqueado por actividad inusual. Se guarda
+     * en una transacción propia porque la del retiro se revierte.
+     * @param usuarioId ID del usuario
+     * @param monto Monto del retiro
+     * @param numeroCuenta Número de cuenta
+     * @param motivos Señales detectadas
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void crearNotificacionRetiroBloqueado(Long usuarioId, String monto, String numeroCuenta, String motivos) {
+        String mensaje = String.format("Se bloqueó un retiro de $%s de la cuenta %s por actividad inusual: %s", monto, numeroCuenta, motivos);
+        crearNotificacion(mensaje, "RETIRO_BLOQUEADO", usuarioId);
+    }
+
+    /**
+     * Obtiene la política de notificaciones de un usuario
+     * @param usuarioId ID del usuario
+     * @return Política del usuario
+     */
+    public PoliticaNotificacion obtenerPolitica(Long usuarioId) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return usuario.getPoliticaNotificaciones();
+    }
+    
+    /**
+     * Cambia la política de notificaciones de un usuario
+     * @param usuarioId ID del usuario
+     * @param politica Nueva política
+     */
+    public void actualizarPolitica(Long usuarioId, PoliticaNotificacion politica) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        usuario.setPoliticaNotificaciones(politica);
+        usuarioRepository.save(usuario);
+        agrupadorNotificaciones.actualizarPolitica(usuarioId, politica);
+    }
+    
+    /**
+     * Escribe una notificación por cada grupo cuya ventana de agrupación cerró
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.agrupacion.revision-ms:10000}")
+    public void publicarNotificacionesAgrupadas() {
+        for (AgrupadorNotificaciones.Grupo grupo : agrupadorNotificaciones.extraerVencidos(Instant.now())) {
+            publicarGrupo(grupo);
+        }
+    }
+    
+    /**
+     * Escribe el resumen diario de cada usuario con esa política: una sola notificación con todas sus cuentas
+     */
+    @Scheduled(cron = "${notificaciones.resumen.cron:0 0 20 * * *}")
+    public void publicarResumenesDiarios() {
+        Map<Long, List<AgrupadorNotificaciones.Grupo>> porUsuario = agrupadorNotificaciones
+                .extraer(PoliticaNotificacion.RESUMEN_DIARIO)
+                .stream()
+                .collect(Collectors.groupingBy(AgrupadorNotificaciones.Grupo::getUsuarioId, LinkedHashMap::new, Collectors.toList()));
+        
+        porUsuario.forEach((usuarioId, grupos) -> {
+            String detalle = grupos.stream()
+                    .map(this::describirGrupo)
+                    .collect(Collectors.joining("; "));
+            try {
+                crearNotificacion("Resumen del día: " + detalle, "RESUMEN_DIARIO", usuarioId);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo crear el resumen diario del usuario {}: {}", usuarioId, e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Al detener la aplicación escribe lo que quede acumulado para no perderlo
+     */
+    @PreDestroy
+    public void publicarPendientes() {
+        for (AgrupadorNotificaciones.Grupo grupo : agrupadorNotificaciones.extraer(PoliticaNotificacion.AGRUPADA)) {
+            publicarGrupo(grupo);
+        }
+        publicarResumenesDiarios();
+    }
+    
+    private void publicarGrupo(AgrupadorNotificaciones.Grupo grupo) {
+        try {
+            if (grupo.getCantidad() == 1) {
+                // Un solo movimiento en la ventana: se notifica igual que en modo inmediato
+                String mensaje = "DEPOSITO".equals(grupo.getTipoTransaccion())
+                        ? String.format("Se ha realizado un depósito de $%s en la cuenta %s", grupo.getTotal(), grupo.getNumeroCuenta())
+                        : String.format("Se ha realizado un retiro de $%s de la cuenta %s", grupo.getTotal(), grupo.getNumeroCuenta());
+                crearNotificacion(mensaje, tipoNotificacion(grupo), grupo.getUsuarioId());
+            } else {
+                crearNotificacion("Se han realizado " + describirGrupo(grupo), tipoNotificacion(grupo), grupo.getUsuarioId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo crear la notificación agrupada del usuario {}: {}", grupo.getUsuarioId(), e.getMessage());
+        }
+    }
+    
+    private String describirGrupo(AgrupadorNotificaciones.Grupo grupo) {
+        boolean deposito = "DEPOSITO".equals(grupo.getTipoTransaccion());
+        String movimiento = deposito
+                ? (grupo.getCantidad() == 1 ? "depósito" : "depósitos")
+                : (grupo.getCantidad() == 1 ? "retiro" : "retiros");
+        return String.format("%d %s por un total de $%s %s la cuenta %s",
+                grupo.getCantidad(), movimiento, grupo.getTotal(), deposito ? "en" : "de", grupo.getNumeroCuenta());
+    }
+    
+    private String tipoNotificacion(AgrupadorNotificaciones.Grupo grupo) {
+        return "DEPOSITO".equals(grupo.getTipoTransaccion()) ? "TRANSACCION_DEPOSITO" : "TRANSACCION_RETIRO";
+    }
+    
     /**
      * Convierte un Notificacion a NotificacionDTO
      * @param notificacion Notificación a convertir
@@ -0,0 +1,156 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.OrdenProgramadaDTO;
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.OrdenProgramada;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.OrdenProgramadaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio para la gestión de órdenes programadas (depósitos y
+ * transferencias recurrentes). La ejecución está a cargo de PlanificadorOrdenes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrdenProgramadaService {
+
+    /**
+     * Repositorio de órdenes programadas inyectado por Spring.
+     */
+    private final OrdenProgramadaRepository ordenProgramadaRepository;
+
+    /**
+     * Repositorio de cuentas inyectado por Spring.
+     */
+    private final CuentaRepository cuentaRepository;
+
+    /**
+     * Planificador que ejecuta las órdenes al vencer.
+     */
+    private final PlanificadorOrdenes planificadorOrdenes;
+
+    /**
+     * Crea una orden programada.
+     *
+     * @param ordenDTO Los datos de la orden
+     * @return La orden creada como DTO
+     * @throws RuntimeException si los datos son inválidos o alguna cuenta no existe o está inactiva
+     */
+    public OrdenProgramadaDTO crearOrden(OrdenProgramadaDTO ordenDTO) {
+        log.info("Creando orden programada {} hacia cuenta ID: {}", ordenDTO.getTipo(), ordenDTO.getCuentaDestinoId());
+
+        OrdenProgramada.TipoOrden tipo = leerEnum(OrdenProgramada.TipoOrden.class, ordenDTO.getTipo(), "Tipo de orden inválido");
+        OrdenProgramada.Frecuencia frecuencia = leerEnum(OrdenProgramada.Frecuencia.class, ordenDTO.getFrecuencia(), "Frecuencia inválida");
+
+        if (ordenDTO.getMonto() == null || ordenDTO.getMonto().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("El monto de la orden debe ser positivo");
+        }
+        validarCuenta(ordenDTO.getCuentaDestinoId());
+        if (tipo == OrdenProgramada.TipoOrden.TRANSFERENCIA) {
+            validarCuenta(ordenDTO.getCuentaOrigenId());
+            if (ordenDTO.getCuentaOrigenId().equals(ordenDTO.getCuentaDestinoId())) {
+                throw new RuntimeException("La cuenta de origen y la de destino deben ser distintas");
+            }
+        } else if (ordenDTO.getCuentaOrigenId() != null) {
+            throw new RuntimeException("Un depósito recurrente no tiene cuenta de origen");
+        }
+
+        LocalDateTime fechaInicio = ordenDTO.getFechaInicio() != null ? ordenDTO.getFechaInicio() : LocalDateTime.now();
+        if (fechaInicio.isBefore(LocalDateTime.now().minusMinutes(1))) {
+            throw new RuntimeException("La fecha de inicio no puede ser anterior a ahora");
+        }
+
+        OrdenProgramada orden = new OrdenProgramada();
+        orden.setTipo(tipo);
+        orden.setCuentaOrigenId(ordenDTO.getCuentaOrigenId());
+        orden.setCuentaDestinoId(ordenDTO.getCuentaDestinoId());
+        orden.setMonto(ordenDTO.getMonto());
+        orden.setFrecuencia(frecuencia);
+        orden.setDescripcion(ordenDTO.getDescripcion());
+        orden.setFechaInicio(fechaInicio);
+        orden.setProximaEjecucion(fechaInicio);
+        OrdenProgramada ordenGuardada = ordenProgramadaRepository.save(orden);
+
+        DespuesDelCommit.ejecutar(() ->
+                planificadorOrdenes.programar(ordenGuardada.getId(), ordenGuardada.getProximaEjecucion()));
+
+        log.info("Orden programada creada con ID: {}, primera ejecución: {}", ordenGuardada.getId(), fechaInicio);
+        return new OrdenProgramadaDTO(ordenGuardada);
+    }
+
+    /**
+     * Obtiene las órdenes programadas, todas o las de una cuenta.
+     *
+     * @param cuentaId El ID de la cuenta (origen o destino), o null para todas
+     * @return Lista de órdenes como DTOs
+     */
+    @Transactional(readOnly = true)
+    public List<OrdenProgramadaDTO> obtenerOrdenes(Long cuentaId) {
+        List<OrdenProgramada> ordenes = cuentaId != null
+                ? ordenProgramadaRepository.findByCuentaId(cuentaId)
+                : ordenProgramadaRepository.findAll();
+        return ordenes.stream()
+                .map(OrdenProgramadaDTO::new)
+                .toList();
+    }
+
+    /**
+     * Obtiene una orden programada por su ID.
+     *
+     * @param id El ID de la orden
+     * @return La orden como DTO
+     * @throws RuntimeException si la orden no existe
+     */
+    @Transactional(readOnly = true)
+    public OrdenProgramadaDTO obtenerOrden(Long id) {
+        return ordenProgramadaRepository.findById(id)
+                .map(OrdenProgramadaDTO::new)
+                .orElseThrow(() -> new RuntimeException("Orden programada no encontrada"));
+    }
+
+    /**
+     * Cancela una orden programada. La entrada que quede en el planificador se
+     * descarta al vencer.
+     *
+     * @param id El ID de la orden
+     * @throws RuntimeException si la orden no existe
+     */
+    public void cancelarOrden(Long id) {
+        OrdenProgramada orden = ordenProgramadaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Orden programada no encontrada"));
+        orden.setActiva(false);
+        log.info("Orden programada {} cancelada", id);
+    }
+
+    private void validarCuenta(Long cuentaId) {
+        if (cuentaId == null) {
+            throw new RuntimeException("La cuenta es obligatoria");
+        }
+        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
+        if (!cuenta.getActiva()) {
+            throw new RuntimeException("La cuenta está inactiva");
+        }
+    }
+
+    private <E extends Enum<E>> E leerEnum(Class<E> tipo, String valor, String mensaje) {
+        if (valor == null) {
+            throw new RuntimeException(mensaje);
+        }
+        try {
+            return Enum.valueOf(tipo, valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(mensaje + ": " + valor);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.TransaccionDTO;
+import com.ahorros.models.OrdenProgramada;
+import com.ahorros.repositories.OrdenProgramadaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ejecuta las órdenes programadas cuando vencen.
+ *
+ * Los vencimientos pendientes viven en memoria en un PlanificadorVencimientos
+ * con ranuras de ordenes.tick-segundos: al iniciar la aplicación se cargan
+ * todas las órdenes activas, y cada cambio de programación agrega una
+ * entrada. Así programar una orden y revisar si algo venció cuesta O(1), sin
+ * importar cuántas órdenes activas haya. La rueda solo guarda el ID y el tick
+ * de cada orden; la base de datos sigue siendo la fuente de verdad.
+ *
+ * Lo que vence en cada revisión se dispara como un lote en el hilo del
+ * planificador. Cada vencimiento se ejecuta en su propia transacción con los
+ * métodos de TransaccionService y avanza la orden en la misma transacción,
+ * así que un vencimiento se abona una sola vez aunque la aplicación se caiga
+ * a mitad del lote. Una entrada cuyo tick ya no coincide con la próxima
+ * ejecución de la orden es obsoleta (la orden se canceló o se reprogramó) y
+ * se descarta.
+ *
+ * Si la aplicación estuvo detenida, las órdenes vencidas se ejecutan al
+ * iniciar, una vez por cada vencimiento perdido hasta
+ * ordenes.max-recuperaciones; los más antiguos que eso se omiten.
+ */
+@Component
+@Slf4j
+public class PlanificadorOrdenes {
+
+    @Autowired
+    private OrdenProgramadaRepository ordenProgramadaRepository;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${ordenes.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${ordenes.tick-segundos:60}")
+    private long segundosPorTick;
+
+    @Value("${ordenes.max-recuperaciones:12}")
+    private int maxRecuperaciones;
+
+    private PlanificadorVencimientos<Long> vencimientos;
+
+    @PostConstruct
+    public void iniciar() {
+        vencimientos = new PlanificadorVencimientos<>(segundosPorTick, this::disparar);
+    }
+
+    /**
+     * Carga en la rueda las órdenes activas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        List<Object[]> programacion = ordenProgramadaRepository.findProgramacionActivas();
+        vencimientos.cargar(programacion);
+        log.info("Órdenes programadas cargadas: {}", programacion.size());
+    }
+
+    /**
+     * Agrega a la rueda la próxima ejecución de una orden.
+     * @param ordenId ID de la orden
+     * @param proximaEjecucion Fecha y hora de la próxima ejecución
+     */
+    public void programar(Long ordenId, LocalDateTime proximaEjecucion) {
+        vencimientos.programar(ordenId, proximaEjecucion);
+    }
+
+    /**
+     * Avanza la rueda hasta ahora y dispara en segundo plano las órdenes vencidas.
+     */
+    @Scheduled(fixedDelayString = "${ordenes.revision-ms:15000}")
+    public void revisar() {
+        if (habilitado) {
+            vencimientos.revisar();
+        }
+    }
+
+    /**
+     * @return Número de entradas en la rueda, incluidas las obsoletas
+     */
+    public int pendientes() {
+        return vencimientos.pendientes();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        vencimientos.cerrar();
+    }
+
+    private void disparar(List<RuedaTemporizadora.Entrada<Long>> vencidas) {
+        long inicio = System.currentTimeMillis();
+        int[] totales = new int[3];
+        for (RuedaTemporizadora.Entrada<Long> entrada : vencidas) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                procesar(entrada.valor(), entrada.tick(), totales);
+            } catch (RuntimeException e) {
+                log.error("Error al procesar la orden programada {}; se reintentará", entrada.valor(), e);
+                reprogramar(entrada);
+            }
+        }
+        log.info("Lote de {} órdenes programadas: {} ejecuciones, {} fallidas, {} omitidas en {} ms",
+                vencidas.size(), totales[0], totales[1], totales[2], System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Ejecuta los vencimientos de una orden hasta ahora y la vuelve a programar.
+     * @param totales Ejecuciones, fallos y omisiones del lote
+     */
+    private void procesar(Long ordenId, long tick, int[] totales) {
+        LocalDateTime ahora = LocalDateTime.now();
+        boolean primera = true;
+        int recuperadas = 0;
+
+        while (true) {
+            OrdenProgramada orden = ordenProgramadaRepository.findById(ordenId).orElse(null);
+            if (orden == null || !orden.getActiva()) {
+                return;
+            }
+            if (primera && vencimientos.tickDe(orden.getProximaEjecucion()) != tick) {
+                return;
+            }
+            primera = false;
+
+            if (orden.getProximaEjecucion().isAfter(ahora)) {
+                programar(ordenId, orden.getProximaEjecucion());
+                return;
+            }
+            if (recuperadas >= maxRecuperaciones) {
+                totales[2] += omitirVencidas(ordenId, orden.getEjecuciones(), ahora);
+                continue;
+            }
+            if (ejecutarVencimiento(ordenId, orden.getEjecuciones())) {
+                totales[0]++;
+            } else {
+                totales[1]++;
+            }
+            recuperadas++;
+        }
+    }
+
+    /**
+     * Vuelve a poner en la rueda una orden cuyo procesamiento falló, para su
+     * próxima ejecución actual (si ya pasó, se reintenta en la siguiente
+     * revisión). Si la orden tampoco se puede leer se conserva el tick de la
+     * entrada, que sigue coincidiendo si la orden no llegó a avanzar.
+     */
+    private void reprogramar(RuedaTemporizadora.Entrada<Long> entrada) {
+        try {
+            ordenProgramadaRepository.findById(entrada.valor())
+                    .filter(OrdenProgramada::getActiva)
+                    .ifPresent(orden -> programar(orden.getId(), orden.getProximaEjecucion()));
+        } catch (RuntimeException e) {
+            vencimientos.programarEnTick(entrada.valor(), entrada.tick());
+        }
+    }
+
+    /**
+     * Ejecuta un vencimiento y avanza la orden en la misma transacción. Si el
+     * movimiento falla (por ejemplo, saldo insuficiente) se registra el error
+     * y la orden avanza igual: el vencimiento no se reintenta.
+     * @param ejecuciones Ejecuciones de la orden leídas antes; si cambiaron, otro proceso ya lo ejecutó
+     * @return true si el movimiento se realizó
+     */
+    private boolean ejecutarVencimiento(Long ordenId, int ejecuciones) {
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                OrdenProgramada orden = ordenProgramadaRepository.findById(ordenId).orElseThrow();
+                if (orden.getEjecuciones() != ejecuciones) {
+                    return;
+                }
+                mover(orden);
+                orden.setUltimaEjecucion(LocalDateTime.now());
+                orden.setUltimoError(null);
+                orden.avanzar();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Falló la ejecución {} de la orden programada {}: {}", ejecuciones + 1, ordenId, e.getMessage());
+            transactionTemplate.executeWithoutResult(estado -> {
+                OrdenProgramada orden = ordenProgramadaRepository.findById(ordenId).orElseThrow();
+                if (orden.getEjecuciones() != ejecuciones) {
+                    return;
+                }
+                orden.setUltimoError(e.getMessage());
+                orden.avanzar();
+            });
+            return false;
+        }
+    }
+
+    /**
+     * Avanza la orden sin ejecutarla hasta su primer vencimiento posterior a ahora.
+     * @return Número de vencimientos omitidos
+     */
+    private int omitirVencidas(Long ordenId, int ejecuciones, LocalDateTime ahora) {
+        Integer omitidas = transactionTemplate.execute(estado -> {
+            OrdenProgramada orden = ordenProgramadaRepository.findById(ordenId).orElseThrow();
+            if (orden.getEjecuciones() != ejecuciones) {
+                return 0;
+            }
+            int cantidad = 0;
+            while (!orden.getProximaEjecucion().isAfter(ahora)) {
+                orden.avanzar();
+                cantidad++;
+            }
+            orden.setUltimoError("Se omitieron " + cantidad + " ejecuciones vencidas");
+            return cantidad;
+        });
+        log.warn("Orden programada {}: se omitieron {} ejecuciones vencidas", ordenId, omitidas);
+        return omitidas;
+    }
+
+    private void mover(OrdenProgramada orden) {
+        String descripcion = orden.getDescripcion() != null
+                ? orden.getDescripcion()
+                : orden.getTipo().getDescripcion() + " #" + orden.getId();
+
+        if (orden.getTipo() == OrdenProgramada.TipoOrden.TRANSFERENCIA) {
+            transaccionService.realizarRetiro(movimiento(orden.getCuentaOrigenId(), orden, "RETIRO", descripcion));
+        }
+        transaccionService.realizarDeposito(movimiento(orden.getCuentaDestinoId(), orden, "DEPOSITO", descripcion));
+    }
+
+    private TransaccionDTO movimiento(Long cuentaId, OrdenProgramada orden, String tipo, String descripcion) {
+        TransaccionDTO transaccion = new TransaccionDTO();
+        transaccion.setCuentaId(cuentaId);
+        transaccion.setMonto(orden.getMonto());
+        transaccion.setTipo(tipo);
+        transaccion.setDescripcion(descripcion);
+        return transaccion;
+    }
+}
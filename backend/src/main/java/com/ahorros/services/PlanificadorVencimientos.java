@@ -0,0 +1,128 @@
+package com.ahorros.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Vencimientos en memoria sobre una RuedaTemporizadora, con un hilo propio
+ * para procesar lo que vence.
+ *
+ * Convierte fechas en ticks de segundosPorTick segundos y sincroniza el
+ * acceso a la rueda. Cada revisión avanza la rueda hasta el último tick que
+ * comenzó y entrega lo vencido como un lote a un único hilo, así no se ocupa
+ * el hilo de las tareas programadas y dos lotes nunca se procesan a la vez.
+ * Lo usan PlanificadorOrdenes y ExpiradorReservas.
+ *
+ * @param <T> Tipo de los valores programados
+ */
+final class PlanificadorVencimientos<T> {
+
+    private final long segundosPorTick;
+    private final Consumer<List<RuedaTemporizadora.Entrada<T>>> procesador;
+
+    /**
+     * Acceso sincronizado sobre this
+     */
+    private final RuedaTemporizadora<T> rueda;
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * @param segundosPorTick Duración de cada ranura de la rueda
+     * @param procesador Recibe cada lote vencido, en el hilo del planificador
+     */
+    PlanificadorVencimientos(long segundosPorTick, Consumer<List<RuedaTemporizadora.Entrada<T>>> procesador) {
+        this.segundosPorTick = segundosPorTick;
+        this.procesador = procesador;
+        this.rueda = new RuedaTemporizadora<>(tickTranscurrido());
+    }
+
+    /**
+     * Programa filas [valor, fecha] como las que devuelven las consultas de
+     * programación de los repositorios.
+     * @param filas Filas con el valor y su fecha de vencimiento (LocalDateTime)
+     */
+    @SuppressWarnings("unchecked")
+    void cargar(List<Object[]> filas) {
+        synchronized (this) {
+            for (Object[] fila : filas) {
+                rueda.agregar(tickDe((LocalDateTime) fila[1]), (T) fila[0]);
+            }
+        }
+    }
+
+    /**
+     * Programa un valor para una fecha; si ya pasó, vence en la próxima revisión.
+     * @param valor Valor a programar
+     * @param fecha Fecha y hora de vencimiento
+     */
+    void programar(T valor, LocalDateTime fecha) {
+        programarEnTick(valor, tickDe(fecha));
+    }
+
+    /**
+     * Programa un valor para un tick; si ya pasó, vence en la próxima revisión.
+     * @param valor Valor a programar
+     * @param tick Tick de vencimiento
+     */
+    synchronized void programarEnTick(T valor, long tick) {
+        rueda.agregar(tick, valor);
+    }
+
+    /**
+     * Programa un valor para unos ticks después del actual, por ejemplo para reintentarlo.
+     * @param valor Valor a programar
+     * @param ticks Ticks de espera
+     */
+    synchronized void programarDentroDe(T valor, long ticks) {
+        rueda.agregar(rueda.tickActual() + ticks, valor);
+    }
+
+    /**
+     * Avanza la rueda hasta ahora y entrega lo vencido al procesador en segundo plano.
+     */
+    void revisar() {
+        List<RuedaTemporizadora.Entrada<T>> vencidas;
+        synchronized (this) {
+            vencidas = rueda.avanzar(tickTranscurrido());
+        }
+        if (!vencidas.isEmpty()) {
+            ejecutor.submit(() -> procesador.accept(vencidas));
+        }
+    }
+
+    /**
+     * @return Número de valores en la rueda
+     */
+    synchronized int pendientes() {
+        return rueda.tamano();
+    }
+
+    /**
+     * Tick de la rueda de una fecha, redondeado hacia arriba para que nada venza antes de tiempo.
+     * @param fecha Fecha y hora
+     * @return Tick que la contiene
+     */
+    long tickDe(LocalDateTime fecha) {
+        long segundos = fecha.atZone(ZoneId.systemDefault()).toEpochSecond();
+        return Math.floorDiv(segundos + segundosPorTick - 1, segundosPorTick);
+    }
+
+    /**
+     * Detiene el hilo del planificador; el lote en curso se interrumpe.
+     */
+    void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Último tick que ya comenzó.
+     */
+    private long tickTranscurrido() {
+        return Math.floorDiv(System.currentTimeMillis() / 1000, segundosPorTick);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ahorros.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cuenta las sentencias SQL de cada solicitud HTTP y controla su presupuesto.
+ *
+ * La solicitud se asocia al hilo que la atiende: el interceptor de Spring
+ * MVC la inicia antes del controlador y la termina al completarse, y el
+ * DataSource medido cuenta cada ejecución del hilo. Lo que se ejecuta en
+ * otros hilos (tareas @Async, respuestas en streaming) no se atribuye.
+ *
+ * Con consultas.presupuesto.modo=AVISAR una solicitud que supera su
+ * presupuesto se registra en el log al terminar; con FALLAR la sentencia que
+ * lo supera lanza una excepción y no se ejecuta (pensado para las pruebas).
+ * Cada endpoint publica sus sentencias por solicitud en la métrica
+ * ahorros.sql.sentencias y los excesos en ahorros.sql.presupuesto.excedido.
+ */
+@Component
+@Slf4j
+public class PresupuestoConsultas {
+
+    /**
+     * Qué hacer cuando una solicitud supera su presupuesto.
+     */
+    public enum Modo {
+        AVISAR,
+        FALLAR
+    }
+
+    private static final ThreadLocal<Consumo> ACTUAL = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry registroMetricas;
+
+    @Value("${consultas.presupuesto.modo:AVISAR}")
+    private Modo modo;
+
+    private final Map<String, Metricas> metricasPorEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Sentencias de la solicitud en curso del hilo.
+     */
+    private static final class Consumo {
+
+        private final String endpoint;
+        private final int maximo;
+        private int sentencias;
+
+        private Consumo(String endpoint, int maximo) {
+            this.endpoint = endpoint;
+            this.maximo = maximo;
+        }
+    }
+
+    private record Metricas(DistributionSummary sentencias, Counter excedidos) {
+    }
+
+    /**
+     * Empieza a contar las sentencias de una solicitud en el hilo actual.
+     *
+     * @param endpoint Método HTTP y patrón de la ruta (por ejemplo GET /transacciones/{id})
+     * @param maximo Sentencias permitidas, o un valor negativo si no tiene presupuesto
+     */
+    public void iniciar(String endpoint, int maximo) {
+        ACTUAL.set(new Consumo(endpoint, maximo));
+    }
+
+    /**
+     * Cuenta una sentencia de la solicitud en curso, si hay una.
+     *
+     * @throws RuntimeException en modo FALLAR, si la sentencia supera el presupuesto
+     */
+    public void contar() {
+        Consumo consumo = ACTUAL.get();
+        if (consumo == null) {
+            return;
+        }
+        consumo.sentencias++;
+        if (modo == Modo.FALLAR && consumo.maximo >= 0 && consumo.sentencias > consumo.maximo) {
+            throw new RuntimeException("Se superó el presupuesto de sentencias SQL de " + consumo.endpoint
+                    + ": máximo " + consumo.maximo);
+        }
+    }
+
+    /**
+     * Termina la solicitud del hilo actual y publica sus sentencias.
+     */
+    public void terminar() {
+        Consumo consumo = ACTUAL.get();
+        if (consumo == null) {
+            return;
+        }
+        ACTUAL.remove();
+        Metricas metricas = metricasPorEndpoint.computeIfAbsent(consumo.endpoint, this::crearMetricas);
+        metricas.sentencias().record(consumo.sentencias);
+        if (consumo.maximo >= 0 && consumo.sentencias > consumo.maximo) {
+            metricas.excedidos().increment();
+            if (modo == Modo.AVISAR) {
+                log.warn("Presupuesto de sentencias SQL superado en {}: {} sentencias (máximo {})",
+                        consumo.endpoint, consumo.sentencias, consumo.maximo);
+            }
+        }
+    }
+
+    private Metricas crearMetricas(String endpoint) {
+        return new Metricas(
+                DistributionSummary.builder("ahorros.sql.sentencias")
+                        .description("Sentencias SQL por solicitud")
+                        .tag("endpoint", endpoint)
+                        .register(registroMetricas),
+                Counter.builder("ahorros.sql.presupuesto.excedido")
+                        .description("Solicitudes que superaron su presupuesto de sentencias SQL")
+                        .tag("endpoint", endpoint)
+                        .register(registroMetricas));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ahorros.services;
+
+import com.ahorros.models.ReglaSaldoBajo;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.ReglaSaldoBajoRepository;
+import com.ahorros.repositories.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ReglaSaldoBajoService {
+    
+    @Autowired
+    private ReglaSaldoBajoRepository reglaSaldoBajoRepository;
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    
+    @Autowired
+    private AlertasSaldoBajo alertasSaldoBajo;
+    
+    /**
+     * Obtiene todas las reglas de saldo bajo
+     * @return Lista de reglas
+     */
+    public List<ReglaSaldoBajo> obtenerTodas() {
+        return reglaSaldoBajoRepository.findAll();
+    }
+    
+    /**
+     * Crea o reemplaza la regla de una cuenta
+     * @param cuentaId ID de la cuenta
+     * @param umbral Saldo por debajo del cual se alerta
+     * @param margenRearme Cuánto debe superar el saldo al umbral para volver a alertar
+     * @return Regla guardada
+     */
+    public ReglaSaldoBajo guardarReglaCuenta(Long cuentaId, BigDecimal umbral, BigDecimal margenRearme) {
+        if (!cuentaRepository.existsById(cuentaId)) {
+            throw new RuntimeException("Cuenta no encontrada");
+        }
+        ReglaSaldoBajo regla = reglaSaldoBajoRepository.findByCuentaId(cuentaId)
+                .orElseGet(() -> new ReglaSaldoBajo(cuentaId, null, umbral, margenRearme));
+        return guardar(regla, umbral, margenRearme);
+    }
+    
+    /**
+     * Crea o reemplaza la regla general de un usuario, que aplica a las cuentas sin regla propia
+     * @param usuarioId ID del usuario
+     * @param umbral Saldo por debajo del cual se alerta
+     * @param margenRearme Cuánto debe superar el saldo al umbral para volver a alertar
+     * @return Regla guardada
+     */
+    public ReglaSaldoBajo guardarReglaUsuario(Long usuarioId, BigDecimal umbral, BigDecimal margenRearme) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
+        ReglaSaldoBajo regla = reglaSaldoBajoRepository.findByUsuarioId(usuarioId)
+                .orElseGet(() -> new ReglaSaldoBajo(null, usuarioId, umbral, margenRearme));
+        return guardar(regla, umbral, margenRearme);
+    }
+    
+    /**
+     * Elimina una regla; la cuenta o usuario vuelve a la regla general
+     * @param id ID de la regla
+     */
+    public void eliminarRegla(Long id) {
+        if (!reglaSaldoBajoRepository.existsById(id)) {
+            throw new RuntimeException("Regla no encontrada");
+        }
+        reglaSaldoBajoRepository.deleteById(id);
+        alertasSaldoBajo.recargar();
+    }
+    
+    private ReglaSaldoBajo guardar(ReglaSaldoBajo regla, BigDecimal umbral, BigDecimal margenRearme) {
+        if (umbral == null || umbral.compareTo(BigDecimal.ZERO) < 0) {
+            throw new RuntimeException("El umbral debe ser mayor o igual a cero");
+        }
+        if (margenRearme == null || margenRearme.compareTo(BigDecimal.ZERO) < 0) {
+            throw new RuntimeException("El margen de rearme debe ser mayor o igual a cero");
+        }
+        regla.setUmbral(umbral);
+        regla.setMargenRearme(margenRearme);
+        regla.setFechaActualizacion(LocalDateTime.now());
+        ReglaSaldoBajo guardada = reglaSaldoBajoRepository.save(regla);
+        alertasSaldoBajo.recargar();
+        return guardada;
+    }
+}
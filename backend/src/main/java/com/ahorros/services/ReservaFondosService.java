@@ -0,0 +1,195 @@
+package com.ahorros.services;
+
+import com.ahorros.dto.ReservaFondosDTO;
+import com.ahorros.dto.TransaccionDTO;
+import com.ahorros.models.Cuenta;
+import com.ahorros.models.ReservaFondos;
+import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.ReservaFondosRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio para las reservas de fondos (autorizar y después capturar un retiro).
+ *
+ * Reservar suma el monto a Cuenta.saldoRetenido en la misma transacción que
+ * crea la reserva, así que el saldo disponible de una cuenta siempre es
+ * saldo - saldoRetenido y comprobarlo no requiere sumar reservas. Capturar
+ * libera la reserva y hace el retiro con TransaccionService.realizarRetiro;
+ * las reservas que vencen las libera ExpiradorReservas. Todas las
+ * operaciones bloquean la fila de la cuenta, así dos reservas simultáneas no
+ * pueden pasar ambas la comprobación del saldo disponible.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ReservaFondosService {
+
+    /**
+     * Repositorio de reservas inyectado por Spring.
+     */
+    private final ReservaFondosRepository reservaFondosRepository;
+
+    /**
+     * Repositorio de cuentas inyectado por Spring.
+     */
+    private final CuentaRepository cuentaRepository;
+
+    /**
+     * Servicio de transacciones inyectado por Spring.
+     */
+    private final TransaccionService transaccionService;
+
+    /**
+     * Libera las reservas al vencer.
+     */
+    private final ExpiradorReservas expiradorReservas;
+
+    @Value("${reservas.expiracion-minutos:10080}")
+    private long minutosExpiracionPorDefecto;
+
+    @Value("${reservas.expiracion-maxima-minutos:43200}")
+    private long minutosExpiracionMaximos;
+
+    /**
+     * Reserva fondos de una cuenta.
+     *
+     * @param reservaDTO Cuenta, monto, descripción y minutos hasta el vencimiento (opcional)
+     * @return La reserva creada como DTO
+     * @throws RuntimeException si la cuenta no existe o está inactiva, o el saldo disponible no alcanza
+     */
+    public ReservaFondosDTO crearReserva(ReservaFondosDTO reservaDTO) {
+        log.info("Reservando {} en cuenta ID: {}", reservaDTO.getMonto(), reservaDTO.getCuentaId());
+
+        if (reservaDTO.getCuentaId() == null) {
+            throw new RuntimeException("La cuenta es obligatoria");
+        }
+        Cuenta cuenta = cuentaRepository.findByIdParaActualizar(reservaDTO.getCuentaId())
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
+        if (!cuenta.getActiva()) {
+            throw new RuntimeException("La cuenta está inactiva");
+        }
+        if (reservaDTO.getMonto() == null || reservaDTO.getMonto().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("El monto de la reserva debe ser positivo");
+        }
+        long minutos = reservaDTO.getMinutosExpiracion() != null
+                ? reservaDTO.getMinutosExpiracion()
+                : minutosExpiracionPorDefecto;
+        if (minutos <= 0 || minutos > minutosExpiracionMaximos) {
+            throw new RuntimeException("Los minutos de expiración deben estar entre 1 y " + minutosExpiracionMaximos);
+        }
+
+        try {
+            cuenta.retener(reservaDTO.getMonto());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+
+        ReservaFondos reserva = new ReservaFondos();
+        reserva.setCuentaId(cuenta.getId());
+        reserva.setMonto(reservaDTO.getMonto());
+        reserva.setDescripcion(reservaDTO.getDescripcion());
+        reserva.setFechaExpiracion(LocalDateTime.now().plusMinutes(minutos));
+        ReservaFondos reservaGuardada = reservaFondosRepository.save(reserva);
+
+        DespuesDelCommit.ejecutar(() ->
+                expiradorReservas.programar(reservaGuardada.getId(), reservaGuardada.getFechaExpiracion()));
+
+        log.info("Reserva {} creada. Saldo disponible: {}", reservaGuardada.getId(), cuenta.getSaldoDisponible());
+        return new ReservaFondosDTO(reservaGuardada);
+    }
+
+    /**
+     * Captura una reserva: la libera y retira el monto capturado de la cuenta.
+     *
+     * @param id El ID de la reserva
+     * @param monto Monto a capturar, como máximo el reservado; null captura el monto completo
+     * @return La reserva capturada como DTO
+     * @throws RuntimeException si la reserva no existe, no está activa o venció, o el monto es inválido
+     */
+    public ReservaFondosDTO capturarReserva(Long id, BigDecimal monto) {
+        ReservaFondos reserva = reservaFondosRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
+        if (!reserva.estaVigente(LocalDateTime.now())) {
+            throw new RuntimeException("La reserva no está activa o ya venció");
+        }
+        BigDecimal montoCaptura = monto != null ? monto : reserva.getMonto();
+        if (montoCaptura.compareTo(BigDecimal.ZERO) <= 0 || montoCaptura.compareTo(reserva.getMonto()) > 0) {
+            throw new RuntimeException("El monto a capturar debe ser positivo y no mayor que el reservado");
+        }
+
+        Cuenta cuenta = cuentaRepository.findByIdParaActualizar(reserva.getCuentaId())
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
+        cuenta.liberar(reserva.getMonto());
+
+        TransaccionDTO retiro = new TransaccionDTO();
+        retiro.setCuentaId(cuenta.getId());
+        retiro.setMonto(montoCaptura);
+        retiro.setTipo("RETIRO");
+        retiro.setDescripcion(reserva.getDescripcion() != null ? reserva.getDescripcion() : "Captura de reserva #" + id);
+        TransaccionDTO transaccion = transaccionService.realizarRetiro(retiro);
+
+        reserva.resolver(ReservaFondos.EstadoReserva.CAPTURADA);
+        reserva.setMontoCapturado(montoCaptura);
+        reserva.setTransaccionId(transaccion.getId());
+
+        log.info("Reserva {} capturada por {}", id, montoCaptura);
+        return new ReservaFondosDTO(reserva);
+    }
+
+    /**
+     * Libera una reserva activa sin retirar fondos.
+     *
+     * @param id El ID de la reserva
+     * @return La reserva liberada como DTO
+     * @throws RuntimeException si la reserva no existe o no está activa
+     */
+    public ReservaFondosDTO liberarReserva(Long id) {
+        ReservaFondos reserva = reservaFondosRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
+        if (reserva.getEstado() != ReservaFondos.EstadoReserva.ACTIVA) {
+            throw new RuntimeException("La reserva no está activa");
+        }
+        cuentaRepository.findByIdParaActualizar(reserva.getCuentaId())
+                .ifPresent(cuenta -> cuenta.liberar(reserva.getMonto()));
+        reserva.resolver(ReservaFondos.EstadoReserva.LIBERADA);
+
+        log.info("Reserva {} liberada", id);
+        return new ReservaFondosDTO(reserva);
+    }
+
+    /**
+     * Obtiene las reservas de una cuenta.
+     *
+     * @param cuentaId El ID de la cuenta
+     * @return Lista de reservas como DTOs, de la más reciente a la más antigua
+     */
+    @Transactional(readOnly = true)
+    public List<ReservaFondosDTO> obtenerReservas(Long cuentaId) {
+        return reservaFondosRepository.findByCuentaIdOrderByIdDesc(cuentaId).stream()
+                .map(ReservaFondosDTO::new)
+                .toList();
+    }
+
+    /**
+     * Obtiene una reserva por su ID.
+     *
+     * @param id El ID de la reserva
+     * @return La reserva como DTO
+     * @throws RuntimeException si la reserva no existe
+     */
+    @Transactional(readOnly = true)
+    public ReservaFondosDTO obtenerReserva(Long id) {
+        return reservaFondosRepository.findById(id)
+                .map(ReservaFondosDTO::new)
+                .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
+    }
+}
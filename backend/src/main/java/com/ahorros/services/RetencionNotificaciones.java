@@ -0,0 +1,103 @@
+package com.ahorros.services;
+
+import com.ahorros.repositories.NotificacionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tarea programada de retención de notificaciones.
+ *
+ * Saca de la tabla notificaciones las notificaciones leídas más antiguas que
+ * el horizonte configurado, para que la tabla no crezca indefinidamente. Según
+ * el modo, las copia antes a notificaciones_archivadas (ARCHIVAR) o solo las
+ * elimina (ELIMINAR).
+ *
+ * Trabaja por lotes de tamaño fijo, cada uno en su propia transacción corta,
+ * y con un máximo de lotes por ejecución; lo que quede se procesa en la
+ * siguiente. Las no leídas nunca se tocan, así que los contadores en memoria
+ * no cambian.
+ */
+@Component
+@Slf4j
+public class RetencionNotificaciones {
+
+    public enum Modo { ARCHIVAR, ELIMINAR }
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notificaciones.retencion.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${notificaciones.retencion.dias:90}")
+    private int dias;
+
+    @Value("${notificaciones.retencion.modo:ARCHIVAR}")
+    private Modo modo;
+
+    @Value("${notificaciones.retencion.lote:1000}")
+    private int tamanoLote;
+
+    @Value("${notificaciones.retencion.max-lotes:100}")
+    private int maxLotes;
+
+    /**
+     * Ejecución programada según notificaciones.retencion.cron.
+     */
+    @Scheduled(cron = "${notificaciones.retencion.cron:0 30 3 * * *}")
+    public void ejecutarProgramada() {
+        if (habilitada) {
+            ejecutar();
+        }
+    }
+
+    /**
+     * Procesa las notificaciones leídas anteriores al horizonte.
+     * @return Número de notificaciones retiradas de la tabla principal
+     */
+    public int ejecutar() {
+        LocalDateTime fechaLimite = LocalDateTime.now().minusDays(dias);
+        int total = 0;
+        int lotes = 0;
+
+        while (lotes < maxLotes) {
+            Integer procesadas = transactionTemplate.execute(estado -> procesarLote(fechaLimite));
+            if (procesadas == null || procesadas == 0) {
+                break;
+            }
+            total += procesadas;
+            lotes++;
+            if (procesadas < tamanoLote) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Retención de notificaciones ({}): {} notificaciones anteriores a {} en {} lotes",
+                    modo, total, fechaLimite, lotes);
+        }
+        return total;
+    }
+
+    private int procesarLote(LocalDateTime fechaLimite) {
+        List<Long> ids = notificacionRepository.findIdsLeidasAnterioresA(fechaLimite, Limit.of(tamanoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (modo == Modo.ARCHIVAR) {
+            notificacionRepository.archivar(ids, LocalDateTime.now());
+        }
+        return notificacionRepository.eliminarPorIds(ids);
+    }
+}
@@ -0,0 +1,144 @@
+package com.ahorros.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda temporizadora jerárquica.
+ *
+ * Guarda valores con el tick en que vencen. Hay NIVELES ruedas de 64 ranuras:
+ * la del nivel 0 tiene una ranura por tick, la del nivel 1 una por cada 64
+ * ticks, la del nivel 2 una por cada 4096, etc. Un valor se guarda en el
+ * nivel más bajo cuyo bloque de 64^(nivel+1) ticks contiene tanto al tick
+ * actual como a su vencimiento; al entrar en su ranura se baja de nivel
+ * hasta llegar al nivel 0. Lo que vence más allá del último nivel espera en
+ * una lista de desborde.
+ *
+ * Agregar es O(1) y avanzar un tick también, más el costo de lo que vence;
+ * cada valor baja como máximo NIVELES veces. No es segura para varios hilos
+ * por sí sola: quien la usa debe sincronizar el acceso.
+ *
+ * @param <T> Tipo de los valores
+ */
+final class RuedaTemporizadora<T> {
+
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+
+    private final ArrayDeque<Entrada<T>>[][] ranuras;
+    private final List<Entrada<T>> desbordadas = new ArrayList<>();
+    private final List<Entrada<T>> vencidas = new ArrayList<>();
+    private long tickActual;
+    private int tamano;
+
+    RuedaTemporizadora(long tickInicial) {
+        this.tickActual = tickInicial;
+        this.ranuras = crearRanuras();
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            for (int ranura = 0; ranura < RANURAS; ranura++) {
+                ranuras[nivel][ranura] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Agrega un valor. Si su tick ya pasó vence en el próximo avance.
+     * @param tick Tick de vencimiento
+     * @param valor Valor a guardar
+     */
+    void agregar(long tick, T valor) {
+        ubicar(new Entrada<>(tick, valor));
+        tamano++;
+    }
+
+    /**
+     * Avanza la rueda hasta un tick y retira lo que venció.
+     * @param hasta Tick hasta el que avanzar (inclusivo)
+     * @return Entradas vencidas, en orden de vencimiento
+     */
+    List<Entrada<T>> avanzar(long hasta) {
+        List<Entrada<T>> resultado = new ArrayList<>(vencidas);
+        vencidas.clear();
+
+        while (tickActual < hasta) {
+            tickActual++;
+            bajarNiveles();
+            // Lo que bajó justo a este tick queda en vencidas
+            resultado.addAll(vencidas);
+            vencidas.clear();
+            ArrayDeque<Entrada<T>> ranura = ranuras[0][(int) (tickActual & MASCARA)];
+            resultado.addAll(ranura);
+            ranura.clear();
+        }
+
+        tamano -= resultado.size();
+        return resultado;
+    }
+
+    /**
+     * @return Número de valores guardados
+     */
+    int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @return Tick hasta el que avanzó la rueda
+     */
+    long tickActual() {
+        return tickActual;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayDeque<Entrada<T>>[][] crearRanuras() {
+        return (ArrayDeque<Entrada<T>>[][]) new ArrayDeque<?>[NIVELES][RANURAS];
+    }
+
+    private void bajarNiveles() {
+        if ((tickActual & MASCARA) != 0) {
+            return;
+        }
+        // Se empieza por el nivel más alto que cambió de ranura para que lo que baje
+        // pueda volver a bajar en este mismo tick
+        int nivelMaximo = 1;
+        while (nivelMaximo < NIVELES && (tickActual & ((1L << (BITS * (nivelMaximo + 1))) - 1)) == 0) {
+            nivelMaximo++;
+        }
+        if (nivelMaximo == NIVELES) {
+            List<Entrada<T>> pendientes = new ArrayList<>(desbordadas);
+            desbordadas.clear();
+            pendientes.forEach(this::ubicar);
+            nivelMaximo = NIVELES - 1;
+        }
+        for (int nivel = nivelMaximo; nivel >= 1; nivel--) {
+            ArrayDeque<Entrada<T>> ranura = ranuras[nivel][(int) ((tickActual >>> (BITS * nivel)) & MASCARA)];
+            List<Entrada<T>> pendientes = new ArrayList<>(ranura);
+            ranura.clear();
+            pendientes.forEach(this::ubicar);
+        }
+    }
+
+    private void ubicar(Entrada<T> entrada) {
+        if (entrada.tick() <= tickActual) {
+            vencidas.add(entrada);
+            return;
+        }
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            int desplazamiento = BITS * (nivel + 1);
+            if ((entrada.tick() >>> desplazamiento) == (tickActual >>> desplazamiento)) {
+                ranuras[nivel][(int) ((entrada.tick() >>> (BITS * nivel)) & MASCARA)].add(entrada);
+                return;
+            }
+        }
+        desbordadas.add(entrada);
+    }
+
+    /**
+     * Un valor con su tick de vencimiento.
+     */
+    record Entrada<T>(long tick, T valor) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.ahorros.services;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Frecuencias aproximadas de claves en memoria fija: un sketch Count-Min
+ * más los candidatos a claves más frecuentes (top-K).
+ *
+ * El sketch tiene profundidad filas de ancho contadores; cada clave suma 1
+ * en un contador por fila y su frecuencia estimada es el mínimo de esos
+ * contadores. La estimación nunca es menor que la real y la excede como
+ * mucho en e / ancho del total con probabilidad 1 - e^-profundidad.
+ *
+ * Una clave entra en los candidatos si su estimación supera la del menor
+ * candidato, que sale. Registrar cuesta profundidad incrementos atómicos y
+ * una búsqueda sin bloqueo; solo al intentar cambiar los candidatos hay un
+ * bloqueo corto.
+ */
+final class SketchFrecuencias {
+
+    private final int profundidad;
+    private final int mascara;
+    private final AtomicIntegerArray contadores;
+    private final int capacidad;
+    private final Set<Object> candidatos;
+
+    /**
+     * Estimación del menor candidato al último cambio (solo puede haber
+     * crecido desde entonces), o 0 mientras hay lugar libre
+     */
+    private volatile long minimo;
+
+    /**
+     * @param profundidad Filas del sketch
+     * @param ancho Contadores por fila (se redondea a potencia de 2)
+     * @param capacidad Número de candidatos
+     */
+    SketchFrecuencias(int profundidad, int ancho, int capacidad) {
+        int anchoReal = Integer.highestOneBit(Math.max(ancho - 1, 1)) << 1;
+        this.profundidad = profundidad;
+        this.mascara = anchoReal - 1;
+        this.contadores = new AtomicIntegerArray(profundidad * anchoReal);
+        this.capacidad = capacidad;
+        this.candidatos = ConcurrentHashMap.newKeySet(capacidad * 2);
+    }
+
+    /**
+     * Suma una aparición de la clave.
+     * @return Frecuencia estimada de la clave
+     */
+    long registrar(Object clave) {
+        long hash = mezclar(clave.hashCode());
+        long estimado = Long.MAX_VALUE;
+        for (int fila = 0; fila < profundidad; fila++) {
+            estimado = Math.min(estimado, contadores.incrementAndGet(indice(hash, fila)));
+        }
+        if (estimado > minimo && !candidatos.contains(clave)) {
+            admitir(clave, estimado);
+        }
+        return estimado;
+    }
+
+    /**
+     * Suma los contadores del sketch a un acumulado del mismo tamaño.
+     */
+    void sumarEn(long[] acumulado) {
+        for (int i = 0; i < acumulado.length; i++) {
+            acumulado[i] += contadores.get(i);
+        }
+    }
+
+    /**
+     * @return Claves candidatas a más frecuentes (copia)
+     */
+    Set<Object> candidatos() {
+        return Set.copyOf(candidatos);
+    }
+
+    /**
+     * @return Número de contadores del sketch
+     */
+    int tamano() {
+        return contadores.length();
+    }
+
+    /**
+     * @return Contadores por fila
+     */
+    int ancho() {
+        return mascara + 1;
+    }
+
+    /**
+     * Estima la frecuencia de una clave en contadores sumados con sumarEn.
+     */
+    long estimar(long[] acumulado, Object clave) {
+        long hash = mezclar(clave.hashCode());
+        long estimado = Long.MAX_VALUE;
+        for (int fila = 0; fila < profundidad; fila++) {
+            estimado = Math.min(estimado, acumulado[indice(hash, fila)]);
+        }
+        return estimado;
+    }
+
+    /**
+     * Pone en cero los contadores y los candidatos.
+     */
+    synchronized void limpiar() {
+        for (int i = 0; i < contadores.length(); i++) {
+            contadores.set(i, 0);
+        }
+        candidatos.clear();
+        minimo = 0;
+    }
+
+    /**
+     * Agrega la clave a los candidatos si supera al menor, que sale. Las
+     * estimaciones de los candidatos se leen de los contadores en el momento,
+     * así los candidatos no se actualizan en cada registro.
+     */
+    private synchronized void admitir(Object clave, long estimado) {
+        if (candidatos.contains(clave)) {
+            return;
+        }
+        if (candidatos.size() < capacidad) {
+            candidatos.add(clave);
+            return;
+        }
+        Object menor = null;
+        long valorMenor = Long.MAX_VALUE;
+        long segundoMenor = Long.MAX_VALUE;
+        for (Object candidato : candidatos) {
+            long valor = estimar(candidato);
+            if (valor < valorMenor) {
+                segundoMenor = valorMenor;
+                menor = candidato;
+                valorMenor = valor;
+            } else if (valor < segundoMenor) {
+                segundoMenor = valor;
+            }
+        }
+        if (estimado <= valorMenor) {
+            minimo = valorMenor;
+            return;
+        }
+        candidatos.remove(menor);
+        candidatos.add(clave);
+        minimo = Math.min(segundoMenor, estimado);
+    }
+
+    private long estimar(Object clave) {
+        long hash = mezclar(clave.hashCode());
+        long estimado = Long.MAX_VALUE;
+        for (int fila = 0; fila < profundidad; fila++) {
+            estimado = Math.min(estimado, contadores.get(indice(hash, fila)));
+        }
+        return estimado;
+    }
+
+    /**
+     * Posición del contador de la clave en una fila. Cada fila vuelve a
+     * dispersar el hash para que dos claves que chocan en una fila no
+     * choquen también en las demás.
+     */
+    private int indice(long hash, int fila) {
+        long h = mezclar(hash + fila * 0x9e3779b97f4a7c15L);
+        return fila * (mascara + 1) + ((int) (h >>> 32) & mascara);
+    }
+
+    /**
+     * Dispersa los bits de un valor (finalizador de MurmurHash3).
+     */
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,20 +1,28 @@
 package com.ahorros.services;
 
+import com.ahorros.dto.FiltroTransaccionDTO;
 import com.ahorros.dto.TransaccionDTO;
 import com.ahorros.models.Cuenta;
 import com.ahorros.models.Transaccion;
 import com.ahorros.repositories.CuentaRepository;
+import com.ahorros.repositories.FiltroRepository;
+import com.ahorros.repositories.ProyeccionRepository;
 import com.ahorros.repositories.TransaccionRepository;
 import com.ahorros.services.NotificacionService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para la gestión de transacciones de cuentas de ahorros.
@@ -31,6 +39,7 @@ import java.util.stream.Collectors;
  * la consistencia de los datos.
  */
 @Service
+@Timed(value = "ahorros.servicios", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
@@ -51,6 +60,41 @@ public class TransaccionService {
      */
     private final NotificacionService notificacionService;
 
+    /**
+     * Reglas de alerta de saldo bajo, evaluadas en memoria.
+     */
+    private final AlertasSaldoBajo alertasSaldoBajo;
+
+    /**
+     * Servicio de metas de ahorro inyectado por Spring.
+     */
+    private final MetaAhorroService metaAhorroService;
+
+    /**
+     * Límites de velocidad de retiros, evaluados en memoria.
+     */
+    private final LimitesRetiro limitesRetiro;
+
+    /**
+     * Detector de movimientos inusuales, evaluado en memoria.
+     */
+    private final DetectorAnomalias detectorAnomalias;
+
+    /**
+     * Estadísticas de operaciones por segundo y latencias.
+     */
+    private final EstadisticasRendimiento estadisticasRendimiento;
+
+    /**
+     * Repositorio de consultas con proyección parcial de columnas.
+     */
+    private final ProyeccionRepository proyeccionRepository;
+
+    /**
+     * Repositorio del filtro dinámico de transacciones.
+     */
+    private final FiltroRepository filtroRepository;
+
     /**
      * Realiza un depósito en una cuenta.
      * 
@@ -59,11 +103,17 @@ public class TransaccionService {
      * @throws RuntimeException si la cuenta no existe o el monto es inválido
      */
     public TransaccionDTO realizarDeposito(TransaccionDTO transaccionDTO) {
+        return estadisticasRendimiento.medir(Transaccion.TipoTransaccion.DEPOSITO, () -> EventoTransaccion.medir(
+                transaccionDTO.getCuentaId(), Transaccion.TipoTransaccion.DEPOSITO, () -> depositar(transaccionDTO)));
+    }
+
+    private TransaccionDTO depositar(TransaccionDTO transaccionDTO) {
         log.info("Realizando depósito de {} en cuenta ID: {}", 
                 transaccionDTO.getMonto(), transaccionDTO.getCuentaId());
 
-        // Validar que la cuenta existe
-        Optional<Cuenta> cuentaOptional = cuentaRepository.findById(transaccionDTO.getCuentaId());
+        // Validar que la cuenta existe; la fila queda bloqueada hasta el commit
+        Optional<Cuenta> cuentaOptional = EventoTransaccion.bloquear(
+                () -> cuentaRepository.findByIdParaActualizar(transaccionDTO.getCuentaId()));
         if (cuentaOptional.isEmpty()) {
             log.error("No se encontró la cuenta con ID: {}", transaccionDTO.getCuentaId());
             throw new RuntimeException("Cuenta no encontrada");
@@ -83,6 +133,10 @@ public class TransaccionService {
             throw new RuntimeException("El monto del depósito debe ser positivo");
         }
 
+        // Un depósito inusual solo se marca y se avisa al usuario
+        DetectorAnomalias.Evaluacion evaluacion = detectorAnomalias.evaluar(
+                cuenta.getId(), Transaccion.TipoTransaccion.DEPOSITO, transaccionDTO.getMonto());
+
         // Crear la transacción
         Transaccion transaccion = new Transaccion(
                 Transaccion.TipoTransaccion.DEPOSITO,
@@ -94,6 +148,9 @@ public class TransaccionService {
         // Realizar el depósito en la cuenta
         cuenta.depositar(transaccionDTO.getMonto());
 
+        // Revisar si el depósito alcanzó alguna meta de ahorro
+        metaAhorroService.registrarAumento(cuenta);
+
         // Calcular el saldo resultante
         transaccion.calcularSaldoResultante();
 
@@ -103,15 +160,33 @@ public class TransaccionService {
         // Guardar la cuenta actualizada
         cuentaRepository.save(cuenta);
 
+        // Registrar el movimiento en la auditoría cuando se confirme
+        Auditoria.movimiento(transaccionGuardada, cuenta);
+
+        Long usuarioId = cuenta.getUsuario() != null ? cuenta.getUsuario().getId() : null;
+
+        // Un depósito nunca dispara la alerta, pero puede rearmarla
+        alertasSaldoBajo.rearmar(cuenta.getId(), usuarioId, cuenta.getSaldo());
+
         // Crear notificación si la cuenta tiene usuario asociado
-        if (cuenta.getUsuario() != null) {
+        if (usuarioId != null) {
             try {
                 notificacionService.crearNotificacionTransaccion(
-                    cuenta.getUsuario().getId(),
+                    usuarioId,
                     "DEPOSITO",
                     transaccionDTO.getMonto().toString(),
                     cuenta.getNumeroCuenta()
                 );
+
+                if (evaluacion.accion() == DetectorAnomalias.Accion.MARCAR) {
+                    notificacionService.crearNotificacionActividadInusual(
+                        usuarioId,
+                        "DEPOSITO",
+                        transaccionDTO.getMonto().toString(),
+                        cuenta.getNumeroCuenta(),
+                        evaluacion.descripcion()
+                    );
+                }
             } catch (Exception e) {
                 log.warn("No se pudo crear la notificación para el depósito: {}", e.getMessage());
             }
@@ -130,11 +205,17 @@ public class TransaccionService {
      * @throws RuntimeException si la cuenta no existe, el monto es inválido o saldo insuficiente
      */
     public TransaccionDTO realizarRetiro(TransaccionDTO transaccionDTO) {
+        return estadisticasRendimiento.medir(Transaccion.TipoTransaccion.RETIRO, () -> EventoTransaccion.medir(
+                transaccionDTO.getCuentaId(), Transaccion.TipoTransaccion.RETIRO, () -> retirar(transaccionDTO)));
+    }
+
+    private TransaccionDTO retirar(TransaccionDTO transaccionDTO) {
         log.info("Realizando retiro de {} de cuenta ID: {}", 
                 transaccionDTO.getMonto(), transaccionDTO.getCuentaId());
 
-        // Validar que la cuenta existe
-        Optional<Cuenta> cuentaOptional = cuentaRepository.findById(transaccionDTO.getCuentaId());
+        // Validar que la cuenta existe; la fila queda bloqueada hasta el commit
+        Optional<Cuenta> cuentaOptional = EventoTransaccion.bloquear(
+                () -> cuentaRepository.findByIdParaActualizar(transaccionDTO.getCuentaId()));
         if (cuentaOptional.isEmpty()) {
             log.error("No se encontró la cuenta con ID: {}", transaccionDTO.getCuentaId());
             throw new RuntimeException("Cuenta no encontrada");
@@ -154,13 +235,37 @@ public class TransaccionService {
             throw new RuntimeException("El monto del retiro debe ser positivo");
         }
 
-        // Validar que haya saldo suficiente
-        if (transaccionDTO.getMonto().compareTo(cuenta.getSaldo()) > 0) {
-            log.error("Saldo insuficiente. Saldo actual: {}, monto solicitado: {}", 
-                    cuenta.getSaldo(), transaccionDTO.getMonto());
+        // Validar que haya saldo disponible suficiente (el saldo menos las reservas activas)
+        if (transaccionDTO.getMonto().compareTo(cuenta.getSaldoDisponible()) > 0) {
+            log.error("Saldo insuficiente. Saldo disponible: {}, monto solicitado: {}", 
+                    cuenta.getSaldoDisponible(), transaccionDTO.getMonto());
             throw new RuntimeException("Saldo insuficiente para realizar el retiro");
         }
 
+        // Validar los límites de retiros por hora y por día del perfil de la cuenta
+        limitesRetiro.consumir(cuenta.getId(), cuenta.getPerfilLimites(), transaccionDTO.getMonto());
+
+        // Comparar el retiro con los movimientos habituales de la cuenta
+        DetectorAnomalias.Evaluacion evaluacion = detectorAnomalias.evaluar(
+                cuenta.getId(), Transaccion.TipoTransaccion.RETIRO, transaccionDTO.getMonto());
+        if (evaluacion.accion() == DetectorAnomalias.Accion.BLOQUEAR) {
+            log.warn("Retiro de {} bloqueado en la cuenta {}: {}",
+                    transaccionDTO.getMonto(), cuenta.getNumeroCuenta(), evaluacion.descripcion());
+            if (cuenta.getUsuario() != null) {
+                try {
+                    notificacionService.crearNotificacionRetiroBloqueado(
+                        cuenta.getUsuario().getId(),
+                        transaccionDTO.getMonto().toString(),
+                        cuenta.getNumeroCuenta(),
+                        evaluacion.descripcion()
+                    );
+                } catch (Exception e) {
+                    log.warn("No se pudo crear la notificación del retiro bloqueado: {}", e.getMessage());
+                }
+            }
+            throw new RuntimeException("Retiro bloqueado por actividad inusual: " + evaluacion.descripcion());
+        }
+
         // Crear la transacción
         Transaccion transaccion = new Transaccion(
                 Transaccion.TipoTransaccion.RETIRO,
@@ -181,24 +286,41 @@ public class TransaccionService {
         // Guardar la cuenta actualizada
         cuentaRepository.save(cuenta);
 
+        // Registrar el movimiento en la auditoría cuando se confirme
+        Auditoria.movimiento(transaccionGuardada, cuenta);
+
+        Long usuarioId = cuenta.getUsuario() != null ? cuenta.getUsuario().getId() : null;
+
+        // Solo alerta cuando el saldo cruza el umbral hacia abajo (ver AlertasSaldoBajo)
+        boolean alertarSaldoBajo = alertasSaldoBajo.evaluar(cuenta.getId(), usuarioId, cuenta.getSaldo());
+
         // Crear notificación si la cuenta tiene usuario asociado
-        if (cuenta.getUsuario() != null) {
+        if (usuarioId != null) {
             try {
                 notificacionService.crearNotificacionTransaccion(
-                    cuenta.getUsuario().getId(),
+                    usuarioId,
                     "RETIRO",
                     transaccionDTO.getMonto().toString(),
                     cuenta.getNumeroCuenta()
                 );
                 
-                // Crear notificación de saldo bajo si el saldo es menor a 100
-                if (cuenta.getSaldo().compareTo(new BigDecimal("100")) < 0) {
+                if (alertarSaldoBajo) {
                     notificacionService.crearNotificacionSaldoBajo(
-                        cuenta.getUsuario().getId(),
+                        usuarioId,
                         cuenta.getNumeroCuenta(),
                         cuenta.getSaldo().toString()
                     );
                 }
+
+                if (evaluacion.accion() == DetectorAnomalias.Accion.MARCAR) {
+                    notificacionService.crearNotificacionActividadInusual(
+                        usuarioId,
+                        "RETIRO",
+                        transaccionDTO.getMonto().toString(),
+                        cuenta.getNumeroCuenta(),
+                        evaluacion.descripcion()
+                    );
+                }
             } catch (Exception e) {
                 log.warn("No se pudo crear la notificación para el retiro: {}", e.getMessage());
             }
@@ -218,7 +340,7 @@ public class TransaccionService {
     public List<TransaccionDTO> obtenerTodasLasTransacciones() {
         log.info("Obteniendo todas las transacciones");
 
-        List<Transaccion> transacciones = transaccionRepository.findAll();
+        List<Transaccion> transacciones = transaccionRepository.findAllConCuenta();
 
         List<TransaccionDTO> transaccionesDTO = transacciones.stream()
                 .map(TransaccionDTO::new)
@@ -268,7 +390,7 @@ public class TransaccionService {
     public TransaccionDTO obtenerTransaccionPorId(Long id) {
         log.info("Buscando transacción con ID: {}", id);
 
-        Optional<Transaccion> transaccionOptional = transaccionRepository.findById(id);
+        Optional<Transaccion> transaccionOptional = transaccionRepository.findByIdConCuenta(id);
 
         if (transaccionOptional.isEmpty()) {
             log.error("No se encontró la transacción con ID: {}", id);
@@ -281,6 +403,107 @@ public class TransaccionService {
         return new TransaccionDTO(transaccion);
     }
 
+    /**
+     * Obtiene varias transacciones por sus IDs en una sola consulta.
+     * Los IDs que no existen se omiten del resultado.
+     * 
+     * @param ids Los IDs de las transacciones
+     * @return Lista de transacciones encontradas como DTOs, ordenadas por ID
+     * @throws RuntimeException si se solicitan más IDs de los permitidos
+     */
+    @Transactional(readOnly = true)
+    public List<TransaccionDTO> obtenerTransaccionesPorIds(Collection<Long> ids) {
+        log.info("Buscando {} transacciones por ID", ids.size());
+        validarCantidadIds(ids);
+
+        List<TransaccionDTO> transaccionesDTO = transaccionRepository.findByIdInConCuenta(ids).stream()
+                .map(TransaccionDTO::new)
+                .collect(Collectors.toList());
+
+        log.info("Se encontraron {} transacciones", transaccionesDTO.size());
+
+        return transaccionesDTO;
+    }
+
+    /**
+     * Obtiene varias transacciones por sus IDs seleccionando solo algunos campos.
+     * La consulta SQL proyecta únicamente las columnas solicitadas; el join con
+     * cuentas solo se genera si se pide cuentaId o numeroCuenta.
+     * 
+     * @param ids Los IDs de las transacciones
+     * @param campos Los campos de TransaccionDTO a incluir
+     * @return Lista de mapas campo -> valor, ordenados por ID
+     * @throws RuntimeException si se solicitan más IDs de los permitidos o un campo desconocido
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> obtenerTransaccionesPorIds(Collection<Long> ids, Collection<String> campos) {
+        log.info("Buscando {} transacciones por ID con campos: {}", ids.size(), campos);
+        validarCantidadIds(ids);
+
+        Map<String, String> proyeccion = proyeccionRepository.resolverCampos(TransaccionDTO.CAMPOS_PROYECTABLES, campos);
+        List<Map<String, Object>> filas = proyeccionRepository.buscarPorIds("Transaccion", proyeccion, ids);
+
+        // El tipo llega como enum: se expone con el mismo formato que TransaccionDTO
+        for (Map<String, Object> fila : filas) {
+            fila.computeIfPresent("tipo", (campo, valor) -> ((Transaccion.TipoTransaccion) valor).name());
+            fila.computeIfPresent("tipoDescripcion", (campo, valor) -> ((Transaccion.TipoTransaccion) valor).getDescripcion());
+        }
+
+        return filas;
+    }
+
+    /**
+     * Valida que la cantidad de IDs de una consulta múltiple esté dentro del límite.
+     * 
+     * @param ids Los IDs solicitados
+     * @throws RuntimeException si la lista está vacía o supera el máximo permitido
+     */
+    private void validarCantidadIds(Collection<Long> ids) {
+        if (ids.isEmpty() || ids.size() > CuentaService.MAX_IDS_POR_CONSULTA) {
+            log.error("Cantidad de IDs inválida: {}", ids.size());
+            throw new RuntimeException("Se deben indicar entre 1 y " + CuentaService.MAX_IDS_POR_CONSULTA + " IDs");
+        }
+    }
+
+    /**
+     * Valida los criterios de un filtro de transacciones antes de ejecutarlo.
+     * 
+     * @param filtro Los criterios del filtro
+     * @throws RuntimeException si el orden, la dirección, el límite, el cursor o el tipo no son válidos
+     */
+    public void validarFiltro(FiltroTransaccionDTO filtro) {
+        filtroRepository.validar(filtro);
+    }
+
+    /**
+     * Filtra transacciones combinando cualquier conjunto de criterios en una sola consulta.
+     * Las transacciones se entregan una a una al consumidor a medida que se leen,
+     * sin materializar la página completa en memoria.
+     * 
+     * @param filtro Los criterios del filtro
+     * @param consumidor Recibe cada transacción encontrada como DTO
+     * @return El cursor de la página siguiente, o null si no hay más resultados
+     */
+    @Transactional(readOnly = true)
+    public String filtrarTransacciones(FiltroTransaccionDTO filtro, Consumer<TransaccionDTO> consumidor) {
+        log.info("Filtrando transacciones: {}", filtro);
+        filtroRepository.validar(filtro);
+
+        int leidas = 0;
+        Transaccion ultima = null;
+        try (Stream<Transaccion> transacciones = filtroRepository.filtrarTransacciones(filtro)) {
+            for (Transaccion transaccion : (Iterable<Transaccion>) transacciones::iterator) {
+                consumidor.accept(new TransaccionDTO(transaccion));
+                ultima = transaccion;
+                leidas++;
+            }
+        }
+
+        log.info("Filtro de transacciones retornó {} resultados", leidas);
+
+        return leidas == filtro.getLimite() ? FiltroRepository.cursorDe(ultima, filtro.getOrden()) : null;
+    }
+
     /**
      * Obtiene transacciones por tipo.
      * 
@@ -349,7 +572,7 @@ public class TransaccionService {
             throw new RuntimeException("Cuenta no encontrada");
         }
 
-        Object[] estadisticas = transaccionRepository.getEstadisticasTransaccionesByCuentaId(cuentaId);
+        Object[] estadisticas = transaccionRepository.getEstadisticasTransaccionesByCuentaId(cuentaId).get(0);
 
         log.info("Estadísticas obtenidas para cuenta ID {}: depósitos: {}, retiros: {}, total transacciones: {}", 
                 cuentaId, estadisticas[0], estadisticas[1], estadisticas[2]);
@@ -0,0 +1,295 @@
+package com.ahorros.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trazas en proceso: spans de controladores, servicios, repositorios y
+ * sentencias SQL con sus relaciones padre/hijo.
+ *
+ * El span activo se guarda por hilo; un span nuevo es hijo del activo y
+ * pasa a ser el activo hasta terminar. Los spans de controladores y
+ * servicios inician una traza si no hay una en curso; los de repositorios y
+ * SQL solo se registran dentro de una traza. Lo que se ejecuta en otros
+ * hilos (tareas @Async, respuestas en streaming) forma trazas aparte.
+ *
+ * El muestreo se decide al terminar la traza, con todos sus spans en
+ * memoria: se guardan siempre las que tuvieron un error o duraron
+ * trazas.umbral-lenta-ms o más, y de las demás una proporción que se ajusta
+ * cada segundo para exportar unas trazas.muestras-por-segundo. Las trazas
+ * guardadas se escriben en segundo plano con {@link ExportadorTrazas}.
+ */
+@Component
+@Slf4j
+public class Trazador {
+
+    /**
+     * Tipo de span, con su valor en OTLP (SpanKind).
+     */
+    public enum TipoSpan {
+        INTERNO(1),
+        SERVIDOR(2),
+        CLIENTE(3);
+
+        final int codigo;
+
+        TipoSpan(int codigo) {
+            this.codigo = codigo;
+        }
+    }
+
+    /**
+     * Diferencia entre el reloj de pared y System.nanoTime, para convertir los
+     * instantes de los spans a nanosegundos desde la época.
+     */
+    private static final long BASE_EPOCA_NANOS = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+
+    private static final ThreadLocal<Span> ACTUAL = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry registroMetricas;
+
+    @Value("${trazas.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${trazas.umbral-lenta-ms:500}")
+    private long umbralLentaMs;
+
+    @Value("${trazas.muestras-por-segundo:5}")
+    private double muestrasPorSegundo;
+
+    @Value("${trazas.max-spans:500}")
+    private int maxSpans;
+
+    @Value("${trazas.directorio:./data/trazas}")
+    private Path directorio;
+
+    @Value("${trazas.tamano-archivo-mb:10}")
+    private long tamanoArchivoMb;
+
+    @Value("${trazas.archivos:5}")
+    private int archivos;
+
+    @Value("${trazas.cola:1000}")
+    private int capacidadCola;
+
+    @Value("${spring.application.name:cuenta-ahorros}")
+    private String servicio;
+
+    private ExportadorTrazas exportador;
+
+    private Counter exportadas;
+    private Counter descartadas;
+    private Counter perdidas;
+
+    /**
+     * Muestreo adaptativo: trazas terminadas en el segundo actual y
+     * probabilidad vigente de guardar una traza normal.
+     */
+    private final AtomicLong segundoActual = new AtomicLong();
+    private final AtomicLong trazasDelSegundo = new AtomicLong();
+    private volatile double tasaPorSegundo;
+    private volatile double probabilidad = 1.0;
+
+    /**
+     * Una traza en curso: sus spans terminados y si alguno falló. La usa un
+     * solo hilo, así que no necesita sincronización.
+     */
+    static final class Traza {
+
+        final long idAlto;
+        final long idBajo;
+        final List<Span> spans = new ArrayList<>();
+        boolean error;
+        int iniciados;
+
+        private Traza() {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            long alto;
+            long bajo;
+            do {
+                alto = aleatorio.nextLong();
+                bajo = aleatorio.nextLong();
+            } while (alto == 0 && bajo == 0);
+            this.idAlto = alto;
+            this.idBajo = bajo;
+        }
+    }
+
+    /**
+     * Un span. Los atributos se guardan como pares clave, valor.
+     */
+    public static final class Span {
+
+        final Traza traza;
+        final Span padre;
+        final long id;
+        final String nombre;
+        final TipoSpan tipo;
+        final long inicioNanos;
+        final List<Object> atributos = new ArrayList<>(8);
+        long finNanos;
+        String error;
+
+        private Span(Traza traza, Span padre, String nombre, TipoSpan tipo) {
+            this.traza = traza;
+            this.padre = padre;
+            this.nombre = nombre;
+            this.tipo = tipo;
+            long id;
+            do {
+                id = ThreadLocalRandom.current().nextLong();
+            } while (id == 0);
+            this.id = id;
+            this.inicioNanos = System.nanoTime();
+        }
+
+        /**
+         * Agrega un atributo (texto, número o booleano).
+         *
+         * @param clave Nombre del atributo según las convenciones de OpenTelemetry
+         * @param valor Valor; los nulos se ignoran
+         * @return El mismo span
+         */
+        public Span atributo(String clave, Object valor) {
+            if (valor != null) {
+                atributos.add(clave);
+                atributos.add(valor);
+            }
+            return this;
+        }
+
+        long inicioEpocaNanos() {
+            return BASE_EPOCA_NANOS + inicioNanos;
+        }
+
+        long finEpocaNanos() {
+            return BASE_EPOCA_NANOS + finNanos;
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        exportadas = contador("exportada");
+        descartadas = contador("descartada");
+        perdidas = contador("perdida");
+        if (habilitado) {
+            exportador = new ExportadorTrazas(directorio, tamanoArchivoMb * 1024 * 1024, archivos, capacidadCola, servicio);
+            log.info("Trazas habilitadas: {} (umbral lento {} ms, {} muestras/s)", directorio, umbralLentaMs, muestrasPorSegundo);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (exportador != null) {
+            exportador.cerrar();
+        }
+    }
+
+    /**
+     * Inicia un span hijo del span activo del hilo, o la raíz de una traza nueva.
+     *
+     * @param nombre Nombre del span
+     * @param tipo Tipo de span
+     * @param soloDentroDeTraza true si no debe iniciar una traza nueva
+     * @return El span iniciado, o null si no se registra
+     */
+    public Span iniciar(String nombre, TipoSpan tipo, boolean soloDentroDeTraza) {
+        if (!habilitado) {
+            return null;
+        }
+        Span padre = ACTUAL.get();
+        if (padre == null && soloDentroDeTraza) {
+            return null;
+        }
+        Traza traza = padre != null ? padre.traza : new Traza();
+        if (traza.iniciados++ >= maxSpans) {
+            return null;
+        }
+        Span span = new Span(traza, padre, nombre, tipo);
+        ACTUAL.set(span);
+        return span;
+    }
+
+    /**
+     * Termina un span y lo vuelve a dejar como activo a su padre. Si es la
+     * raíz, decide si la traza se exporta.
+     *
+     * @param span Span devuelto por iniciar (puede ser null)
+     * @param error Error con el que terminó la operación, o null
+     */
+    public void terminar(Span span, Throwable error) {
+        if (span == null) {
+            return;
+        }
+        span.finNanos = System.nanoTime();
+        if (error != null) {
+            marcarError(span, error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        }
+        span.traza.spans.add(span);
+        if (span.padre != null) {
+            ACTUAL.set(span.padre);
+            return;
+        }
+        ACTUAL.remove();
+        if (muestrear(span)) {
+            if (exportador.enviar(span.traza)) {
+                exportadas.increment();
+            } else {
+                perdidas.increment();
+            }
+        } else {
+            descartadas.increment();
+        }
+    }
+
+    /**
+     * Marca un span como fallido, aunque la operación no haya lanzado una
+     * excepción (por ejemplo una respuesta HTTP 5xx).
+     *
+     * @param span Span (puede ser null)
+     * @param mensaje Descripción del error
+     */
+    public void marcarError(Span span, String mensaje) {
+        if (span != null) {
+            span.error = mensaje;
+            span.traza.error = true;
+        }
+    }
+
+    private boolean muestrear(Span raiz) {
+        long segundo = raiz.finNanos / 1_000_000_000L;
+        long anterior = segundoActual.get();
+        if (segundo != anterior && segundoActual.compareAndSet(anterior, segundo)) {
+            // Promedio móvil de las trazas por segundo; los segundos sin trazas no se cuentan
+            long terminadas = trazasDelSegundo.getAndSet(0);
+            tasaPorSegundo = tasaPorSegundo == 0 ? terminadas : 0.8 * tasaPorSegundo + 0.2 * terminadas;
+            probabilidad = tasaPorSegundo <= muestrasPorSegundo ? 1.0 : muestrasPorSegundo / tasaPorSegundo;
+        }
+        trazasDelSegundo.incrementAndGet();
+
+        if (raiz.traza.error || raiz.finNanos - raiz.inicioNanos >= umbralLentaMs * 1_000_000) {
+            return true;
+        }
+        return ThreadLocalRandom.current().nextDouble() < probabilidad;
+    }
+
+    private Counter contador(String resultado) {
+        return Counter.builder("ahorros.trazas")
+                .description("Trazas terminadas por resultado del muestreo")
+                .tag("resultado", resultado)
+                .register(registroMetricas);
+    }
+}
@@ -3,6 +3,7 @@ package com.ahorros.services;
 import com.ahorros.dto.UsuarioDTO;
 import com.ahorros.models.Usuario;
 import com.ahorros.repositories.UsuarioRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -12,6 +13,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ahorros.servicios", histogram = true)
 public class UsuarioService {
     
     @Autowired
@@ -0,0 +1,110 @@
+package com.ahorros.services;
+
+/**
+ * Ventana deslizante de conteo y monto sobre un búfer circular de ranuras.
+ *
+ * La ventana se divide en un número fijo de ranuras de igual duración; cada
+ * ranura acumula los retiros de su intervalo y la ventana mantiene el total
+ * de todas. Al avanzar el tiempo las ranuras que salen de la ventana se
+ * restan del total y se vacían, así que registrar y consultar cuestan O(1)
+ * (más las ranuras saltadas, como máximo el tamaño del búfer). La ventana
+ * cubre entre ranuras-1 y ranuras intervalos completos: la precisión es de
+ * una ranura.
+ *
+ * No es segura para varios hilos: quien la usa debe sincronizar el acceso.
+ */
+final class VentanaDeslizante {
+
+    private final long milisPorRanura;
+    private final int[] conteos;
+    private final long[] montos;
+    private long ranuraActual = Long.MIN_VALUE;
+    private int conteoTotal;
+    private long montoTotal;
+
+    /**
+     * @param duracionMs Duración de la ventana en milisegundos
+     * @param ranuras Número de ranuras del búfer
+     */
+    VentanaDeslizante(long duracionMs, int ranuras) {
+        this.milisPorRanura = Math.max(1, duracionMs / ranuras);
+        this.conteos = new int[ranuras];
+        this.montos = new long[ranuras];
+    }
+
+    /**
+     * Mueve la ventana hasta un instante, descartando las ranuras que salieron.
+     * @param instanteMs Instante en milisegundos
+     */
+    void avanzar(long instanteMs) {
+        long ranura = instanteMs / milisPorRanura;
+        if (ranuraActual == Long.MIN_VALUE) {
+            ranuraActual = ranura;
+            return;
+        }
+        if (ranura <= ranuraActual) {
+            return;
+        }
+        long pasos = Math.min(ranura - ranuraActual, conteos.length);
+        for (long paso = 1; paso <= pasos; paso++) {
+            int indice = (int) Math.floorMod(ranuraActual + paso, (long) conteos.length);
+            conteoTotal -= conteos[indice];
+            montoTotal -= montos[indice];
+            conteos[indice] = 0;
+            montos[indice] = 0;
+        }
+        ranuraActual = ranura;
+    }
+
+    /**
+     * Suma un retiro. Si su instante ya salió de la ventana se ignora.
+     * @param instanteMs Instante del retiro en milisegundos
+     * @param monto Monto en centavos
+     */
+    void registrar(long instanteMs, long monto) {
+        sumar(instanteMs, 1, monto);
+    }
+
+    /**
+     * Resta un retiro registrado antes (por ejemplo, si su transacción se revirtió).
+     * @param instanteMs Instante con el que se registró
+     * @param monto Monto en centavos
+     */
+    void revertir(long instanteMs, long monto) {
+        sumar(instanteMs, -1, -monto);
+    }
+
+    /**
+     * @return Número de retiros en la ventana
+     */
+    int conteo() {
+        return conteoTotal;
+    }
+
+    /**
+     * @return Monto total en la ventana, en centavos
+     */
+    long monto() {
+        return montoTotal;
+    }
+
+    /**
+     * @return true si no hay retiros en la ventana
+     */
+    boolean vacia() {
+        return conteoTotal == 0 && montoTotal == 0;
+    }
+
+    private void sumar(long instanteMs, int conteo, long monto) {
+        long ranura = instanteMs / milisPorRanura;
+        avanzar(instanteMs);
+        if (ranura <= ranuraActual - conteos.length) {
+            return;
+        }
+        int indice = (int) Math.floorMod(ranura, (long) conteos.length);
+        conteos[indice] += conteo;
+        montos[indice] += monto;
+        conteoTotal += conteo;
+        montoTotal += monto;
+    }
+}
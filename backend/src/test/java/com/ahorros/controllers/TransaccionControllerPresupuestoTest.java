@@ -0,0 +1,97 @@
+package com.ahorros.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba los @PresupuestoSql de TransaccionController contra las
+ * sentencias que realmente ejecuta cada endpoint.
+ *
+ * Con consultas.presupuesto.modo=FALLAR la sentencia que supera el
+ * presupuesto lanza una excepción, así que un N+1 o una consulta de más hace
+ * fallar la solicitud y la prueba. La cuenta pertenece a un usuario y el
+ * retiro cruza el umbral de saldo bajo, para recorrer el camino más costoso
+ * (notificación de la transacción y alerta).
+ */
+@SpringBootTest(properties = {
+        "consultas.presupuesto.modo=FALLAR",
+        "jfr.continuo=false",
+        "notificaciones.saldo-bajo.umbral=100"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class TransaccionControllerPresupuestoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long cuentaId;
+
+    @BeforeEach
+    void crearCuenta() throws Exception {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        long usuarioId = leer(mockMvc.perform(post("/api/usuarios/registro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"presupuesto-" + sufijo + "@ahorros.com\",\"nombre\":\"Presupuesto\",\"password\":\"secreta\"}"))
+                .andExpect(status().isOk())
+                .andReturn()).get("id").asLong();
+        cuentaId = leer(mockMvc.perform(post("/cuentas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"numeroCuenta\":\"P" + sufijo + "\",\"titular\":\"Presupuesto\",\"saldo\":150,\"usuarioId\":" + usuarioId + "}"))
+                .andExpect(status().isCreated())
+                .andReturn()).get("id").asLong();
+    }
+
+    @Test
+    void losEndpointsRespetanSuPresupuesto() throws Exception {
+        long depositoId = leer(mockMvc.perform(post("/transacciones/deposito")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cuentaId\":" + cuentaId + ",\"monto\":10}"))
+                .andExpect(status().isCreated())
+                .andReturn()).get("id").asLong();
+        long retiroId = leer(mockMvc.perform(post("/transacciones/retiro")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cuentaId\":" + cuentaId + ",\"monto\":100}"))
+                .andExpect(status().isCreated())
+                .andReturn()).get("id").asLong();
+
+        consultar("/transacciones");
+        mockMvc.perform(get("/transacciones").param("ids", depositoId + "," + retiroId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/transacciones").param("ids", depositoId + "," + retiroId).param("fields", "id,monto"))
+                .andExpect(status().isOk());
+        consultar("/transacciones/cuenta/" + cuentaId);
+        consultar("/transacciones/" + depositoId);
+        consultar("/transacciones/tipo/DEPOSITO");
+        consultar("/transacciones/cuenta/" + cuentaId + "/tipo/RETIRO");
+        consultar("/transacciones/estadisticas/cuenta/" + cuentaId);
+        consultar("/transacciones/depositos/cuenta/" + cuentaId);
+        consultar("/transacciones/retiros/cuenta/" + cuentaId);
+        consultar("/transacciones/recientes");
+        consultar("/transacciones/estadisticas/globales");
+    }
+
+    private void consultar(String ruta) throws Exception {
+        mockMvc.perform(get(ruta)).andExpect(status().isOk());
+    }
+
+    private JsonNode leer(MvcResult resultado) throws Exception {
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+}
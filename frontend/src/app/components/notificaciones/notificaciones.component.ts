@@ -1,7 +1,7 @@
 import { Component, OnInit, OnDestroy } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { Router } from '@angular/router';
-import { Subject, takeUntil, interval } from 'rxjs';
+import { Subject, takeUntil } from 'rxjs';
 import { Notificacion } from '../../models/notificacion.model';
 import { Usuario } from '../../models/usuario.model';
 import { NotificacionService } from '../../services/notificacion.service';
@@ -18,6 +18,7 @@ export class NotificacionesComponent implements OnInit, OnDestroy {
   notificaciones: Notificacion[] = [];
   usuario: Usuario | null = null;
   isLoading: boolean = false;
+  siguienteCursor?: number;
   errorMessage: string = '';
   private destroy$ = new Subject<void>();
 
@@ -37,11 +38,11 @@ export class NotificacionesComponent implements OnInit, OnDestroy {
 
     this.cargarNotificaciones();
     
-    // Actualizar notificaciones cada 30 segundos
-    interval(30000)
+    // Recibir las notificaciones nuevas en cuanto se crean
+    this.notificacionService.suscribir(this.usuario.id)
       .pipe(takeUntil(this.destroy$))
-      .subscribe(() => {
-        this.cargarNotificaciones();
+      .subscribe(notificacion => {
+        this.agregarNotificacion(notificacion);
       });
   }
 
@@ -56,9 +57,10 @@ export class NotificacionesComponent implements OnInit, OnDestroy {
     this.isLoading = true;
     this.errorMessage = '';
 
-    this.notificacionService.obtenerPorUsuario(this.usuario.id).subscribe({
-      next: (notificaciones) => {
-        this.notificaciones = notificaciones;
+    this.notificacionService.obtenerBandeja(this.usuario.id).subscribe({
+      next: (pagina) => {
+        this.notificaciones = pagina.contenido;
+        this.siguienteCursor = pagina.siguienteCursor;
         this.isLoading = false;
       },
       error: (error) => {
@@ -69,6 +71,30 @@ export class NotificacionesComponent implements OnInit, OnDestroy {
     });
   }
 
+  cargarMas(): void {
+    if (!this.usuario || !this.siguienteCursor) return;
+
+    this.notificacionService.obtenerBandeja(this.usuario.id, this.siguienteCursor).subscribe({
+      next: (pagina) => {
+        this.notificaciones = [...this.notificaciones, ...pagina.contenido];
+        this.siguienteCursor = pagina.siguienteCursor;
+      },
+      error: (error) => {
+        console.error('Error al cargar más notificaciones:', error);
+      }
+    });
+  }
+
+  agregarNotificacion(notificacion: Notificacion): void {
+    if (this.notificaciones.some(n => n.id === notificacion.id)) return;
+
+    this.notificaciones = [notificacion, ...this.notificaciones];
+    if (!notificacion.leida) {
+      const currentCount = this.notificacionService.getNotificacionesNoLeidasCount();
+      this.notificacionService.actualizarContadorNoLeidas(currentCount + 1);
+    }
+  }
+
   marcarComoLeida(notificacion: Notificacion): void {
     if (notificacion.leida) return;
 
@@ -28,4 +28,9 @@ export interface NotificacionSaldoBajoRequest {
 
 export interface NotificacionCountResponse {
   count: number;
-} 
\ No newline at end of file
+}
+
+export interface PaginaNotificaciones {
+  contenido: Notificacion[];
+  siguienteCursor?: number;
+}
@@ -1,7 +1,7 @@
-import { Injectable } from '@angular/core';
+import { Injectable, NgZone } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable, BehaviorSubject } from 'rxjs';
-import { Notificacion, NotificacionCreateRequest, NotificacionCountResponse } from '../models/notificacion.model';
+import { Notificacion, NotificacionCreateRequest, NotificacionCountResponse, PaginaNotificaciones } from '../models/notificacion.model';
 import { tap } from 'rxjs/operators';
 
 @Injectable({
@@ -12,7 +12,23 @@ export class NotificacionService {
   private notificacionesNoLeidasSubject = new BehaviorSubject<number>(0);
   public notificacionesNoLeidas$ = this.notificacionesNoLeidasSubject.asObservable();
 
-  constructor(private http: HttpClient) {}
+  constructor(private http: HttpClient, private zone: NgZone) {}
+
+  /**
+   * Recibe en tiempo real las notificaciones nuevas de un usuario (Server-Sent Events).
+   * El navegador se reconecta solo y envía Last-Event-ID para recuperar las que se perdieron.
+   */
+  suscribir(usuarioId: number): Observable<Notificacion> {
+    return new Observable<Notificacion>(observer => {
+      const eventSource = new EventSource(`${this.apiUrl}/usuario/${usuarioId}/stream`);
+
+      eventSource.addEventListener('notificacion', (event: MessageEvent) => {
+        this.zone.run(() => observer.next(JSON.parse(event.data)));
+      });
+
+      return () => eventSource.close();
+    });
+  }
 
   /**
    * Obtiene todas las notificaciones de un usuario
@@ -21,6 +37,17 @@ export class NotificacionService {
     return this.http.get<Notificacion[]>(`${this.apiUrl}/usuario/${usuarioId}`);
   }
 
+  /**
+   * Obtiene una página de la bandeja de un usuario; cursor es el siguienteCursor de la página anterior
+   */
+  obtenerBandeja(usuarioId: number, cursor?: number, limite: number = 20): Observable<PaginaNotificaciones> {
+    const params: any = { limite };
+    if (cursor) {
+      params.cursor = cursor;
+    }
+    return this.http.get<PaginaNotificaciones>(`${this.apiUrl}/usuario/${usuarioId}/bandeja`, { params });
+  }
+
   /**
    * Obtiene las notificaciones no leídas de un usuario
    */
@@ -61,6 +88,13 @@ export class NotificacionService {
     return this.http.put(`${this.apiUrl}/${id}/leer`, {});
   }
 
+  /**
+   * Marca varias notificaciones como leídas en una sola petición
+   */
+  marcarVariasComoLeidas(ids: number[]): Observable<{ actualizadas: number }> {
+    return this.http.put<{ actualizadas: number }>(`${this.apiUrl}/leer`, ids);
+  }
+
   /**
    * Marca todas las notificaciones de un usuario como leídas
    */